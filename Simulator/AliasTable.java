@@ -0,0 +1,124 @@
+package Simulator;
+
+import java.util.Random;
+
+/**
+ * This class samples an index from a discrete distribution of non-negative weights in constant time, using Vose's alias method.
+ * Every column of the table holds the probability of keeping its own index and the index it aliases to otherwise,
+ * so a sample costs one uniform column pick and one coin flip no matter how many indexes there are.
+ * The table is immutable after it is built, so simulations running at the same time can share it.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class AliasTable
+{
+	/**
+	 * The probability that each column keeps its own index
+	 */
+	private double[] probability;
+	
+	/**
+	 * The index that each column returns when it doesn't keep its own
+	 */
+	private int[] alias;
+	
+	/**
+	 * Builds the alias table of the given weights (the weights don't have to sum to anything in particular)
+	 * @param weights: the relative weight of each index
+	 * @throws IllegalArgumentException if there are no weights, a weight is negative or not a number, or all weights are zero
+	 */
+	public AliasTable( double[] weights ) throws IllegalArgumentException
+	{
+		int n = weights.length;
+		double total = 0;
+		
+		for ( double weight : weights )
+		{
+			if ( !( weight >= 0 ) || Double.isInfinite( weight ) )
+			{
+				throw new IllegalArgumentException( "Expected a finite, non-negative weight, got " + weight );
+			}
+			total += weight;
+		}
+		if ( n == 0 || total == 0 )
+		{
+			throw new IllegalArgumentException( "Expected at least one positive weight." );
+		}
+		
+		probability = 	new double[ n ];
+		alias = 		new int[ n ];
+		
+		// scale the weights so the average column holds exactly 1, and split the columns into under- and overfull ones
+		double[] scaled = 	new double[ n ];
+		int[] small = 		new int[ n ];
+		int[] large = 		new int[ n ];
+		int smallCount = 	0;
+		int largeCount = 	0;
+		
+		for ( int i = 0; i < n; i++ )
+		{
+			scaled[i] = weights[i] * n / total;
+			if ( scaled[i] < 1 )
+			{
+				small[ smallCount++ ] = i;
+			}
+			else
+			{
+				large[ largeCount++ ] = i;
+			}
+		}
+		
+		// fill every underfull column up with part of an overfull one
+		while ( smallCount > 0 && largeCount > 0 )
+		{
+			int less = 	small[ --smallCount ];
+			int more = 	large[ --largeCount ];
+			
+			probability[ less ] = 	scaled[ less ];
+			alias[ less ] = 		more;
+			
+			scaled[ more ] = ( scaled[ more ] + scaled[ less ] ) - 1;
+			if ( scaled[ more ] < 1 )
+			{
+				small[ smallCount++ ] = more;
+			}
+			else
+			{
+				large[ largeCount++ ] = more;
+			}
+		}
+		
+		// whatever is left is full up to rounding error
+		while ( largeCount > 0 )
+		{
+			int more = large[ --largeCount ];
+			probability[ more ] = 	1;
+			alias[ more ] = 		more;
+		}
+		while ( smallCount > 0 )
+		{
+			int less = small[ --smallCount ];
+			probability[ less ] = 	1;
+			alias[ less ] = 		less;
+		}
+	}
+	
+	/**
+	 * Returns the number of indexes in the table
+	 * @return the number of weights the table was built from
+	 */
+	public int size() { return probability.length; }
+	
+	/**
+	 * Samples an index according to the weights
+	 * @param random: the random number generator to sample with
+	 * @return an index between 0 and size() - 1
+	 */
+	public int sample( Random random )
+	{
+		int column = random.nextInt( probability.length );
+		return random.nextDouble() < probability[ column ] ? column : alias[ column ];
+	}
+}
@@ -0,0 +1,53 @@
+package Simulator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class AliasTableTest {
+
+	@Test
+	public void testDistribution()
+	{
+		AliasTable t = new AliasTable(new double[] {0.5, 0, 2.5, 1});
+		assertEquals(t.size(),4);
+		
+		Random random = new Random(1);
+		int[] counts = new int[4];
+		for (int i = 0; i < 400000; i++)
+		{
+			counts[t.sample(random)]++;
+		}
+		
+		// weights 0.5 : 0 : 2.5 : 1 out of 4
+		assertEquals(counts[0]/400000.0,0.125,0.005);
+		assertEquals(counts[1],0);
+		assertEquals(counts[2]/400000.0,0.625,0.005);
+		assertEquals(counts[3]/400000.0,0.25,0.005);
+	}
+	
+	@Test
+	public void testSingleWeight()
+	{
+		AliasTable t = new AliasTable(new double[] {0, 0, 7});
+		Random random = new Random(2);
+		for (int i = 0; i < 1000; i++)
+		{
+			assertEquals(t.sample(random),2);
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeWeight()
+	{
+		new AliasTable(new double[] {1, -1});
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testAllZero()
+	{
+		new AliasTable(new double[] {0, 0});
+	}
+}
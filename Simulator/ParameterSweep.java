@@ -0,0 +1,357 @@
+package Simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import building.SimulationContext;
+import building.TripHistograms;
+import building.TripStatistics;
+
+import elevatorController.DispatchCosts;
+import elevatorController.EController;
+
+import simulationEngine.RunningStatistic;
+
+/**
+ * This class sizes a building by running the input file's scenario for every combination of elevator count, capacity, time per floor,
+ * door time and arrival rate in the given ranges. The grid points run in parallel on a fork-join pool with one worker per core,
+ * each on the discrete-event engine with its own SimulationContext, and the results are output as one table.
+ * Parameters without a range keep the value from the input file.
+ *
+ * Usage: ParameterSweep inputFile [name=range]...
+ * where name is elevators, capacity, timePerFloor, doorTime, peoplePerMin, replications, algorithm, costs, window, optimizer, reassign, parking, zoning or seed,
+ * and range is a single value, a comma separated list of values, or from:to:step.
+ * The costs are the wait,ride,energy weights of the ETA algorithm (algorithm=2), given as one comma separated value.
+ * The window is how long (in milliseconds) the batch algorithm (algorithm=4) collects hall calls before assigning them together.
+ * The optimizer is how often (in milliseconds) the group optimizer searches for a better assignment of the hall calls (0 turns it off).
+ * The reassign margin is how much sooner (in milliseconds) another elevator has to reach a hall call before the call is moved to it (0 turns it off).
+ * The parking horizon is the forecast horizon (in milliseconds) to park the idle elevators where the next calls are forecast with
+ * (0 returns them to their default floor, and the input file's parking option is used if it isn't given).
+ * Zoning is 1 to zone the elevators by floor bands while the traffic is up-peak, or 0 not to (the input file's zoning option is used if it isn't given).
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class ParameterSweep
+{
+	/**
+	 * Reads the input file and the ranges, runs every grid point and outputs the table
+	 * @param args: the input file, followed by any number of name=range arguments
+	 */
+	public static void main( String args[] )
+	{
+		// grid points always run in virtual time
+		Simulator.setEventDriven( true );
+		Simulator.readSimInput( args[0] );
+		
+		int[] elevators = 		{ Simulator.getNumOfElevators() };
+		int[] capacities = 		{ Simulator.getMaxCapacity() };
+		int[] floorTimes = 		{ Simulator.getTimePerFloor() };
+		int[] doorTimes = 		{ Simulator.getDoorTime() };
+		int[] arrivalRates = 	{ Simulator.getPeoplePerMin() };
+		int replications = 		1;
+		int algorithm = 		0;
+		DispatchCosts costs = 	DispatchCosts.DEFAULT;
+		long batchWindow = 		EController.DEFAULT_BATCH_WINDOW;
+		long optimizerPeriod = 	0;
+		long reassignMargin = 	0;
+		long parkingHorizon = 	Simulator.getParkingHorizon();
+		boolean zoning = 		Simulator.isZoning();
+		long seed = 			System.nanoTime();
+		
+		for ( int i = 1; i < args.length; i++ )
+		{
+			int split = args[i].indexOf( '=' );
+			if ( split < 0 )
+			{
+				throw new IllegalArgumentException( "Expected name=range, got " + args[i] );
+			}
+			
+			String name = 	args[i].substring( 0, split );
+			String range = 	args[i].substring( split + 1 );
+			
+			if ( name.equalsIgnoreCase( "elevators" ) )
+			{
+				elevators = parseRange( range, 1 );
+			}
+			else if ( name.equalsIgnoreCase( "capacity" ) )
+			{
+				capacities = parseRange( range, 1 );
+			}
+			else if ( name.equalsIgnoreCase( "timePerFloor" ) )
+			{
+				floorTimes = parseRange( range, 1 );
+			}
+			else if ( name.equalsIgnoreCase( "doorTime" ) )
+			{
+				doorTimes = parseRange( range, 1 );
+			}
+			else if ( name.equalsIgnoreCase( "peoplePerMin" ) )
+			{
+				arrivalRates = parseRange( range, 1 );
+			}
+			else if ( name.equalsIgnoreCase( "replications" ) )
+			{
+				replications = Integer.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "algorithm" ) )
+			{
+				algorithm = Integer.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "costs" ) )
+			{
+				costs = DispatchCosts.parse( range );
+			}
+			else if ( name.equalsIgnoreCase( "window" ) )
+			{
+				batchWindow = Long.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "optimizer" ) )
+			{
+				optimizerPeriod = Long.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "reassign" ) )
+			{
+				reassignMargin = Long.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "parking" ) )
+			{
+				parkingHorizon = Long.decode( range );
+			}
+			else if ( name.equalsIgnoreCase( "zoning" ) )
+			{
+				zoning = Integer.decode( range ) != 0;
+			}
+			else if ( name.equalsIgnoreCase( "seed" ) )
+			{
+				seed = Long.decode( range );
+			}
+			else
+			{
+				throw new IllegalArgumentException( "Unknown sweep parameter " + name );
+			}
+		}
+		
+		ForkJoinPool pool = new ForkJoinPool();
+		
+		try
+		{
+			List<SweepResult> results = runSweep( pool, elevators, capacities, floorTimes, doorTimes, arrivalRates, replications, algorithm, costs, batchWindow, optimizerPeriod, reassignMargin, parkingHorizon, zoning, seed );
+			generateReport( results );
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Parses a range of parameter values
+	 * @param range: a single value, a comma separated list of values, or from:to:step (to is included if the steps reach it)
+	 * @param minimum: the smallest value the parameter may have
+	 * @return the values of the range, in order
+	 * @throws IllegalArgumentException if the range is malformed or a value is too small or doesn't fit in a short
+	 */
+	static int[] parseRange( String range, int minimum ) throws IllegalArgumentException
+	{
+		int[] values;
+		String[] bounds = range.split( ":" );
+		
+		if ( bounds.length == 3 )
+		{
+			int from = 	Integer.decode( bounds[0].trim() );
+			int to = 	Integer.decode( bounds[1].trim() );
+			int step = 	Integer.decode( bounds[2].trim() );
+			if ( step <= 0 || to < from )
+			{
+				throw new IllegalArgumentException( "Expected from:to:step with from <= to and a positive step, got " + range );
+			}
+			
+			values = new int[ ( to - from ) / step + 1 ];
+			for ( int i = 0; i < values.length; i++ )
+			{
+				values[i] = from + i * step;
+			}
+		}
+		else if ( bounds.length == 1 )
+		{
+			String[] list = range.split( "," );
+			values = new int[ list.length ];
+			for ( int i = 0; i < list.length; i++ )
+			{
+				values[i] = Integer.decode( list[i].trim() );
+			}
+		}
+		else
+		{
+			throw new IllegalArgumentException( "Expected a value, a list of values or from:to:step, got " + range );
+		}
+		
+		for ( int value : values )
+		{
+			if ( value < minimum || value > Short.MAX_VALUE )
+			{
+				throw new IllegalArgumentException( "Sweep value out of bounds, expected " + minimum + "-" + Short.MAX_VALUE + ", got " + value );
+			}
+		}
+		
+		return values;
+	}
+	
+	/**
+	 * Runs every point of the cartesian grid of the given values in parallel and waits for all of them to finish.
+	 * Every point runs the same replication seeds, so the points are compared on the same arrivals wherever the arrival rate allows.
+	 * @param pool: the pool that runs the grid points
+	 * @param elevators: the numbers of elevators to try
+	 * @param capacities: the elevator capacities to try
+	 * @param floorTimes: the times per floor (in milliseconds) to try
+	 * @param doorTimes: the door times (in milliseconds) to try
+	 * @param arrivalRates: the numbers of persons generated per minute to try
+	 * @param replications: the number of replications each grid point merges its statistics from
+	 * @param algorithm: 0 for the initial algorithm implementations, 1 for the second ones, 2 for the ETA ones, 3 for destination dispatch, 4 for batch assignment
+	 * @param costs: the cost weights of the ETA algorithm
+	 * @param batchWindow: how long (in milliseconds) the batch algorithm collects hall calls
+	 * @param optimizerPeriod: how often (in milliseconds) the group optimizer searches, or 0 if it doesn't run
+	 * @param reassignMargin: how much sooner (in milliseconds) another elevator has to reach a hall call to take it over, or 0 if calls aren't moved
+	 * @param parkingHorizon: the forecast horizon (in milliseconds) to park the idle elevators with, or 0 if they park on their default floor
+	 * @param zoning: whether the elevators are zoned while the traffic is up-peak
+	 * @param seed: the seed that every replication's random number generator is derived from
+	 * @return the result of every grid point, in grid order (arrival rate changing fastest, elevator count slowest)
+	 */
+	public static List<SweepResult> runSweep( ForkJoinPool pool, int[] elevators, int[] capacities, int[] floorTimes, int[] doorTimes, int[] arrivalRates,
+											  int replications, final int algorithm, final DispatchCosts costs, final long batchWindow, final long optimizerPeriod,
+											  final long reassignMargin, final long parkingHorizon, final boolean zoning, long seed )
+	{
+		// derive a seed for every replication, so a sweep can be repeated exactly
+		Random seeds = new Random( seed );
+		final long[] replicationSeeds = new long[ replications ];
+		for ( int i = 0; i < replications; i++ )
+		{
+			replicationSeeds[i] = seeds.nextLong();
+		}
+		
+		List<Callable<SweepResult>> tasks = new ArrayList<Callable<SweepResult>>();
+		
+		for ( final int numOfElevators : elevators )
+		{
+			for ( final int capacity : capacities )
+			{
+				for ( final int timePerFloor : floorTimes )
+				{
+					for ( final int doorTime : doorTimes )
+					{
+						for ( final int peoplePerMin : arrivalRates )
+						{
+							tasks.add( new Callable<SweepResult>()
+							{
+								@Override
+								public SweepResult call()
+								{
+									return runPoint( ( short ) numOfElevators, ( short ) capacity, ( short ) timePerFloor, ( short ) doorTime,
+													 peoplePerMin, algorithm, costs, batchWindow, optimizerPeriod, reassignMargin, parkingHorizon, zoning, replicationSeeds );
+								}
+							} );
+						}
+					}
+				}
+			}
+		}
+		
+		List<SweepResult> results = new ArrayList<SweepResult>( tasks.size() );
+		
+		for ( Future<SweepResult> future : pool.invokeAll( tasks ) )
+		{
+			try
+			{
+				results.add( future.get() );
+			}
+			catch ( InterruptedException e )
+			{
+				Thread.currentThread().interrupt();
+				throw new RuntimeException( "Interrupted while waiting for the sweep.", e );
+			}
+			catch ( ExecutionException e )
+			{
+				throw new RuntimeException( "A grid point failed.", e.getCause() );
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Runs the replications of one grid point on the current thread, each with its own building, controller and people
+	 * @param elevators: the number of elevators in the building
+	 * @param capacity: the maximum number of people in each elevator
+	 * @param timePerFloor: the time (in milliseconds) it takes an elevator to get from one floor to the next
+	 * @param doorTime: the time (in milliseconds) it takes to open the doors, exchange people, and close the doors
+	 * @param peoplePerMin: the number of persons generated per minute
+	 * @param algorithm: 0 for the initial algorithm implementations, 1 for the second ones, 2 for the ETA ones, 3 for destination dispatch, 4 for batch assignment
+	 * @param costs: the cost weights of the ETA algorithm
+	 * @param batchWindow: how long (in milliseconds) the batch algorithm collects hall calls
+	 * @param optimizerPeriod: how often (in milliseconds) the group optimizer searches, or 0 if it doesn't run
+	 * @param reassignMargin: how much sooner (in milliseconds) another elevator has to reach a hall call to take it over, or 0 if calls aren't moved
+	 * @param parkingHorizon: the forecast horizon (in milliseconds) to park the idle elevators with, or 0 if they park on their default floor
+	 * @param zoning: whether the elevators are zoned while the traffic is up-peak
+	 * @param replicationSeeds: the seed of every replication's random number generator
+	 * @return the summary of the grid point
+	 */
+	private static SweepResult runPoint( short elevators, short capacity, short timePerFloor, short doorTime, int peoplePerMin,
+										 int algorithm, DispatchCosts costs, long batchWindow, long optimizerPeriod, long reassignMargin, long parkingHorizon, boolean zoning,
+										 long[] replicationSeeds )
+	{
+		RunningStatistic waitTimes = 	new RunningStatistic();
+		RunningStatistic rideTimes = 	new RunningStatistic();
+		TripHistograms histograms = 	new TripHistograms();
+		
+		for ( long replicationSeed : replicationSeeds )
+		{
+			SimulationContext context = Simulator.createContext( elevators, capacity, timePerFloor, doorTime, algorithm );
+			context.getEController().setDispatchCosts( costs );
+			context.getEController().setBatchWindow( batchWindow );
+			context.getEController().setOptimizerPeriod( optimizerPeriod );
+			context.getEController().setReassignMargin( reassignMargin );
+			if ( parkingHorizon > 0 )
+			{
+				context.getEController().setForecastHorizon( parkingHorizon );
+			}
+			context.getEController().setPredictiveParking( parkingHorizon > 0 );
+			context.getEController().setZoningEnabled( zoning );
+			Simulator.runEventDrivenSimulation( context, peoplePerMin, new Random( replicationSeed ), false );
+			
+			TripStatistics tripStats = context.getPersonFacade().getTripStatistics();
+			waitTimes.merge( tripStats.getWaitTimes() );
+			rideTimes.merge( tripStats.getRideTimes() );
+			histograms.merge( tripStats.getHistograms() );
+		}
+		
+		return new SweepResult( elevators, capacity, timePerFloor, doorTime, peoplePerMin, waitTimes, rideTimes, histograms );
+	}
+	
+	/**
+	 * Outputs one row per grid point with its parameters, the number of people served,
+	 * and the average, median, 95th and 99th percentile wait and ride times
+	 * @param results: the result of every grid point
+	 */
+	public static void generateReport( List<SweepResult> results )
+	{
+		System.out.println( String.format(	"%9s %8s %10s %9s %10s %8s	%9s %8s %8s %8s	%9s %8s %8s %8s",
+											"Elevators", "Capacity", "Floor (ms)", "Door (ms)", "People/Min", "Served",
+											"Avg Wait", "P50 Wait", "P95 Wait", "P99 Wait", "Avg Ride", "P50 Ride", "P95 Ride", "P99 Ride" ) );
+		
+		for ( SweepResult result : results )
+		{
+			System.out.println( String.format(	"%9d %8d %10d %9d %10d %8d	%9.2f %8.1f %8.1f %8.1f	%9.2f %8.1f %8.1f %8.1f",
+												result.getElevators(), result.getCapacity(), result.getTimePerFloor(), result.getDoorTime(),
+												result.getPeoplePerMin(), result.getPeople(),
+												result.getAverageWait(), result.getWaitPercentile( 50 ), result.getWaitPercentile( 95 ), result.getWaitPercentile( 99 ),
+												result.getAverageRide(), result.getRidePercentile( 50 ), result.getRidePercentile( 95 ), result.getRidePercentile( 99 ) ) );
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package Simulator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ParameterSweepTest {
+
+	@Test
+	public void testSingleValue()
+	{
+		int[] values = ParameterSweep.parseRange("4", 1);
+		assertEquals(values.length,1);
+		assertEquals(values[0],4);
+	}
+	
+	@Test
+	public void testList()
+	{
+		int[] values = ParameterSweep.parseRange("8, 12,16", 1);
+		assertEquals(values.length,3);
+		assertEquals(values[0],8);
+		assertEquals(values[1],12);
+		assertEquals(values[2],16);
+	}
+	
+	@Test
+	public void testSteps()
+	{
+		int[] values = ParameterSweep.parseRange("500:1600:500", 1);
+		assertEquals(values.length,3);
+		assertEquals(values[0],500);
+		assertEquals(values[2],1500);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBackwardsRange()
+	{
+		ParameterSweep.parseRange("8:2:2", 1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBelowMinimum()
+	{
+		ParameterSweep.parseRange("0,1,2", 1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooLarge()
+	{
+		ParameterSweep.parseRange("40000", 1);
+	}
+}
@@ -0,0 +1,120 @@
+package Simulator;
+
+import building.TripHistograms;
+import building.TripStatistics;
+
+import simulationEngine.RunningStatistic;
+
+/**
+ * This class holds the summary of one replication of a simulation: how many people completed their trips,
+ * and their wait and ride times (overall and per start floor), including the histograms that percentiles over all replications are merged from.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class ReplicationResult
+{
+	/**
+	 * The number of people who completed their trip
+	 */
+	private int people;
+	
+	/**
+	 * The average wait time (in seconds) of the people who completed their trip
+	 */
+	private double averageWait;
+	
+	/**
+	 * The longest wait time (in seconds) of the people who completed their trip
+	 */
+	private int maxWait;
+	
+	/**
+	 * The average ride time (in seconds) of the people who completed their trip
+	 */
+	private double averageRide;
+	
+	/**
+	 * The total wait time (in seconds) per start floor (summed so that floors can be merged across replications)
+	 */
+	private long[] floorWaitTotals;
+	
+	/**
+	 * The number of people who completed their trip per start floor
+	 */
+	private int[] floorPeople;
+	
+	/**
+	 * The wait, ride and journey time histograms of the people who completed their trip
+	 */
+	private TripHistograms histograms;
+	
+	/**
+	 * Summarizes one replication from the statistics gathered as its people completed their trips
+	 * @param tripStats: the trip statistics of the replication
+	 */
+	public ReplicationResult( TripStatistics tripStats )
+	{
+		int numOfFloors = tripStats.getNumberOfFloors();
+		
+		floorWaitTotals = 	new long[ numOfFloors ];
+		floorPeople = 		new int[ numOfFloors ];
+		people = 			( int ) tripStats.getWaitTimes().getCount();
+		maxWait = 			( int ) tripStats.getWaitTimes().getMax();
+		averageWait = 		tripStats.getWaitTimes().getMean();
+		averageRide = 		tripStats.getRideTimes().getMean();
+		histograms = 		tripStats.getHistograms();
+		
+		for ( int floor = 0; floor < numOfFloors; floor++ )
+		{
+			RunningStatistic waits = tripStats.getWaitTimes( floor );
+			floorWaitTotals[ floor ] = 	Math.round( waits.getTotal() );
+			floorPeople[ floor ] = 		( int ) waits.getCount();
+		}
+	}
+	
+	/**
+	 * Returns the number of people who completed their trip
+	 * @return the number of people
+	 */
+	public int getPeople() { return people; }
+	
+	/**
+	 * Returns the average wait time of the replication
+	 * @return the average wait time in seconds
+	 */
+	public double getAverageWait() { return averageWait; }
+	
+	/**
+	 * Returns the longest wait time of the replication
+	 * @return the longest wait time in seconds
+	 */
+	public int getMaxWait() { return maxWait; }
+	
+	/**
+	 * Returns the average ride time of the replication
+	 * @return the average ride time in seconds
+	 */
+	public double getAverageRide() { return averageRide; }
+	
+	/**
+	 * Returns the total wait time of the people who started on a floor
+	 * @param floor: the start floor
+	 * @return the total wait time in seconds
+	 */
+	public long getFloorWaitTotal( int floor ) { return floorWaitTotals[ floor ]; }
+	
+	/**
+	 * Returns the number of people who started on a floor and completed their trip
+	 * @param floor: the start floor
+	 * @return the number of people
+	 */
+	public int getFloorPeople( int floor ) { return floorPeople[ floor ]; }
+	
+	/**
+	 * Returns the histograms of the replication
+	 * @return the wait, ride and journey time histograms (in milliseconds)
+	 */
+	public TripHistograms getHistograms() { return histograms; }
+}
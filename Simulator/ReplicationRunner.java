@@ -0,0 +1,195 @@
+package Simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import building.SimulationContext;
+import building.TripHistograms;
+
+/**
+ * This class runs many independent replications of the input file's scenario at once, on a fork-join pool with one worker per core.
+ * Every replication runs on the discrete-event engine with its own SimulationContext (building, controller and people)
+ * and its own random number generator, and the results of all replications are merged into one report with 95% confidence intervals.
+ * Like Simulator, it runs the initial algorithm implementations first and the second algorithm implementations after.
+ * 
+ * Usage: ReplicationRunner inputFile [numberOfReplications] [seed]
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class ReplicationRunner
+{
+	/**
+	 * Reads the input file and runs the replications of both algorithm implementations
+	 * @param args: the input file, optionally followed by the number of replications (default: one per core) and the random seed
+	 */
+	public static void main( String args[] )
+	{
+		int replications = 	args.length > 1 ? Integer.decode( args[1] ) : Runtime.getRuntime().availableProcessors();
+		long seed = 		args.length > 2 ? Long.decode( args[2] ) : System.nanoTime();
+		
+		// replications always run in virtual time
+		Simulator.setEventDriven( true );
+		Simulator.readSimInput( args[0] );
+		
+		ForkJoinPool pool = new ForkJoinPool();
+		
+		try
+		{
+			for ( int algorithm = 0; algorithm < 2; algorithm++ )
+			{
+				List<ReplicationResult> results = runReplications( pool, algorithm, replications, seed );
+				generateReport( algorithm, results );
+			}
+		}
+		finally
+		{
+			pool.shutdown();
+		}
+	}
+	
+	/**
+	 * Runs the given number of replications of one algorithm implementation in parallel and waits for all of them to finish
+	 * @param pool: the pool that runs the replications
+	 * @param algorithm: 0 for the initial algorithm implementations, 1 for the second ones
+	 * @param replications: the number of replications to run
+	 * @param seed: the seed that every replication's random number generator is derived from
+	 * @return the result of every replication, in replication order
+	 */
+	public static List<ReplicationResult> runReplications( ForkJoinPool pool, final int algorithm, int replications, long seed )
+	{
+		// derive a seed for every replication, so a run can be repeated exactly
+		Random seeds = new Random( seed );
+		List<Callable<ReplicationResult>> tasks = new ArrayList<Callable<ReplicationResult>>( replications );
+		
+		for ( int i = 0; i < replications; i++ )
+		{
+			final long replicationSeed = seeds.nextLong();
+			
+			tasks.add( new Callable<ReplicationResult>()
+			{
+				@Override
+				public ReplicationResult call()
+				{
+					return runReplication( algorithm, replicationSeed );
+				}
+			} );
+		}
+		
+		List<ReplicationResult> results = new ArrayList<ReplicationResult>( replications );
+		
+		for ( Future<ReplicationResult> future : pool.invokeAll( tasks ) )
+		{
+			try
+			{
+				results.add( future.get() );
+			}
+			catch ( InterruptedException e )
+			{
+				Thread.currentThread().interrupt();
+				throw new RuntimeException( "Interrupted while waiting for the replications.", e );
+			}
+			catch ( ExecutionException e )
+			{
+				throw new RuntimeException( "A replication failed.", e.getCause() );
+			}
+		}
+		
+		return results;
+	}
+	
+	/**
+	 * Runs one replication on the current thread, with its own building, controller and people
+	 * @param algorithm: 0 for the initial algorithm implementations, 1 for the second ones
+	 * @param seed: the seed of the replication's random number generator
+	 * @return the summary of the replication
+	 */
+	private static ReplicationResult runReplication( int algorithm, long seed )
+	{
+		SimulationContext context = Simulator.createContext( algorithm );
+		Simulator.runEventDrivenSimulation( context, new Random( seed ), false );
+		
+		return new ReplicationResult( context.getPersonFacade().getTripStatistics() );
+	}
+	
+	/**
+	 * Merges the results of all replications and outputs them with their 95% confidence intervals,
+	 * followed by the average wait time per floor and the wait, ride and journey time percentiles over all replications.
+	 * @param algorithm: the algorithm implementation the results belong to
+	 * @param results: the result of every replication
+	 */
+	public static void generateReport( int algorithm, List<ReplicationResult> results )
+	{
+		ReplicationStatistic people = 		new ReplicationStatistic();
+		ReplicationStatistic averageWait = 	new ReplicationStatistic();
+		ReplicationStatistic maxWait = 		new ReplicationStatistic();
+		ReplicationStatistic averageRide = 	new ReplicationStatistic();
+		TripHistograms histograms = 		new TripHistograms();
+		
+		for ( ReplicationResult result : results )
+		{
+			people.add( result.getPeople() );
+			averageWait.add( result.getAverageWait() );
+			maxWait.add( result.getMaxWait() );
+			averageRide.add( result.getAverageRide() );
+			histograms.merge( result.getHistograms() );
+		}
+		
+		System.out.println( String.format( "%s algorithm implementations, %d replications", algorithm == 0 ? "Initial" : "Second", results.size() ) );
+		System.out.println( String.format(	"%18s	%18s	%18s	%18s", " ", "Mean", "Standard Deviation", "95% Confidence" ) );
+		printStatistic( "People Served", people );
+		printStatistic( "Average Wait Time", averageWait );
+		printStatistic( "Maximum Wait Time", maxWait );
+		printStatistic( "Average Ride Time", averageRide );
+		System.out.println();
+		
+		// floor averages are pooled over the people of every replication
+		System.out.println( String.format( "%18s	%18s", " ", "Average Wait Time" ) );
+		for ( int floor = 0; floor < Simulator.getNumOfFloors(); floor++ )
+		{
+			long totalWait = 0;
+			long floorPeople = 0;
+			
+			for ( ReplicationResult result : results )
+			{
+				totalWait += result.getFloorWaitTotal( floor );
+				floorPeople += result.getFloorPeople( floor );
+			}
+			
+			if ( floorPeople != 0 )
+			{
+				System.out.println( String.format( "Floor %3d:	%10.1f seconds", floor + 1, ( double ) totalWait / floorPeople ) );
+			}
+			// otherwise, void out the field
+			else
+			{
+				System.out.println( String.format( "Floor %3d:	%10s seconds", floor + 1, "---" ) );
+			}
+		}
+		
+		System.out.println();
+		
+		// percentiles are pooled by merging the histograms of every replication
+		System.out.println( Simulator.formatPercentileHeader() );
+		System.out.println( Simulator.formatPercentiles( "All:", histograms ) );
+		System.out.println();
+	}
+	
+	/**
+	 * Prints one row of the merged report
+	 * @param label: the name of the statistic
+	 * @param statistic: the statistic merged over all replications
+	 */
+	private static void printStatistic( String label, ReplicationStatistic statistic )
+	{
+		System.out.println( String.format(	"%-18s	%18.2f	%18.2f	%8.2f +/- %6.2f", 
+											label, statistic.getMean(), statistic.getStandardDeviation(),
+											statistic.getMean(), statistic.getConfidenceHalfWidth() ) );
+	}
+}
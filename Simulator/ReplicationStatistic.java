@@ -0,0 +1,61 @@
+package Simulator;
+
+import simulationEngine.RunningStatistic;
+
+/**
+ * This class accumulates one statistic (ex. the average wait time) over many independent replications of a simulation,
+ * and gives its mean, standard deviation and 95% confidence interval across those replications.
+ * Each replication adds one value, so the count is the number of replications.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class ReplicationStatistic extends RunningStatistic
+{
+	/**
+	 * Two-sided 95% critical values of Student's t-distribution for 1 to 30 degrees of freedom
+	 */
+	private static final double[] T_CRITICAL = {	12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+													2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+													2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+	
+	/**
+	 * Creates a new, empty statistic
+	 */
+	public ReplicationStatistic()
+	{
+		super();
+	}
+	
+	/**
+	 * Returns the half-width of the 95% confidence interval of the mean (the interval is mean +/- half-width)
+	 * @return the half-width, or 0 if there are less than two replications
+	 */
+	public double getConfidenceHalfWidth()
+	{
+		long count = getCount();
+		if ( count < 2 )
+		{
+			return 0;
+		}
+		
+		return getTCritical( count - 1 ) * getStandardDeviation() / Math.sqrt( count );
+	}
+	
+	/**
+	 * Returns the two-sided 95% critical value of Student's t-distribution
+	 * (past 30 degrees of freedom, a first-order correction of the normal value is accurate to a few thousandths)
+	 * @param degreesOfFreedom: the number of degrees of freedom (at least 1)
+	 * @return the critical value
+	 */
+	private static double getTCritical( long degreesOfFreedom )
+	{
+		if ( degreesOfFreedom <= T_CRITICAL.length )
+		{
+			return T_CRITICAL[ ( int ) degreesOfFreedom - 1 ];
+		}
+		
+		return 1.96 + 2.37 / degreesOfFreedom;
+	}
+}
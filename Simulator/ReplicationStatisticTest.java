@@ -0,0 +1,44 @@
+package Simulator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ReplicationStatisticTest {
+
+	@Test
+	public void testEmpty()
+	{
+		ReplicationStatistic s = new ReplicationStatistic();
+		assertEquals(s.getCount(),0);
+		assertEquals(s.getStandardDeviation(),0,0);
+		assertEquals(s.getConfidenceHalfWidth(),0,0);
+	}
+	
+	@Test
+	public void testMeanAndDeviation()
+	{
+		ReplicationStatistic s = new ReplicationStatistic();
+		s.add(2);
+		s.add(4);
+		s.add(4);
+		s.add(4);
+		s.add(5);
+		s.add(5);
+		s.add(7);
+		s.add(9);
+		assertEquals(s.getCount(),8);
+		assertEquals(s.getMean(),5,1e-9);
+		assertEquals(s.getStandardDeviation(),Math.sqrt(32.0/7),1e-9);
+	}
+	
+	@Test
+	public void testConfidenceHalfWidth()
+	{
+		ReplicationStatistic s = new ReplicationStatistic();
+		s.add(1);
+		s.add(3);
+		// t(0.975, 1) * sqrt(2) / sqrt(2)
+		assertEquals(s.getConfidenceHalfWidth(),12.706,1e-9);
+	}
+}
@@ -5,15 +5,27 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Random;
 import java.util.Scanner;
 
 import building.Building;
-import building.PersonDTO;
 import building.PersonFacade;
+import building.SimulationContext;
+import building.TripHistograms;
+import building.TripStatistics;
 
 import elevatorController.EController;
+import elevatorController.PendingRequests;
+
+import simulationEngine.EventQueue;
+import simulationEngine.LatencyHistogram;
+import simulationEngine.RunningStatistic;
+import simulationEngine.SimClock;
+import simulationEngine.SimEvent;
+import simulationEngine.SimEventHandler;
+import simulationEngine.SimEventType;
+import simulationEngine.SystemClock;
+import simulationEngine.VirtualThreads;
 
 /**
  * This class makes a new building with elevators, and directs those elevators via elevator requests and outputs the narrative.
@@ -32,6 +44,35 @@ public class Simulator
 	 * Enables and disables whether or not to print simulator's activity
 	 */
 	private static boolean DEBUG = true;
+	/**
+	 * How long (in milliseconds) the elevators get to finish their current trips after they are shut down
+	 */
+	private static final int SHUTDOWN_GRACE = 5000;
+	/**
+	 * Whether the simulation runs on the discrete-event engine (virtual time) instead of real-time elevator threads
+	 */
+	private static boolean eventDriven = false;
+	/**
+	 * Whether the people are kept in direct buffers outside the Java heap (for runs with millions of people)
+	 */
+	private static boolean offHeap = false;
+	/**
+	 * Whether the real-time elevators run on virtual threads instead of platform threads (set by the input's threads option)
+	 */
+	private static boolean virtualThreads = false;
+	/**
+	 * The forecast horizon (in simulated milliseconds) to park the idle elevators where the next calls are forecast with,
+	 * or 0 if they return to their default floor (set by the input's parking option)
+	 */
+	private static long parkingHorizon = 0;
+	/**
+	 * Whether the elevators are zoned while the traffic is up-peak (set by the input's zoning option)
+	 */
+	private static boolean zoning = false;
+	/**
+	 * The clock that the narrative's timestamps are read from
+	 */
+	private static SimClock clock = new SystemClock();
 	/**
 	 * Stores the duration of the simulation (how long it's supposed to run)
 	 */
@@ -51,31 +92,34 @@ public class Simulator
 	private static int numOfFloors;
 	
 	/**
-	 * Stores the percentages of how likely each starting floor is for a generated person
+	 * Stores the number of elevators in the building
 	 */
-	private static ArrayList<Short> startPercentages;
+	private static short numOfElevators;
 	/**
-	 * Stores the ranges of the starting floor probabilities (used in the generateFloor method)
+	 * Stores the maximum number of people that can be in each elevator at once
 	 */
-	private static ArrayList<Short> cumulativeStartPercentages;
-	
+	private static short maxCapacity;
 	/**
-	 * Stores the percentages of how likely each destination floor is for a generated person
+	 * Stores the time (in milliseconds, already scaled) it takes an elevator to get from one floor to the next
 	 */
-	private static ArrayList<Short> destPercentages;
+	private static short timePerFloor;
 	/**
-	 * Stores the ranges of the destination floor probabilities (used in the generateFloor method)
+	 * Stores the time (in milliseconds, already scaled) it takes to open the doors, exchange people, and close the doors
 	 */
-	private static ArrayList<Short> cumulativeDestPercentages;
+	private static short doorTime;
 	/**
-	 * Stores the Person DTO's generated from PersonFacade (used for generating statistics)
+	 * Stores the default floor of each elevator
 	 */
-	private static ArrayList<PersonDTO> peopleStats;
+	private static ArrayList<Short> defaultFloors;
+	
 	/**
-	 * A two dimensional array list that stores an array of Person DTO's per floor (used for generating statistics).
-	 * Each index of the array list represents a floor (ex. index 7 stores all of floor 7's DTO's)
+	 * Generates the start and destination floor of each person (built from the input's floor weights or origin-destination matrix)
 	 */
-	private static ArrayList<ArrayList<PersonDTO>> floorStats;
+	private static TrafficModel traffic;
+	/**
+	 * Stores the statistics that were gathered as each person completed their trip (used for generating the floor and ride statistics)
+	 */
+	private static TripStatistics tripStats;
 	/**
 	 * Stores the singleton instance of the Building
 	 */
@@ -94,38 +138,71 @@ public class Simulator
 	 */
 	public static void main( String args[] )
 	{
+		/* optional arguments after the input file:
+		 * 		- "event" runs the simulation on the discrete-event engine instead of in real time
+		 * 		- "offheap" keeps the people outside the Java heap
+		 */
+		for ( int i = 1; i < args.length; i++ )
+		{
+			if ( args[i].equalsIgnoreCase( "event" ) )
+			{
+				eventDriven = true;
+			}
+			else if ( args[i].equalsIgnoreCase( "offheap" ) )
+			{
+				offHeap = true;
+			}
+		}
+		
 		// reads in input data from input file for the simulation
 		readSimInput( args[0] );
 		
+		myBuilding = Building.getInstance(	( short ) numOfFloors, 
+											numOfElevators,
+											maxCapacity,
+											timePerFloor,
+											doorTime,
+											defaultFloors );
+		PersonFacade.getInstance().setOffHeap( offHeap );
+		
 		// run with the initial algorithm implementations
 		runSimulation();
 		
 		// wait for the threads to finish
-		try {
-			Thread.sleep( 5000 );
-		} catch (InterruptedException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
+		waitForElevators();
 		
 		// generate initial algorithm implementations output
 		generateStatistics();
 		
-		Building.getInstance().resetSimulation();
+		myBuilding.resetSimulation();
 		
 		// run with the secondary algorithm implementations (a static variable will switch the implementations automatically)
 		runSimulation();
 		
 		// wait for the threads to finish
+		waitForElevators();
+		
+		// generate secondary algorithm implementations output
+		generateStatistics();
+	}
+
+	/**
+	 * Gives the elevator threads time to finish their current trips after they have been shut down.
+	 * The discrete-event engine already runs the elevators through this grace period, so it doesn't need to wait.
+	 */
+	private static void waitForElevators()
+	{
+		if ( eventDriven )
+		{
+			return;
+		}
+		
 		try {
-			Thread.sleep( 5000 );
+			Thread.sleep( SHUTDOWN_GRACE );
 		} catch (InterruptedException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
 		}
-		
-		// generate secondary algorithm implementations output
-		generateStatistics();
 	}
 
 	/**
@@ -135,11 +212,22 @@ public class Simulator
 	 */
 	public static void runSimulation()
 	{
+		if ( eventDriven )
+		{
+			runEventDrivenSimulation();
+			return;
+		}
+		
+		SimulationContext context = SimulationContext.getDefault();
+		clock = new SystemClock();
+		applyParking( context.getEController() );
+		context.getEController().startElevators( virtualThreads );
+		
 		int interval = ( 60000 / peoplePerMin ) / timeScale;	// this gives how many milliseconds to wait until generating another person
 		int msDuration = ( duration * 60000 ) / timeScale;						// simulation duration in milliseconds
 		int timeSpent = 0;										// tracks how many seconds have passed			
 		int difference;				// difference between the total duration time AND time passed
-		int personID = 0;										// generated person ID (used for debug information)							
+		Random random = new Random();							// generates the people's floors
 		
 		/* ----- START Simulation loop ----- */
 		//  keep generating people as long as sleeping for "interval" milliseconds won't exceed our duration
@@ -152,34 +240,8 @@ public class Simulator
 				e.printStackTrace();
 			}
 			
-			// generate the start and destination floors for the person
-			short startFloor = generateFloor( cumulativeStartPercentages );
-			short destFloor;
-			do
-			{
-				destFloor = generateFloor( cumulativeDestPercentages );
-			}
-			while( destFloor == startFloor ); // Make sure that the destination floor is not the same as the starting floor
-			
-			// based on generated start and end floors, determine if the person wants to go up or down
-			boolean isGoingUp = destFloor > startFloor;
-			
-			// generate person, add them to a floor, and presses the callbox
-			PersonFacade.getInstance().createPerson( ( short ) startFloor, ( short ) destFloor );
-			Building.getInstance().addPersonToFloor( ( short ) startFloor, ( short ) personID );
+			generatePerson( context, random, DEBUG );
 			
-			Building.getInstance().pressCallBox( ( short ) startFloor, isGoingUp );
-			
-			if ( DEBUG )
-			{
-				String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																	Calendar.getInstance().get( Calendar.MINUTE ),
-																	Calendar.getInstance().get( Calendar.SECOND ) );
-				string += String.format( "Person %d on floor %d makes a request for floor %d\n", personID + 1, startFloor + 1, destFloor + 1 );
-				System.out.print( string );
-			}
-			
-			personID++;
 			timeSpent += interval;
 		}
 		/* ----- END Simulation loop ----- */
@@ -195,10 +257,126 @@ public class Simulator
 		
 		// end the simulation
 		System.out.println( "SHUTTING DOWN ELEVATORS." );
-		EController.getInstance().shutdownAllElevators();
+		context.getEController().shutdownAllElevators();
+	}
+	
+	/**
+	 * Runs an entire simulation on the discrete-event engine. People arrive at the same simulated times as in runSimulation(),
+	 * and the elevators schedule their floor passes, door cycles and idle timeouts on the same event queue,
+	 * so the simulation runs as fast as the events can be processed instead of in real time.
+	 * The elevators are given the same grace period to finish their trips after being shut down as the threaded version.
+	 */
+	public static void runEventDrivenSimulation()
+	{
+		applyParking( EController.getInstance() );
+		runEventDrivenSimulation( SimulationContext.getDefault(), new Random(), DEBUG );
+	}
+	
+	/**
+	 * Runs an entire simulation on the discrete-event engine, generating people from the given random number generator.
+	 * This is what each replication of the ReplicationRunner runs (quietly, on its own thread and SimulationContext).
+	 * @param context: the simulation to run
+	 * @param random: the random number generator used to generate people's floors
+	 * @param debug: whether to print the simulation's activity
+	 */
+	static void runEventDrivenSimulation( SimulationContext context, Random random, boolean debug )
+	{
+		runEventDrivenSimulation( context, peoplePerMin, random, debug );
+	}
+	
+	/**
+	 * Runs an entire simulation on the discrete-event engine with the given arrival rate instead of the input's.
+	 * This is what each grid point of the ParameterSweep runs.
+	 * @param context: the simulation to run
+	 * @param arrivalsPerMin: the number of persons generated per minute
+	 * @param random: the random number generator used to generate people's floors
+	 * @param debug: whether to print the simulation's activity
+	 */
+	static void runEventDrivenSimulation( final SimulationContext context, int arrivalsPerMin, final Random random, final boolean debug )
+	{
+		final EventQueue queue = new EventQueue();
+		final int interval = 60000 / arrivalsPerMin;	// this gives how many milliseconds to wait until generating another person
+		final long msDuration = duration * 60000L;		// simulation duration in milliseconds
+		
+		// people keep being generated as long as the previous one was generated before the duration ran out
+		final long endTime = ( ( msDuration + interval - 1 ) / interval ) * interval;
+		
+		if ( debug )
+		{
+			clock = queue.getClock();
+		}
+		context.getPersonFacade().setClock( queue.getClock() );
+		context.getEController().setDebug( debug );
+		context.getEController().startElevators( queue );
+		
+		/* ----- START Simulation loop ----- */
+		queue.schedule( interval, SimEventType.PERSON_ARRIVAL, new SimEventHandler()
+		{
+			@Override
+			public void handleEvent( SimEvent event )
+			{
+				generatePerson( context, random, debug );
+				
+				if ( event.getTime() < endTime )
+				{
+					queue.schedule( interval, SimEventType.PERSON_ARRIVAL, this );
+				}
+			}
+		} );
+		
+		queue.runUntil( endTime );
+		/* ----- END Simulation loop ----- */
+		
+		// end the simulation, and let the elevators finish their trips
+		if ( debug )
+		{
+			System.out.println( "SHUTTING DOWN ELEVATORS." );
+		}
+		context.getEController().shutdownAllElevators();
+		
+		queue.runUntil( endTime + SHUTDOWN_GRACE );
+	}
+	
+	/**
+	 * Generates a person with random start and destination floors, adds them to their start floor, and has them press the call box.
+	 * @param context: the simulation the person is generated in
+	 * @param random: the random number generator used to generate the floors
+	 * @param debug: whether to print the person's request
+	 */
+	private static void generatePerson( SimulationContext context, Random random, boolean debug )
+	{
+		// generate the start and destination floors for the person (the destination is never the start floor)
+		short startFloor = 	traffic.sampleStartFloor( random );
+		short destFloor = 	traffic.sampleDestinationFloor( startFloor, random );
+		
+		// based on generated start and end floors, determine if the person wants to go up or down
+		boolean isGoingUp = destFloor > startFloor;
+		
+		// generate person, add them to a floor, and presses the callbox
+		Building building = context.getBuilding();
+		int personID = context.getPersonFacade().createPerson( startFloor, destFloor );
+		building.addPersonToFloor( startFloor, personID );
+		
+		// with destination dispatch the person enters their destination on the keypad instead of pressing up or down
+		if ( context.getEController().isDestinationDispatch() )
+		{
+			building.pressDestinationKeypad( startFloor, destFloor );
+		}
+		else
+		{
+			building.pressCallBox( startFloor, isGoingUp );
+		}
+		
+		if ( debug )
+		{
+			String string = clock.getTimestamp();
+			string += String.format( "Person %d on floor %d makes a request for floor %d\n", personID + 1, startFloor + 1, destFloor + 1 );
+			System.out.print( string );
+		}
 	}
 	/**
 	 * Given a text file, this method will read the Simulation input and store it in the appropriate variables needed to run the simulation 
+	 * (the building itself is created by whoever runs the simulation)
 	 * @throws IllegalArgumentException 
 	 */
 	public static void readSimInput( String filename ) throws IllegalArgumentException
@@ -225,25 +403,31 @@ public class Simulator
 		String inTimeScale = fileScanner.nextLine();
 		timeScale = Short.decode( inTimeScale );
 		
+		// virtual time doesn't need to be sped up, and scaling would only truncate the floor and door times
+		if ( eventDriven )
+		{
+			timeScale = 1;
+		}
+		
 		// Number of floors in the building
 		String inNumOfFloors = fileScanner.nextLine(); 	
 		numOfFloors = Short.decode( inNumOfFloors );
 		
 		// Number of elevators in the building
 		String inNumOfElevators = fileScanner.nextLine();		
-		short numOfElevators = Short.decode( inNumOfElevators );
+		numOfElevators = Short.decode( inNumOfElevators );
 		
 		// Maximum number of people that can be in each elevator at once
 		String inMaxCapacity = fileScanner.nextLine(); 	 
-		short maxCapacity = Short.decode( inMaxCapacity );
+		maxCapacity = Short.decode( inMaxCapacity );
 		
 		// The time it takes to get from one floor to the next
 		String inTimePerFloor = fileScanner.nextLine();							
-		short timePerFloor = ( short )( Short.decode( inTimePerFloor ) / timeScale );
+		timePerFloor = ( short )( Short.decode( inTimePerFloor ) / timeScale );
 		
 		// The time it takes to open the doors, exchange people, and close the doors
 		String inDoorTime = fileScanner.nextLine();						
-		short doorTime = ( short )( Short.decode(inDoorTime) / timeScale );
+		doorTime = ( short )( Short.decode(inDoorTime) / timeScale );
 		
 		// Figuring out the default floor numbers
 		String inDefaultFloors = fileScanner.nextLine(); 	// fileScanner reads one line from the file
@@ -254,35 +438,26 @@ public class Simulator
 		
 		/* ----- START figuring out default floors ----- */
 		
+		// The ArrayList containing the default floors for each of the elevators
+		defaultFloors = new ArrayList<Short>( numOfElevators ); 
+		
+		defaultFloors.add( defaultFloorOne ); 
+		
 		// If there are multiple values for default floors
 		if( lineScanner.hasNextShort() ) 
 		{
-			// The ArrayList containing the default floors for each of the elevators
-			ArrayList<Short> defaultFloors = new ArrayList<Short>( numOfElevators ); 
-			
-			defaultFloors.add( defaultFloorOne ); 
-			
 			// This reads input and puts the data into the defaultFloors ArrayList
 			for(short i = 1; i < numOfElevators; i++)
 			{												
 				defaultFloors.add( lineScanner.nextShort() );
 			}
-			
-			myBuilding = Building.getInstance(	( short ) numOfFloors, 
-												numOfElevators,
-												maxCapacity,
-												timePerFloor,
-												doorTime,
-												defaultFloors );
 		}
 		else // Otherwise, make all the default floors the same value
 		{
-			myBuilding = Building.getInstance(	( short ) numOfFloors,
-												numOfElevators,
-												maxCapacity,
-												timePerFloor,
-												doorTime,
-												defaultFloorOne );
+			for(short i = 1; i < numOfElevators; i++)
+			{												
+				defaultFloors.add( defaultFloorOne );
+			}
 		}
 		
 		lineScanner.close();
@@ -292,163 +467,366 @@ public class Simulator
 		String inPeoplePerMin = fileScanner.nextLine();		// The frequency of people being generated per minute
 		peoplePerMin = Integer.decode(inPeoplePerMin);
 		
-		/* ----- START figuring out start floor probabilities ----- */
-		
-		startPercentages = new ArrayList<Short>( ( int ) numOfFloors ); 			// The ArrayList containing how probable the person will be generated at each floor.
-		cumulativeStartPercentages = new ArrayList<Short>( ( int ) numOfFloors ); 	// Cumulative percentages (used later)
-		
-		String inStartProb = fileScanner.nextLine();
-		lineScanner = new Scanner( inStartProb );
-		lineScanner.useDelimiter(",");
+		/* ----- START figuring out the floor weights ----- */
 		
-		short previousNum = 0;
-		short thisNum;
-		
-		// This reads input and puts the data into startPercentages
-		for( short i = 0; i < numOfFloors; i++ )								
-		{																	
-			thisNum = lineScanner.nextShort();						
-			startPercentages.add( thisNum );									
-			cumulativeStartPercentages.add( ( short ) ( thisNum + previousNum ) );	
-			previousNum += thisNum;											
-		}																	
-		if( previousNum != 100 )
-		{
-			lineScanner.close();
-			fileScanner.close();
-			System.err.println( "Total percentage for starting floor probability is not 100%" );
-			return;
-		}
-		if( lineScanner.hasNext() ) //Check for extraneous data in this line
+		// how likely each floor is to be a generated person's start floor, and destination floor (relative weights, fractions allowed)
+		double[] startWeights = readFloorWeights( fileScanner.nextLine(), "starting" );
+		double[] destWeights = 	readFloorWeights( fileScanner.nextLine(), "destination" );
+		if ( startWeights == null || destWeights == null )
 		{
-			lineScanner.close();
 			fileScanner.close();
-			System.err.println( "Invalid data. Too many values for start percentages." );
 			return;
 		}
 		
-		lineScanner.close();
+		/* ----- END figuring out the floor weights ----- */
 		
-		/* ----- END Figuring out the probabilities for where people start ----- */
+		/* ----- START figuring out the options and the origin-destination matrix ----- */
 		
-		/* ----- START figuring out the probabilities for where people end ----- */
-		destPercentages = new ArrayList<Short>( ( int ) numOfFloors ); 			// The ArrayList containing how probable the person will be generated at each floor.
-		cumulativeDestPercentages = new ArrayList<Short>( ( int ) numOfFloors ); 	// Cumulative percentages (used later)
+		/* the rest of the lines are optional:
+		 * 		- name=value lines set an option (ex. threads=virtual or parking=60000)
+		 * 		- an origin-destination matrix (one line of destination weights per start floor) replaces the independent floor weights
+		 */
+		ArrayList<String> matrixLines = new ArrayList<String>();
+		parkingHorizon = 0;
+		zoning = false;
+		while ( fileScanner.hasNextLine() )
+		{
+			String line = fileScanner.nextLine().trim();
+			
+			if ( line.isEmpty() )
+			{
+				continue;
+			}
+			else if ( line.indexOf( '=' ) >= 0 )
+			{
+				if ( !readOption( line ) )
+				{
+					fileScanner.close();
+					return;
+				}
+			}
+			else
+			{
+				matrixLines.add( line );
+			}
+		}
 		
-		String inDestProb = fileScanner.nextLine();
-		lineScanner = new Scanner( inDestProb );
-		lineScanner.useDelimiter(",");
+		if ( matrixLines.isEmpty() )
+		{
+			traffic = TrafficModel.fromFloorWeights( startWeights, destWeights );
+		}
+		else
+		{
+			if ( matrixLines.size() < numOfFloors )
+			{
+				fileScanner.close();
+				System.err.println( "Invalid data. The origin-destination matrix needs one line per floor." );
+				return;
+			}
+			
+			// Checks to make sure that there is no extraneous input
+			if ( matrixLines.size() > numOfFloors )
+			{
+				fileScanner.close();
+				System.err.println( "Invalid data. Too many lines of data." );
+				return;
+			}
+			
+			double[][] odMatrix = new double[ numOfFloors ][];
+			for ( short i = 0; i < numOfFloors; i++ )
+			{
+				odMatrix[i] = readFloorWeights( matrixLines.get( i ), "origin-destination" );
+				if ( odMatrix[i] == null )
+				{
+					fileScanner.close();
+					return;
+				}
+			}
+			
+			traffic = new TrafficModel( odMatrix );
+		}
 		
-		previousNum = 0;
+		/* ----- END figuring out the options and the origin-destination matrix ----- */
 		
-		// This reads input and puts the data into startPercentages
-		for( short i = 0; i < numOfFloors; i++ )								
-		{																	
-			thisNum = lineScanner.nextShort();						
-			destPercentages.add( thisNum );									
-			cumulativeDestPercentages.add( ( short ) ( thisNum + previousNum ) );	
-			previousNum += thisNum;											
-		}																	
-		if( previousNum != 100 )
+		fileScanner.close();
+	}
+	
+	/**
+	 * Reads one name=value option line of the input file. The options are:
+	 * 		- threads=virtual or threads=platform, which chooses what kind of thread each elevator runs on
+	 * 		  in real time (the discrete-event engine doesn't use threads)
+	 * 		- parking=<milliseconds>, which parks the idle elevators where the next calls are forecast instead of on their default floor,
+	 * 		  with the forecast's moving averages over that horizon
+	 * 		- zoning=on or zoning=off, which zones the elevators by floor bands while the traffic is up-peak
+	 * @param line: the line of the input file
+	 * @return true if the option was read, false if it is invalid
+	 */
+	private static boolean readOption( String line )
+	{
+		int split = line.indexOf( '=' );
+		String name = 	line.substring( 0, split ).trim();
+		String value = 	line.substring( split + 1 ).trim();
+		
+		if ( name.equalsIgnoreCase( "threads" ) )
 		{
-			lineScanner.close();
-			fileScanner.close();
-			System.err.println( "Total percentage for destination floor probability is not 100%" );
-			return;
+			if ( value.equalsIgnoreCase( "virtual" ) )
+			{
+				virtualThreads = true;
+				
+				if ( !VirtualThreads.isSupported() )
+				{
+					System.err.println( "Virtual threads aren't supported by this Java runtime, the elevators will run on platform threads." );
+				}
+				return true;
+			}
+			else if ( value.equalsIgnoreCase( "platform" ) )
+			{
+				virtualThreads = false;
+				return true;
+			}
+			
+			System.err.println( "Invalid data. Expected threads=virtual or threads=platform, got " + line + "." );
+			return false;
 		}
-		if( lineScanner.hasNext() ) // Check for extraneous data in this line
+		
+		if ( name.equalsIgnoreCase( "parking" ) )
 		{
-			lineScanner.close();
-			fileScanner.close();
-			System.err.println( "Invalid data. Too many values for start percentages." );
-			return;
+			try
+			{
+				parkingHorizon = Long.decode( value );
+			}
+			catch ( NumberFormatException e )
+			{
+				parkingHorizon = -1;
+			}
+			
+			if ( parkingHorizon < 0 )
+			{
+				parkingHorizon = 0;
+				System.err.println( "Invalid data. Expected a non-negative parking horizon, got " + line + "." );
+				return false;
+			}
+			return true;
 		}
 		
-		lineScanner.close();
-		
-		// Checks to make sure that there is no extraneous input
-		if( fileScanner.hasNext() )										
-		{																
-			fileScanner.close();										
-			System.err.println( "Invalid data. Too many lines of data." );
-			return;														
-		}																
+		if ( name.equalsIgnoreCase( "zoning" ) )
+		{
+			if ( value.equalsIgnoreCase( "on" ) || value.equalsIgnoreCase( "off" ) )
+			{
+				zoning = value.equalsIgnoreCase( "on" );
+				return true;
+			}
+			
+			System.err.println( "Invalid data. Expected zoning=on or zoning=off, got " + line + "." );
+			return false;
+		}
 		
-		fileScanner.close();
+		System.err.println( "Invalid data. Unknown option " + name + "." );
+		return false;
 	}
-
+	
 	/**
-	 * Given a cumulative array of floor probabilities, this method randomly generates a floor according to these probabilities and returns it
-	 * @returns the randomly generated floor between 0 and the max floor of the building
+	 * Reads one line of comma separated floor weights. Weights may be fractional and don't have to sum to 100,
+	 * since they are only relative to each other.
+	 * @param line: the line of the input file
+	 * @param description: what the weights are for (used in the error messages)
+	 * @return one weight per floor, or null if the line is invalid
 	 */
-	public static short generateFloor( ArrayList<Short> probabilities )
+	private static double[] readFloorWeights( String line, String description )
 	{
-		/* Taking probabilities into account, assign start and destination floor numbers to Person objects
-		 *
-		 * Visual representation of the algorithm that assigns floor numbers to Person objects:
-		 * Suppose the following:
-		 * - Building has 5 floors
-		 * - Floor probabilities are as follows: [50,10,20,10,10]
-		 * - random.nextInt(100) returns 62
-		 * 
-		 * Floor:		|         1        | 2 |   3   | 4 | 5 |
-		 * Percentages: 0%                50% 60%     80% 90% 100%
-		 *                                      ^
-		 *                                     62%
-		 * The person will then be assigned floor 3.
-		 */
-		Random random = new Random();
+		String[] values = line.split( "," );
+		double[] weights = new double[ numOfFloors ];
+		double total = 0;
 		
-		short generatedFloor = -1; 	// floor to be returned		
-		short floorProb = ( short ) random.nextInt( 100 );
-		short lowerBoundOfRange = 0;
-		short higherBoundOfRange = 0;
+		if( values.length != numOfFloors )
+		{
+			System.err.println( "Invalid data. Expected " + numOfFloors + " values for " + description + " floor weights, got " + values.length + "." );
+			return null;
+		}
 		
-		// searches the floor probabilities for the matching floor (based on the randomly generated number from 1 to 100)
 		for( short i = 0; i < numOfFloors; i++ )
 		{
-			higherBoundOfRange = probabilities.get( i );
-			
-			// Checks if generated number is within the current floor probability range (ex. 60% - 70%)
-			if( lowerBoundOfRange <= floorProb  && floorProb < higherBoundOfRange )
+			try
 			{
-				// and if it is, sets generated floor to the floor of this probability range and stops the loop
-				generatedFloor = i;
-				break;
+				weights[i] = Double.parseDouble( values[i].trim() );
+			}
+			catch( NumberFormatException e )
+			{
+				System.err.println( "Invalid data. " + values[i].trim() + " is not a " + description + " floor weight." );
+				return null;
 			}
 			
-			// moves on to the next probability range (ex. lower bound changes from 60% to 70%)
-			lowerBoundOfRange = higherBoundOfRange;
+			if( !( weights[i] >= 0 ) || Double.isInfinite( weights[i] ) )
+			{
+				System.err.println( "Invalid data. Floor weights can't be negative, got " + values[i].trim() + "." );
+				return null;
+			}
+			total += weights[i];
 		}
-		if( generatedFloor == -1 )
+		
+		if( total <= 0 )
 		{
-			System.err.println( "Starting floor not found." );
-			return -1;
+			System.err.println( "Total " + description + " floor weight must be positive." );
+			return null;
 		}
 		
-		return generatedFloor;
+		return weights;
 	}
 
+	/**
+	 * Switches between the discrete-event engine and real-time elevator threads (must be set before reading the input)
+	 * @param inEventDriven: true to run on the discrete-event engine
+	 */
+	static void setEventDriven( boolean inEventDriven )
+	{
+		eventDriven = inEventDriven;
+	}
+	
+	/**
+	 * Returns the number of floors read from the input
+	 * @return the number of floors
+	 */
+	static int getNumOfFloors()
+	{
+		return numOfFloors;
+	}
+	
+	/**
+	 * Returns the number of elevators read from the input
+	 * @return the number of elevators
+	 */
+	static short getNumOfElevators()
+	{
+		return numOfElevators;
+	}
+	
+	/**
+	 * Returns the maximum elevator capacity read from the input
+	 * @return the maximum number of people in each elevator
+	 */
+	static short getMaxCapacity()
+	{
+		return maxCapacity;
+	}
+	
+	/**
+	 * Returns the time per floor read from the input
+	 * @return the time (in milliseconds, already scaled) it takes an elevator to get from one floor to the next
+	 */
+	static short getTimePerFloor()
+	{
+		return timePerFloor;
+	}
+	
+	/**
+	 * Returns the door time read from the input
+	 * @return the time (in milliseconds, already scaled) it takes to open the doors, exchange people, and close the doors
+	 */
+	static short getDoorTime()
+	{
+		return doorTime;
+	}
+	
+	/**
+	 * Returns the number of persons generated per minute read from the input
+	 * @return the number of persons generated per minute
+	 */
+	static int getPeoplePerMin()
+	{
+		return peoplePerMin;
+	}
+	
+	/**
+	 * Returns the parking horizon that was read (in simulated milliseconds)
+	 * @return the horizon, or 0 if the elevators return to their default floor
+	 */
+	static long getParkingHorizon()
+	{
+		return parkingHorizon;
+	}
+	
+	/**
+	 * Returns whether the input zones the elevators while the traffic is up-peak
+	 * @return true if zoning is turned on
+	 */
+	static boolean isZoning()
+	{
+		return zoning;
+	}
+	
+	/**
+	 * Creates a new, independent simulation state (building, controller and people) from the input that was read
+	 * @param algorithmImplementation: 0 for the initial algorithm implementations, 1 for the second ones
+	 * @return the new simulation context
+	 */
+	static SimulationContext createContext( int algorithmImplementation )
+	{
+		return createContext( numOfElevators, maxCapacity, timePerFloor, doorTime, algorithmImplementation );
+	}
+	
+	/**
+	 * Creates a new, independent simulation state from the input that was read, but with the given elevator parameters.
+	 * If there are more elevators than default floors in the input, the default floors are repeated in order.
+	 * @param elevators: the number of elevators in the building
+	 * @param capacity: the maximum number of people that can be in each elevator at once
+	 * @param floorTime: the time (in milliseconds) it takes an elevator to get from one floor to the next
+	 * @param openCloseTime: the time (in milliseconds) it takes to open the doors, exchange people, and close the doors
+	 * @param algorithmImplementation: 0 for the initial algorithm implementations, 1 for the second ones
+	 * @return the new simulation context
+	 */
+	static SimulationContext createContext( short elevators, short capacity, short floorTime, short openCloseTime, int algorithmImplementation )
+	{
+		ArrayList<Short> elevatorDefaults = new ArrayList<Short>( elevators );
+		for ( int i = 0; i < elevators; i++ )
+		{
+			elevatorDefaults.add( defaultFloors.get( i % defaultFloors.size() ) );
+		}
+		
+		SimulationContext context = new SimulationContext(	( short ) numOfFloors, 
+															elevators,
+															capacity,
+															floorTime,
+															openCloseTime,
+															elevatorDefaults,
+															algorithmImplementation );
+		context.getPersonFacade().setOffHeap( offHeap );
+		applyParking( context.getEController() );
+		
+		return context;
+	}
+	
+	/**
+	 * Gives a controller the parking delay and the forecast horizon, scaled like the floor and door times
+	 * (the parking option turns predictive parking on, with its horizon), and the zoning option
+	 * @param controller: the controller whose elevators are parked
+	 */
+	private static void applyParking( EController controller )
+	{
+		controller.setParkingDelay( Math.max( 1, EController.DEFAULT_PARKING_DELAY / timeScale ) );
+		controller.setForecastHorizon( Math.max( 1, ( parkingHorizon > 0 ? parkingHorizon : EController.DEFAULT_FORECAST_HORIZON ) / timeScale ) );
+		controller.setPredictiveParking( parkingHorizon > 0 );
+		controller.setZoningEnabled( zoning );
+	}
+	
 	/**
 	 * This method generates and outputs the three desired output tables
 	 * by calculating statistics gathered during the simulation.
 	 */
 	public static void generateStatistics()
 	{
-		// initialize floorStats
-		floorStats = new ArrayList<ArrayList<PersonDTO>>();
-		
-		// get all person DTO's from person facade
-		peopleStats = PersonFacade.getInstance().getPersonDTOs();
+		// the floor and ride tables come from the statistics gathered as each person finished their trip
+		tripStats = PersonFacade.getInstance().getTripStatistics();
 		
 		generateFloorStats();
 		generateRideStats();
+		generatePercentileStats();
+		generateClaimStats();
 		generatePersonStats();
 	}
 
 	/**
 	 * This method is called within generateStats().
-	 * It calculates and outputs the average ride time from each floor to each other floor in table format.
+	 * It outputs the average ride time from each floor to each other floor in table format.
 	 * (Ex. from floor 1 to floor 2, floor 1 to floor 3 ... floor 1 to floor n)
 	 */
 	private static void generateRideStats()
@@ -468,41 +846,17 @@ public class Simulator
 		{
 			string = String.format( "%9d", fromFloor + 1 );
 			
-			// gets the DTO array list for this floor (for readability)
-			ArrayList<PersonDTO> thisFloor = floorStats.get( fromFloor );
-			
 			/* ... get the average ride time to every other floor.
 			 * (ex. from floor 1 to floor 2, from floor 1 to floor 3 ... from floor 1 to floor n)
 			 */
 			for ( int toFloor = 0; toFloor < numOfFloors; toFloor++ )
 			{
-				int avgRide = 0;
-				int counter = 0;
+				RunningStatistic rides = tripStats.getRideTimes( fromFloor, toFloor );
 				
-				// we're comparing the floor to itself, void out the field (ex. from floor 1 to floor 1)
-				if ( fromFloor == toFloor )
-				{
-					string += String.format( "%9s", "X" );
-					continue;
-				}
-			
-				/* if the current DTO matches the current dest floor we're looking at, 
-				 * then include it in our calculations
-				 */
-				for ( PersonDTO dto : thisFloor )
+				// if we actually had stats for fromFloor and toFloor (and it isn't the floor compared to itself), then print them
+				if ( fromFloor != toFloor && rides.getCount() != 0 )
 				{
-					if ( dto.destFloor == toFloor )
-					{
-						avgRide += dto.rideTime;
-						counter++;
-					}
-				}
-				
-				// if we actually had stats for fromFloor and toFloor, then calculate them
-				if ( counter != 0 )
-				{
-					avgRide = avgRide / counter;
-					string += String.format( "%9d", avgRide );
+					string += String.format( "%9d", ( int ) rides.getMean() );
 				}
 				// otherwise, void out these field
 				else
@@ -520,7 +874,107 @@ public class Simulator
 
 	/**
 	 * This method is called within generateStats().
-	 * It calculates the average wait time, the minimum wait time, and maximum wait time for each floor.
+	 * It outputs the median, 95th and 99th percentile wait, ride and journey (wait + ride) times
+	 * of everyone, of the people from each floor, and of the people carried by each elevator.
+	 */
+	private static void generatePercentileStats()
+	{
+		System.out.println( formatPercentileHeader() );
+		
+		System.out.println( formatPercentiles( "All:", tripStats.getHistograms() ) );
+		
+		for ( int floor = 0; floor < tripStats.getNumberOfFloors(); floor++ )
+		{
+			System.out.println( formatPercentiles( String.format( "Floor %3d:", floor + 1 ), tripStats.getFloorHistograms( floor ) ) );
+		}
+		
+		for ( int elevator = 0; elevator < tripStats.getNumberOfElevators(); elevator++ )
+		{
+			System.out.println( formatPercentiles( String.format( "Elevator %3d:", elevator + 1 ), tripStats.getElevatorHistograms( elevator ) ) );
+		}
+		
+		System.out.println( formatHallCalls( Building.getInstance().getHallCallResponseTimes() ) );
+		
+		System.out.println();
+	}
+	
+	/**
+	 * This method is called within generateStats().
+	 * It outputs how the pending requests were claimed: by which elevator, how often a claim lost the race to another elevator,
+	 * and how many presses were merged into a request that was already pending.
+	 */
+	private static void generateClaimStats()
+	{
+		PendingRequests pending = EController.getInstance().getPendingRequests();
+		
+		System.out.println( String.format(	"Pending requests: %d claimed, %d lost claim races, %d presses merged, %d still pending",
+											pending.getClaims(), pending.getLostClaims(), pending.getMergedPresses(), pending.size() ) );
+		
+		for ( short elevator = 0; elevator < numOfElevators; elevator++ )
+		{
+			System.out.println( String.format( "Elevator %3d:	%8d claimed", elevator + 1, pending.getClaims( elevator ) ) );
+		}
+		
+		System.out.println();
+	}
+	
+	/**
+	 * Formats the header of the percentile table
+	 * @return the header
+	 */
+	static String formatPercentileHeader()
+	{
+		return String.format(	"%12s %8s	%8s %8s %8s	%8s %8s %8s	%8s %8s %8s", " ", "People",
+								"P50 Wait", "P95 Wait", "P99 Wait", "P50 Ride", "P95 Ride", "P99 Ride",
+								"P50 Trip", "P95 Trip", "P99 Trip" );
+	}
+	
+	/**
+	 * Formats one row of the percentile table (in seconds)
+	 * @param label: the label of the row
+	 * @param histograms: the wait, ride and journey time histograms of the row
+	 * @return the row
+	 */
+	static String formatPercentiles( String label, TripHistograms histograms )
+	{
+		LatencyHistogram waits = 	histograms.getWaitTimes();
+		LatencyHistogram rides = 	histograms.getRideTimes();
+		LatencyHistogram journeys = histograms.getJourneyTimes();
+		
+		// void out the fields if nobody in this row completed their trip
+		if ( waits.getCount() == 0 )
+		{
+			return String.format(	"%12s %8d	%8s %8s %8s	%8s %8s %8s	%8s %8s %8s", label, 0,
+									"---", "---", "---", "---", "---", "---", "---", "---", "---" );
+		}
+		
+		return String.format(	"%12s %8d	%8.1f %8.1f %8.1f	%8.1f %8.1f %8.1f	%8.1f %8.1f %8.1f", label, waits.getCount(),
+								waits.getValueAtPercentile( 50 ) / 1000.0, waits.getValueAtPercentile( 95 ) / 1000.0, waits.getValueAtPercentile( 99 ) / 1000.0,
+								rides.getValueAtPercentile( 50 ) / 1000.0, rides.getValueAtPercentile( 95 ) / 1000.0, rides.getValueAtPercentile( 99 ) / 1000.0,
+								journeys.getValueAtPercentile( 50 ) / 1000.0, journeys.getValueAtPercentile( 95 ) / 1000.0,
+								journeys.getValueAtPercentile( 99 ) / 1000.0 );
+	}
+	
+	/**
+	 * Formats the hall call response times (in seconds), from a call box lamp being lit until an elevator answered the call
+	 * @param responseTimes: the response times in milliseconds
+	 * @return the line
+	 */
+	static String formatHallCalls( LatencyHistogram responseTimes )
+	{
+		if ( responseTimes.getCount() == 0 )
+		{
+			return String.format( "%12s %8d	%8s %8s %8s", "Hall calls:", 0, "---", "---", "---" );
+		}
+		
+		return String.format(	"%12s %8d	%8.1f %8.1f %8.1f", "Hall calls:", responseTimes.getCount(),
+								responseTimes.getValueAtPercentile( 50 ) / 1000.0, responseTimes.getValueAtPercentile( 95 ) / 1000.0,
+								responseTimes.getValueAtPercentile( 99 ) / 1000.0 );
+	}
+	
+	/**
+	 * This method is called within generateStats().
+	 * It outputs the average wait time, the minimum wait time, and maximum wait time for each floor.
 	 * The statistics are gathered from Persons who were generated on this floor during the simulation.
 	 */
 	private static void generateFloorStats()
@@ -531,51 +985,16 @@ public class Simulator
 														"Maximum Wait Time" );
 		
 		System.out.println( string );
-				
-		/* For every floor, populate the array list with the DTO's of persons generated there.
-		 * Print out the relevant information from these DTO's (avg wait time, min wait time, max wait time),
-		 * then clear the list and rinse and repeat for the next floor
-		 */
+		
 		for ( int floor = 0; floor < numOfFloors; floor++ )
 		{
-			ArrayList<PersonDTO> thisFloor = new ArrayList<PersonDTO>();
+			RunningStatistic waits = tripStats.getWaitTimes( floor );
 			
-			// adds all corresponding DTO's to this current floor's array list
-			for ( PersonDTO dto : peopleStats )
+			// if anyone from this floor completed their trip, print out the floor's statistics
+			if ( waits.getCount() != 0 )
 			{
-				if ( dto.startFloor == floor )
-				{
-					thisFloor.add( dto );
-				}
-			}
-			
-			// if there were any DTO's for this floor, print out the floor's statistics
-			if ( !thisFloor.isEmpty() )
-			{			
-				int counter = 0;
-				int avgWait = 0;
-				int minWait = thisFloor.get( 0 ).waitTime;
-				int maxWait = thisFloor.get( 0 ).waitTime;
-				
-				for ( PersonDTO dto : thisFloor )
-				{
-					if ( dto.waitTime < minWait )
-					{
-						minWait = dto.waitTime;
-					}
-					if ( dto.waitTime > maxWait )
-					{
-						maxWait = dto.waitTime;
-					}
-					
-					avgWait += dto.waitTime;
-					counter++;
-				}
-			
-				avgWait = avgWait / counter;
-
 				string = String.format(	"Floor %3d:	%10d seconds	%10d seconds	%10d seconds", 
-										floor + 1, avgWait, minWait, maxWait );
+										floor + 1, ( int ) waits.getMean(), ( int ) waits.getMin(), ( int ) waits.getMax() );
 				
 				System.out.println( string );
 			}
@@ -587,9 +1006,6 @@ public class Simulator
 				
 				System.out.println( string );
 			}
-			
-			// adds this floor's DTO list to the two-dimensional array
-			floorStats.add( thisFloor );
 		}
 		
 		System.out.println();
@@ -597,7 +1013,8 @@ public class Simulator
 	
 	/**
 	 * This method is called within generateStats().
-	 * It calculates and outputs the statistics for every individual person.
+	 * It calculates and outputs the statistics for every individual person, reading them one at a time from the passenger store
+	 * (so the report doesn't copy millions of people).
 	 */
 	private static void generatePersonStats()
 	{
@@ -606,11 +1023,18 @@ public class Simulator
 		
 		System.out.println( string );
 		
-		for ( PersonDTO dto : peopleStats )
+		PersonFacade people = 	PersonFacade.getInstance();
+		int numberOfPeople = 	people.getNumberOfPeople();
+		for ( int personID = 0; personID < numberOfPeople; personID++ )
 		{
-			string = String.format(	"%20d %12d seconds %20d %20d %12d seconds\n", 
-									dto.personID + 1, dto.waitTime, dto.startFloor + 1, dto.destFloor + 1, dto.rideTime );
-			System.out.print( string );
+			// only include people who have completed their trip
+			if ( people.hasReachedDestination( personID ) )
+			{
+				string = String.format(	"%20d %12d seconds %20d %20d %12d seconds\n", 
+										personID + 1, ( int ) ( people.getWaitTime( personID ) / 1000 ), people.getStartFloor( personID ) + 1,
+										people.getDestinationFloor( personID ) + 1, ( int ) ( people.getRideTime( personID ) / 1000 ) );
+				System.out.print( string );
+			}
 		}
 		
 		System.out.println();
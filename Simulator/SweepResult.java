@@ -0,0 +1,155 @@
+package Simulator;
+
+import building.TripHistograms;
+
+import simulationEngine.LatencyHistogram;
+import simulationEngine.RunningStatistic;
+
+/**
+ * This class holds the summary of one grid point of a parameter sweep: the elevator parameters and arrival rate it ran with,
+ * and the average and percentile wait and ride times of the people who completed their trips (merged over the point's replications).
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class SweepResult
+{
+	/**
+	 * The number of elevators in the building
+	 */
+	private short elevators;
+	
+	/**
+	 * The maximum number of people that can be in each elevator at once
+	 */
+	private short capacity;
+	
+	/**
+	 * The time (in milliseconds) it takes an elevator to get from one floor to the next
+	 */
+	private short timePerFloor;
+	
+	/**
+	 * The time (in milliseconds) it takes to open the doors, exchange people, and close the doors
+	 */
+	private short doorTime;
+	
+	/**
+	 * The number of persons generated per minute
+	 */
+	private int peoplePerMin;
+	
+	/**
+	 * The wait times (in seconds) of the people who completed their trip
+	 */
+	private RunningStatistic waitTimes;
+	
+	/**
+	 * The ride times (in seconds) of the people who completed their trip
+	 */
+	private RunningStatistic rideTimes;
+	
+	/**
+	 * The wait, ride and journey time histograms (in milliseconds) of the people who completed their trip
+	 */
+	private TripHistograms histograms;
+	
+	/**
+	 * Summarizes one grid point from the trip statistics merged over its replications
+	 * @param inElevators: the number of elevators in the building
+	 * @param inCapacity: the maximum number of people in each elevator
+	 * @param inTimePerFloor: the time (in milliseconds) it takes an elevator to get from one floor to the next
+	 * @param inDoorTime: the time (in milliseconds) it takes to open the doors, exchange people, and close the doors
+	 * @param inPeoplePerMin: the number of persons generated per minute
+	 * @param inWaitTimes: the wait times (in seconds) of every replication of the grid point
+	 * @param inRideTimes: the ride times (in seconds) of every replication of the grid point
+	 * @param inHistograms: the histograms of every replication of the grid point
+	 */
+	public SweepResult( short inElevators, short inCapacity, short inTimePerFloor, short inDoorTime, int inPeoplePerMin,
+						RunningStatistic inWaitTimes, RunningStatistic inRideTimes, TripHistograms inHistograms )
+	{
+		elevators = 	inElevators;
+		capacity = 		inCapacity;
+		timePerFloor = 	inTimePerFloor;
+		doorTime = 		inDoorTime;
+		peoplePerMin = 	inPeoplePerMin;
+		waitTimes = 	inWaitTimes;
+		rideTimes = 	inRideTimes;
+		histograms = 	inHistograms;
+	}
+	
+	/**
+	 * Returns the number of elevators of the grid point
+	 * @return the number of elevators
+	 */
+	public short getElevators() { return elevators; }
+	
+	/**
+	 * Returns the elevator capacity of the grid point
+	 * @return the maximum number of people in each elevator
+	 */
+	public short getCapacity() { return capacity; }
+	
+	/**
+	 * Returns the time per floor of the grid point
+	 * @return the time in milliseconds
+	 */
+	public short getTimePerFloor() { return timePerFloor; }
+	
+	/**
+	 * Returns the door time of the grid point
+	 * @return the time in milliseconds
+	 */
+	public short getDoorTime() { return doorTime; }
+	
+	/**
+	 * Returns the arrival rate of the grid point
+	 * @return the number of persons generated per minute
+	 */
+	public int getPeoplePerMin() { return peoplePerMin; }
+	
+	/**
+	 * Returns the number of people who completed their trip
+	 * @return the number of people
+	 */
+	public long getPeople() { return waitTimes.getCount(); }
+	
+	/**
+	 * Returns the average wait time of the grid point
+	 * @return the average wait time in seconds
+	 */
+	public double getAverageWait() { return waitTimes.getMean(); }
+	
+	/**
+	 * Returns a percentile of the wait times of the grid point
+	 * @param percent: the percentile to return (between 0 and 100)
+	 * @return the wait time in seconds
+	 */
+	public double getWaitPercentile( double percent ) { return percentile( histograms.getWaitTimes(), percent ); }
+	
+	/**
+	 * Returns the average ride time of the grid point
+	 * @return the average ride time in seconds
+	 */
+	public double getAverageRide() { return rideTimes.getMean(); }
+	
+	/**
+	 * Returns a percentile of the ride times of the grid point
+	 * @param percent: the percentile to return (between 0 and 100)
+	 * @return the ride time in seconds
+	 */
+	public double getRidePercentile( double percent ) { return percentile( histograms.getRideTimes(), percent ); }
+	
+	/**
+	 * Reads a percentile from a histogram
+	 * @param times: the histogram of the times (in milliseconds)
+	 * @param percent: the percentile to find (between 0 and 100)
+	 * @return the time in seconds, or 0 if there are no times
+	 * @throws IllegalArgumentException if the percentile is out of bounds
+	 */
+	private static double percentile( LatencyHistogram times, double percent ) throws IllegalArgumentException
+	{
+		return times.getValueAtPercentile( percent ) / 1000.0;
+	}
+}
@@ -0,0 +1,50 @@
+package Simulator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import building.TripHistograms;
+
+import simulationEngine.RunningStatistic;
+
+public class SweepResultTest {
+
+	@Test
+	public void testSummary()
+	{
+		RunningStatistic waits = new RunningStatistic();
+		RunningStatistic rides = new RunningStatistic();
+		TripHistograms histograms = new TripHistograms();
+		int[][] trips = {{9000,4000},{3000,2000},{6000,6000}};
+		for (int[] trip : trips)
+		{
+			waits.add(trip[0]/1000);
+			rides.add(trip[1]/1000);
+			histograms.record(trip[0], trip[1]);
+		}
+		SweepResult r = new SweepResult((short)2, (short)8, (short)1000, (short)3000, 5, waits, rides, histograms);
+		assertEquals(r.getPeople(),3);
+		assertEquals(r.getAverageWait(),6,1e-9);
+		assertEquals(r.getWaitPercentile(50),6,6/32.0);
+		assertEquals(r.getWaitPercentile(95),9,0);
+		assertEquals(r.getAverageRide(),4,1e-9);
+		assertEquals(r.getRidePercentile(50),4,4/32.0);
+		assertEquals(r.getRidePercentile(0),2,2/32.0);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadPercentile()
+	{
+		SweepResult r = new SweepResult((short)2, (short)8, (short)1000, (short)3000, 5, new RunningStatistic(), new RunningStatistic(), new TripHistograms());
+		r.getWaitPercentile(101);
+	}
+	
+	@Test
+	public void testEmpty()
+	{
+		SweepResult r = new SweepResult((short)2, (short)8, (short)1000, (short)3000, 5, new RunningStatistic(), new RunningStatistic(), new TripHistograms());
+		assertEquals(r.getPeople(),0);
+		assertEquals(r.getWaitPercentile(50),0,0);
+	}
+}
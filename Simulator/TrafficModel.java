@@ -0,0 +1,135 @@
+package Simulator;
+
+import java.util.Random;
+
+/**
+ * This class generates the trips that people make through the building from an origin-destination matrix,
+ * where each entry holds the relative rate of trips from one floor (the row) to another (the column).
+ * The start floor is sampled from the row totals, and the destination from the start floor's own row,
+ * each with a precomputed alias table, so a trip costs constant time and the destination never has to be redrawn.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class TrafficModel
+{
+	/**
+	 * Samples the start floor of a trip
+	 */
+	private AliasTable origins;
+	
+	/**
+	 * Samples the destination floor of a trip, per start floor (null for floors that no trips start from)
+	 */
+	private AliasTable[] destinations;
+	
+	/**
+	 * Builds the traffic model of an origin-destination matrix
+	 * @param odMatrix: the relative rate of trips from each floor (row) to each floor (column)
+	 * @throws IllegalArgumentException if the matrix isn't square, a weight is negative, a floor has trips to itself, or there are no trips
+	 */
+	public TrafficModel( double[][] odMatrix ) throws IllegalArgumentException
+	{
+		int numOfFloors = odMatrix.length;
+		double[] rowTotals = new double[ numOfFloors ];
+		destinations = new AliasTable[ numOfFloors ];
+		
+		for ( int start = 0; start < numOfFloors; start++ )
+		{
+			if ( odMatrix[ start ].length != numOfFloors )
+			{
+				throw new IllegalArgumentException( "Expected " + numOfFloors + " destination weights for floor " + ( start + 1 ) + ", got " + odMatrix[ start ].length );
+			}
+			if ( odMatrix[ start ][ start ] != 0 )
+			{
+				throw new IllegalArgumentException( "Floor " + ( start + 1 ) + " can't have trips to itself." );
+			}
+			
+			for ( double weight : odMatrix[ start ] )
+			{
+				rowTotals[ start ] += weight;
+			}
+			
+			// a floor nobody travels from doesn't need a destination table
+			if ( rowTotals[ start ] > 0 )
+			{
+				destinations[ start ] = new AliasTable( odMatrix[ start ] );
+			}
+		}
+		
+		origins = new AliasTable( rowTotals );
+	}
+	
+	/**
+	 * Builds the traffic model of independent start and destination floor weights (the format of the input file's percentage lines).
+	 * A trip's destination follows the destination weights of every floor except the start floor, which is what redrawing
+	 * the destination until it differs from the start floor used to produce.
+	 * @param startWeights: the relative weight of each floor as a start floor
+	 * @param destWeights: the relative weight of each floor as a destination floor
+	 * @return the traffic model
+	 * @throws IllegalArgumentException if the weight lists differ in length, a weight is negative, or no trip is possible
+	 */
+	public static TrafficModel fromFloorWeights( double[] startWeights, double[] destWeights ) throws IllegalArgumentException
+	{
+		int numOfFloors = startWeights.length;
+		if ( destWeights.length != numOfFloors )
+		{
+			throw new IllegalArgumentException( "Expected " + numOfFloors + " destination weights, got " + destWeights.length );
+		}
+		
+		double destTotal = 0;
+		for ( double weight : destWeights )
+		{
+			destTotal += weight;
+		}
+		
+		double[][] odMatrix = new double[ numOfFloors ][ numOfFloors ];
+		for ( int start = 0; start < numOfFloors; start++ )
+		{
+			// the start floor's own destination weight is left out, so the rest is renormalized
+			double otherFloors = destTotal - destWeights[ start ];
+			if ( otherFloors <= 0 )
+			{
+				continue;
+			}
+			
+			for ( int dest = 0; dest < numOfFloors; dest++ )
+			{
+				if ( dest != start )
+				{
+					odMatrix[ start ][ dest ] = startWeights[ start ] * destWeights[ dest ] / otherFloors;
+				}
+			}
+		}
+		
+		return new TrafficModel( odMatrix );
+	}
+	
+	/**
+	 * Returns the number of floors the model generates trips between
+	 * @return the number of floors
+	 */
+	public int getNumberOfFloors() { return destinations.length; }
+	
+	/**
+	 * Samples the start floor of a trip
+	 * @param random: the random number generator to sample with
+	 * @return the start floor
+	 */
+	public short sampleStartFloor( Random random )
+	{
+		return ( short ) origins.sample( random );
+	}
+	
+	/**
+	 * Samples the destination floor of a trip from the given start floor (never the start floor itself)
+	 * @param startFloor: the start floor of the trip, as returned by sampleStartFloor
+	 * @param random: the random number generator to sample with
+	 * @return the destination floor
+	 */
+	public short sampleDestinationFloor( short startFloor, Random random )
+	{
+		return ( short ) destinations[ startFloor ].sample( random );
+	}
+}
@@ -0,0 +1,70 @@
+package Simulator;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TrafficModelTest {
+
+	@Test
+	public void testMatrix()
+	{
+		// everyone starts in the lobby or on floor 3, and goes from the lobby to floor 2 or 3, or from floor 3 to the lobby
+		double[][] od = {	{0, 1, 3},
+							{0, 0, 0},
+							{2, 0, 0} };
+		TrafficModel m = new TrafficModel(od);
+		assertEquals(m.getNumberOfFloors(),3);
+		
+		Random random = new Random(3);
+		int[][] counts = new int[3][3];
+		for (int i = 0; i < 300000; i++)
+		{
+			short start = m.sampleStartFloor(random);
+			counts[start][m.sampleDestinationFloor(start, random)]++;
+		}
+		
+		assertEquals(counts[0][1]/300000.0,1/6.0,0.005);
+		assertEquals(counts[0][2]/300000.0,3/6.0,0.005);
+		assertEquals(counts[2][0]/300000.0,2/6.0,0.005);
+		assertEquals(counts[1][0]+counts[1][2]+counts[0][0]+counts[2][2]+counts[2][1],0);
+	}
+	
+	@Test
+	public void testFloorWeights()
+	{
+		TrafficModel m = TrafficModel.fromFloorWeights(new double[] {1, 1, 2}, new double[] {2, 1, 1});
+		Random random = new Random(4);
+		int[] fromLobby = new int[3];
+		int lobbyStarts = 0;
+		for (int i = 0; i < 300000; i++)
+		{
+			short start = m.sampleStartFloor(random);
+			short dest = m.sampleDestinationFloor(start, random);
+			assertTrue(start != dest);
+			if (start == 0)
+			{
+				lobbyStarts++;
+				fromLobby[dest]++;
+			}
+		}
+		
+		// a quarter of the people start in the lobby, and they split evenly between the other two floors
+		assertEquals(lobbyStarts/300000.0,0.25,0.005);
+		assertEquals((double)fromLobby[1]/lobbyStarts,0.5,0.01);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testTripToItself()
+	{
+		new TrafficModel(new double[][] {{1, 1}, {1, 0}});
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNotSquare()
+	{
+		new TrafficModel(new double[][] {{0, 1}, {1}});
+	}
+}
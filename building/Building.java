@@ -3,6 +3,7 @@ import java.util.ArrayList;
 
 import elevator.Elevator;
 import elevatorController.EController;
+import simulationEngine.LatencyHistogram;
 
 /**
  * This class represents a building, which houses many floors and acts as a facade for said floors.
@@ -14,9 +15,9 @@ import elevatorController.EController;
 public class Building {
 	
 	/**
-	 * Stores the number of floors inside the building
+	 * The simulation this building belongs to
 	 */
-	private static short numOfFloors;
+	private SimulationContext context;
 	
 	/**
 	 * A list of the floors contained in this building.
@@ -29,67 +30,35 @@ public class Building {
 	private EController myEController;
 	
 	/**
-	 * The single instance of the Building object.
+	 * Creates a new Building for a SimulationContext, which has already created the EController and the person facade.
+	 * It instantiates all floors based on the context's number of floors.
+	 * @param inContext:	the simulation this building belongs to
 	 */
-	private volatile static Building instance;
-	
-	/**
-	 * Creates a new Building with the specified arguments. Building also constructs the EController in it's constructor,
-	 * supporting it with the numberOfElevators parameter. It also instantiates all floors based on the number inputed.
-	 * @param numberOfFloors:	number of floors the building will maintain
-	 * @param numberOfElevators:	number of elevators that EController will maintain
-	 * @param inCapacity:	The maximum number of people the new elevator can carry.
-	 * @param inSpeed:	The amount of time it takes for the new elevator to get from one floor to the next/
-	 * @param inDoorSpeed:	The amount of time it takes for the new elevator to open it doors, exchange people, and close its doors.
-	 * @param inDefaultFloor:	The default floor of the new elevator.
-	 * @throws IllegalArgumentException 
-	 */
-	private Building( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor ) throws IllegalArgumentException
+	Building( SimulationContext inContext )
 	{
-		numOfFloors = numberOfFloors;
+		context = inContext;
+		myEController = inContext.getEController();
 		
 		// create floors
-		myFloors = new ArrayList< Floor >();
-		for( short i = 0; i < numberOfFloors; i++ )
-		{
-			Floor tempFloor = new Floor( ( short ) i );
-			myFloors.add( tempFloor );
-		}
-		
-		// create EController
-		myEController = EController.getInstance( numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor );
+		createFloors();
 	}
 	
 	/**
-	 * Creates a new Building with the specified arguments. Building also constructs the EController in it's constructor,
-	 * supporting it with the numberOfElevators parameter. It also instantiates all floors based on the number inputed.
-	 * This version of the building constructor accepts a default floors array list instead of a universal default floor.
-	 * @param numberOfFloors:	number of floors the building will maintain
-	 * @param numberOfElevators:	number of elevators that EController will maintain
-	 * @param inCapacity:	The maximum number of people the new elevator can carry.
-	 * @param inSpeed:	The amount of time it takes for the new elevator to get from one floor to the next/
-	 * @param inDoorSpeed:	The amount of time it takes for the new elevator to open it doors, exchange people, and close its doors.
-	 * @param inDefaultFloor:	The default floor of the new elevator.
-	 * @throws IllegalArgumentException 
+	 * Creates one floor for each floor number of the context
 	 */
-	private Building( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors ) throws IllegalArgumentException
-	{	
-		numOfFloors = numberOfFloors;
-		
-		// create floors
+	private void createFloors()
+	{
+		short numOfFloors = context.getNumberOfFloors();
 		myFloors = new ArrayList< Floor >();
-		for( short i = 0; i < numberOfFloors; i++ )
+		for( short i = 0; i < numOfFloors; i++ )
 		{
-			Floor tempFloor = new Floor( ( short ) i );
+			Floor tempFloor = new Floor( ( short ) i, context );
 			myFloors.add( tempFloor );
 		}
-		
-		// create EController
-		myEController = EController.getInstance( numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloors );
 	}
 	
 	/**
-	* Returns the singleton instance of Building.
+	* Returns the Building of the default simulation context.
 	* This version of getInstance doesn't need a parameter,
 	* so it automatically forwards the call to getInstance(short numOfElevators) with a parameter of 0.
 	* @return Building
@@ -101,8 +70,8 @@ public class Building {
 	}
 	
 	/**
-	 * Returns the singleton instance of Building.
-	 * If the singleton Building hasn't been initialized yet, it initializes it with the parameter value.
+	 * Returns the Building of the default simulation context.
+	 * If the default context hasn't been initialized yet, it initializes it with the parameter value.
 	 * Otherwise, it returns the pre-existing instance.
 	 * @param numberOfFloors:	number of floors the building will maintain
 	 * @param numberOfElevators:	number of elevators that EController will maintain
@@ -114,22 +83,17 @@ public class Building {
 	 */
 	public static Building getInstance( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor ) throws IllegalArgumentException
 	{
-		if(instance == null)
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		for( short i = 0; i < numberOfElevators; i++ )
 		{
-			synchronized(Building.class)
-			{
-				if(instance == null)
-				{
-					instance = new Building( numberOfFloors, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor );
-				}
-			}
+			defaultFloors.add( inDefaultFloor );
 		}
-		return instance;
+		return Building.getInstance( numberOfFloors, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, defaultFloors );
 	}
 	
 	/**
-	 * Returns the singleton instance of Building.
-	 * If the singleton Building hasn't been initialized yet, it initializes it with the parameter value.
+	 * Returns the Building of the default simulation context.
+	 * If the default context hasn't been initialized yet, it initializes it with the parameter value.
 	 * This version accepts a default floor array list instead of a universal default floor.
 	 * Otherwise, it returns the pre-existing instance.
 	 * @param numberOfFloors:	number of floors the building will maintain
@@ -142,17 +106,7 @@ public class Building {
 	 */
 	public static Building getInstance( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloor ) throws IllegalArgumentException
 	{
-		if(instance == null)
-		{
-			synchronized(Building.class)
-			{
-				if(instance == null)
-				{
-					instance = new Building( numberOfFloors, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor );
-				}
-			}
-		}
-		return instance;
+		return SimulationContext.getDefault( numberOfFloors, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor ).getBuilding();
 	}
 
 	
@@ -162,7 +116,7 @@ public class Building {
 	 * @param floorNum The floor to send the person to.
 	 * @param person The person to send.
 	 */
-	public void addPersonToFloor( short floorNum, short personID )
+	public void addPersonToFloor( short floorNum, int personID )
 	{
 		myFloors.get( floorNum ).addPerson( personID );
 	}
@@ -173,7 +127,7 @@ public class Building {
 	 * @param floorNum The floor to get the person from.
 	 * @param personID The ID of the person
 	 */
-	public void sendPersonToElevator( short floorNum, short personID )
+	public void sendPersonToElevator( short floorNum, int personID )
 	{
 		myFloors.get( floorNum ).sendPerson( personID );
 	}
@@ -185,20 +139,31 @@ public class Building {
 	 * @param directionIsUp The direction that the elevator is going in.
 	 * @return
 	 */
-	public short getNextPassengerFromFloor( short floorNum, boolean directionIsUp, boolean isDestinationsEmpty )
+	public int getNextPassengerFromFloor( short floorNum, boolean directionIsUp, boolean isDestinationsEmpty )
 	{
 		return myFloors.get( floorNum ).getNextPassenger( directionIsUp, isDestinationsEmpty );
 	}
 	
+	/**
+	 * Retrieves another person to get on the elevator, among the people that elevator may pick up (see Floor.getNextPassenger()).
+	 * @param floorNum The floor to get passengers from.
+	 * @param directionIsUp The direction that the elevator is going in.
+	 * @param isDestinationsEmpty true if the elevator has no more destinations
+	 * @param elevatorNum The elevator picking people up.
+	 * @return the person ID, or -1 if nobody gets on
+	 */
+	public int getNextPassengerFromFloor( short floorNum, boolean directionIsUp, boolean isDestinationsEmpty, short elevatorNum )
+	{
+		return myFloors.get( floorNum ).getNextPassenger( directionIsUp, isDestinationsEmpty, elevatorNum );
+	}
+	
 	/**
 	 * Returns the number of floors inside the building.
-	 * Number of floors must be statically accessed. Otherwise, it may be null if certain set methods within the elevator's
-	 * constructor call this method because the Building constructor hasn't finished yet.
 	 * @return The number of floors the building has
 	 */
-	public static short getNumberOfFloors()
+	public short getNumberOfFloors()
 	{
-		return numOfFloors;
+		return context.getNumberOfFloors();
 	}
 	
 	/**
@@ -222,20 +187,85 @@ public class Building {
 		this.myFloors.get( startFloor ).pressCallButton( goingUp );
 	}
 	
+	/**
+	 * Forwards a destination entered on a call box keypad to the floor (destination dispatch)
+	 * @param startFloor: the floor the keypad is on
+	 * @param destFloor: the floor the person wants to go to
+	 * @throws IllegalArgumentException
+	 */
+	public void pressDestinationKeypad( short startFloor, short destFloor ) throws IllegalArgumentException
+	{
+		myFloors.get( startFloor ).pressDestination( destFloor );
+	}
+	
+	/**
+	 * Forwards to the floor that an elevator is taking on the people waiting to go in a direction, which puts out that call box lamp
+	 * @param floorNum: the floor the elevator is at
+	 * @param goingUp: the direction of the people getting on
+	 */
+	public void answerCallBox( short floorNum, boolean goingUp )
+	{
+		myFloors.get( floorNum ).answerCallButton( goingUp );
+	}
+	
+	/**
+	 * Checks whether the call box lamp of a floor is lit for a direction (someone is waiting for an elevator to answer the call)
+	 * @param floorNum: the floor of the call box
+	 * @param goingUp: the direction of the lamp
+	 * @return true if the lamp is lit
+	 */
+	public boolean isCallBoxLit( short floorNum, boolean goingUp )
+	{
+		return myFloors.get( floorNum ).getCallBox().isLit( goingUp );
+	}
+	
+	/**
+	 * Checks whether anyone on a floor waits to go to one of a range of floors (see Floor.isAnyoneWaitingFor())
+	 * @param floorNum: the floor the people wait on
+	 * @param goingUp: the direction they go in
+	 * @param lowest: the lowest destination of the range
+	 * @param highest: the highest destination of the range
+	 * @return true if someone waits for a floor in the range
+	 */
+	public boolean isAnyoneWaitingFor( short floorNum, boolean goingUp, short lowest, short highest )
+	{
+		return myFloors.get( floorNum ).isAnyoneWaitingFor( goingUp, lowest, highest );
+	}
+	
+	/**
+	 * Forwards to the floor that an elevator is done letting people on, so the floor's call box lamps are brought up to date
+	 * @param floorNum: the floor the elevator is at
+	 * @throws IllegalArgumentException
+	 */
+	public void refreshCallBox( short floorNum ) throws IllegalArgumentException
+	{
+		myFloors.get( floorNum ).refreshCallButtons();
+	}
+	
+	/**
+	 * Returns the hall call response times of every call box, from a lamp being lit until an elevator answered the call
+	 * @return the response times in milliseconds
+	 */
+	public LatencyHistogram getHallCallResponseTimes()
+	{
+		LatencyHistogram responseTimes = new LatencyHistogram();
+		for ( Floor floor : myFloors )
+		{
+			floor.getCallBox().mergeResponseTimesInto( responseTimes );
+		}
+		
+		return responseTimes;
+	}
+	
 	/**
 	 * This resets all elements of the simulation to default state.
 	 * This allows the simulation to be run again
-	 * (needed because singletons cannot be recreated during the program)
+	 * (needed because the default context cannot be recreated during the program)
 	 */
 	public void resetSimulation()
 	{
-		myFloors = new ArrayList< Floor >();
-		for( short i = 0; i < numOfFloors; i++ )
-		{
-			Floor tempFloor = new Floor( ( short ) i );
-			myFloors.add( tempFloor );
-		}
-		PersonFacade.getInstance().reset();
-		EController.getInstance().reset();
+		createFloors();
+		context.getPersonFacade().reset();
+		myEController.reset();
 	}
 }
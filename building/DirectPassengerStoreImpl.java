@@ -0,0 +1,315 @@
+package building;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * This is the off-heap implementation of the PassengerStore interface: one direct byte buffer per field and chunk
+ * of CHUNK_SIZE passengers, indexed by passenger ID. The passengers don't count against the Java heap,
+ * and the garbage collector never has to scan them. As in PassengerStoreImpl, the chunks are published through one volatile
+ * holder that add() swaps for a copy with one more chunk, so only adding and clearing take the lock, and a write
+ * racing a grow still lands in the passenger's own chunk.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class DirectPassengerStoreImpl implements PassengerStore
+{
+	/**
+	 * The number of bits of a passenger ID that index into a chunk
+	 */
+	private static final int CHUNK_SHIFT = 12;
+	
+	/**
+	 * The number of passengers in a chunk
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	
+	/**
+	 * The bits of a passenger ID that index into a chunk
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	
+	/**
+	 * The largest number of passengers the store can hold (the IDs are ints, and the byte offsets only go up to a chunk)
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE;
+	
+	/**
+	 * The number of passengers in the store (written after the passenger, so a reader that sees the ID also sees the passenger's chunk)
+	 */
+	private volatile int size;
+	
+	/**
+	 * The chunks of every column
+	 */
+	private volatile Columns columns;
+	
+	/**
+	 * Creates an empty store
+	 */
+	public DirectPassengerStoreImpl()
+	{
+		columns = 	new Columns();
+		size = 		0;
+	}
+	
+	/**
+	 * Adds a passenger who starts waiting for an elevator
+	 * @param startFloor: the floor the passenger starts on
+	 * @param destFloor: the floor the passenger wants to reach
+	 * @param startWaitTime: the time (in milliseconds) the passenger started waiting
+	 * @return the ID of the new passenger (the number of passengers added before them)
+	 * @throws RuntimeException if the store can't hold any more passengers
+	 */
+	@Override
+	public synchronized int add( short startFloor, short destFloor, long startWaitTime ) throws RuntimeException
+	{
+		int personID = size;
+		if ( personID == MAX_CAPACITY )
+		{
+			throw new RuntimeException( "The passenger store is full (" + MAX_CAPACITY + " passengers)." );
+		}
+		
+		Columns c = columns;
+		int chunk = personID >>> CHUNK_SHIFT;
+		if ( chunk == c.startFloors.length )
+		{
+			c = new Columns( c );
+			columns = c;
+		}
+		
+		int index = personID & CHUNK_MASK;
+		c.startFloors[ chunk ].putShort( index * 2, startFloor );
+		c.destFloors[ chunk ].putShort( index * 2, destFloor );
+		c.startWaitTimes[ chunk ].putLong( index * 8, startWaitTime );
+		c.stopWaitTimes[ chunk ].putLong( index * 8, 0 );
+		c.startRideTimes[ chunk ].putLong( index * 8, 0 );
+		c.stopRideTimes[ chunk ].putLong( index * 8, 0 );
+		c.reachedDestinations[ chunk ].put( index, ( byte ) 0 );
+		size = personID + 1;
+		
+		return personID;
+	}
+	
+	/**
+	 * Returns the number of passengers in the store
+	 * @return the number of passengers
+	 */
+	@Override
+	public int size() { return size; }
+	
+	/**
+	 * Removes every passenger, so the IDs start from 0 again
+	 */
+	@Override
+	public synchronized void clear()
+	{
+		size = 		0;
+		columns = 	new Columns();
+	}
+	
+	/**
+	 * Returns a passenger's start floor
+	 * @param personID: the ID of the passenger
+	 * @return the start floor
+	 */
+	@Override
+	public short getStartFloor( int personID ) { return columns( personID ).startFloors[ personID >>> CHUNK_SHIFT ].getShort( ( personID & CHUNK_MASK ) * 2 ); }
+	
+	/**
+	 * Returns a passenger's destination floor
+	 * @param personID: the ID of the passenger
+	 * @return the destination floor
+	 */
+	@Override
+	public short getDestinationFloor( int personID ) { return columns( personID ).destFloors[ personID >>> CHUNK_SHIFT ].getShort( ( personID & CHUNK_MASK ) * 2 ); }
+	
+	/**
+	 * Returns the time the passenger started waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds
+	 */
+	@Override
+	public long getStartWaitTime( int personID ) { return columns( personID ).startWaitTimes[ personID >>> CHUNK_SHIFT ].getLong( ( personID & CHUNK_MASK ) * 8 ); }
+	
+	/**
+	 * Returns the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	@Override
+	public long getStopWaitTime( int personID ) { return columns( personID ).stopWaitTimes[ personID >>> CHUNK_SHIFT ].getLong( ( personID & CHUNK_MASK ) * 8 ); }
+	
+	/**
+	 * Sets the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStopWaitTime( int personID, long time ) { columns( personID ).stopWaitTimes[ personID >>> CHUNK_SHIFT ].putLong( ( personID & CHUNK_MASK ) * 8, time ); }
+	
+	/**
+	 * Returns the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	@Override
+	public long getStartRideTime( int personID ) { return columns( personID ).startRideTimes[ personID >>> CHUNK_SHIFT ].getLong( ( personID & CHUNK_MASK ) * 8 ); }
+	
+	/**
+	 * Sets the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStartRideTime( int personID, long time ) { columns( personID ).startRideTimes[ personID >>> CHUNK_SHIFT ].putLong( ( personID & CHUNK_MASK ) * 8, time ); }
+	
+	/**
+	 * Returns the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got off)
+	 */
+	@Override
+	public long getStopRideTime( int personID ) { return columns( personID ).stopRideTimes[ personID >>> CHUNK_SHIFT ].getLong( ( personID & CHUNK_MASK ) * 8 ); }
+	
+	/**
+	 * Sets the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStopRideTime( int personID, long time ) { columns( personID ).stopRideTimes[ personID >>> CHUNK_SHIFT ].putLong( ( personID & CHUNK_MASK ) * 8, time ); }
+	
+	/**
+	 * Checks whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @return true if they've reached their destination, otherwise false
+	 */
+	@Override
+	public boolean hasReachedDestination( int personID ) { return columns( personID ).reachedDestinations[ personID >>> CHUNK_SHIFT ].get( personID & CHUNK_MASK ) != 0; }
+	
+	/**
+	 * Flags whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @param status: true if they've reached their destination, otherwise false
+	 */
+	@Override
+	public void setHasReachedDestination( int personID, boolean status ) { columns( personID ).reachedDestinations[ personID >>> CHUNK_SHIFT ].put( personID & CHUNK_MASK, ( byte ) ( status ? 1 : 0 ) ); }
+	
+	/**
+	 * Checks that a passenger ID belongs to a passenger in the store, and returns the columns holding them
+	 * (the size is read first, so the columns read after it have the passenger's chunk)
+	 * @param personID: the ID of the passenger
+	 * @return the columns
+	 * @throws IllegalArgumentException if there is no such passenger
+	 */
+	private Columns columns( int personID ) throws IllegalArgumentException
+	{
+		int currSize = size;
+		if ( personID < 0 || personID >= currSize )
+		{
+			throw new IllegalArgumentException( "Passenger ID out of bounds, expected 0-" + ( currSize - 1 ) + ", got " + personID );
+		}
+		
+		return columns;
+	}
+	
+	/**
+	 * Allocates one direct buffer in the platform's byte order (so reads and writes don't swap bytes)
+	 * @param bytes: the size of the buffer
+	 * @return the buffer
+	 */
+	private static ByteBuffer allocateColumn( int bytes )
+	{
+		return ByteBuffer.allocateDirect( bytes ).order( ByteOrder.nativeOrder() );
+	}
+	
+	/**
+	 * Copies a column's chunks into a list with room for one more, and allocates that chunk
+	 * @param column: the chunks of the column
+	 * @param bytes: the size of a passenger in the column
+	 * @return the new list of chunks
+	 */
+	private static ByteBuffer[] addChunk( ByteBuffer[] column, int bytes )
+	{
+		ByteBuffer[] chunks = Arrays.copyOf( column, column.length + 1 );
+		chunks[ column.length ] = allocateColumn( CHUNK_SIZE * bytes );
+		
+		return chunks;
+	}
+	
+	/**
+	 * The buffers of every column, by chunk number. A Columns is never changed once it's published:
+	 * the store grows by publishing a copy with one more chunk, and the copy shares every buffer the old one had.
+	 * The buffers are only read and written at absolute offsets, so threads never share a position.
+	 */
+	private static class Columns
+	{
+		/**
+		 * The start floor of each passenger (2 bytes each)
+		 */
+		ByteBuffer[] startFloors;
+		
+		/**
+		 * The destination floor of each passenger (2 bytes each)
+		 */
+		ByteBuffer[] destFloors;
+		
+		/**
+		 * The time each passenger started waiting (8 bytes each)
+		 */
+		ByteBuffer[] startWaitTimes;
+		
+		/**
+		 * The time each passenger stopped waiting (8 bytes each)
+		 */
+		ByteBuffer[] stopWaitTimes;
+		
+		/**
+		 * The time each passenger started riding (8 bytes each)
+		 */
+		ByteBuffer[] startRideTimes;
+		
+		/**
+		 * The time each passenger stopped riding (8 bytes each)
+		 */
+		ByteBuffer[] stopRideTimes;
+		
+		/**
+		 * Whether each passenger has reached their destination (1 byte each)
+		 */
+		ByteBuffer[] reachedDestinations;
+		
+		/**
+		 * Creates columns with no chunks (add() allocates the first one)
+		 */
+		Columns()
+		{
+			startFloors = 			new ByteBuffer[ 0 ];
+			destFloors = 			new ByteBuffer[ 0 ];
+			startWaitTimes = 		new ByteBuffer[ 0 ];
+			stopWaitTimes = 		new ByteBuffer[ 0 ];
+			startRideTimes = 		new ByteBuffer[ 0 ];
+			stopRideTimes = 		new ByteBuffer[ 0 ];
+			reachedDestinations = 	new ByteBuffer[ 0 ];
+		}
+		
+		/**
+		 * Creates columns with the chunks of full ones, and one more empty chunk
+		 * @param full: the columns whose chunks are all taken
+		 */
+		Columns( Columns full )
+		{
+			startFloors = 			addChunk( full.startFloors, 2 );
+			destFloors = 			addChunk( full.destFloors, 2 );
+			startWaitTimes = 		addChunk( full.startWaitTimes, 8 );
+			stopWaitTimes = 		addChunk( full.stopWaitTimes, 8 );
+			startRideTimes = 		addChunk( full.startRideTimes, 8 );
+			stopRideTimes = 		addChunk( full.stopRideTimes, 8 );
+			reachedDestinations = 	addChunk( full.reachedDestinations, 1 );
+		}
+	}
+}
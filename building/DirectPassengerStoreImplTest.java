@@ -0,0 +1,93 @@
+package building;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DirectPassengerStoreImplTest {
+
+	@Test
+	public void testColumns()
+	{
+		PassengerStore s = new DirectPassengerStoreImpl();
+		assertEquals(s.size(),0);
+		assertEquals(s.add((short)2, (short)7, 1000),0);
+		assertEquals(s.add((short)9, (short)0, 2500),1);
+		assertEquals(s.size(),2);
+		assertEquals(s.getStartFloor(1),9);
+		assertEquals(s.getDestinationFloor(0),7);
+		assertEquals(s.getStartWaitTime(1),2500);
+		assertEquals(s.getStopWaitTime(0),0);
+		s.setStopWaitTime(0, 4000);
+		s.setStartRideTime(0, 4000);
+		s.setStopRideTime(0, 9000);
+		s.setHasReachedDestination(0, true);
+		assertEquals(s.getStopWaitTime(0),4000);
+		assertEquals(s.getStartRideTime(0),4000);
+		assertEquals(s.getStopRideTime(0),9000);
+		assertTrue(s.hasReachedDestination(0));
+		assertFalse(s.hasReachedDestination(1));
+		s.clear();
+		assertEquals(s.size(),0);
+		assertEquals(s.add((short)1, (short)3, 0),0);
+	}
+	
+	@Test
+	public void testBeyondShortIDs()
+	{
+		PassengerStore s = new DirectPassengerStoreImpl();
+		for (int i = 0; i < 100000; i++)
+		{
+			assertEquals(s.add((short)(i % 50), (short)(i % 50 + 1), i), i);
+		}
+		s.setStopRideTime(99999, 123456789012L);
+		assertEquals(s.size(),100000);
+		assertEquals(s.getStartFloor(70000),0);
+		assertEquals(s.getDestinationFloor(40001),2);
+		assertEquals(s.getStartWaitTime(65536),65536);
+		assertEquals(s.getStopRideTime(99999),123456789012L);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnknownID()
+	{
+		PassengerStore s = new DirectPassengerStoreImpl();
+		s.add((short)0, (short)1, 0);
+		s.getStartFloor(1);
+	}
+	
+	@Test(timeout=60000)
+	public void testConcurrentWrites() throws InterruptedException
+	{
+		// the simulator thread adds passengers (growing the columns) while an elevator thread writes the times of the ones already added
+		final PassengerStore s = new DirectPassengerStoreImpl();
+		final int people = 200000;
+		Thread adder = new Thread( new Runnable()
+		{
+			public void run()
+			{
+				for (int i = 0; i < people; i++)
+				{
+					s.add((short)0, (short)1, i);
+				}
+			}
+		} );
+		adder.start();
+		int written = 0;
+		while (written < people)
+		{
+			int size = s.size();
+			for (; written < size; written++)
+			{
+				s.setStopWaitTime(written, written + 1);
+				s.setStopRideTime(written, written + 2);
+			}
+		}
+		adder.join();
+		for (int i = 0; i < people; i++)
+		{
+			assertEquals(s.getStopWaitTime(i),i + 1);
+			assertEquals(s.getStopRideTime(i),i + 2);
+		}
+	}
+}
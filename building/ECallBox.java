@@ -1,10 +1,17 @@
 package building;
+import java.util.concurrent.atomic.AtomicLong;
+
 import elevatorController.EController;
 import elevatorController.ERequest;
+import simulationEngine.LatencyHistogram;
 
 /**
  * This class represents a call-box, one of which is found on each floor.
  * It takes creates elevator requests upon being used and sends them to the EController.
+ * Each button has a lamp that latches when the button is pressed and goes out when an elevator answers the call,
+ * so pressing a lit button again doesn't send another request once an elevator has taken the call.
+ * The call box's two requests (one per button) and its keypad's requests (one per destination) are created once, with the call box,
+ * and sent every time the call is made.
  * 
  * @author Jeremy Ma
  * @author Hannah Spearman
@@ -12,44 +19,257 @@ import elevatorController.ERequest;
  */
 public class ECallBox
 {
+	/**
+	 * The lamp time of a button whose lamp is off
+	 */
+	private static final long LAMP_OFF = -1;
+	
 	/**
 	 * Stores the floor number that this callbox resides on
 	 */
 	private short floorNum;
 	
 	/**
-	 * Creates a new ECallBox with the specified arguments.
+	 * The simulation this callbox belongs to
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * Stores the elevator controller that this callbox sends its requests to
+	 */
+	private EController controller;
+	
+	/**
+	 * The request sent when the up button is pressed
+	 */
+	private ERequest upRequest;
+	
+	/**
+	 * The request sent when the down button is pressed
+	 */
+	private ERequest downRequest;
+	
+	/**
+	 * The request sent when a destination is entered on the keypad, by destination floor (null for this call box's own floor)
+	 */
+	private ERequest[] destinationRequests;
+	
+	/**
+	 * The time (in milliseconds) the up lamp was lit, or LAMP_OFF if it's off
+	 */
+	private AtomicLong upLampTime;
+	
+	/**
+	 * The time (in milliseconds) the down lamp was lit, or LAMP_OFF if it's off
+	 */
+	private AtomicLong downLampTime;
+	
+	/**
+	 * The hall call response times (in milliseconds), from a lamp being lit until an elevator answered the call
+	 */
+	private LatencyHistogram responseTimes;
+	
+	/**
+	 * Creates a new ECallBox with the specified arguments. The call box belongs to the default simulation context.
 	 * @param inFloorNum:		the floor number that this call box exists on
 	 */
 	public ECallBox(short inFloorNum) throws IllegalArgumentException
 	{
-		if(inFloorNum < 0 || inFloorNum > Building.getNumberOfFloors())
+		this( inFloorNum, SimulationContext.getDefault() );
+	}
+	
+	/**
+	 * Creates a new ECallBox with the specified arguments.
+	 * @param inFloorNum:		the floor number that this call box exists on
+	 * @param inContext:		the simulation this call box belongs to
+	 */
+	public ECallBox(short inFloorNum, SimulationContext inContext) throws IllegalArgumentException
+	{
+		short numOfFloors = inContext.getNumberOfFloors();
+		if(inFloorNum < 0 || inFloorNum > numOfFloors)
 		{
-			throw new IllegalArgumentException("Floor out of bounds, expected 0-"+Short.toString(Building.getNumberOfFloors())+", got "+Short.toString(inFloorNum));
+			throw new IllegalArgumentException("Floor out of bounds, expected 0-"+Short.toString(numOfFloors)+", got "+Short.toString(inFloorNum));
 		}
 		floorNum = inFloorNum;
+		context = inContext;
+		controller = inContext.getEController();
+		
+		upRequest = 		new ERequest( floorNum, true, context );
+		downRequest = 		new ERequest( floorNum, false, context );
+		destinationRequests = new ERequest[ numOfFloors ];
+		for ( short destFloor = 0; destFloor < numOfFloors; destFloor++ )
+		{
+			if ( destFloor != floorNum )
+			{
+				destinationRequests[ destFloor ] = new ERequest( floorNum, destFloor, context );
+			}
+		}
+		upLampTime = 		new AtomicLong( LAMP_OFF );
+		downLampTime = 		new AtomicLong( LAMP_OFF );
+		responseTimes = 	new LatencyHistogram();
 	}
 	
 	/**
-	* Creates an UP ERequest from the floor that the call-box was pressed,
-	* and sends it to EController for processing.
+	* Lights the up lamp and sends the up request to EController for processing
+	* (see press()).
 	* @throws IllegalArgumentException 
 	* @see EController.processCallBoxRequest()
 	*/
 	public void callForUp() throws IllegalArgumentException
 	{
-		EController.getInstance().processCallBoxRequest( new ERequest( floorNum, true ) );
+		press( true );
 	}
 	
 	/**
-	* Creates a DOWN ERequest from the floor that the call-box was pressed,
-	* and sends it to EController for processing.
+	* Lights the down lamp and sends the down request to EController for processing
+	* (see press()).
 	* @throws IllegalArgumentException 
 	* @see EController.processCallBoxRequest()
 	*/
 	public void callForDown() throws IllegalArgumentException
 	{
-		EController.getInstance().processCallBoxRequest( new ERequest( floorNum, false ) );
+		press( false );
+	}
+	
+	/**
+	* Sends the request for a destination entered on the keypad (destination dispatch) to EController for processing.
+	* @param destFloor: the floor the passenger wants to go to
+	* @throws IllegalArgumentException if the destination is out of bounds or is this floor
+	* @see EController.processCallBoxRequest()
+	*/
+	public void callForDestination( short destFloor ) throws IllegalArgumentException
+	{
+		controller.processCallBoxRequest( getRequest( destFloor ) );
+	}
+	
+	/**
+	 * Presses a button: lights its lamp and makes its call. If the lamp is already lit the call has already been made,
+	 * so it's only made again while no elevator has taken it (which gives the controller another chance to assign it),
+	 * or while the elevators are zoned and it's the lobby's up button (every band sends its own elevator, see EController.isZonedCall()).
+	 * @param goingUp: the button's direction
+	 * @return true if the lamp was lit by this press
+	 * @throws IllegalArgumentException
+	 */
+	public boolean press( boolean goingUp ) throws IllegalArgumentException
+	{
+		if ( getLampTime( goingUp ).compareAndSet( LAMP_OFF, currentTimeMillis() ) )
+		{
+			controller.processCallBoxRequest( getRequest( goingUp ) );
+			return true;
+		}
+		
+		if ( controller.getPendingRequests().contains( floorNum, goingUp ) || controller.isZonedCall( floorNum, goingUp ) )
+		{
+			controller.processCallBoxRequest( getRequest( goingUp ) );
+		}
+		return false;
 	}
 	
+	/**
+	 * Makes a button's call again for people who are still waiting after an elevator left without them
+	 * (the elevator was full, or went the other way). Lights the lamp if it's off, otherwise it keeps the time it was lit.
+	 * @param goingUp: the button's direction
+	 * @throws IllegalArgumentException
+	 */
+	public void renew( boolean goingUp ) throws IllegalArgumentException
+	{
+		getLampTime( goingUp ).compareAndSet( LAMP_OFF, currentTimeMillis() );
+		controller.processCallBoxRequest( getRequest( goingUp ) );
+	}
+	
+	/**
+	 * Puts a button's lamp out because an elevator answered its call, and records the call's response time
+	 * @param goingUp: the button's direction
+	 * @return true if the lamp was lit
+	 */
+	public boolean answer( boolean goingUp )
+	{
+		long lampTime = getLampTime( goingUp ).getAndSet( LAMP_OFF );
+		if ( lampTime == LAMP_OFF )
+		{
+			return false;
+		}
+		
+		synchronized ( responseTimes )
+		{
+			responseTimes.record( Math.max( 0, currentTimeMillis() - lampTime ) );
+		}
+		return true;
+	}
+	
+	/**
+	 * Puts a button's lamp out without recording a response time (nobody is waiting behind it anymore)
+	 * @param goingUp: the button's direction
+	 */
+	public void cancel( boolean goingUp )
+	{
+		getLampTime( goingUp ).set( LAMP_OFF );
+	}
+	
+	/**
+	 * Checks whether a button's lamp is lit
+	 * @param goingUp: the button's direction
+	 * @return true if the button's call hasn't been answered yet
+	 */
+	public boolean isLit( boolean goingUp )
+	{
+		return getLampTime( goingUp ).get() != LAMP_OFF;
+	}
+	
+	/**
+	 * Returns the request a button sends (the same instance every time)
+	 * @param goingUp: the button's direction
+	 * @return the button's request
+	 */
+	public ERequest getRequest( boolean goingUp )
+	{
+		return goingUp ? upRequest : downRequest;
+	}
+	
+	/**
+	 * Returns the request the keypad sends for a destination (the same instance every time)
+	 * @param destFloor: the floor the passenger wants to go to
+	 * @return the destination's request
+	 * @throws IllegalArgumentException if the destination is out of bounds or is this floor
+	 */
+	public ERequest getRequest( short destFloor ) throws IllegalArgumentException
+	{
+		if ( destFloor < 0 || destFloor >= destinationRequests.length || destFloor == floorNum )
+		{
+			throw new IllegalArgumentException( "Destination out of bounds, expected 0-" + ( destinationRequests.length - 1 ) + " other than " + floorNum + ", got " + destFloor );
+		}
+		
+		return destinationRequests[ destFloor ];
+	}
+	
+	/**
+	 * Adds the response times of the answered calls to a histogram
+	 * @param histogram: the histogram to add the response times to
+	 */
+	public void mergeResponseTimesInto( LatencyHistogram histogram )
+	{
+		synchronized ( responseTimes )
+		{
+			histogram.merge( responseTimes );
+		}
+	}
+	
+	/**
+	 * Returns the lamp time of a button
+	 * @param goingUp: the button's direction
+	 * @return the time the lamp was lit, or LAMP_OFF
+	 */
+	private AtomicLong getLampTime( boolean goingUp )
+	{
+		return goingUp ? upLampTime : downLampTime;
+	}
+	
+	/**
+	 * Reads the simulation's clock (the same one the people's wait timers use)
+	 * @return the current time in milliseconds
+	 */
+	private long currentTimeMillis()
+	{
+		return context.getPersonFacade().getClock().currentTimeMillis();
+	}
 }
@@ -9,6 +9,8 @@ import org.junit.Test;
 
 import elevator.Elevator;
 import elevatorController.EController;
+import elevatorController.ERequest;
+import simulationEngine.LatencyHistogram;
 
 public class ECallBoxTest {
 
@@ -63,4 +65,59 @@ public class ECallBoxTest {
 		Elevator e = EController.getInstance().getElevator((short)0);
 		assertTrue(e.isInDestinations((short)3));
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testLatchedLamp()
+	{
+		e = new ECallBox((short)7);
+		assertFalse(e.isLit(true));
+		assertTrue(e.press(true));
+		assertTrue(e.isLit(true));
+		assertFalse(e.isLit(false));
+		assertFalse(e.press(true));
+		assertSame(e.getRequest(true),e.getRequest(true));
+		assertEquals(e.getRequest(true).getFloorNum(),7);
+		assertTrue(e.getRequest(true).getDirection());
+		assertFalse(e.getRequest(false).getDirection());
+		assertTrue(e.answer(true));
+		assertFalse(e.isLit(true));
+		assertFalse(e.answer(true));
+		LatencyHistogram h = new LatencyHistogram();
+		e.mergeResponseTimesInto(h);
+		assertEquals(h.getCount(),1);
+	}
+	
+	@Test
+	public void testDestinationRequests()
+	{
+		// the keypad's requests are made with the call box, and the same one is sent every time
+		e = new ECallBox((short)3);
+		ERequest r = e.getRequest((short)8);
+		assertSame(e.getRequest((short)8),r);
+		assertEquals(r.getFloorNum(),3);
+		assertEquals(r.getDestinationFloor(),8);
+		assertTrue(r.getDirection());
+		assertFalse(e.getRequest((short)0).getDirection());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testOwnFloorDestination()
+	{
+		e = new ECallBox((short)3);
+		e.getRequest((short)3);
+	}
+	
+	@Test
+	public void testCancel()
+	{
+		e = new ECallBox((short)3);
+		e.callForDown();
+		assertTrue(e.isLit(false));
+		e.cancel(false);
+		assertFalse(e.isLit(false));
+		assertFalse(e.answer(false));
+		LatencyHistogram h = new LatencyHistogram();
+		e.mergeResponseTimesInto(h);
+		assertEquals(h.getCount(),0);
+	}
+}
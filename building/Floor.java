@@ -1,6 +1,9 @@
 package building;
 import java.util.ArrayList;
 
+import elevatorController.DestinationAssignments;
+import elevatorController.EController;
+
 /**
  * This class represents a floor of the building. It houses all the person objects and interacts
  * with the elevators when needed (such as transferring inhabitants).
@@ -22,99 +25,308 @@ public class Floor
 	private ECallBox myCallBox;
 
 	/**
-	 * array list that holds the person ID's of people currently residing on this floor during the simulation
+	 * queue that holds the person ID's of people waiting on this floor to go up, in the order they arrived.
+	 * People who got on from the middle of the queue (see waitingFor) are only dropped once they reach its head (see prune())
+	 */
+	private PersonQueue waitingUp;
+	
+	/**
+	 * queue that holds the person ID's of people waiting on this floor to go down, in the order they arrived (see waitingUp)
+	 */
+	private PersonQueue waitingDown;
+	
+	/**
+	 * queues that hold the person ID's of people waiting on this floor, by destination floor, in the order they arrived
+	 * (a queue is created when someone first waits for its destination)
+	 */
+	private PersonQueue[] waitingFor;
+	
+	/**
+	 * the number of people waiting on this floor to go up
 	 */
-	private ArrayList<Short> carrying;
+	private int numWaitingUp;
+	
+	/**
+	 * the number of people waiting on this floor to go down
+	 */
+	private int numWaitingDown;
+	
+	/**
+	 * the ticket of the next person to start waiting on this floor (orders the heads of both queues)
+	 */
+	private long nextTicket;
+	
+	/**
+	 * the elevator controller of the simulation this floor belongs to
+	 */
+	private EController controller;
+	
+	/**
+	 * the person facade of the simulation this floor belongs to
+	 */
+	private PersonFacade people;
 
 	/**
 	 * Creates a new Floor with the specified arguments. It also initializes internal data members that don't
-	 * accept parameters (waitTimes, totalTimes, numOfPeople, carrying, myCallBox)
+	 * accept parameters (waitingUp, waitingDown, myCallBox)
+	 * The floor belongs to the default simulation context.
 	 * @param myFloorNum the number of the newly created floor
 	 */
 	public Floor( short myFloorNum )
 	{
-		if(myFloorNum < 0 || myFloorNum > Building.getNumberOfFloors())
+		this( myFloorNum, SimulationContext.getDefault() );
+	}
+	
+	/**
+	 * Creates a new Floor with the specified arguments. It also initializes internal data members that don't
+	 * accept parameters (waitingUp, waitingDown, myCallBox)
+	 * @param myFloorNum the number of the newly created floor
+	 * @param inContext the simulation the floor belongs to
+	 */
+	public Floor( short myFloorNum, SimulationContext inContext )
+	{
+		short numOfFloors = inContext.getNumberOfFloors();
+		if(myFloorNum < 0 || myFloorNum > numOfFloors)
 		{
-			throw new IllegalArgumentException("Floor out of bounds, expected 0-"+Short.toString(Building.getNumberOfFloors())+", got "+Short.toString(myFloorNum));
+			throw new IllegalArgumentException("Floor out of bounds, expected 0-"+Short.toString(numOfFloors)+", got "+Short.toString(myFloorNum));
 		}
 		// short data members
 		floorNum = myFloorNum;
 		
-		// short array list data members
-		carrying = new ArrayList<Short>();
+		// waiting queue data members
+		waitingUp = new PersonQueue();
+		waitingDown = new PersonQueue();
+		waitingFor = new PersonQueue[ numOfFloors + 1 ];
+		numWaitingUp = 0;
+		numWaitingDown = 0;
+		nextTicket = 0;
 		
-		myCallBox = new ECallBox(myFloorNum);
+		people = inContext.getPersonFacade();
+		myCallBox = new ECallBox(myFloorNum, inContext);
+		controller = inContext.getEController();
 	}
 	
 	/**
-	* Accepts a person object and adds that person to the floor (i.e. the carrying array list).
-	* @param inPerson the person to be added to the floor
+	* Accepts a person and queues them on the floor by the direction they want to go in.
+	* People who are already on their destination floor (ex. people an elevator just dropped off) don't wait for an elevator, so they aren't queued.
+	* @param personID the ID of the person to be added to the floor
 	*/
-	public void addPerson( short personID )
+	public synchronized void addPerson( int personID )
 	{
-		carrying.add( personID );
+		short destFloorOfPerson = people.getDestinationFloor( personID );
+		
+		if ( destFloorOfPerson == floorNum )
+		{
+			return;
+		}
+		
+		if ( destFloorOfPerson > floorNum )
+		{
+			waitingUp.add( personID, nextTicket );
+			numWaitingUp++;
+		}
+		else
+		{
+			waitingDown.add( personID, nextTicket );
+			numWaitingDown++;
+		}
+		
+		if ( waitingFor[ destFloorOfPerson ] == null )
+		{
+			waitingFor[ destFloorOfPerson ] = new PersonQueue();
+		}
+		waitingFor[ destFloorOfPerson ].add( personID, nextTicket++ );
 	}
 	
 	/**
-	* Given a direction (up or down), searches for the first person that wants to get on an
-	* elevator traveling in that direction and returns their person ID.
+	* Given a direction (up or down), returns the ID of the person who has waited longest to get on an
+	* elevator traveling in that direction.
 	* @param directionIsUp what direction the elevator is traveling in
 	* @param isDestinationsEmpty true if there are no more destinations for the elevator to go to, otherwise false
-	* @return short the person ID of the person object who wants to get on the elevator
+	* @return int the person ID of the person object who wants to get on the elevator
 	*/
-	public short getNextPassenger( boolean directionIsUp, boolean isDestinationsEmpty )
+	public synchronized int getNextPassenger( boolean directionIsUp, boolean isDestinationsEmpty )
 	{
-		// cycles through the floor to find someone who wants to get on the elevator, and returns their ID
-		for( short i = 0; i < carrying.size(); i++ )
+		prune( waitingUp );
+		prune( waitingDown );
+		
+		// if elevator is empty, it will go in whatever direction that the person who has waited longest requests
+		if ( isDestinationsEmpty )
 		{
-			short personID = carrying.get( i );
-			short destFloorOfPerson = 		PersonFacade.getInstance().getDestinationFloor( personID );
-			boolean hasReachedDestination = PersonFacade.getInstance().hasReachedDestination( personID );
-			
-			// if elevator is empty, it will go in whatever direction that the first passenger requests
-			if ( isDestinationsEmpty && !hasReachedDestination)
-			{
-				return personID;
-			}
-			else if ( destFloorOfPerson > floorNum && directionIsUp && !hasReachedDestination )
-			{
-				return personID;
-			}
-			else if ( destFloorOfPerson < floorNum && !directionIsUp && !hasReachedDestination )
+			return waitingUp.peekTicket() < waitingDown.peekTicket() ? waitingUp.peek() : waitingDown.peek();
+		}
+		
+		// return -1 if no one wants to get on the elevator
+		return directionIsUp ? waitingUp.peek() : waitingDown.peek();
+	}
+	
+	/**
+	 * Given a direction, returns the ID of the person who has waited longest among those an elevator may pick up:
+	 * in destination dispatch, people assigned to another elevator wait for that one, and while the elevators are zoned
+	 * people at the lobby wait for an elevator of their destination's band (see EController.mayBoard()).
+	 * Whether someone may board only depends on their destination, so this checks the heads of the destination queues
+	 * (and usually just the head of the direction's queue), however many people wait.
+	 * @param directionIsUp what direction the elevator is traveling in
+	 * @param isDestinationsEmpty true if there are no more destinations for the elevator to go to, otherwise false
+	 * @param elevatorNum the elevator picking people up
+	 * @return int the person ID of the person object who wants to get on the elevator, or -1 if there is nobody
+	 */
+	public synchronized int getNextPassenger( boolean directionIsUp, boolean isDestinationsEmpty, short elevatorNum )
+	{
+		PersonQueue up = 	findPassenger( true, elevatorNum );
+		PersonQueue down = 	findPassenger( false, elevatorNum );
+		
+		// if elevator is empty, it will go in whatever direction that the person who has waited longest requests
+		if ( isDestinationsEmpty )
+		{
+			return ticketOf( up ) < ticketOf( down ) ? up.peek() : ( down == null ? -1 : down.peek() );
+		}
+		
+		PersonQueue queue = directionIsUp ? up : down;
+		return queue == null ? -1 : queue.peek();
+	}
+	
+	/**
+	 * Checks whether anyone waiting to go in a direction is going to one of a range of floors
+	 * @param goingUp the direction the people go in
+	 * @param lowest the lowest destination of the range
+	 * @param highest the highest destination of the range
+	 * @return true if someone waits for a floor in the range
+	 */
+	public synchronized boolean isAnyoneWaitingFor( boolean goingUp, short lowest, short highest )
+	{
+		int from = 	Math.max( lowest, goingUp ? floorNum + 1 : 0 );
+		int to = 	Math.min( highest, goingUp ? waitingFor.length - 1 : floorNum - 1 );
+		
+		for ( int destFloor = from; destFloor <= to; destFloor++ )
+		{
+			if ( waitingFor[ destFloor ] != null && !waitingFor[ destFloor ].isEmpty() )
 			{
-				return personID;
+				return true;
 			}
 		}
 		
-		// return -1 if no one wants to get on the elevator
-		return -1;
+		return false;
 	}
 	
 	/**
-	 * Given a person ID, this method searches for the corresponding personID on the floor and removes them from the floor.
-	 * @param personID
-	 * @return
+	 * Finds the destination queue headed by the person who has waited longest, among the people going in a direction that an elevator may pick up
+	 * @param goingUp the direction the people go in
+	 * @param elevatorNum the elevator picking people up
+	 * @return the destination queue, or null if there is nobody
 	 */
-	public void sendPerson( short personID )
+	private PersonQueue findPassenger( boolean goingUp, short elevatorNum )
 	{
-		// cycles through persons until it finds the right ID
-		// if it does, returns them
-		for( int i = 0; i < carrying.size(); i++ )
+		PersonQueue queue = goingUp ? waitingUp : waitingDown;
+		prune( queue );
+		
+		if ( queue.isEmpty() )
 		{
-			if( personID == carrying.get( i ) )
+			return null;
+		}
+		
+		// usually the person who has waited longest may board
+		short headDest = people.getDestinationFloor( queue.peek() );
+		if ( controller.mayBoard( floorNum, headDest, elevatorNum ) )
+		{
+			return waitingFor[ headDest ];
+		}
+		
+		// otherwise it's whoever has waited longest at the head of a destination the elevator may pick up
+		PersonQueue earliest = null;
+		int from = 	goingUp ? floorNum + 1 : 0;
+		int to = 	goingUp ? waitingFor.length - 1 : floorNum - 1;
+		
+		for ( int destFloor = from; destFloor <= to; destFloor++ )
+		{
+			PersonQueue destQueue = waitingFor[ destFloor ];
+			if ( destQueue != null && destQueue.peekTicket() < ticketOf( earliest ) && controller.mayBoard( floorNum, ( short ) destFloor, elevatorNum ) )
 			{
-				carrying.remove( i );
+				earliest = destQueue;
 			}
 		}
+		
+		return earliest;
+	}
+	
+	/**
+	 * Drops the people who already got on an elevator from the head of a direction's queue, so its head is the person there who has waited longest.
+	 * A person still waiting is at the head of their destination's queue by the time they reach the head of their direction's queue,
+	 * so a head whose ticket isn't the one heading their destination's queue is gone. Each person is dropped once, so this takes constant amortized time.
+	 * @param queue the direction's queue
+	 */
+	private void prune( PersonQueue queue )
+	{
+		while ( !queue.isEmpty() && waitingFor[ people.getDestinationFloor( queue.peek() ) ].peekTicket() != queue.peekTicket() )
+		{
+			queue.poll();
+		}
+	}
+	
+	/**
+	 * Returns the ticket of the person at the head of a queue
+	 * @param queue the queue, or null
+	 * @return the ticket, or Long.MAX_VALUE if there is nobody
+	 */
+	private static long ticketOf( PersonQueue queue ) { return queue == null ? Long.MAX_VALUE : queue.peekTicket(); }
+	
+	/**
+	 * Given a person ID, this method removes the corresponding person from the floor's waiting queues.
+	 * Boarding people are at the head of their destination's queue, so this takes constant time
+	 * (they're dropped from their direction's queue once they reach its head, see prune()).
+	 * @param personID the ID of the person getting on an elevator
+	 */
+	public synchronized void sendPerson( int personID )
+	{
+		short destFloor = people.getDestinationFloor( personID );
+		PersonQueue destQueue = waitingFor[ destFloor ];
+		
+		if ( destQueue == null )
+		{
+			return;
+		}
+		
+		if ( destQueue.peek() == personID )
+		{
+			destQueue.poll();
+		}
+		else if ( !destQueue.remove( personID ) )
+		{
+			return;
+		}
+		
+		if ( destFloor > floorNum )
+		{
+			numWaitingUp--;
+			prune( waitingUp );
+		}
+		else
+		{
+			numWaitingDown--;
+			prune( waitingDown );
+		}
+	}
+	
+	/**
+	 * Returns the number of people waiting on this floor for an elevator in a direction
+	 * @param goingUp the direction the people want to go in
+	 * @return the number of people
+	 */
+	public synchronized int getNumberOfWaitingPeople( boolean goingUp )
+	{
+		return goingUp ? numWaitingUp : numWaitingDown;
 	}
 	
 	/**
 	 * Presses the call box button which generates an elevator requests and sends it to the EController
+	 * (which also counts the person's arrival for parking the elevators)
 	 * @param goingUp: The desired direction of travel
 	 * @throws IllegalArgumentException
 	 */
 	public void pressCallButton( boolean goingUp ) throws IllegalArgumentException
 	{
+		controller.recordArrival( floorNum, goingUp );
+		
 		if ( goingUp )
 		{
 			this.myCallBox.callForUp();
@@ -125,8 +337,84 @@ public class Floor
 			this.myCallBox.callForDown();
 		}
 	}
+	
+	/**
+	 * Enters a destination on the call box keypad (destination dispatch), which sends a request carrying the destination to the EController
+	 * @param destFloor: The floor the person wants to go to
+	 * @throws IllegalArgumentException
+	 */
+	public void pressDestination( short destFloor ) throws IllegalArgumentException
+	{
+		controller.recordArrival( floorNum, destFloor > floorNum );
+		myCallBox.callForDestination( destFloor );
+	}
+	
+	/**
+	 * Puts out the lamp of a call box button because an elevator is taking on the people waiting behind it
+	 * @param goingUp: the direction of the button
+	 */
+	public void answerCallButton( boolean goingUp )
+	{
+		myCallBox.answer( goingUp );
+	}
+	
+	/**
+	 * Brings the call box lamps up to date once an elevator is done letting people on at this floor:
+	 * a lit lamp with nobody waiting behind it goes out, and the call of anyone still waiting is made again.
+	 * In destination dispatch, the destinations of the people still waiting that no elevator picks up anymore are entered again instead.
+	 * @throws IllegalArgumentException
+	 */
+	public void refreshCallButtons() throws IllegalArgumentException
+	{
+		if ( controller.isDestinationDispatch() )
+		{
+			for ( short destFloor : getUnassignedDestinations() )
+			{
+				myCallBox.callForDestination( destFloor );
+			}
+			
+			return;
+		}
+		
+		for ( int direction = 0; direction < 2; direction++ )
+		{
+			boolean goingUp = direction == 1;
+			
+			if ( getNumberOfWaitingPeople( goingUp ) > 0 )
+			{
+				myCallBox.renew( goingUp );
+			}
+			
+			else
+			{
+				myCallBox.cancel( goingUp );
+			}
+		}
+	}
+	
+	/**
+	 * Lists the destinations of the people waiting on this floor that aren't assigned to an elevator
+	 * @return the destinations, each one once
+	 */
+	private synchronized ArrayList<Short> getUnassignedDestinations()
+	{
+		DestinationAssignments assignments = controller.getDestinationAssignments();
+		ArrayList<Short> destinations = new ArrayList<Short>();
+		
+		for ( short destFloor = 0; destFloor < waitingFor.length; destFloor++ )
+		{
+			if ( waitingFor[ destFloor ] != null && !waitingFor[ destFloor ].isEmpty() && assignments.getElevator( floorNum, destFloor ) == -1 )
+			{
+				destinations.add( destFloor );
+			}
+		}
+		
+		return destinations;
+	}
+	
 	/**
-	 * Returns all the people that ended up on this floor (needed for statistical processing)
-	 * @return an array list contain all the person objects on this floor
+	 * Returns the floor's call box
+	 * @return the call box
 	 */
+	public ECallBox getCallBox() { return myCallBox; }
 }
\ No newline at end of file
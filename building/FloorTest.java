@@ -2,6 +2,8 @@ package building;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -63,4 +65,130 @@ public class FloorTest {
 		Elevator e = EController.getInstance().getElevator((short)0);
 		assertTrue(e.isInDestinations((short)3));
 	}
+	
+	@Test
+	public void testDirectionalQueues()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		PersonFacade people = context.getPersonFacade();
+		people.createPerson((short)4, (short)1);	// 0: down
+		people.createPerson((short)4, (short)8);	// 1: up
+		people.createPerson((short)4, (short)9);	// 2: up
+		people.createPerson((short)2, (short)4);	// 3: arrives on floor 4
+		
+		Floor floor = new Floor((short)4, context);
+		floor.addPerson((short)0);
+		floor.addPerson((short)1);
+		floor.addPerson((short)2);
+		floor.addPerson((short)3);
+		
+		assertEquals(floor.getNumberOfWaitingPeople(true),2);
+		assertEquals(floor.getNumberOfWaitingPeople(false),1);
+		assertEquals(floor.getNextPassenger(true, false),1);
+		assertEquals(floor.getNextPassenger(false, false),0);
+		// an empty elevator takes whoever has waited longest
+		assertEquals(floor.getNextPassenger(true, true),0);
+		
+		floor.sendPerson((short)0);
+		assertEquals(floor.getNextPassenger(false, false),-1);
+		assertEquals(floor.getNextPassenger(false, true),1);
+		floor.sendPerson((short)2);
+		assertEquals(floor.getNextPassenger(true, false),1);
+		floor.sendPerson((short)1);
+		assertEquals(floor.getNextPassenger(true, true),-1);
+	}
+	
+	@Test
+	public void testRefreshCallButtons()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		PersonFacade people = context.getPersonFacade();
+		people.createPerson((short)4, (short)8);	// 0: up
+		Floor floor = new Floor((short)4, context);
+		floor.addPerson((short)0);
+		floor.pressCallButton(true);
+		floor.pressCallButton(false);
+		assertTrue(floor.getCallBox().isLit(true));
+		assertTrue(floor.getCallBox().isLit(false));
+		
+		// nobody waits to go down, so that lamp goes out
+		floor.refreshCallButtons();
+		assertTrue(floor.getCallBox().isLit(true));
+		assertFalse(floor.getCallBox().isLit(false));
+		
+		floor.sendPerson((short)0);
+		floor.answerCallButton(true);
+		assertFalse(floor.getCallBox().isLit(true));
+	}
+	
+	@Test
+	public void testAssignedPassengers()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 3);
+		PersonFacade people = context.getPersonFacade();
+		people.createPerson((short)4, (short)8);	// 0: up, to floor 8
+		people.createPerson((short)4, (short)9);	// 1: up, to floor 9
+		Floor floor = new Floor((short)4, context);
+		floor.addPerson((short)0);
+		floor.addPerson((short)1);
+		
+		// person 0 waits for elevator 1, so elevator 0 takes person 1
+		context.getEController().getDestinationAssignments().assign((short)4, (short)8, (short)1);
+		assertEquals(floor.getNextPassenger(true, false, (short)0),1);
+		assertEquals(floor.getNextPassenger(true, true, (short)0),1);
+		assertEquals(floor.getNextPassenger(true, false, (short)1),0);
+		floor.sendPerson(1);
+		assertEquals(floor.getNextPassenger(true, false, (short)0),-1);
+	}
+	
+	@Test
+	public void testWaitingByDestination()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 3);
+		PersonFacade people = context.getPersonFacade();
+		people.createPerson((short)4, (short)8);	// 0: up, to floor 8
+		people.createPerson((short)4, (short)9);	// 1: up, to floor 9
+		people.createPerson((short)4, (short)8);	// 2: up, to floor 8
+		people.createPerson((short)4, (short)9);	// 3: up, to floor 9
+		people.createPerson((short)4, (short)1);	// 4: down, to floor 1
+		Floor floor = new Floor((short)4, context);
+		for (int i = 0; i < 5; i++)
+		{
+			floor.addPerson(i);
+		}
+		assertTrue(floor.isAnyoneWaitingFor(true, (short)8, (short)8));
+		assertFalse(floor.isAnyoneWaitingFor(true, (short)5, (short)7));
+		assertTrue(floor.isAnyoneWaitingFor(false, (short)0, (short)3));
+		
+		// the people going to floor 8 wait for elevator 1, so elevator 0 takes everyone going to floor 9 first
+		context.getEController().getDestinationAssignments().assign((short)4, (short)8, (short)1);
+		assertEquals(floor.getNextPassenger(true, false, (short)0),1);
+		floor.sendPerson(1);
+		assertEquals(floor.getNextPassenger(true, false, (short)0),3);
+		floor.sendPerson(3);
+		assertEquals(floor.getNextPassenger(true, false, (short)0),-1);
+		assertEquals(floor.getNextPassenger(true, true, (short)0),4);
+		assertFalse(floor.isAnyoneWaitingFor(true, (short)9, (short)9));
+		assertEquals(floor.getNumberOfWaitingPeople(true),2);
+		
+		// the people left going up are still in the order they arrived
+		assertEquals(floor.getNextPassenger(true, false),0);
+		floor.sendPerson(0);
+		assertEquals(floor.getNextPassenger(true, true, (short)1),2);
+		floor.sendPerson(2);
+		assertEquals(floor.getNextPassenger(true, false),-1);
+		assertEquals(floor.getNextPassenger(true, true),4);
+		assertEquals(floor.getNumberOfWaitingPeople(true),0);
+		assertEquals(floor.getNumberOfWaitingPeople(false),1);
+	}
 }
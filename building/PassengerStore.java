@@ -0,0 +1,111 @@
+package building;
+
+/**
+ * This is an interface for the columnar store that holds every passenger of a simulation.
+ * Passengers are identified by an int ID (their index in the store), and each of their fields is kept in its own primitive column,
+ * so a passenger costs a few dozen bytes instead of a heap object, and tens of millions of them fit in one simulation.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public interface PassengerStore
+{
+	/**
+	 * Adds a passenger who starts waiting for an elevator
+	 * @param startFloor: the floor the passenger starts on
+	 * @param destFloor: the floor the passenger wants to reach
+	 * @param startWaitTime: the time (in milliseconds) the passenger started waiting
+	 * @return the ID of the new passenger (the number of passengers added before them)
+	 * @throws RuntimeException if the store can't hold any more passengers
+	 */
+	public int add( short startFloor, short destFloor, long startWaitTime ) throws RuntimeException;
+	
+	/**
+	 * Returns the number of passengers in the store
+	 * @return the number of passengers
+	 */
+	public int size();
+	
+	/**
+	 * Removes every passenger, so the IDs start from 0 again
+	 */
+	public void clear();
+	
+	/**
+	 * Returns a passenger's start floor
+	 * @param personID: the ID of the passenger
+	 * @return the start floor
+	 */
+	public short getStartFloor( int personID );
+	
+	/**
+	 * Returns a passenger's destination floor
+	 * @param personID: the ID of the passenger
+	 * @return the destination floor
+	 */
+	public short getDestinationFloor( int personID );
+	
+	/**
+	 * Returns the time the passenger started waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds
+	 */
+	public long getStartWaitTime( int personID );
+	
+	/**
+	 * Returns the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	public long getStopWaitTime( int personID );
+	
+	/**
+	 * Sets the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	public void setStopWaitTime( int personID, long time );
+	
+	/**
+	 * Returns the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	public long getStartRideTime( int personID );
+	
+	/**
+	 * Sets the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	public void setStartRideTime( int personID, long time );
+	
+	/**
+	 * Returns the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got off)
+	 */
+	public long getStopRideTime( int personID );
+	
+	/**
+	 * Sets the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	public void setStopRideTime( int personID, long time );
+	
+	/**
+	 * Checks whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @return true if they've reached their destination, otherwise false
+	 */
+	public boolean hasReachedDestination( int personID );
+	
+	/**
+	 * Flags whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @param status: true if they've reached their destination, otherwise false
+	 */
+	public void setHasReachedDestination( int personID, boolean status );
+}
@@ -0,0 +1,26 @@
+package building;
+
+/**
+ * This is a factory class for the passenger store interface, so the person facade does not need to hard-code a specific implementation.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class PassengerStoreFactory {
+	
+	/**
+	 * Creates a new, empty passenger store.
+	 * @param offHeap true to keep the passengers in direct buffers outside the Java heap, false to keep them in arrays on the heap.
+	 * @return A PassengerStore object.
+	 */
+	public static PassengerStore build( boolean offHeap )
+	{
+		if ( offHeap )
+		{
+			return new DirectPassengerStoreImpl();
+		}
+		
+		return new PassengerStoreImpl();
+	}
+}
@@ -0,0 +1,16 @@
+package building;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PassengerStoreFactoryTest {
+
+	@Test
+	public void test()
+	{
+		assertTrue(PassengerStoreFactory.build(false) instanceof PassengerStoreImpl);
+		assertTrue(PassengerStoreFactory.build(true) instanceof DirectPassengerStoreImpl);
+		assertEquals(PassengerStoreFactory.build(true).size(),0);
+	}
+}
@@ -0,0 +1,298 @@
+package building;
+
+import java.util.Arrays;
+
+/**
+ * This is the on-heap implementation of the PassengerStore interface: one primitive array per field,
+ * indexed by passenger ID and kept in chunks of CHUNK_SIZE passengers. Elevator threads read and write the times
+ * while the simulator thread adds passengers, so the chunks are published through one volatile holder (see Columns),
+ * which add() swaps for a copy with one more chunk when the store fills up. Only adding and clearing take the lock:
+ * growing never copies a passenger, so a write can't be lost in an old copy, and reads and writes go straight to the chunk.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class PassengerStoreImpl implements PassengerStore
+{
+	/**
+	 * The number of bits of a passenger ID that index into a chunk
+	 */
+	private static final int CHUNK_SHIFT = 12;
+	
+	/**
+	 * The number of passengers in a chunk
+	 */
+	private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+	
+	/**
+	 * The bits of a passenger ID that index into a chunk
+	 */
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	
+	/**
+	 * The largest number of passengers the store can hold (the IDs are ints)
+	 */
+	private static final int MAX_CAPACITY = Integer.MAX_VALUE;
+	
+	/**
+	 * The number of passengers in the store (written after the passenger, so a reader that sees the ID also sees the passenger's chunk)
+	 */
+	private volatile int size;
+	
+	/**
+	 * The chunks of every column
+	 */
+	private volatile Columns columns;
+	
+	/**
+	 * Creates an empty store
+	 */
+	public PassengerStoreImpl()
+	{
+		columns = 	new Columns();
+		size = 		0;
+	}
+	
+	/**
+	 * Adds a passenger who starts waiting for an elevator
+	 * @param startFloor: the floor the passenger starts on
+	 * @param destFloor: the floor the passenger wants to reach
+	 * @param startWaitTime: the time (in milliseconds) the passenger started waiting
+	 * @return the ID of the new passenger (the number of passengers added before them)
+	 * @throws RuntimeException if the store can't hold any more passengers
+	 */
+	@Override
+	public synchronized int add( short startFloor, short destFloor, long startWaitTime ) throws RuntimeException
+	{
+		int personID = size;
+		if ( personID == MAX_CAPACITY )
+		{
+			throw new RuntimeException( "The passenger store is full (" + MAX_CAPACITY + " passengers)." );
+		}
+		
+		Columns c = columns;
+		int chunk = personID >>> CHUNK_SHIFT;
+		if ( chunk == c.startFloors.length )
+		{
+			c = new Columns( c );
+			columns = c;
+		}
+		
+		int index = personID & CHUNK_MASK;
+		c.startFloors[ chunk ][ index ] = 			startFloor;
+		c.destFloors[ chunk ][ index ] = 			destFloor;
+		c.startWaitTimes[ chunk ][ index ] = 		startWaitTime;
+		c.stopWaitTimes[ chunk ][ index ] = 		0;
+		c.startRideTimes[ chunk ][ index ] = 		0;
+		c.stopRideTimes[ chunk ][ index ] = 		0;
+		c.reachedDestinations[ chunk ][ index ] = 	false;
+		size = personID + 1;
+		
+		return personID;
+	}
+	
+	/**
+	 * Returns the number of passengers in the store
+	 * @return the number of passengers
+	 */
+	@Override
+	public int size() { return size; }
+	
+	/**
+	 * Removes every passenger, so the IDs start from 0 again
+	 */
+	@Override
+	public synchronized void clear()
+	{
+		size = 		0;
+		columns = 	new Columns();
+	}
+	
+	/**
+	 * Returns a passenger's start floor
+	 * @param personID: the ID of the passenger
+	 * @return the start floor
+	 */
+	@Override
+	public short getStartFloor( int personID ) { return columns( personID ).startFloors[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Returns a passenger's destination floor
+	 * @param personID: the ID of the passenger
+	 * @return the destination floor
+	 */
+	@Override
+	public short getDestinationFloor( int personID ) { return columns( personID ).destFloors[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Returns the time the passenger started waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds
+	 */
+	@Override
+	public long getStartWaitTime( int personID ) { return columns( personID ).startWaitTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Returns the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	@Override
+	public long getStopWaitTime( int personID ) { return columns( personID ).stopWaitTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Sets the time the passenger stopped waiting for an elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStopWaitTime( int personID, long time ) { columns( personID ).stopWaitTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ] = time; }
+	
+	/**
+	 * Returns the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got on)
+	 */
+	@Override
+	public long getStartRideTime( int personID ) { return columns( personID ).startRideTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Sets the time the passenger started riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStartRideTime( int personID, long time ) { columns( personID ).startRideTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ] = time; }
+	
+	/**
+	 * Returns the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @return the time in milliseconds (0 until the passenger got off)
+	 */
+	@Override
+	public long getStopRideTime( int personID ) { return columns( personID ).stopRideTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Sets the time the passenger stopped riding the elevator
+	 * @param personID: the ID of the passenger
+	 * @param time: the time in milliseconds
+	 */
+	@Override
+	public void setStopRideTime( int personID, long time ) { columns( personID ).stopRideTimes[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ] = time; }
+	
+	/**
+	 * Checks whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @return true if they've reached their destination, otherwise false
+	 */
+	@Override
+	public boolean hasReachedDestination( int personID ) { return columns( personID ).reachedDestinations[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ]; }
+	
+	/**
+	 * Flags whether the passenger has reached their destination
+	 * @param personID: the ID of the passenger
+	 * @param status: true if they've reached their destination, otherwise false
+	 */
+	@Override
+	public void setHasReachedDestination( int personID, boolean status ) { columns( personID ).reachedDestinations[ personID >>> CHUNK_SHIFT ][ personID & CHUNK_MASK ] = status; }
+	
+	/**
+	 * Checks that a passenger ID belongs to a passenger in the store, and returns the columns holding them
+	 * (the size is read first, so the columns read after it have the passenger's chunk)
+	 * @param personID: the ID of the passenger
+	 * @return the columns
+	 * @throws IllegalArgumentException if there is no such passenger
+	 */
+	private Columns columns( int personID ) throws IllegalArgumentException
+	{
+		int currSize = size;
+		if ( personID < 0 || personID >= currSize )
+		{
+			throw new IllegalArgumentException( "Passenger ID out of bounds, expected 0-" + ( currSize - 1 ) + ", got " + personID );
+		}
+		
+		return columns;
+	}
+	
+	/**
+	 * The chunks of every column, by chunk number. A Columns is never changed once it's published:
+	 * the store grows by publishing a copy with one more chunk, and the copy shares every chunk the old one had.
+	 */
+	private static class Columns
+	{
+		/**
+		 * The start floor of each passenger
+		 */
+		short[][] startFloors;
+		
+		/**
+		 * The destination floor of each passenger
+		 */
+		short[][] destFloors;
+		
+		/**
+		 * The time each passenger started waiting
+		 */
+		long[][] startWaitTimes;
+		
+		/**
+		 * The time each passenger stopped waiting
+		 */
+		long[][] stopWaitTimes;
+		
+		/**
+		 * The time each passenger started riding
+		 */
+		long[][] startRideTimes;
+		
+		/**
+		 * The time each passenger stopped riding
+		 */
+		long[][] stopRideTimes;
+		
+		/**
+		 * Whether each passenger has reached their destination
+		 */
+		boolean[][] reachedDestinations;
+		
+		/**
+		 * Creates columns with no chunks (add() allocates the first one)
+		 */
+		Columns()
+		{
+			startFloors = 			new short[ 0 ][];
+			destFloors = 			new short[ 0 ][];
+			startWaitTimes = 		new long[ 0 ][];
+			stopWaitTimes = 		new long[ 0 ][];
+			startRideTimes = 		new long[ 0 ][];
+			stopRideTimes = 		new long[ 0 ][];
+			reachedDestinations = 	new boolean[ 0 ][];
+		}
+		
+		/**
+		 * Creates columns with the chunks of full ones, and one more empty chunk
+		 * @param full: the columns whose chunks are all taken
+		 */
+		Columns( Columns full )
+		{
+			int chunks = full.startFloors.length;
+			
+			startFloors = 			Arrays.copyOf( full.startFloors, chunks + 1 );
+			destFloors = 			Arrays.copyOf( full.destFloors, chunks + 1 );
+			startWaitTimes = 		Arrays.copyOf( full.startWaitTimes, chunks + 1 );
+			stopWaitTimes = 		Arrays.copyOf( full.stopWaitTimes, chunks + 1 );
+			startRideTimes = 		Arrays.copyOf( full.startRideTimes, chunks + 1 );
+			stopRideTimes = 		Arrays.copyOf( full.stopRideTimes, chunks + 1 );
+			reachedDestinations = 	Arrays.copyOf( full.reachedDestinations, chunks + 1 );
+			
+			startFloors[ chunks ] = 		new short[ CHUNK_SIZE ];
+			destFloors[ chunks ] = 			new short[ CHUNK_SIZE ];
+			startWaitTimes[ chunks ] = 		new long[ CHUNK_SIZE ];
+			stopWaitTimes[ chunks ] = 		new long[ CHUNK_SIZE ];
+			startRideTimes[ chunks ] = 		new long[ CHUNK_SIZE ];
+			stopRideTimes[ chunks ] = 		new long[ CHUNK_SIZE ];
+			reachedDestinations[ chunks ] = new boolean[ CHUNK_SIZE ];
+		}
+	}
+}
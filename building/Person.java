@@ -1,6 +1,9 @@
 package building;
 //TODO: Call ECallBox.callForUp();
 
+import simulationEngine.SimClock;
+import simulationEngine.SystemClock;
+
 /**
  * This class represents a person, many of which will inhabit the building and make elevator requests.
  * 
@@ -12,7 +15,7 @@ public class Person {
 	/**
 	 * Stores the unique ID of the person
 	 */
-	private short personID;
+	private int personID;
 	/**
 	 * Stores the generated starting floor of the person
 	 */
@@ -41,6 +44,10 @@ public class Person {
 	 * Flags whether or not the person has reached their destination (ensures that they won't keep getting on the elevator after they've reached it)
 	 */
 	private boolean hasReachedDest;
+	/**
+	 * The clock that the person's timers read from (the wall clock, or the virtual clock of a discrete-event simulation)
+	 */
+	private SimClock clock;
 	
 	/**
 	 * Returns the person's generated start floor
@@ -64,41 +71,65 @@ public class Person {
 	 * @return total elevator ride time
 	 */
 	public long getRideTime() { return ( stopRideTime - startRideTime ) / 1000; }
+	/**
+	 * Returns the total wait time (in milliseconds) until the person got onto an elevator
+	 * @return total elevator wait time
+	 */
+	public long getWaitTimeMillis() { return stopWaitTime - startWaitTime; }
+	/**
+	 * Returns the total ride time (in milliseconds) spent on the elevator until the destination was reached
+	 * @return total elevator ride time
+	 */
+	public long getRideTimeMillis() { return stopRideTime - startRideTime; }
 	/**
 	 * Logs the time that this person started waiting for an elevator.
 	 */
 	public void startWaitTimer()
 	{
-		startWaitTime = System.currentTimeMillis();
+		startWaitTime = clock.currentTimeMillis();
 	}
 	/**
 	 * Logs the time that this person stopped waiting for an elevator.
 	 */
 	public void stopWaitTimer()
 	{
-		stopWaitTime = System.currentTimeMillis();
+		stopWaitTime = clock.currentTimeMillis();
 	}
 	/**
 	 * Logs the time that this person started riding the elevator.
 	 */
 	public void startRideTimer()
 	{
-		startRideTime = System.currentTimeMillis();
+		startRideTime = clock.currentTimeMillis();
 	}
 	/**
 	 * Logs the time that this person stopped riding the elevator
 	 */
 	public void stopRideTimer()
 	{
-		stopRideTime = System.currentTimeMillis();
+		stopRideTime = clock.currentTimeMillis();
 	}
 	/**
 	 * Constructs a person object given an ID, a start floor, and a desired destination (and starts their waiting timer)
+	 * The floors are checked against the building of the default simulation context.
+	 * @param myID the ID used to identify the person object
+	 * @param beginFloor the floor the person starts on
+	 * @param endFloor the destination floor the person is trying to reach
+	 */
+	public Person( int myID, short beginFloor, short endFloor )
+	{
+		this( myID, beginFloor, endFloor, SimulationContext.getDefault().getNumberOfFloors(), new SystemClock() );
+	}
+	/**
+	 * Constructs a person object given an ID, a start floor, a desired destination, the number of floors in their building,
+	 * and the clock their timers read from (and starts their waiting timer)
 	 * @param myID the ID used to identify the person object
 	 * @param beginFloor the floor the person starts on
 	 * @param endFloor the destination floor the person is trying to reach
+	 * @param numOfFloors the number of floors in the person's building
+	 * @param inClock the clock used for the person's wait and ride timers
 	 */
-	public Person( short myID, short beginFloor, short endFloor )
+	public Person( int myID, short beginFloor, short endFloor, short numOfFloors, SimClock inClock )
 	{
 		if(myID < 0)
 		{
@@ -110,16 +141,17 @@ public class Person {
 		{
 			throw new IllegalArgumentException("Tried to make the person go to the same floor at which they start.");
 		}
-		if(beginFloor < 0 || beginFloor>Building.getNumberOfFloors())
+		if(beginFloor < 0 || beginFloor>numOfFloors)
 		{
-			throw new IllegalArgumentException("Tried to make the person start at an out-of-bounds floor.\nExpected (0-"+Short.toString(Building.getNumberOfFloors())+"), got"+Short.toString(beginFloor));
+			throw new IllegalArgumentException("Tried to make the person start at an out-of-bounds floor.\nExpected (0-"+Short.toString(numOfFloors)+"), got"+Short.toString(beginFloor));
 		}
 		startFloor = beginFloor;
-		if(endFloor < 0 || endFloor>Building.getNumberOfFloors())
+		if(endFloor < 0 || endFloor>numOfFloors)
 		{
-			throw new IllegalArgumentException("Tried to make the person go to an out-of-bounds floor.\nExpected (0-"+Short.toString(Building.getNumberOfFloors())+"), got"+Short.toString(endFloor));
+			throw new IllegalArgumentException("Tried to make the person go to an out-of-bounds floor.\nExpected (0-"+Short.toString(numOfFloors)+"), got"+Short.toString(endFloor));
 		}
 		destFloor = endFloor;
+		clock = inClock;
 		
 		this.startWaitTimer();
 		hasReachedDest = false;
@@ -128,7 +160,7 @@ public class Person {
 	 * Returns the person's unique ID
 	 * @return the person ID
 	 */
-	public short getID()
+	public int getID()
 	{
 		return personID;
 	}	
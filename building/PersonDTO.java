@@ -10,7 +10,7 @@ public class PersonDTO {
 	/**
 	 * The ID of the person
 	 */
-	public short personID;
+	public int personID;
 	/**
 	 * The floor the person started on
 	 */
@@ -35,7 +35,7 @@ public class PersonDTO {
 	 * @param inWaitTime: the total time the Person waited for an elevator
 	 * @param inRideTime: the total time the Person rode the elevator
 	 */
-	public PersonDTO( short inID, short inStartFloor, short inDestFloor, int inWaitTime, int inRideTime )
+	public PersonDTO( int inID, short inStartFloor, short inDestFloor, int inWaitTime, int inRideTime )
 	{
 		personID = inID;
 		startFloor = inStartFloor;
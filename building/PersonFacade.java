@@ -2,142 +2,249 @@ package building;
 
 import java.util.ArrayList;
 
+import simulationEngine.SimClock;
+import simulationEngine.SystemClock;
+
+/**
+ * This class is the facade for every person in a simulation. The people are kept in a columnar passenger store
+ * and identified by int ID's, which are handed out in the order the people are created.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
 public class PersonFacade {
 	/**
-	 * increments by one after adding each person (used to designate the ID of each person object)
+	 * The simulation this person facade belongs to
 	 */
-	private static short IDcounter;
+	private SimulationContext context;
 	/**
-	 * Contains the singular instance of PersonFacade (since it is a singleton)
+	 * The columnar store that holds the floors, timers and status of every person in the simulation
 	 */
-	private static PersonFacade instance;
+	private PassengerStore people;
 	/**
-	 * Array list that holds all the person objects in the simulation
+	 * Whether the people are kept outside the Java heap
 	 */
-	private ArrayList<Person> people;
-	
+	private boolean offHeap;
 	/**
-	 * Creates a new person facade (initializes person array list and sets ID counter to zero)
+	 * The clock that newly created persons use for their timers
 	 */
-	private PersonFacade( )
-	{
-		people = new ArrayList<Person>();
-		IDcounter = 0;
-	}
-	
+	private SimClock clock;
 	/**
-	 * Returns IDcounter so the PersonFacade may assign new ID's to newly created persons
-	 * @return the current number of IDcounter
+	 * The statistics of the completed trips, updated as each person reaches their destination
 	 */
-	private short getIDcounter()
-	{
-		return IDcounter;
-	}
-
+	private TripStatistics statistics;
+	
 	/**
-	 * Increments the ID counter (should be called after each time a person object is created)
+	 * Creates a new person facade (with an empty, on-heap passenger store)
+	 * Only a SimulationContext creates its own person facade.
+	 * @param inContext: the simulation this person facade belongs to
 	 */
-	private void incrementIDcounter()
+	PersonFacade( SimulationContext inContext )
 	{
-		IDcounter++;
+		context = inContext;
+		offHeap = false;
+		people = PassengerStoreFactory.build( offHeap );
+		clock = new SystemClock();
+		statistics = new TripStatistics( inContext.getNumberOfFloors(), inContext.getNumberOfElevators() );
 	}
 	
 	/**
-	* Returns the singleton instance of PersonFacade
+	* Returns the PersonFacade of the default simulation context
 	* @return the facade for all person objects
 	*/
 	public static PersonFacade getInstance()
 	{
-		if( instance == null )
-		{
-			synchronized( PersonFacade.class )
-			{
-				if( instance == null )
-				{
-					instance = new PersonFacade();
-				}
-			}
-		}
-		return instance;
+		return SimulationContext.getDefault().getPersonFacade();
 	}
 	
 	/**
-	 * Forwards the call to Person to get a person's destination floor
+	 * Returns a person's start floor
+	 * @param personID: the ID of the person desired
+	 * @return the floor the person started on
+	 */
+	public short getStartFloor( int personID )
+	{
+		return people.getStartFloor( personID );
+	}
+	
+	/**
+	 * Returns a person's destination floor
 	 * @param personID: the ID of the person desired
 	 * @return the person's destination floor
 	 */
-	public short getDestinationFloor( short personID )
+	public short getDestinationFloor( int personID )
 	{
-		return people.get( personID ).getDestinationFloor();
+		return people.getDestinationFloor( personID );
 	}
 
 	/**
-	 * Forwards the call to Person to get the boolean determining if a person has reached their destination floor 
+	 * Returns the boolean determining if a person has reached their destination floor 
 	 * @param personID: the ID of the person desired
 	 * @return the boolean determining if the person has reached their destination
 	 */
-	public boolean hasReachedDestination( short personID )
+	public boolean hasReachedDestination( int personID )
 	{
-		return people.get( personID ).hasReachedDestination();
+		return people.hasReachedDestination( personID );
 	}
 
 	/**
-	 * Forwards the call to Person to set the boolean determining if the person has reached their destination
+	 * Sets the boolean determining if the person has reached their destination
 	 * @param personID: the ID of the person desired
 	 * @param status: the boolean (true == reached, false == has not reached) determining if the person has reached their destination
 	 */
-	public void setHasReachedDestination( short personID, boolean status )
+	public void setHasReachedDestination( int personID, boolean status )
 	{
-		people.get( personID ).setHasReachedDestination( status );
+		people.setHasReachedDestination( personID, status );
 	}
 
 	/**
-	 * Forwards the call to Person to stop the person's ride timer
+	 * Stops the person's ride timer.
+	 * If the person has reached their destination, their trip is added to the trip statistics.
 	 * @param personID: the ID of the person desired
+	 * @param elevatorID: the ID of the elevator the person rode
 	 */
-	public void stopRideTimer( short personID )
+	public void stopRideTimer( int personID, short elevatorID )
 	{
-		people.get( personID ).stopRideTimer();
+		people.setStopRideTime( personID, clock.currentTimeMillis() );
+		
+		if ( people.hasReachedDestination( personID ) )
+		{
+			statistics.record(	people.getStartFloor( personID ),
+								people.getDestinationFloor( personID ),
+								elevatorID,
+								people.getStopWaitTime( personID ) - people.getStartWaitTime( personID ),
+								people.getStopRideTime( personID ) - people.getStartRideTime( personID ) );
+		}
+	}
+	
+	/**
+	 * Returns how long a person waited for an elevator
+	 * @param personID: the ID of the person desired
+	 * @return the wait time in milliseconds
+	 */
+	public long getWaitTime( int personID )
+	{
+		return people.getStopWaitTime( personID ) - people.getStartWaitTime( personID );
+	}
+	
+	/**
+	 * Returns how long a person rode the elevator
+	 * @param personID: the ID of the person desired
+	 * @return the ride time in milliseconds
+	 */
+	public long getRideTime( int personID )
+	{
+		return people.getStopRideTime( personID ) - people.getStartRideTime( personID );
+	}
+	
+	/**
+	 * Returns the statistics of the trips completed so far
+	 * @return the trip statistics
+	 */
+	public TripStatistics getTripStatistics()
+	{
+		return statistics;
 	}
 
 	/**
-	 * Forwards the call to Person to stop the person's ride timer
+	 * Stops the person's wait timer
 	 * @param personID: the ID of the person desired
 	 */
-	public void stopWaitTimer( short personID )
+	public void stopWaitTimer( int personID )
 	{
-		people.get( personID ).stopWaitTimer();
+		people.setStopWaitTime( personID, clock.currentTimeMillis() );
 	}
 
 	/**
-	 * Forwards the call to Person to start the person's ride timer
+	 * Starts the person's ride timer
 	 * @param personID: the ID of the person desired
 	 */
-	public void startRideTimer( short personID )
+	public void startRideTimer( int personID )
+	{
+		people.setStartRideTime( personID, clock.currentTimeMillis() );
+	}
+	
+	/**
+	 * Sets the clock that newly created persons use for their timers
+	 * (the discrete-event simulation swaps in its virtual clock)
+	 * @param inClock: the clock to use
+	 */
+	public void setClock( SimClock inClock )
+	{
+		clock = inClock;
+	}
+	
+	/**
+	 * Returns the clock that the persons' timers use
+	 * @return the clock
+	 */
+	public SimClock getClock() { return clock; }
+	
+	/**
+	 * Chooses where the people are kept, and empties the passenger store (so call it before creating anyone)
+	 * @param inOffHeap: true to keep the people in direct buffers outside the Java heap, false to keep them in arrays on the heap
+	 */
+	public void setOffHeap( boolean inOffHeap )
 	{
-		people.get( personID ).startRideTimer();
+		offHeap = inOffHeap;
+		people = PassengerStoreFactory.build( offHeap );
 	}
 	
-	public void createPerson( short startFloor, short destFloor )
+	/**
+	 * Creates a person who starts waiting for an elevator (and starts their wait timer)
+	 * @param startFloor: the floor the person starts on
+	 * @param destFloor: the floor the person wants to reach
+	 * @return the ID of the new person
+	 * @throws IllegalArgumentException if a floor is out of bounds or the floors are the same
+	 */
+	public int createPerson( short startFloor, short destFloor ) throws IllegalArgumentException
 	{
-		Person generated = new Person( getIDcounter(), startFloor, destFloor );
-		people.add( generated );
-		incrementIDcounter();
+		short numOfFloors = context.getNumberOfFloors();
+		
+		if ( startFloor == destFloor )
+		{
+			throw new IllegalArgumentException( "Tried to make the person go to the same floor at which they start." );
+		}
+		if ( startFloor < 0 || startFloor >= numOfFloors )
+		{
+			throw new IllegalArgumentException( "Tried to make the person start at an out-of-bounds floor.\nExpected (0-" + ( numOfFloors - 1 ) + "), got " + startFloor );
+		}
+		if ( destFloor < 0 || destFloor >= numOfFloors )
+		{
+			throw new IllegalArgumentException( "Tried to make the person go to an out-of-bounds floor.\nExpected (0-" + ( numOfFloors - 1 ) + "), got " + destFloor );
+		}
+		
+		return people.add( startFloor, destFloor, clock.currentTimeMillis() );
+	}
+	
+	/**
+	 * Returns the number of people created so far
+	 * @return the number of people
+	 */
+	public int getNumberOfPeople()
+	{
+		return people.size();
 	}
 	
+	/**
+	 * Creates a DTO for every person who has completed their trip (the simulation's report doesn't use them: with millions of people,
+	 * it reads each person from the passenger store instead of copying them all)
+	 * @return the DTO's, in the order the people were created
+	 */
 	public ArrayList<PersonDTO> getPersonDTOs()
 	{
 		ArrayList<PersonDTO> peopleInfo = new ArrayList<PersonDTO>();
-		for ( Person person : people )
+		for ( int personID = 0; personID < people.size(); personID++ )
 		{
 			// only include people who have completed their trip
-			if ( person.hasReachedDestination() )
+			if ( people.hasReachedDestination( personID ) )
 			{
-				peopleInfo.add( new PersonDTO(	person.getID(),
-												person.getStartFloor(),
-												person.getDestinationFloor(), 
-												( int ) person.getWaitTime(), 
-												( int ) person.getRideTime() ) );
+				peopleInfo.add( new PersonDTO(	personID,
+												people.getStartFloor( personID ),
+												people.getDestinationFloor( personID ), 
+												( int ) ( getWaitTime( personID ) / 1000 ), 
+												( int ) ( getRideTime( personID ) / 1000 ) ) );
 			}
 		}
 		
@@ -146,11 +253,12 @@ public class PersonFacade {
 	
 	/**
 	 * This method resets the person facade so it can run for another simulation loop
-	 * (needed because singletons cannot be recreated during a program)
+	 * (needed because the default context cannot be recreated during a program)
 	 */
 	public void reset()
 	{
 		this.people.clear();
-		PersonFacade.IDcounter = 0;
+		this.clock = new SystemClock();
+		this.statistics = new TripStatistics( context.getNumberOfFloors(), context.getNumberOfElevators() );
 	}
 }
@@ -2,10 +2,14 @@ package building;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import simulationEngine.VirtualClock;
+
 public class PersonFacadeTest {
 
 	private static Building theBuilding = null;
@@ -34,5 +38,63 @@ public class PersonFacadeTest {
 		assertTrue(p.hasReachedDestination((short)0));
 		assertEquals(p.getDestinationFloor((short)0),5);
 	}
-
+	
+	@Test
+	public void testIntIDs()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		PersonFacade facade = context.getPersonFacade();
+		facade.setOffHeap(true);
+		for (int i = 0; i < 40000; i++)
+		{
+			assertEquals(facade.createPerson((short)1, (short)4), i);
+		}
+		assertEquals(facade.getNumberOfPeople(),40000);
+		facade.stopWaitTimer(39999);
+		facade.startRideTimer(39999);
+		facade.setHasReachedDestination(39999, true);
+		facade.stopRideTimer(39999, (short)0);
+		assertEquals(facade.getPersonDTOs().size(),1);
+		assertEquals(facade.getPersonDTOs().get(0).personID,39999);
+		assertEquals(facade.getTripStatistics().getWaitTimes().getCount(),1);
+		facade.reset();
+		assertEquals(facade.getNumberOfPeople(),0);
+	}
+	
+	@Test
+	public void testTripTimes()
+	{
+		// the report reads every person's floors and times straight from the facade
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		PersonFacade facade = context.getPersonFacade();
+		VirtualClock clock = new VirtualClock();
+		facade.setClock(clock);
+		int id = facade.createPerson((short)2, (short)6);
+		clock.advanceTo(4500);
+		facade.stopWaitTimer(id);
+		facade.startRideTimer(id);
+		clock.advanceTo(12000);
+		facade.setHasReachedDestination(id, true);
+		facade.stopRideTimer(id, (short)0);
+		assertEquals(facade.getStartFloor(id),2);
+		assertEquals(facade.getDestinationFloor(id),6);
+		assertEquals(facade.getWaitTime(id),4500);
+		assertEquals(facade.getRideTime(id),7500);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testSameFloor()
+	{
+		p.createPerson((short)3, (short)3);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testFloorOutOfBounds()
+	{
+		p.createPerson((short)3, (short)10);
+	}
 }
@@ -0,0 +1,169 @@
+package building;
+
+/**
+ * This class is a first-in, first-out queue of person ID's, kept in a growable ring of primitive ints.
+ * Every person is queued with a ticket (the order they arrived in), so that the heads of several queues can be compared.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class PersonQueue
+{
+	/**
+	 * The initial number of people the queue has room for
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+	
+	/**
+	 * The ID's of the queued people (the ring)
+	 */
+	private int[] personIDs;
+	
+	/**
+	 * The tickets of the queued people, in the same slots as their ID's
+	 */
+	private long[] tickets;
+	
+	/**
+	 * The slot of the person at the head of the queue
+	 */
+	private int head;
+	
+	/**
+	 * The number of people in the queue
+	 */
+	private int size;
+	
+	/**
+	 * Creates an empty queue
+	 */
+	public PersonQueue()
+	{
+		personIDs = new int[ INITIAL_CAPACITY ];
+		tickets = 	new long[ INITIAL_CAPACITY ];
+		head = 		0;
+		size = 		0;
+	}
+	
+	/**
+	 * Adds a person to the tail of the queue
+	 * @param personID: the ID of the person
+	 * @param ticket: the order the person arrived in
+	 */
+	public void add( int personID, long ticket )
+	{
+		if ( size == personIDs.length )
+		{
+			grow();
+		}
+		
+		int slot = ( head + size ) % personIDs.length;
+		personIDs[ slot ] = personID;
+		tickets[ slot ] = 	ticket;
+		size++;
+	}
+	
+	/**
+	 * Returns the person at the head of the queue without removing them
+	 * @return the ID of the person, or -1 if the queue is empty
+	 */
+	public int peek() { return size == 0 ? -1 : personIDs[ head ]; }
+	
+	/**
+	 * Returns the ticket of the person at the head of the queue
+	 * @return the ticket, or Long.MAX_VALUE if the queue is empty
+	 */
+	public long peekTicket() { return size == 0 ? Long.MAX_VALUE : tickets[ head ]; }
+	
+	/**
+	 * Removes the person at the head of the queue
+	 * @return the ID of the person, or -1 if the queue is empty
+	 */
+	public int poll()
+	{
+		if ( size == 0 )
+		{
+			return -1;
+		}
+		
+		int personID = personIDs[ head ];
+		head = ( head + 1 ) % personIDs.length;
+		size--;
+		
+		return personID;
+	}
+	
+	/**
+	 * Removes a person from anywhere in the queue (constant time at the head, linear elsewhere)
+	 * @param personID: the ID of the person
+	 * @return true if the person was queued, otherwise false
+	 */
+	public boolean remove( int personID )
+	{
+		for ( int i = 0; i < size; i++ )
+		{
+			if ( personIDs[ ( head + i ) % personIDs.length ] == personID )
+			{
+				// close the gap by shifting the people behind them forward
+				for ( int j = i; j < size - 1; j++ )
+				{
+					int to = 	( head + j ) % personIDs.length;
+					int from = 	( head + j + 1 ) % personIDs.length;
+					personIDs[ to ] = 	personIDs[ from ];
+					tickets[ to ] = 	tickets[ from ];
+				}
+				size--;
+				
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Returns the ID of a queued person by position
+	 * @param index: the position in the queue (0 is the head)
+	 * @return the person ID, or -1 if the queue is shorter than that
+	 */
+	public int get( int index ) { return index < 0 || index >= size ? -1 : personIDs[ ( head + index ) % personIDs.length ]; }
+	
+	/**
+	 * Returns the ticket of a queued person by position
+	 * @param index: the position in the queue (0 is the head)
+	 * @return the ticket, or Long.MAX_VALUE if the queue is shorter than that
+	 */
+	public long getTicket( int index ) { return index < 0 || index >= size ? Long.MAX_VALUE : tickets[ ( head + index ) % personIDs.length ]; }
+	
+	/**
+	 * Checks whether anyone is queued
+	 * @return true if the queue is empty, otherwise false
+	 */
+	public boolean isEmpty() { return size == 0; }
+	
+	/**
+	 * Returns the number of people in the queue
+	 * @return the number of people
+	 */
+	public int size() { return size; }
+	
+	/**
+	 * Doubles the room of the queue, moving the head back to the first slot
+	 */
+	private void grow()
+	{
+		int[] newIDs = 		new int[ personIDs.length * 2 ];
+		long[] newTickets = new long[ personIDs.length * 2 ];
+		
+		for ( int i = 0; i < size; i++ )
+		{
+			newIDs[ i ] = 		personIDs[ ( head + i ) % personIDs.length ];
+			newTickets[ i ] = 	tickets[ ( head + i ) % personIDs.length ];
+		}
+		
+		personIDs = newIDs;
+		tickets = 	newTickets;
+		head = 		0;
+	}
+}
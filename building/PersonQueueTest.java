@@ -0,0 +1,84 @@
+package building;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class PersonQueueTest {
+
+	@Test
+	public void testFifo()
+	{
+		PersonQueue q = new PersonQueue();
+		assertTrue(q.isEmpty());
+		assertEquals(q.peek(),-1);
+		assertEquals(q.peekTicket(),Long.MAX_VALUE);
+		assertEquals(q.poll(),-1);
+		for (short i = 0; i < 40; i++)
+		{
+			q.add(i, i * 2);
+		}
+		assertEquals(q.size(),40);
+		for (short i = 0; i < 40; i++)
+		{
+			assertEquals(q.peekTicket(),i * 2);
+			assertEquals(q.poll(),i);
+		}
+		assertTrue(q.isEmpty());
+	}
+	
+	@Test
+	public void testWrapAndGrow()
+	{
+		PersonQueue q = new PersonQueue();
+		short next = 0;
+		short expected = 0;
+		for (int round = 0; round < 10; round++)
+		{
+			for (int i = 0; i < 12; i++)
+			{
+				q.add(next, next);
+				next++;
+			}
+			for (int i = 0; i < 7; i++)
+			{
+				assertEquals(q.poll(),expected++);
+			}
+		}
+		assertEquals(q.size(),50);
+		assertEquals(q.peek(),expected);
+	}
+	
+	@Test
+	public void testRemove()
+	{
+		PersonQueue q = new PersonQueue();
+		for (short i = 0; i < 5; i++)
+		{
+			q.add(i, i);
+		}
+		assertTrue(q.remove((short)2));
+		assertFalse(q.remove((short)2));
+		assertEquals(q.size(),4);
+		assertEquals(q.poll(),0);
+		assertEquals(q.poll(),1);
+		assertEquals(q.peekTicket(),3);
+		assertEquals(q.poll(),3);
+		assertEquals(q.poll(),4);
+	}
+	
+	@Test
+	public void testGet()
+	{
+		PersonQueue q = new PersonQueue();
+		q.add(4, 10);
+		q.add(7, 11);
+		q.poll();
+		q.add(9, 12);
+		assertEquals(q.get(0),7);
+		assertEquals(q.get(1),9);
+		assertEquals(q.getTicket(1),12);
+		assertEquals(q.get(2),-1);
+		assertEquals(q.getTicket(-1),Long.MAX_VALUE);
+	}
+}
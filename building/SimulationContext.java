@@ -0,0 +1,143 @@
+package building;
+
+import java.util.ArrayList;
+
+import elevatorController.EController;
+
+/**
+ * This class holds the complete state of one independent simulation: the number of floors, its building (with floors),
+ * its elevator controller (with elevators and pending requests) and its person facade.
+ * 
+ * Every object of a simulation is given its context when it is created and reaches the others through it,
+ * so any number of independent simulations can live in one JVM.
+ * Building.getInstance(), EController.getInstance() and PersonFacade.getInstance() return the objects of the default context,
+ * which is the one the Simulator's main method runs.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class SimulationContext
+{
+	/**
+	 * The default context (the single simulation that the singleton accessors return)
+	 */
+	private volatile static SimulationContext defaultContext;
+	
+	/**
+	 * The number of floors in the building of this simulation
+	 */
+	private short numOfFloors;
+	
+	/**
+	 * The number of elevators in the building of this simulation
+	 */
+	private short numOfElevators;
+	
+	/**
+	 * The building of this simulation
+	 */
+	private Building myBuilding;
+	
+	/**
+	 * The elevator controller of this simulation (contained by the building)
+	 */
+	private EController myEController;
+	
+	/**
+	 * The person facade of this simulation
+	 */
+	private PersonFacade myPersonFacade;
+	
+	/**
+	 * Creates a new, independent simulation state with the specified arguments.
+	 * The numbers of floors and elevators are stored first, then the person facade, the elevator controller and finally the building are created,
+	 * so each of them can already reach what it needs from the context while it is being constructed.
+	 * @param numberOfFloors:	number of floors the building will maintain
+	 * @param numberOfElevators:	number of elevators that EController will maintain
+	 * @param inCapacity:	The maximum number of people each elevator can carry.
+	 * @param inSpeed:	The amount of time it takes for an elevator to get from one floor to the next.
+	 * @param inDoorSpeed:	The amount of time it takes for an elevator to open it doors, exchange people, and close its doors.
+	 * @param inDefaultFloors:	The default floor of each elevator.
+	 * @param algorithmImplementation:	0 for the initial algorithm implementations, 1 for the second ones,
+	 * 									or EController.ALTERNATING_ALGORITHMS to switch to the second ones after a reset
+	 * @throws IllegalArgumentException 
+	 */
+	public SimulationContext( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors, int algorithmImplementation ) throws IllegalArgumentException
+	{
+		numOfFloors = 		numberOfFloors;
+		numOfElevators = 	numberOfElevators;
+		myPersonFacade = 	new PersonFacade( this );
+		myEController = 	new EController( this, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloors, algorithmImplementation );
+		myBuilding = 		new Building( this );
+	}
+	
+	/**
+	 * Returns the default context.
+	 * This version of getDefault doesn't need a parameter, so if the default context doesn't exist yet, it is created empty.
+	 * @return the default context
+	 */
+	public static SimulationContext getDefault()
+	{
+		return SimulationContext.getDefault( ( short ) 0, ( short ) 0, ( short ) 0, ( short ) 0, ( short ) 0, new ArrayList<Short>() );
+	}
+	
+	/**
+	 * Returns the default context.
+	 * If the default context hasn't been initialized yet, it initializes it with the parameter values (and the algorithm implementations
+	 * switch from the initial ones to the second ones after a reset, like they always have for the Simulator).
+	 * Otherwise, it returns the pre-existing context.
+	 * @param numberOfFloors:	number of floors the building will maintain
+	 * @param numberOfElevators:	number of elevators that EController will maintain
+	 * @param inCapacity:	The maximum number of people each elevator can carry.
+	 * @param inSpeed:	The amount of time it takes for an elevator to get from one floor to the next.
+	 * @param inDoorSpeed:	The amount of time it takes for an elevator to open it doors, exchange people, and close its doors.
+	 * @param inDefaultFloors:	The default floor of each elevator.
+	 * @return the default context
+	 * @throws IllegalArgumentException 
+	 */
+	public static SimulationContext getDefault( short numberOfFloors, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors ) throws IllegalArgumentException
+	{
+		if( defaultContext == null )
+		{
+			synchronized( SimulationContext.class )
+			{
+				if( defaultContext == null )
+				{
+					defaultContext = new SimulationContext( numberOfFloors, numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloors, EController.ALTERNATING_ALGORITHMS );
+				}
+			}
+		}
+		return defaultContext;
+	}
+	
+	/**
+	 * Returns the number of floors in the building of this simulation
+	 * @return the number of floors
+	 */
+	public short getNumberOfFloors() { return numOfFloors; }
+	
+	/**
+	 * Returns the number of elevators in the building of this simulation
+	 * @return the number of elevators
+	 */
+	public short getNumberOfElevators() { return numOfElevators; }
+	
+	/**
+	 * Returns the building of this simulation
+	 * @return the building
+	 */
+	public Building getBuilding() { return myBuilding; }
+	
+	/**
+	 * Returns the elevator controller of this simulation
+	 * @return the EController
+	 */
+	public EController getEController() { return myEController; }
+	
+	/**
+	 * Returns the person facade of this simulation
+	 * @return the person facade
+	 */
+	public PersonFacade getPersonFacade() { return myPersonFacade; }
+}
@@ -0,0 +1,65 @@
+package building;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import elevatorController.EController;
+
+public class SimulationContextTest {
+
+	private static Building theBuilding = null;
+	private static ArrayList<Short> defaultFloors = null;
+	
+	@BeforeClass
+	public static void setUpBeforeClass()
+	{
+		theBuilding = Building.getInstance( ( short ) 10, ( short ) 2, ( short ) 10, ( short ) 1000, ( short ) 2500, ( short ) 0);
+		defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+	}
+	
+	@Test
+	public void testDefault()
+	{
+		SimulationContext context = SimulationContext.getDefault();
+		assertSame(Building.getInstance(), theBuilding);
+		assertSame(context.getBuilding(), theBuilding);
+		assertSame(EController.getInstance(), context.getEController());
+		assertSame(PersonFacade.getInstance(), context.getPersonFacade());
+		assertEquals(context.getNumberOfFloors(),10);
+	}
+	
+	@Test
+	public void testIndependentBuildings()
+	{
+		SimulationContext context = new SimulationContext((short)20, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		assertNotSame(context.getBuilding(), theBuilding);
+		assertNotSame(context.getEController(), EController.getInstance());
+		assertEquals(context.getBuilding().getNumberOfFloors(),20);
+		assertEquals(theBuilding.getNumberOfFloors(),10);
+		
+		// a call box press only reaches the elevators of its own simulation
+		context.getBuilding().pressCallBox((short)15, true);
+		assertTrue(context.getEController().getElevator((short)0).isInDestinations((short)15));
+		assertFalse(EController.getInstance().getElevator((short)0).isInDestinations((short)15));
+	}
+	
+	@Test
+	public void testIndependentPeople()
+	{
+		SimulationContext first = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		SimulationContext second = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 1);
+		
+		first.getPersonFacade().createPerson((short)0, (short)5);
+		second.getPersonFacade().createPerson((short)3, (short)1);
+		
+		// both people get ID 0 in their own simulation
+		assertEquals(first.getPersonFacade().getDestinationFloor((short)0),5);
+		assertEquals(second.getPersonFacade().getDestinationFloor((short)0),1);
+	}
+}
@@ -0,0 +1,79 @@
+package building;
+
+import simulationEngine.LatencyHistogram;
+
+/**
+ * This class keeps the wait, ride and total journey time histograms of a group of trips (ex. every trip that started on one floor).
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class TripHistograms
+{
+	/**
+	 * The wait times (in milliseconds) until the people got onto an elevator
+	 */
+	private LatencyHistogram waitTimes;
+	
+	/**
+	 * The ride times (in milliseconds) spent on the elevator
+	 */
+	private LatencyHistogram rideTimes;
+	
+	/**
+	 * The journey times (in milliseconds), from requesting an elevator until reaching the destination
+	 */
+	private LatencyHistogram journeyTimes;
+	
+	/**
+	 * Creates empty histograms
+	 */
+	public TripHistograms()
+	{
+		waitTimes = 	new LatencyHistogram();
+		rideTimes = 	new LatencyHistogram();
+		journeyTimes = 	new LatencyHistogram();
+	}
+	
+	/**
+	 * Adds one completed trip to the histograms
+	 * @param waitTime: the time (in milliseconds) the person waited for an elevator
+	 * @param rideTime: the time (in milliseconds) the person rode the elevator
+	 */
+	public void record( long waitTime, long rideTime )
+	{
+		waitTimes.record( waitTime );
+		rideTimes.record( rideTime );
+		journeyTimes.record( waitTime + rideTime );
+	}
+	
+	/**
+	 * Adds all the trips of other histograms to these ones
+	 * @param other: the histograms to merge into these ones (they aren't changed)
+	 */
+	public void merge( TripHistograms other )
+	{
+		waitTimes.merge( other.waitTimes );
+		rideTimes.merge( other.rideTimes );
+		journeyTimes.merge( other.journeyTimes );
+	}
+	
+	/**
+	 * Returns the wait time histogram
+	 * @return the wait times in milliseconds
+	 */
+	public LatencyHistogram getWaitTimes() { return waitTimes; }
+	
+	/**
+	 * Returns the ride time histogram
+	 * @return the ride times in milliseconds
+	 */
+	public LatencyHistogram getRideTimes() { return rideTimes; }
+	
+	/**
+	 * Returns the journey time histogram
+	 * @return the journey times in milliseconds
+	 */
+	public LatencyHistogram getJourneyTimes() { return journeyTimes; }
+}
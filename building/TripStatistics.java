@@ -0,0 +1,166 @@
+package building;
+
+import simulationEngine.RunningStatistic;
+
+/**
+ * This class accumulates the statistics of completed trips as each passenger reaches their destination,
+ * so the reports can be generated without keeping or rescanning every person.
+ * It keeps the wait times per start floor, the ride times per start and destination floor pair, and the overall wait and ride times
+ * (in whole seconds, like the person DTO's), as well as wait, ride and journey time histograms (in milliseconds) overall,
+ * per start floor and per elevator for the percentiles.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class TripStatistics
+{
+	/**
+	 * The wait times (in seconds) of the people who completed their trip, per start floor
+	 */
+	private RunningStatistic[] waitByStartFloor;
+	
+	/**
+	 * The ride times (in seconds) of the people who completed their trip, per start floor (first index) and destination floor (second index)
+	 */
+	private RunningStatistic[][] rideByTrip;
+	
+	/**
+	 * The wait times (in seconds) of all the people who completed their trip
+	 */
+	private RunningStatistic waitTimes;
+	
+	/**
+	 * The ride times (in seconds) of all the people who completed their trip
+	 */
+	private RunningStatistic rideTimes;
+	
+	/**
+	 * The histograms of all the trips
+	 */
+	private TripHistograms histograms;
+	
+	/**
+	 * The histograms of the trips per start floor
+	 */
+	private TripHistograms[] floorHistograms;
+	
+	/**
+	 * The histograms of the trips per elevator that carried the person
+	 */
+	private TripHistograms[] elevatorHistograms;
+	
+	/**
+	 * Creates empty statistics for a building
+	 * @param numOfFloors: the number of floors in the building
+	 * @param numOfElevators: the number of elevators in the building
+	 */
+	public TripStatistics( int numOfFloors, int numOfElevators )
+	{
+		waitByStartFloor = 	new RunningStatistic[ numOfFloors ];
+		rideByTrip = 		new RunningStatistic[ numOfFloors ][ numOfFloors ];
+		waitTimes = 		new RunningStatistic();
+		rideTimes = 		new RunningStatistic();
+		histograms = 		new TripHistograms();
+		floorHistograms = 	new TripHistograms[ numOfFloors ];
+		elevatorHistograms = new TripHistograms[ numOfElevators ];
+		
+		for ( int elevator = 0; elevator < numOfElevators; elevator++ )
+		{
+			elevatorHistograms[ elevator ] = new TripHistograms();
+		}
+		
+		for ( int start = 0; start < numOfFloors; start++ )
+		{
+			waitByStartFloor[ start ] = new RunningStatistic();
+			floorHistograms[ start ] = 	new TripHistograms();
+			for ( int dest = 0; dest < numOfFloors; dest++ )
+			{
+				rideByTrip[ start ][ dest ] = new RunningStatistic();
+			}
+		}
+	}
+	
+	/**
+	 * Adds one completed trip to the statistics
+	 * @param startFloor: the floor the person started on
+	 * @param destFloor: the floor the person wanted to reach
+	 * @param elevatorID: the elevator that carried the person
+	 * @param waitTime: the time (in milliseconds) the person waited for an elevator
+	 * @param rideTime: the time (in milliseconds) the person rode the elevator
+	 */
+	public synchronized void record( short startFloor, short destFloor, short elevatorID, long waitTime, long rideTime )
+	{
+		// the averages are kept in whole seconds, like the person DTO's
+		long waitSeconds = waitTime / 1000;
+		long rideSeconds = rideTime / 1000;
+		
+		waitByStartFloor[ startFloor ].add( waitSeconds );
+		rideByTrip[ startFloor ][ destFloor ].add( rideSeconds );
+		waitTimes.add( waitSeconds );
+		rideTimes.add( rideSeconds );
+		
+		histograms.record( waitTime, rideTime );
+		floorHistograms[ startFloor ].record( waitTime, rideTime );
+		elevatorHistograms[ elevatorID ].record( waitTime, rideTime );
+	}
+	
+	/**
+	 * Returns the number of floors the statistics are kept for
+	 * @return the number of floors
+	 */
+	public int getNumberOfFloors() { return waitByStartFloor.length; }
+	
+	/**
+	 * Returns the number of elevators the statistics are kept for
+	 * @return the number of elevators
+	 */
+	public int getNumberOfElevators() { return elevatorHistograms.length; }
+	
+	/**
+	 * Returns the wait times of the people who started on a floor
+	 * @param startFloor: the start floor
+	 * @return the wait time statistic (in seconds)
+	 */
+	public RunningStatistic getWaitTimes( int startFloor ) { return waitByStartFloor[ startFloor ]; }
+	
+	/**
+	 * Returns the ride times of the people who travelled from one floor to another
+	 * @param startFloor: the start floor
+	 * @param destFloor: the destination floor
+	 * @return the ride time statistic (in seconds)
+	 */
+	public RunningStatistic getRideTimes( int startFloor, int destFloor ) { return rideByTrip[ startFloor ][ destFloor ]; }
+	
+	/**
+	 * Returns the wait times of all the people who completed their trip
+	 * @return the wait time statistic (in seconds)
+	 */
+	public RunningStatistic getWaitTimes() { return waitTimes; }
+	
+	/**
+	 * Returns the ride times of all the people who completed their trip
+	 * @return the ride time statistic (in seconds)
+	 */
+	public RunningStatistic getRideTimes() { return rideTimes; }
+	
+	/**
+	 * Returns the histograms of all the people who completed their trip
+	 * @return the wait, ride and journey time histograms
+	 */
+	public TripHistograms getHistograms() { return histograms; }
+	
+	/**
+	 * Returns the histograms of the people who started on a floor
+	 * @param startFloor: the start floor
+	 * @return the wait, ride and journey time histograms
+	 */
+	public TripHistograms getFloorHistograms( int startFloor ) { return floorHistograms[ startFloor ]; }
+	
+	/**
+	 * Returns the histograms of the people an elevator carried
+	 * @param elevatorID: the elevator
+	 * @return the wait, ride and journey time histograms
+	 */
+	public TripHistograms getElevatorHistograms( int elevatorID ) { return elevatorHistograms[ elevatorID ]; }
+}
@@ -0,0 +1,73 @@
+package building;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TripStatisticsTest {
+
+	@Test
+	public void testRecord()
+	{
+		TripStatistics t = new TripStatistics(5, 2);
+		t.record((short)0, (short)3, (short)0, 10000, 4000);
+		t.record((short)0, (short)3, (short)1, 20000, 6000);
+		t.record((short)0, (short)1, (short)1, 6000, 2000);
+		t.record((short)4, (short)0, (short)1, 3000, 8000);
+		
+		assertEquals(t.getNumberOfFloors(),5);
+		assertEquals(t.getWaitTimes(0).getCount(),3);
+		assertEquals(t.getWaitTimes(0).getMean(),12,1e-9);
+		assertEquals(t.getWaitTimes(0).getMin(),6,0);
+		assertEquals(t.getWaitTimes(0).getMax(),20,0);
+		assertEquals(t.getRideTimes(0,3).getMean(),5,1e-9);
+		assertEquals(t.getRideTimes(0,1).getCount(),1);
+		assertEquals(t.getRideTimes(3,0).getCount(),0);
+		assertEquals(t.getWaitTimes().getCount(),4);
+		assertEquals(t.getRideTimes().getMean(),5,1e-9);
+	}
+	
+	@Test
+	public void testSecondsTruncated()
+	{
+		TripStatistics t = new TripStatistics(2, 1);
+		t.record((short)0, (short)1, (short)0, 1999, 999);
+		assertEquals(t.getWaitTimes().getMean(),1,0);
+		assertEquals(t.getRideTimes().getMean(),0,0);
+		assertEquals(t.getHistograms().getWaitTimes().getMax(),1999);
+	}
+	
+	@Test
+	public void testHistograms()
+	{
+		TripStatistics t = new TripStatistics(5, 2);
+		t.record((short)0, (short)3, (short)0, 10000, 4000);
+		t.record((short)0, (short)3, (short)1, 20000, 6000);
+		t.record((short)4, (short)0, (short)1, 3000, 8000);
+		
+		assertEquals(t.getNumberOfElevators(),2);
+		assertEquals(t.getHistograms().getWaitTimes().getCount(),3);
+		assertEquals(t.getHistograms().getJourneyTimes().getMax(),26000);
+		assertEquals(t.getHistograms().getJourneyTimes().getMin(),11000);
+		assertEquals(t.getFloorHistograms(0).getWaitTimes().getCount(),2);
+		assertEquals(t.getFloorHistograms(4).getRideTimes().getMax(),8000);
+		assertEquals(t.getFloorHistograms(2).getWaitTimes().getCount(),0);
+		assertEquals(t.getElevatorHistograms(0).getRideTimes().getCount(),1);
+		assertEquals(t.getElevatorHistograms(1).getWaitTimes().getCount(),2);
+		assertEquals(t.getElevatorHistograms(1).getWaitTimes().getMin(),3000);
+	}
+	
+	@Test
+	public void testMergeHistograms()
+	{
+		TripHistograms a = new TripHistograms();
+		TripHistograms b = new TripHistograms();
+		a.record(1000, 2000);
+		b.record(5000, 1000);
+		a.merge(b);
+		assertEquals(a.getWaitTimes().getCount(),2);
+		assertEquals(a.getWaitTimes().getMax(),5000);
+		assertEquals(a.getJourneyTimes().getMax(),6000);
+		assertEquals(b.getWaitTimes().getCount(),1);
+	}
+}
@@ -0,0 +1,74 @@
+package elevator;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * This class is a lock-free, multi-producer single-consumer queue of elevator commands.
+ * Any thread may send a command (one atomic swap of the tail, never blocking or retrying),
+ * but only the elevator that owns the mailbox receives them, in the order they were sent.
+ * The queue is a linked list of the commands themselves, starting from a stub node that the receiver moves along.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class CommandMailbox
+{
+	/**
+	 * The last command sent (swapped in by the senders)
+	 */
+	private AtomicReference<ElevatorCommand> tail;
+	
+	/**
+	 * The last command received (only touched by the receiver); the next command to receive is linked from it
+	 */
+	private ElevatorCommand head;
+	
+	/**
+	 * Creates an empty mailbox
+	 */
+	public CommandMailbox()
+	{
+		head = new ElevatorCommand( ElevatorCommandType.ADD_DESTINATION, ( short ) -1, false );
+		tail = new AtomicReference<ElevatorCommand>( head );
+	}
+	
+	/**
+	 * Sends a command (safe to call from any thread)
+	 * @param command: the command to send (it can't be sent twice)
+	 */
+	public void send( ElevatorCommand command )
+	{
+		command.next = null;
+		
+		// once a sender owns the old tail, it's the only one that links it to the new command
+		ElevatorCommand previous = tail.getAndSet( command );
+		previous.next = command;
+	}
+	
+	/**
+	 * Receives the next command (only the owning elevator may call this).
+	 * A command whose sender is still between swapping the tail and linking it is received on a later call.
+	 * @return the command, or null if there's no command to receive yet
+	 */
+	public ElevatorCommand receive()
+	{
+		ElevatorCommand next = head.next;
+		if ( next == null )
+		{
+			return null;
+		}
+		
+		head = next;
+		return next;
+	}
+	
+	/**
+	 * Checks whether any command has been sent but not received
+	 * @return true if the mailbox is empty, otherwise false
+	 */
+	public boolean isEmpty()
+	{
+		return tail.get() == head;
+	}
+}
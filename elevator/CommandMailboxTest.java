@@ -0,0 +1,71 @@
+package elevator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CommandMailboxTest {
+	
+	@Test
+	public void testOrder()
+	{
+		CommandMailbox m = new CommandMailbox();
+		assertTrue(m.isEmpty());
+		assertNull(m.receive());
+		m.send(new ElevatorCommand(ElevatorCommandType.CANCEL_STOP,(short)3,true));
+		m.send(new ElevatorCommand(ElevatorCommandType.ADD_DESTINATION,(short)7,false));
+		assertFalse(m.isEmpty());
+		ElevatorCommand c = m.receive();
+		assertEquals(c.getType(),ElevatorCommandType.CANCEL_STOP);
+		assertEquals(c.getFloorNum(),3);
+		assertTrue(c.getDirection());
+		c = m.receive();
+		assertEquals(c.getType(),ElevatorCommandType.ADD_DESTINATION);
+		assertEquals(c.getFloorNum(),7);
+		assertFalse(c.getDirection());
+		assertNull(m.receive());
+		assertTrue(m.isEmpty());
+	}
+	
+	@Test
+	public void testManySenders() throws InterruptedException
+	{
+		final CommandMailbox m = new CommandMailbox();
+		final int senders = 4;
+		final int perSender = 10000;
+		Thread[] threads = new Thread[senders];
+		for (int i = 0; i < senders; i++)
+		{
+			final short floor = (short)i;
+			threads[i] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					for (int j = 0; j < perSender; j++)
+					{
+						m.send(new ElevatorCommand(ElevatorCommandType.ADD_DESTINATION,floor,true));
+					}
+				}
+			});
+			threads[i].start();
+		}
+		
+		int[] received = new int[senders];
+		int total = 0;
+		while (total < senders * perSender)
+		{
+			ElevatorCommand c = m.receive();
+			if (c != null)
+			{
+				received[c.getFloorNum()]++;
+				total++;
+			}
+		}
+		for (int i = 0; i < senders; i++)
+		{
+			threads[i].join();
+			assertEquals(received[i],perSender);
+		}
+		assertNull(m.receive());
+	}
+}
@@ -1,5 +1,7 @@
 package elevator;
 
+import simulationEngine.EventQueue;
+
 /**
  * This is an interface for an elevator object. It outlines the basic methods needed by the EController
  * to successfully manage a building's elevators.
@@ -23,6 +25,39 @@ public interface Elevator
 	 */
 	public boolean isCurrentDirectionUp();
 	
+	/**
+	 * Returns a consistent view of the elevator's floor, direction, state, load and next stop, taken at one point in time.
+	 * Dispatchers on other threads should decide on one snapshot rather than calling the separate getters.
+	 * @return the elevator's latest published status
+	 */
+	public ElevatorSnapshot getSnapshot();
+	
+	/**
+	 * Returns the nearest pending destination at or beyond a floor in a direction (used to walk the stop list without copying it)
+	 * @param fromFloor: the floor to start looking from (it is included)
+	 * @param directionIsUp: the direction to look in
+	 * @return the nearest destination, or -1 if there is none in that direction
+	 */
+	public short getNextDestination( short fromFloor, boolean directionIsUp );
+	
+	/**
+	 * Returns the max capacity of the elevator
+	 * @return the max capacity
+	 */
+	public short getCapacity();
+	
+	/**
+	 * Returns the time taken to pass a floor
+	 * @return the time per floor in milliseconds
+	 */
+	public short getTimePerFloor();
+	
+	/**
+	 * Returns the time taken to open the doors, exchange people, and close the doors
+	 * @return the door operation time in milliseconds
+	 */
+	public short getDoorOperationTime();
+	
 	/**
 	 * Given a destination, the elevator will check if it's in its destination list and return true if it is and false if it isn't
 	 * @param floorNum: the floor to be checked for in the destination list
@@ -48,12 +83,39 @@ public interface Elevator
 	 */
 	public boolean takeRequest(short destFloor, boolean directionIsUp) throws IllegalArgumentException;
 	
+	/**
+	 * Removes a stop that was only made for a hall call, once another elevator has taken the call over.
+	 * The stop is kept if someone on board is getting off there.
+	 * @param floorNum: the floor of the stop
+	 * @throws IllegalArgumentException if the floor is out of range
+	 */
+	public void cancelStop( short floorNum ) throws IllegalArgumentException;
+	
+	/**
+	 * Counts the people on board getting off at a floor (the elevator stops there whichever elevator answers the hall call)
+	 * @param floorNum: the floor to be checked
+	 * @return the number of passengers whose destination is that floor
+	 */
+	public int getRidersFor( short floorNum );
+	
 	/**
 	 * Shuts down the elevator.
 	 * @throws IllegalArgumentException 
 	 */
 	public void shutdown() throws IllegalArgumentException;
 	
+	/**
+	 * Drives the elevator from a discrete-event queue instead of its own thread.
+	 * @param queue: the event queue that schedules the elevator's floor passes, door cycles and idle timeouts
+	 */
+	public void attachEventQueue( EventQueue queue );
+	
+	/**
+	 * Turns the elevator's printed narrative on or off.
+	 * @param inDebug: true to print the elevator's activity, false otherwise
+	 */
+	public void setDebug( boolean inDebug );
+	
 	/**
 	 * used to reset the elevator for JUnit testing
 	 * @throws IllegalArgumentException 
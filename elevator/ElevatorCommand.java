@@ -0,0 +1,63 @@
+package elevator;
+
+/**
+ * This class is one command sent to an elevator through its CommandMailbox.
+ * It is also the mailbox's queue node, so sending a command allocates nothing else.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class ElevatorCommand
+{
+	/**
+	 * The kind of command
+	 */
+	private ElevatorCommandType type;
+	
+	/**
+	 * The floor the command is about
+	 */
+	private short floorNum;
+	
+	/**
+	 * The direction of the hall call the command is about
+	 */
+	private boolean directionIsUp;
+	
+	/**
+	 * The command sent after this one (written by the sender that queued the next command, read by the elevator)
+	 */
+	volatile ElevatorCommand next;
+	
+	/**
+	 * Creates a new command
+	 * @param inType: the kind of command
+	 * @param inFloorNum: the floor the command is about
+	 * @param inDirectionIsUp: the direction of the hall call the command is about
+	 */
+	public ElevatorCommand( ElevatorCommandType inType, short inFloorNum, boolean inDirectionIsUp )
+	{
+		type = 			inType;
+		floorNum = 		inFloorNum;
+		directionIsUp = inDirectionIsUp;
+	}
+	
+	/**
+	 * Returns the kind of command
+	 * @return the command type
+	 */
+	public ElevatorCommandType getType() { return type; }
+	
+	/**
+	 * Returns the floor the command is about
+	 * @return the floor number
+	 */
+	public short getFloorNum() { return floorNum; }
+	
+	/**
+	 * Returns the direction of the hall call the command is about
+	 * @return true = up, false = down
+	 */
+	public boolean getDirection() { return directionIsUp; }
+}
@@ -0,0 +1,20 @@
+package elevator;
+
+/**
+ * This enumerates the commands that the elevator controller sends to an elevator through its mailbox.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public enum ElevatorCommandType
+{
+	/**
+	 * The controller has added a floor to the elevator's destinations (an idle elevator turns towards the floor)
+	 */
+	ADD_DESTINATION,
+	/**
+	 * The controller has given the hall call of a floor to another elevator, so the elevator no longer stops there for it
+	 */
+	CANCEL_STOP
+}
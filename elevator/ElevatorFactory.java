@@ -1,5 +1,7 @@
 package elevator;
 
+import building.SimulationContext;
+
 /**
  * This is a factory class for the elevator interface, so the building does not need to hard-code a specific implemenation.
  * 
@@ -22,4 +24,19 @@ public class ElevatorFactory {
 	{
 		return new ElevatorImpl( inID, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor );
 	}
+	
+	/**
+	 * Creates a new elevator with the specified arguments for the given simulation.
+	 * @param inID The ID of the new elevator.
+	 * @param inCapacity The maximum number of people the new elevator can carry.
+	 * @param inSpeed The amount of time it takes for the new elevator to get from one floor to the next.
+	 * @param inDoorSpeed The amount of time it takes for the new elevator to allow passengers to get on and off the elevator.
+	 * @param inContext The simulation the new elevator belongs to.
+	 * @return An Elevator object with the specified arguments.
+	 * @throws IllegalArgumentException 
+	 */
+	public static Elevator build( short inID, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor, SimulationContext inContext ) throws IllegalArgumentException
+	{
+		return new ElevatorImpl( inID, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor, inContext );
+	}
 }
@@ -1,13 +1,21 @@
 package elevator;
 
 import java.util.ArrayList;
-import java.util.Collections;
-
-import elevatorController.EController;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import building.Building;
 import building.PersonFacade;
-import java.util.Calendar;
+import building.SimulationContext;
+
+import simulationEngine.EventQueue;
+import simulationEngine.SimClock;
+import simulationEngine.SimEvent;
+import simulationEngine.SimEventHandler;
+import simulationEngine.SimEventType;
+import simulationEngine.SystemClock;
 
 /**
  * This is an implementation class for the Elevator interface. 
@@ -18,7 +26,7 @@ import java.util.Calendar;
  * @author Hannah Spearman
  * 
  */
-public class ElevatorImpl implements Elevator, Runnable
+public class ElevatorImpl implements Elevator, Runnable, SimEventHandler
 {
 	/**
 	 * The identifier of the elevator.
@@ -36,7 +44,7 @@ public class ElevatorImpl implements Elevator, Runnable
 	 * 1 = Active, but stopped
 	 * 2 = Active, and moving
 	 */
-	private short state; 
+	private volatile short state; 
 	
 	/**
 	 * The amount of time, in milliseconds, it takes for the elevator to get from one floor to the next.
@@ -49,41 +57,99 @@ public class ElevatorImpl implements Elevator, Runnable
 	private short doorOperationTime; 	// milliseconds
 	
 	/**
-	 * The floor that the elevator goes to when it has been idle for a certain amount of time.
+	 * The floor that the elevator goes to when it has been idle for a certain amount of time (unless the controller parks it elsewhere).
 	 */
 	private short defaultFloor;
 	
 	/**
 	 * The floor that the elevator is currently on.
 	 */
-	private short currentFloor;
+	private volatile short currentFloor;
 	
 	/**
 	 * Indicates the direction the elevator is moving in.
 	 * true = Up
 	 * false = Down
 	 */
-	private boolean currentDirectionIsUp;
+	private volatile boolean currentDirectionIsUp;
 	
 	/**
 	 * Holds all the pending destinations for this elevator.
 	 */
-	private boolean running;
+	private volatile boolean running;
 	
 	/**
 	 * Shows which people are on this elevator.
 	 */
-	private ArrayList<Short> destinations; // stores the assigned destinations
+	private StopSet destinations; // stores the assigned destinations
+	
+	/**
+	 * The elevator's floor, direction, state, load and next stop packed into one word (see ElevatorSnapshot),
+	 * published whenever one of them changes so other threads read a consistent view without locking.
+	 */
+	private AtomicLong status;
+	
+	/**
+	 * The commands sent to this elevator from other threads (the controller and the call boxes), received at each floor boundary.
+	 */
+	private CommandMailbox mailbox;
+	
+	/**
+	 * The thread this elevator runs on, or null if it doesn't run on its own thread (not started yet, or event-driven).
+	 * Only this thread changes the elevator; other threads send it commands instead.
+	 */
+	private volatile Thread ownerThread;
 	
 	/**
 	 * The building that this elevator is in.
 	 */
-	private ArrayList<Short> carrying;
+	private ArrayList<Integer> carrying;
+	
+	/**
+	 * The number of people on board getting off at each floor (other threads read it to tell which stops can be cancelled)
+	 */
+	private AtomicIntegerArray riders;
 	
 	/**
 	 * Determines whether or not to print output
 	 */
 	private boolean DEBUG = true;
+	
+	/**
+	 * The clock used for timestamps (the wall clock when threaded, the queue's virtual clock when event-driven).
+	 */
+	private SimClock clock;
+	
+	/**
+	 * The discrete-event queue driving this elevator, or null when the elevator runs on its own thread.
+	 */
+	private EventQueue eventQueue;
+	
+	/**
+	 * The wake-up event scheduled while the elevator waits for something to do (event-driven mode only).
+	 */
+	private SimEvent pendingWake;
+	
+	/**
+	 * The time that the elevator started waiting for something to do (event-driven mode only).
+	 */
+	private long waitStartTime;
+	
+	/**
+	 * The direction the elevator was travelling in when its doors opened (event-driven mode only).
+	 */
+	private boolean doorDirectionIsUp;
+	
+	/**
+	 * Whether pending requests should be polled once the current run of destinations is finished (event-driven mode only).
+	 * Returning to the default floor does not poll them, just like the threaded run loop.
+	 */
+	private boolean pollPendingAfterRun;
+	
+	/**
+	 * The simulation this elevator belongs to (its building, controller and people).
+	 */
+	private SimulationContext context;
 
 	/**
 	 * Creates a new ElevatorImpl with the specified arguments.
@@ -96,6 +162,27 @@ public class ElevatorImpl implements Elevator, Runnable
 	 */
 	public ElevatorImpl( short ID, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor ) throws IllegalArgumentException
 	{
+		this( ID, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor, SimulationContext.getDefault() );
+	}
+	
+	/**
+	 * Creates a new ElevatorImpl with the specified arguments for the given simulation.
+	 * @param ID The ID of the new elevator.
+	 * @param inCapacity The maximum number of people the new elevator can carry.
+	 * @param inSpeed The amount of time it takes for the new elevator to get from one floor to the next/
+	 * @param inDoorSpeed The amount of time it takes for the new elevator to open it doors, exchange people, and close its doors.
+	 * @param inDefaultFloor The default floor of the new elevator.
+	 * @param inContext The simulation the new elevator belongs to.
+	 * @throws IllegalArgumentException if one of the set methods fail
+	 */
+	public ElevatorImpl( short ID, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor, SimulationContext inContext ) throws IllegalArgumentException
+	{
+		// the floor setters check against the context's building
+		context = inContext;
+		
+		// published by the setters from here on
+		status =				new AtomicLong();
+		
 		// short data members
 		setID( ID );
 		setCapacity( inCapacity );
@@ -105,13 +192,23 @@ public class ElevatorImpl implements Elevator, Runnable
 		setDefaultFloor( inDefaultFloor );
 		setCurrentFloor( inDefaultFloor );
 		
-		// array list data members
-		destinations =			new ArrayList<Short>();
-		carrying =				new ArrayList<Short>();
+		// stop set and array list data members
+		destinations =			new StopSet( context.getNumberOfFloors() );
+		carrying =				new ArrayList<Integer>();
+		riders =				new AtomicIntegerArray( context.getNumberOfFloors() );
+		
+		// commands from other threads
+		mailbox =				new CommandMailbox();
+		ownerThread =			null;
 		
 		// boolean data members
 		setCurrentDirectionUp( true );
 		setRunning( true );
+		publishStatus();
+		
+		// runs on its own thread (with the wall clock) until attached to an event queue
+		clock = 		new SystemClock();
+		eventQueue = 	null;
 	}
 	
 	/**
@@ -134,6 +231,49 @@ public class ElevatorImpl implements Elevator, Runnable
 		return destinations.contains( floorNum );
 	}
 	
+	/**
+	 * Returns the next destination: the lowest pending floor going up, the highest going down.
+	 * @return the next destination, or -1 if there are no pending destinations.
+	 */
+	private short getNextDestination()
+	{
+		return destinations.first( currentDirectionIsUp );
+	}
+	
+	/**
+	 * Returns the nearest pending destination at or beyond a floor in a direction.
+	 * @param fromFloor: the floor to start looking from (it is included)
+	 * @param directionIsUp: the direction to look in
+	 * @return the nearest destination, or -1 if there is none in that direction
+	 */
+	@Override
+	public short getNextDestination( short fromFloor, boolean directionIsUp )
+	{
+		return destinations.next( fromFloor, directionIsUp );
+	}
+	
+	/**
+	 * Returns a consistent view of the elevator's floor, direction, state, load and next stop, read with a single volatile load.
+	 * @return the elevator's latest published status
+	 */
+	@Override
+	public ElevatorSnapshot getSnapshot() { return new ElevatorSnapshot( status.get() ); }
+	
+	/**
+	 * Packs the elevator's floor, direction, state, load and next stop and publishes them as one word.
+	 * Only called on the thread that changes the elevator, so the word is always set from the latest values.
+	 */
+	private void publishStatus()
+	{
+		// the stop set and the passengers don't exist yet while the constructor sets the first values
+		if ( destinations == null || carrying == null )
+		{
+			return;
+		}
+		
+		status.set( ElevatorSnapshot.pack( currentFloor, state, currentDirectionIsUp, carrying.size(), getNextDestination() ) );
+	}
+	
 	/**
 	 * Indicates which direction the elevator is moving in.
 	 * @return true = up, false = down.
@@ -190,10 +330,20 @@ public class ElevatorImpl implements Elevator, Runnable
 	 */
 	public short getDefaultFloor() { return defaultFloor; }
 	
+	/**
+	 * Turns the elevator's printed narrative on or off.
+	 */
+	@Override
+	public void setDebug( boolean inDebug ) { DEBUG = inDebug; }
+	
 	/**
 	 * Sets the current direction of the elevator (true == up, false == down)
 	 */
-	private void setCurrentDirectionUp( boolean inDirection ) { currentDirectionIsUp = inDirection; }
+	private void setCurrentDirectionUp( boolean inDirection )
+	{
+		currentDirectionIsUp = inDirection;
+		publishStatus();
+	}
 	
 	/**
 	 * Sets the running status of the elevator (true == running, false == shutoff )
@@ -209,6 +359,7 @@ public class ElevatorImpl implements Elevator, Runnable
 		if ( -1 < inState && inState < 3)
 		{
 			state = inState;
+			publishStatus();
 		}
 		
 		else throw new IllegalArgumentException( "The state you tried to set is out of bounds (must be in the range of 0-2).\n" );
@@ -220,9 +371,10 @@ public class ElevatorImpl implements Elevator, Runnable
 	 */
 	private void setCurrentFloor( short inFloor ) throws IllegalArgumentException
 	{ 
-		if ( -1 < inFloor || inFloor > ( int ) ( Building.getNumberOfFloors() - 1 ) )
+		if ( -1 < inFloor || inFloor > ( int ) ( context.getNumberOfFloors() - 1 ) )
 		{
 			currentFloor = inFloor; 
+			publishStatus();
 		}
 		
 		else throw new IllegalArgumentException( "The current floor you tried to set is out of bounds (must be in the range of [0-maxFloor])" );	
@@ -291,7 +443,7 @@ public class ElevatorImpl implements Elevator, Runnable
 	 */
 	private void setDefaultFloor(short inFloor) throws IllegalArgumentException
 	{
-		if ( -1 < inFloor && inFloor < ( int ) ( Building.getNumberOfFloors() - 1 ) )
+		if ( -1 < inFloor && inFloor < ( int ) ( context.getNumberOfFloors() - 1 ) )
 		{
 			defaultFloor = inFloor;
 		}
@@ -302,23 +454,30 @@ public class ElevatorImpl implements Elevator, Runnable
 	/**
 	 * This method overrides the Runnable interface's run method in order to support multi-threading.
 	 * This run method will make the elevator wait until it's given a destination, and then it will move to those pending destinations.
-	 * If the wait time passes a certain thresh-hold, then the elevator will return to its default floor (if it isn't there already).
+	 * If the wait time passes the controller's parking delay, then the elevator will park on the floor the controller chooses (if it isn't there already).
 	 */
 	@Override
 	public void run() {
-		while (running)
+		Thread me = Thread.currentThread();
+		ownerThread = me;
+		
+		// a reset hands the elevator over to the next run's thread, so this one stops
+		while ( running && ownerThread == me )
 		{
 			short currFloor = getCurrentFloor();
-			short defFloor = getDefaultFloor();
+			long parkingDelay = context.getEController().getParkingDelay();
 			
 			try {
 				
-				long waitTime = System.currentTimeMillis();
+				long waitTime = clock.currentTimeMillis();
 				
-				synchronized( destinations )
+				// initially wait until there's something to do (parking, so a waiting virtual thread gives its carrier thread back)
+				if ( mailbox.isEmpty() && destinations.isEmpty() )
 				{
-					destinations.wait(10000); // initially wait until there's something to do
+					LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( parkingDelay ) );
 				}
+				checkOwnerThread();
+				receiveCommands();
 			  
 				/* Thread wakes up!
 				 * 
@@ -329,111 +488,393 @@ public class ElevatorImpl implements Elevator, Runnable
 				 * 		- Process them and add viable requests to your destinations list
 				 * 
 				 * Else if we've waited long enough:
-				 * 		- Check if we're at the default floor, and if we're not, move to the default floor
+				 * 		- Check if we're on the parking floor, and if we're not, move to the parking floor
 				 * 
 				 * Else:
 				 * 		- Go back to waiting
 				 */
 				if ( destinations.isEmpty() )
 				{
-					long timeWaited = System.currentTimeMillis() - waitTime;
+					long timeWaited = clock.currentTimeMillis() - waitTime;
 					
-					if (timeWaited >= 10000)
+					if ( timeWaited >= parkingDelay && park( currFloor ) )
 					{
-						// if we're at the default floor, change to idle
-						if( currFloor == defFloor)
-						{
-							setState( ( short ) 0 );
-						}
-						
-						// else if we're not at the default floor, go there
-						else
-						{
-							if (defFloor > currFloor)
-							{
-								setCurrentDirectionUp( true );
-							}
-							
-							else
-							{
-								setCurrentDirectionUp( false );
-							}
-							
-							synchronized( destinations )
-							{
-								addDestination(defFloor);
-							}
-							
-							if (DEBUG)
-							{
-								String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																					Calendar.getInstance().get( Calendar.MINUTE ),
-																					Calendar.getInstance().get( Calendar.SECOND ) );
-								string += String.format( "Elevator %d returning to default floor %d...\n", elevatorID + 1, defaultFloor + 1 );
-								System.out.print( string );
-							}
-							
-							moveToDestination();
-						}
-						
-						continue; // keep waiting
+						moveToDestination();
 					}
+					
+					continue; // keep waiting
 				}
 				
 				else
 				{
 					// else, move to all current destinations
-					if (DEBUG)
-					{
-						String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																			Calendar.getInstance().get( Calendar.MINUTE ),
-																			Calendar.getInstance().get( Calendar.SECOND ) );
-						string += String.format( "Elevator %d changed from IDLE to ", elevatorID + 1 );
-						
-						if ( isCurrentDirectionUp() == true )
-						{
-							string += "UP.";
-						}
-						else
-						{
-							string += "DOWN.";
-						}
-						
-						System.out.println( string );
-					}
+					printLeavingIdle();
 					
 					moveToDestination();
 					
 					/* before returning to sleep, see if you can serve any pending requests
 					 * and keep serving until there are none
 					 */
-					while ( EController.getInstance().processPendingRequests( getID(), getCurrentFloor() ) )
+					while ( context.getEController().processPendingRequests( getID(), getCurrentFloor() ) )
 					{
 						moveToDestination();
 						
 						if (DEBUG)
 						{
-							String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																				Calendar.getInstance().get( Calendar.MINUTE ),
-																				Calendar.getInstance().get( Calendar.SECOND ) );
+							String string = clock.getTimestamp();
 							string += String.format( "Elevator %d recieved destination.\n", elevatorID + 1 );
 							System.out.print( string );
 						}
 					}
+					
+					// an idle elevator may take over hall calls that another elevator would reach later
+					context.getEController().reassignCalls( getID() );
 				}
 			} catch (Exception e) {}
 		}		
 	}
+	
+	/**
+	 * Checks whether the calling thread may change the elevator directly: it is the elevator's own thread,
+	 * or the elevator doesn't run on its own thread (an event-driven elevator runs on the thread driving the event queue).
+	 * @return true if the elevator can be changed directly, false if it has to be sent a command
+	 */
+	private boolean isOwnerThread()
+	{
+		Thread owner = ownerThread;
+		return owner == null || owner == Thread.currentThread();
+	}
+	
+	/**
+	 * Stops a threaded elevator's trip if the elevator was reset (for another simulation run) while this thread was sleeping,
+	 * so the thread doesn't keep moving an elevator that belongs to the next run's thread.
+	 * @throws RuntimeException if the calling thread no longer runs the elevator
+	 */
+	private void checkOwnerThread() throws RuntimeException
+	{
+		if ( ownerThread != Thread.currentThread() )
+		{
+			throw new RuntimeException( "Elevator " + ( elevatorID + 1 ) + " was reset while its thread was running." );
+		}
+	}
+	
+	/**
+	 * Sends a command to the elevator and wakes it up if it's waiting for something to do.
+	 * @param command the command to send
+	 */
+	private void sendCommand( ElevatorCommand command )
+	{
+		mailbox.send( command );
+		
+		Thread owner = ownerThread;
+		if ( owner != null )
+		{
+			LockSupport.unpark( owner );
+		}
+	}
+	
+	/**
+	 * Receives every command sent to the elevator so far and carries them out, in the order they were sent.
+	 * A destination the elevator can no longer serve (it moved past the floor before receiving the command)
+	 * goes back to the controller, which makes the call pending again, so the call isn't lost (see EController.returnStop).
+	 */
+	private void receiveCommands()
+	{
+		ElevatorCommand command = mailbox.receive();
+		
+		while ( command != null )
+		{
+			try
+			{
+				switch ( command.getType() )
+				{
+					case ADD_DESTINATION:
+						applyAddDestination( command.getFloorNum() );
+						break;
+					
+					case CANCEL_STOP:
+						applyCancelStop( command.getFloorNum() );
+						break;
+					
+					default:
+						break;
+				}
+			}
+			catch ( IllegalArgumentException e )
+			{
+				context.getEController().returnStop( command.getFloorNum(), command.getDirection(), getID() );
+			}
+			
+			command = mailbox.receive();
+		}
+	}
+	
+	/**
+	 * Hands this elevator over to a discrete-event queue instead of its own thread.
+	 * From then on the elevator never sleeps: floor passes, door cycles and idle timeouts are scheduled as events
+	 * on the queue, and its timestamps are read from the queue's virtual clock.
+	 * The elevator starts out waiting for something to do, just like the top of the threaded run loop.
+	 * @param queue: the event queue that will drive this elevator
+	 */
+	@Override
+	public void attachEventQueue( EventQueue queue )
+	{
+		eventQueue = 	queue;
+		clock = 		queue.getClock();
+		
+		waitForWork();
+	}
+	
+	/**
+	 * Handles the events this elevator scheduled on its event queue.
+	 * Each event performs exactly the step that the threaded run loop performs after the matching sleep or wait,
+	 * so both modes make the same decisions at the same simulated times.
+	 * @param event: the event that fired
+	 */
+	@Override
+	public void handleEvent( SimEvent event )
+	{
+		try
+		{
+			switch ( event.getType() )
+			{
+				case IDLE_TIMEOUT:
+					pendingWake = null;
+					wakeUp();
+					break;
+				
+				case FLOOR_PASS:
+					stepToDestination();
+					break;
+				
+				case DOOR_CYCLE:
+					exchangePassengers( getCurrentFloor(), doorDirectionIsUp );
+					stepToDestination();
+					break;
+				
+				default:
+					break;
+			}
+		}
+		// the threaded run loop swallows any failure and goes back to waiting, so do the same here
+		catch ( Exception e )
+		{
+			waitForWork();
+		}
+	}
+	
+	/**
+	 * Event-driven equivalent of waiting on the destination list: schedules an idle timeout.
+	 * The timeout is brought forward by addDestination(), just like a command wakes the threaded elevator.
+	 */
+	private void waitForWork()
+	{
+		if ( !running )
+		{
+			return;
+		}
+		
+		waitStartTime = clock.currentTimeMillis();
+		pendingWake = eventQueue.schedule( context.getEController().getParkingDelay(), SimEventType.IDLE_TIMEOUT, this );
+		
+		// an idle elevator may take over hall calls that another elevator would reach later (taking one wakes it right away)
+		context.getEController().reassignCalls( getID() );
+	}
+	
+	/**
+	 * Event-driven equivalent of the threaded run loop waking up.
+	 * Moves to any destinations, otherwise parks if the elevator has waited long enough.
+	 */
+	private void wakeUp()
+	{
+		if ( !running )
+		{
+			return;
+		}
+		
+		if ( destinations.isEmpty() )
+		{
+			long timeWaited = clock.currentTimeMillis() - waitStartTime;
+			
+			if ( timeWaited >= context.getEController().getParkingDelay() && park( getCurrentFloor() ) )
+			{
+				pollPendingAfterRun = false;
+				startRun();
+			}
+			else
+			{
+				waitForWork(); // keep waiting
+			}
+		}
+		else
+		{
+			printLeavingIdle();
+			
+			pollPendingAfterRun = true;
+			startRun();
+		}
+	}
+	
+	/**
+	 * Event-driven equivalent of calling moveToDestination()
+	 * @throws RuntimeException if there are no destinations to move to
+	 */
+	private void startRun() throws RuntimeException
+	{
+		if ( destinations.isEmpty() )
+		{
+			throw new RuntimeException("No destinations to go to.");
+		}
+		
+		stepToDestination();
+	}
+	
+	/**
+	 * Event-driven equivalent of one pass of the moveToDestination() loop.
+	 * Either passes a floor, arrives and opens the doors, or finishes the run if there are no destinations left.
+	 */
+	private void stepToDestination()
+	{
+		if ( destinations.isEmpty() )
+		{
+			finishRun();
+			
+			/* before returning to sleep, see if you can serve any pending requests
+			 * (a run without destinations fails and goes back to waiting, like the threaded loop)
+			 */
+			if ( pollPendingAfterRun && context.getEController().processPendingRequests( getID(), getCurrentFloor() ) )
+			{
+				if (DEBUG)
+				{
+					String string = clock.getTimestamp();
+					string += String.format( "Elevator %d recieved destination.\n", elevatorID + 1 );
+					System.out.print( string );
+				}
+				
+				startRun();
+			}
+			else
+			{
+				waitForWork();
+			}
+		}
+		
+		else if ( getCurrentFloor() != getNextDestination() )
+		{
+			passFloor();
+			eventQueue.schedule( timePerFloor, SimEventType.FLOOR_PASS, this );
+		}
+		
+		else
+		{
+			arriveAtFloor();
+			doorDirectionIsUp = isCurrentDirectionUp();
+			beginDoorCycle();
+			eventQueue.schedule( doorOperationTime, SimEventType.DOOR_CYCLE, this );
+		}
+	}
+	
+	/**
+	 * Prepares an elevator that has waited long enough to park on the floor the controller chooses (see ParkingPolicy).
+	 * If it is already there it is switched to IDLE, otherwise the parking floor is added as its destination.
+	 * @param currFloor: the floor the elevator was on when it started waiting
+	 * @return true if the elevator now has to move to its parking floor, false if it is already there
+	 */
+	private boolean park( short currFloor )
+	{
+		short parkFloor = context.getEController().chooseParkingFloor( getID(), getDefaultFloor() );
+		
+		// if we're at the parking floor, change to idle
+		if( currFloor == parkFloor)
+		{
+			setState( ( short ) 0 );
+			return false;
+		}
+		
+		// else if we're not at the parking floor, go there
+		if (parkFloor > currFloor)
+		{
+			setCurrentDirectionUp( true );
+		}
+		
+		else
+		{
+			setCurrentDirectionUp( false );
+		}
+		
+		addDestination(parkFloor);
+		
+		if (DEBUG)
+		{
+			String string = clock.getTimestamp();
+			if ( parkFloor == defaultFloor )
+			{
+				string += String.format( "Elevator %d returning to default floor %d...\n", elevatorID + 1, defaultFloor + 1 );
+			}
+			else
+			{
+				string += String.format( "Elevator %d parking on floor %d...\n", elevatorID + 1, parkFloor + 1 );
+			}
+			System.out.print( string );
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Prints that the elevator is leaving IDLE and the direction it is leaving in
+	 */
+	private void printLeavingIdle()
+	{
+		if (DEBUG)
+		{
+			String string = clock.getTimestamp();
+			string += String.format( "Elevator %d changed from IDLE to ", elevatorID + 1 );
+			
+			if ( isCurrentDirectionUp() == true )
+			{
+				string += "UP.";
+			}
+			else
+			{
+				string += "DOWN.";
+			}
+			
+			System.out.println( string );
+		}
+	}
 
 	/**
 	* Adds a destination to an elevator's destination list.
 	* The method first checks if the destination is valid (i.e. checks that the floor is in the current direction of travel and that the elevator hasn't passed it yet).
-	* If the destination passes these checks, the destination is added to the destination list and the list is then sorted accordingly.
+	* If the destination passes these checks, the destination is added to the elevator's stops.
 	* @param floorNum number of the destination floor
 	* @throws IllegalArgumentException if a given floor is out of range or not in the direction of travel
 	*/
 	@Override
 	public void addDestination( short floorNum ) throws IllegalArgumentException
+	{
+		if ( isOwnerThread() )
+		{
+			applyAddDestination( floorNum );
+			return;
+		}
+		
+		// another thread only checks the floor, the elevator checks the direction once it receives the command
+		if ( floorNum < 0 || floorNum > context.getNumberOfFloors() - 1 )
+		{
+			throw new IllegalArgumentException("Expected a floor number between 1 and " + context.getNumberOfFloors() + 1 + ", got " + floorNum + 1 + ".");
+		}
+		
+		sendCommand( new ElevatorCommand( ElevatorCommandType.ADD_DESTINATION, floorNum, isCurrentDirectionUp() ) );
+	}
+	
+	/**
+	* Adds a destination to the elevator's destination list on the elevator's own thread (see addDestination).
+	* @param floorNum number of the destination floor
+	* @throws IllegalArgumentException if a given floor is out of range or not in the direction of travel
+	*/
+	private void applyAddDestination( short floorNum ) throws IllegalArgumentException
 	{
 		short currFloor = getCurrentFloor();
 		boolean goingUp = isCurrentDirectionUp();
@@ -458,9 +899,9 @@ public class ElevatorImpl implements Elevator, Runnable
 		}
 		
 		// if outside of range, error
-		if ( floorNum < 0 || floorNum > Building.getNumberOfFloors() - 1 )
+		if ( floorNum < 0 || floorNum > context.getNumberOfFloors() - 1 )
 		{
-			throw new IllegalArgumentException("Expected a floor number between 1 and " + Building.getNumberOfFloors() + 1 + ", got " + floorNum + 1 + ".");
+			throw new IllegalArgumentException("Expected a floor number between 1 and " + context.getNumberOfFloors() + 1 + ", got " + floorNum + 1 + ".");
 		}
 		
 		/* If it is NOT going in the same direction, 
@@ -475,29 +916,74 @@ public class ElevatorImpl implements Elevator, Runnable
 			throw new IllegalArgumentException( "Elevator is going up and is at a floor above the requested floor, and cannot serve this floor at this time." ); 
 		}
 
-		synchronized( destinations )
-		{
-			// set state to travelling
-			setState( ( short ) 2 );
-			destinations.add( floorNum );
-		
-			// after receiving a destination, re-order the destinations correctly
-			if ( currentDirectionIsUp ) 
-			{
-				Collections.sort( destinations );
-			}
-			else
-			{
-				Collections.sort( destinations );
-				Collections.reverse( destinations );
-			}
+		// set state to travelling (the stops are kept in floor order, so there's nothing to re-order)
+		setState( ( short ) 2 );
+		destinations.add( floorNum );
+		publishStatus();
 		
-				destinations.notifyAll();
+		// an event-driven elevator that is waiting gets woken up right away instead
+		if ( pendingWake != null )
+		{
+			pendingWake.cancel();
+			pendingWake = eventQueue.schedule( 0, SimEventType.IDLE_TIMEOUT, this );
 		}
 			
 		return;
 	}
 
+	/**
+	* Removes a stop that was only made for a hall call (see Elevator).
+	* When called from another thread than the elevator's, the elevator is sent a command instead, and removes the stop at its next floor boundary.
+	* @param floorNum number of the floor
+	* @throws IllegalArgumentException if the floor is out of range
+	*/
+	@Override
+	public void cancelStop( short floorNum ) throws IllegalArgumentException
+	{
+		if ( floorNum < 0 || floorNum > context.getNumberOfFloors() - 1 )
+		{
+			throw new IllegalArgumentException("Expected a floor number between 1 and " + context.getNumberOfFloors() + ", got " + ( floorNum + 1 ) + ".");
+		}
+		
+		if ( isOwnerThread() )
+		{
+			applyCancelStop( floorNum );
+			return;
+		}
+		
+		sendCommand( new ElevatorCommand( ElevatorCommandType.CANCEL_STOP, floorNum, isCurrentDirectionUp() ) );
+	}
+	
+	/**
+	* Removes a stop that was only made for a hall call on the elevator's own thread (see cancelStop).
+	* An elevator left without stops finishes its run at the next floor it reaches.
+	* @param floorNum number of the floor
+	*/
+	private void applyCancelStop( short floorNum )
+	{
+		// someone on board still needs the stop
+		if ( getRidersFor( floorNum ) > 0 )
+		{
+			return;
+		}
+		
+		if ( destinations.remove( floorNum ) )
+		{
+			publishStatus();
+		}
+	}
+	
+	/**
+	* Counts the people on board getting off at a floor (see Elevator)
+	* @param floorNum number of the floor
+	* @return the number of passengers whose destination is that floor
+	*/
+	@Override
+	public int getRidersFor( short floorNum )
+	{
+		return riders.get( floorNum );
+	}
+	
 	/**
 	* Opens the doors and performs needed duties when an elevator reaches a floor.
 	* More specifically, this method:
@@ -514,6 +1000,25 @@ public class ElevatorImpl implements Elevator, Runnable
 		short waitTime = getDoorOperationTime();
 		boolean goingUp = isCurrentDirectionUp();
 		
+		beginDoorCycle();
+		
+		// keep the doors open for a set amount of time
+		try {
+			Thread.sleep( waitTime );
+		} catch ( InterruptedException e ) {
+			// TODO Auto-generated catch block
+			e.printStackTrace();
+		}
+		
+		exchangePassengers( currFloor, goingUp );
+	}
+	
+	/**
+	 * Flags the elevator as active and stopped as its doors open.
+	 * @throws RuntimeException Thrown when the elevator is currently moving and cannot open the doors.
+	 */
+	private void beginDoorCycle() throws RuntimeException
+	{
 		// if active and traveling, do nothing (ERROR)
 		if ( getState() == 2 )
 		{
@@ -528,54 +1033,56 @@ public class ElevatorImpl implements Elevator, Runnable
 		
 		if ( DEBUG )
 		{ 
-			String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																Calendar.getInstance().get( Calendar.MINUTE ),
-																Calendar.getInstance().get( Calendar.SECOND ) );
+			String string = clock.getTimestamp();
 			string += String.format( "Elevator %d's doors opened.\n", elevatorID + 1 );
 			System.out.print( string );
 		}
-		
-		// keep the doors open for a set amount of time
-		try {
-			Thread.sleep( waitTime );
-		} catch ( InterruptedException e ) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
-		}
-		
+	}
+	
+	/**
+	 * Lets people off and on once the doors have been open for the door operation time.
+	 * @param currFloor: the floor the doors opened on
+	 * @param goingUp: the direction the elevator was travelling in when the doors opened
+	 */
+	private void exchangePassengers( short currFloor, boolean goingUp )
+	{
 		/* when stopped at a floor:
 		 * 		-	remove people who want to get off the elevator
 		 *		 	and add them to the current floor
 		 *		-	remove people who want to get on the elevator
 		 *			and add them to current elevator
 		 */
+		Building building = 	context.getBuilding();
+		PersonFacade people = 	context.getPersonFacade();
 		
 		/* ----- START people bailing out ----- */
 		for( int i = 0; i < carrying.size(); i++ )
 		{
-			short personID = carrying.get( i );
+			int personID = carrying.get( i );
 			
 			// if this is their destination, remove them from the elevator and add them to the floor
-			if ( PersonFacade.getInstance().getDestinationFloor( personID ) == currFloor )
+			if ( people.getDestinationFloor( personID ) == currFloor )
 			{
-				Building.getInstance().addPersonToFloor( currFloor, personID );
+				building.addPersonToFloor( currFloor, personID );
 				
 				// this prevents persons from getting on the elevator again after they've reached their destination
-				PersonFacade.getInstance().setHasReachedDestination( personID, true );
-				PersonFacade.getInstance().stopRideTimer( personID );
+				people.setHasReachedDestination( personID, true );
+				people.stopRideTimer( personID, getID() );
 				
 				carrying.remove( i );
+				riders.decrementAndGet( currFloor );
+				publishStatus();
 			}
 		}
 		/* ----- END people bailing out ----- */
 			
 		/* ----- START people getting on ----- */
-		short passengerID = Building.getInstance().getNextPassengerFromFloor( currFloor, goingUp, isDestinationsEmpty() );
+		int passengerID = building.getNextPassengerFromFloor( currFloor, goingUp, isDestinationsEmpty(), getID() );
 		while( passengerID != -1 )
 		{
 			// removes the person from the floor so they may be added to the elevator without duplication
-			Building.getInstance().sendPersonToElevator( currFloor, passengerID );
-			short destFloor = PersonFacade.getInstance().getDestinationFloor( passengerID );
+			building.sendPersonToElevator( currFloor, passengerID );
+			short destFloor = people.getDestinationFloor( passengerID );
 			
 			/* if we have no more destinations after reaching this current one, this ensures
 			 * that we set our elevator's direction correctly (since it can legally go either way)
@@ -583,12 +1090,13 @@ public class ElevatorImpl implements Elevator, Runnable
 			if ( isDestinationsEmpty() )
 			{
 				// Only print out the button that the first person who enters the elevator presses (to avoid clutter)
-				String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																	Calendar.getInstance().get( Calendar.MINUTE ),
-																	Calendar.getInstance().get( Calendar.SECOND ) );
-				string += String.format( 	"Person %d enters elevator %d and presses button %d\n", 
-											passengerID + 1, this.getID() + 1, destFloor + 1 );
-				System.out.print( string );
+				if ( DEBUG )
+				{
+					String string = clock.getTimestamp();
+					string += String.format( 	"Person %d enters elevator %d and presses button %d\n", 
+												passengerID + 1, this.getID() + 1, destFloor + 1 );
+					System.out.print( string );
+				}
 				
 				if ( destFloor > currFloor )
 				{
@@ -599,6 +1107,9 @@ public class ElevatorImpl implements Elevator, Runnable
 				{
 					setCurrentDirectionUp( false );
 				} 
+				
+				// the people who get on after them are the ones going their way, not the way the elevator came
+				goingUp = destFloor > currFloor;
 			}
 			
 			// if the elevator isn't full, add the passenger and their destination
@@ -606,19 +1117,25 @@ public class ElevatorImpl implements Elevator, Runnable
 			{
 				addDestination( destFloor );
 				carrying.add( passengerID );
-				PersonFacade.getInstance().stopWaitTimer( passengerID );
-				PersonFacade.getInstance().startRideTimer( passengerID );
+				riders.incrementAndGet( destFloor );
+				publishStatus();
+				building.answerCallBox( currFloor, destFloor > currFloor );
+				people.stopWaitTimer( passengerID );
+				people.startRideTimer( passengerID );
 			}
 			
-			// if we're at max capacity but there's still people who want to get on the elevator, re-queue a request from this floor
+			// if we're at max capacity but there's still people who want to get on the elevator, stop (their call is made again below)
 			else
 			{
-				Building.getInstance().pressCallBox( currFloor, goingUp );
 				break;
 			}
 			
-			passengerID = Building.getInstance().getNextPassengerFromFloor( currFloor, goingUp, isDestinationsEmpty() );
+			passengerID = building.getNextPassengerFromFloor( currFloor, goingUp, isDestinationsEmpty(), getID() );
 		}
+		
+		// re-queue the requests of the people left waiting on this floor (the elevator was full, or is going the other way)
+		context.getEController().releaseDestinations( currFloor, getID() );
+		building.refreshCallBox( currFloor );
 		/* ----- END people getting on ----- */
 		
 		// if no one got on the elevator and added a destination, switch to IDLE
@@ -627,6 +1144,9 @@ public class ElevatorImpl implements Elevator, Runnable
 			setState( ( short ) 0 );
 		}
 		
+		// the doors close: the hall calls may be better off with another elevator now (or with this one)
+		context.getEController().reassignCalls( getID() );
+		
 		return;
 	}
 
@@ -637,90 +1157,19 @@ public class ElevatorImpl implements Elevator, Runnable
 	 */
 	private void moveToDestination() throws RuntimeException
 	{
-		short currFloor = getCurrentFloor();
-		
-		if ( destinations.size() == 0 )
+		if ( destinations.isEmpty() )
 		{
 			throw new RuntimeException("No destinations to go to.");
 		}
 		
-		while( destinations.size() != 0 )
+		while( !destinations.isEmpty() )
 		{	
 			/* while the elevator has not reached its next destination,
 			 * travel past a floor
 			 */
-			while( destinations.size() != 0 && currFloor != destinations.get( 0 ) )
+			while( !destinations.isEmpty() && getCurrentFloor() != getNextDestination() )
 			{
-				// active and traveling
-				setState( ( short ) 2 );
-				
-				if ( DEBUG )
-				{
-					String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																		Calendar.getInstance().get( Calendar.MINUTE ),
-																		Calendar.getInstance().get( Calendar.SECOND ) );
-					string += String.format( "Elevator %d passing floor %d... ", elevatorID + 1, currentFloor + 1 );
-					
-					// print out the elevator's direction
-					if ( currentDirectionIsUp )
-					{
-						string += String.format( "Moving UP.\n" );
-					}
-					else
-					{
-						string += String.format( "Moving DOWN.\n" );
-					}
-					
-					// print out the destination list if it's non-empty
-					string += String.format("\t\tDestination list: [");
-					
-					for ( int i = 0; i < destinations.size(); i++ )
-					{
-						if ( i != destinations.size() - 1 )
-						{
-							string += String.format( "%d, ", destinations.get( i ) + 1 );
-						}
-						else
-						{
-							string += String.format( "%d", destinations.get( i ) + 1 );
-						}
-					}
-					
-					string += String.format( "]\n");
-			
-					// print out the carrying list if it's non-empty
-					string += String.format( "\t\tCarrying list: [");
-					
-					for ( int i = 0; i < carrying.size(); i++ )
-					{
-						if ( i != carrying.size() - 1 )
-						{
-							string += String.format( "%d, ", carrying.get( i ) + 1 );
-						}
-						else
-						{
-							string += String.format( "%d", carrying.get( i ) + 1 );
-						}
-					}
-
-					string += String.format( "]" );
-					
-					System.out.println( string );		
-				}
-				
-				/* record that the elevator has passed one floor 
-				 * (increment or decrement depends on elevator's direction-of-travel
-				 */
-				if ( currentDirectionIsUp )
-				{
-					setCurrentFloor( ( short ) ( currFloor + 1 ) );
-				}
-				else
-				{
-					setCurrentFloor( ( short ) ( currFloor - 1 ) );
-				}
-				
-				currFloor = getCurrentFloor();
+				passFloor();
 				
 				// sleep until you've passed one floor
 				try {
@@ -730,28 +1179,119 @@ public class ElevatorImpl implements Elevator, Runnable
 					// TODO Auto-generated catch block
 					e.printStackTrace();
 				}
+				
+				// the floor boundary is where the commands sent while moving are received
+				checkOwnerThread();
+				receiveCommands();
+			}
+			
+			// the last stop was cancelled on the way
+			if ( destinations.isEmpty() )
+			{
+				break;
 			}
+			
+			arriveAtFloor();
+			openDoor();
+			checkOwnerThread();
+			receiveCommands();
+		}
+		
+		finishRun();
+		
+		return;
+	}
+	
+	/**
+	 * Moves the elevator past one floor in its direction of travel (the caller waits for the time per floor afterwards).
+	 */
+	private void passFloor()
+	{
+		// active and traveling
+		setState( ( short ) 2 );
 		
-			if ( DEBUG )
+		if ( DEBUG )
+		{
+			String string = clock.getTimestamp();
+			string += String.format( "Elevator %d passing floor %d... ", elevatorID + 1, currentFloor + 1 );
+			
+			// print out the elevator's direction
+			if ( currentDirectionIsUp )
 			{
-				String string = String.format( "%2d:%2d:%2d   ", 	Calendar.getInstance().get( Calendar.HOUR ), 
-																	Calendar.getInstance().get( Calendar.MINUTE ),
-																	Calendar.getInstance().get( Calendar.SECOND ) );
-				string += String.format( "Elevator %d arrived at floor %d.\n", elevatorID + 1, currentFloor + 1 );
-				System.out.print( string );
+				string += String.format( "Moving UP.\n" );
 			}
+			else
+			{
+				string += String.format( "Moving DOWN.\n" );
+			}
+			
+			// print out the destination list in the order it will be served
+			string += String.format( "\t\tDestination list: [%s]\n", destinations.toString( currentDirectionIsUp ) );
+	
+			// print out the carrying list if it's non-empty
+			string += String.format( "\t\tCarrying list: [");
 			
-			// remove reached destination
-			if ( destinations.isEmpty() == false )
+			for ( int i = 0; i < carrying.size(); i++ )
 			{
-				destinations.remove( 0 );
+				if ( i != carrying.size() - 1 )
+				{
+					string += String.format( "%d, ", carrying.get( i ) + 1 );
+				}
+				else
+				{
+					string += String.format( "%d", carrying.get( i ) + 1 );
+				}
 			}
+
+			string += String.format( "]" );
 			
-			// flag elevator as active and stopped and open the doors
-			setState( ( short ) 1 );
-			openDoor();
+			System.out.println( string );		
+		}
+		
+		/* record that the elevator has passed one floor 
+		 * (increment or decrement depends on elevator's direction-of-travel
+		 */
+		if ( currentDirectionIsUp )
+		{
+			setCurrentFloor( ( short ) ( getCurrentFloor() + 1 ) );
+		}
+		else
+		{
+			setCurrentFloor( ( short ) ( getCurrentFloor() - 1 ) );
+		}
+	}
+	
+	/**
+	 * Removes the reached destination and flags the elevator as active and stopped (the doors are opened next).
+	 */
+	private void arriveAtFloor()
+	{
+		if ( DEBUG )
+		{
+			String string = clock.getTimestamp();
+			string += String.format( "Elevator %d arrived at floor %d.\n", elevatorID + 1, currentFloor + 1 );
+			System.out.print( string );
+		}
+		
+		// remove reached destination
+		if ( destinations.isEmpty() == false )
+		{
+			destinations.remove( getNextDestination() );
+			publishStatus();
 		}
 		
+		// the requests this elevator claimed on this floor are served now
+		context.getEController().releasePendingRequests( currentFloor, elevatorID );
+		
+		// flag elevator as active and stopped and open the doors
+		setState( ( short ) 1 );
+	}
+	
+	/**
+	 * Called once there are no destinations left: fixes the direction at the top and bottom floors and switches back to IDLE.
+	 */
+	private void finishRun()
+	{
 		/* if we're at the bottom floor or the top floor,
 		 * set our elevator's direction accordingly
 		 * (so we don't go down from the first floor or up from the top floor)
@@ -760,33 +1300,68 @@ public class ElevatorImpl implements Elevator, Runnable
 		{
 			setCurrentDirectionUp( true );
 		}
-		else if ( getCurrentFloor() == Building.getInstance().getNumberOfFloors() - 1 )
+		else if ( getCurrentFloor() == context.getNumberOfFloors() - 1 )
 		{
 			setCurrentDirectionUp( false );
 		}
 		
 		 // set back to idle
 		setState( ( short ) 0 );
-		
-		return;
 	}
 	
 	/**
 	* Accepts a destination floor and a direction and checks that the request can be successfully accepted.
 	* Specifically, it checks that the elevator is heading in the direction of the requested floor, and that it hasn't passed it yet.
 	* If these checks succeed, the method returns true.
+	* When called from another thread than the elevator's, this only checks: the caller may still pick another elevator,
+	* so an idle elevator is turned towards the floor by the destination the caller adds (see addDestination), not here.
 	* @param destFloor destination floor
 	* @param directionIsUp the elevator's current direction
 	* @return boolean whether the request was accepted successfully or not
 	*/
 	public boolean takeRequest( short destFloor, boolean directionIsUp ) throws IllegalArgumentException
+	{
+		if ( isOwnerThread() )
+		{
+			return applyTakeRequest( destFloor, directionIsUp );
+		}
+		
+		// decide on one consistent view, since the elevator can change while this thread is looking
+		ElevatorSnapshot snapshot = getSnapshot();
+		short currState = snapshot.getState();
+		short currFloor = snapshot.getCurrentFloor();
+		boolean goingUp = snapshot.isCurrentDirectionUp();
+		
+		// if floor out of range
+		if ( destFloor < 0 || destFloor > context.getNumberOfFloors() )
+		{
+			throw new IllegalArgumentException("Floor is out of bounds.");
+		}
+		
+		// if idle, then direction doesn't matter (the elevator turns towards the floor once it receives the destination)
+		else if ( currState == 0 )
+		{
+			return true;
+		}
+		
+		// otherwise the elevator has to be going the same way and not have passed the floor yet
+		return ( goingUp && directionIsUp && destFloor > currFloor ) || ( !goingUp && !directionIsUp && destFloor < currFloor );
+	}
+	
+	/**
+	* Accepts a request on the elevator's own thread (see takeRequest), turning an idle elevator towards the floor.
+	* @param destFloor destination floor
+	* @param directionIsUp the elevator's current direction
+	* @return boolean whether the request was accepted successfully or not
+	*/
+	private boolean applyTakeRequest( short destFloor, boolean directionIsUp ) throws IllegalArgumentException
 	{	
 		short currState = getState();
 		short currFloor = getCurrentFloor();
 		boolean goingUp = isCurrentDirectionUp();
 		
 		// if floor out of range
-		if ( destFloor < 0 || destFloor > Building.getInstance().getNumberOfFloors() )
+		if ( destFloor < 0 || destFloor > context.getNumberOfFloors() )
 		{
 			throw new IllegalArgumentException("Floor is out of bounds.");
 		}
@@ -832,9 +1407,18 @@ public class ElevatorImpl implements Elevator, Runnable
 		setRunning( false );
 		setState( ( short ) 0);
 		
-		synchronized( destinations )
+		// wake up a waiting threaded elevator so it can stop
+		Thread owner = ownerThread;
+		if ( owner != null )
+		{
+			LockSupport.unpark( owner );
+		}
+		
+		// a waiting event-driven elevator has nothing left to wake up for
+		if ( pendingWake != null )
 		{
-			destinations.notifyAll();
+			pendingWake.cancel();
+			pendingWake = null;
 		}
 	}
 	
@@ -846,9 +1430,20 @@ public class ElevatorImpl implements Elevator, Runnable
 	public void reset() throws IllegalArgumentException
 	{
 		destinations.clear();
+		mailbox = 		new CommandMailbox();
+		ownerThread = 	null;
 		setCurrentFloor( this.getDefaultFloor() );
 		setState( ( short ) 0 );
 		setCurrentDirectionUp( true );
 		setRunning( true );
+		
+		// detach from any event queue (it has to be attached again for another event-driven run)
+		if ( pendingWake != null )
+		{
+			pendingWake.cancel();
+			pendingWake = null;
+		}
+		eventQueue = 	null;
+		clock = 		new SystemClock();
 	}
 }
@@ -3,6 +3,7 @@ package elevator;
 import static org.junit.Assert.*;
 import org.junit.*;
 import building.Building;
+import simulationEngine.EventQueue;
 
 public class ElevatorImplTest{
 
@@ -122,6 +123,21 @@ public class ElevatorImplTest{
 		assertEquals(theElevator.getState(),0);
 	}
 	
+	@Test
+	public void testGetSnapshot()
+	{
+		ElevatorSnapshot s = theElevator.getSnapshot();
+		assertEquals(s.getCurrentFloor(),0);
+		assertEquals(s.getState(),0);
+		assertTrue(s.isCurrentDirectionUp());
+		assertEquals(s.getLoad(),0);
+		assertEquals(s.getNextDestination(),-1);
+		theElevator.addDestination((short)5);
+		s = theElevator.getSnapshot();
+		assertEquals(s.getState(),2);
+		assertEquals(s.getNextDestination(),5);
+	}
+	
 	@Test
 	public void testIsDestinationsEmpty()
 	{
@@ -203,6 +219,28 @@ public class ElevatorImplTest{
 		}
 	}
 	
+	@Test
+	public void testEventDriven()
+	{
+		EventQueue queue = new EventQueue();
+		theElevator.attachEventQueue(queue);
+		theElevator.addDestination((short)3);
+		
+		// passes three floors (1000ms each) without sleeping, then opens its doors
+		queue.runUntil(3000);
+		assertEquals(theElevator.getCurrentFloor(),3);
+		assertEquals(theElevator.getState(),1);
+		
+		// doors close after 2500ms, and the elevator is idle again
+		queue.runUntil(5500);
+		assertTrue(theElevator.isDestinationsEmpty());
+		assertEquals(theElevator.getState(),0);
+		
+		// after waiting long enough, returns to the default floor
+		queue.runUntil(20000);
+		assertEquals(theElevator.getCurrentFloor(),0);
+	}
+	
 	@Test
 	public void testShutdown()
 	{
@@ -210,4 +248,25 @@ public class ElevatorImplTest{
 		assertEquals(theElevator.getState(),(short)0);
 		assertFalse(theElevator.isRunning());
 	}
-}
\ No newline at end of file
+	
+	@Test
+	public void testCancelStop()
+	{
+		theElevator.addDestination((short)5);
+		theElevator.addDestination((short)7);
+		theElevator.cancelStop((short)5);
+		assertFalse(theElevator.isInDestinations((short)5));
+		assertTrue(theElevator.isInDestinations((short)7));
+		
+		// cancelling a floor that isn't a stop changes nothing
+		theElevator.cancelStop((short)2);
+		assertTrue(theElevator.isInDestinations((short)7));
+		
+		try
+		{
+			theElevator.cancelStop((short)10);
+			fail();
+		}
+		catch (IllegalArgumentException e) {}
+	}
+}
@@ -0,0 +1,142 @@
+package elevator;
+
+/**
+ * This class is a consistent view of an elevator's floor, direction, state, load and next stop, taken at one point in time.
+ * The elevator packs all five into one 64-bit word and publishes it atomically whenever one of them changes,
+ * so a dispatcher reads them with a single volatile load instead of a mix of fields the elevator is changing in between.
+ *
+ * Layout (low to high bits): current floor (16), next stop + 1 (16), load (16), state (4), direction (1).
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class ElevatorSnapshot
+{
+	/**
+	 * The number of bits the next stop is shifted by
+	 */
+	private static final int NEXT_STOP_SHIFT = 16;
+	
+	/**
+	 * The number of bits the load is shifted by
+	 */
+	private static final int LOAD_SHIFT = 32;
+	
+	/**
+	 * The number of bits the state is shifted by
+	 */
+	private static final int STATE_SHIFT = 48;
+	
+	/**
+	 * The bit that is set when the elevator is going up
+	 */
+	private static final long DIRECTION_UP_BIT = 1L << 52;
+	
+	/**
+	 * The mask of a 16-bit field
+	 */
+	private static final long SHORT_MASK = 0xFFFFL;
+	
+	/**
+	 * The mask of the state field
+	 */
+	private static final long STATE_MASK = 0xFL;
+	
+	/**
+	 * The packed word
+	 */
+	private long bits;
+	
+	/**
+	 * Creates a view of a packed word
+	 * @param inBits: the word packed by pack()
+	 */
+	public ElevatorSnapshot( long inBits )
+	{
+		bits = inBits;
+	}
+	
+	/**
+	 * Packs an elevator's floor, direction, state, load and next stop into one word
+	 * @param floor: the current floor (0 to 65535)
+	 * @param state: the state (0 to 15, see Elevator.getState())
+	 * @param directionIsUp: true if the elevator is going up
+	 * @param load: the number of people on board (0 to 65535)
+	 * @param nextStop: the next destination, or -1 if there is none
+	 * @return the packed word
+	 * @throws IllegalArgumentException if one of the values doesn't fit its field
+	 */
+	public static long pack( short floor, short state, boolean directionIsUp, int load, short nextStop ) throws IllegalArgumentException
+	{
+		if ( floor < 0 || nextStop < -1 || state < 0 || state > STATE_MASK || load < 0 || load > SHORT_MASK )
+		{
+			throw new IllegalArgumentException( "Elevator status out of range: floor " + floor + ", state " + state + ", load " + load + ", next stop " + nextStop );
+		}
+		
+		return ( floor & SHORT_MASK )
+			 | ( ( ( nextStop + 1 ) & SHORT_MASK ) << NEXT_STOP_SHIFT )
+			 | ( ( long ) load << LOAD_SHIFT )
+			 | ( ( long ) state << STATE_SHIFT )
+			 | ( directionIsUp ? DIRECTION_UP_BIT : 0 );
+	}
+	
+	/**
+	 * Returns the packed word
+	 * @return the word this view was taken from
+	 */
+	public long getBits() { return bits; }
+	
+	/**
+	 * Returns the elevator's current floor
+	 * @return the floor number (0-based)
+	 */
+	public short getCurrentFloor() { return ( short ) ( bits & SHORT_MASK ); }
+	
+	/**
+	 * Returns the elevator's state
+	 * @return 0 = Idle, 1 = Active, but stopped, 2 = Active, and moving, 3 = Going to the default floor
+	 */
+	public short getState() { return ( short ) ( ( bits >>> STATE_SHIFT ) & STATE_MASK ); }
+	
+	/**
+	 * Checks the elevator's direction of travel
+	 * @return true if it's going up, false if it's going down
+	 */
+	public boolean isCurrentDirectionUp() { return ( bits & DIRECTION_UP_BIT ) != 0; }
+	
+	/**
+	 * Returns the number of people on board
+	 * @return the load
+	 */
+	public int getLoad() { return ( int ) ( ( bits >>> LOAD_SHIFT ) & SHORT_MASK ); }
+	
+	/**
+	 * Returns the elevator's next destination
+	 * @return the floor number, or -1 if there are no pending destinations
+	 */
+	public short getNextDestination() { return ( short ) ( ( ( bits >>> NEXT_STOP_SHIFT ) & SHORT_MASK ) - 1 ); }
+	
+	/**
+	 * Checks whether the elevator is idle
+	 * @return true if the state is 0
+	 */
+	public boolean isIdle() { return getState() == 0; }
+	
+	/**
+	 * Checks whether the elevator is on its way somewhere (moving, or going to the default floor)
+	 * @return true if the state is 2 or 3
+	 */
+	public boolean isActive() { return getState() == 2 || getState() == 3; }
+	
+	/**
+	 * Returns a readable form of the view
+	 * @return the floor, direction, state, load and next stop
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format( "floor %d, %s, state %d, load %d, next stop %d",
+							  getCurrentFloor() + 1, isCurrentDirectionUp() ? "up" : "down", getState(), getLoad(), getNextDestination() + 1 );
+	}
+}
@@ -0,0 +1,51 @@
+package elevator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class ElevatorSnapshotTest {
+	
+	@Test
+	public void testPack()
+	{
+		ElevatorSnapshot s = new ElevatorSnapshot(ElevatorSnapshot.pack((short)299,(short)2,false,16,(short)4));
+		assertEquals(s.getCurrentFloor(),299);
+		assertEquals(s.getState(),2);
+		assertFalse(s.isCurrentDirectionUp());
+		assertEquals(s.getLoad(),16);
+		assertEquals(s.getNextDestination(),4);
+		assertTrue(s.isActive());
+		assertFalse(s.isIdle());
+		
+		s = new ElevatorSnapshot(ElevatorSnapshot.pack((short)0,(short)0,true,0,(short)-1));
+		assertEquals(s.getCurrentFloor(),0);
+		assertTrue(s.isCurrentDirectionUp());
+		assertEquals(s.getNextDestination(),-1);
+		assertTrue(s.isIdle());
+		assertFalse(s.isActive());
+	}
+	
+	@Test
+	public void testLargest()
+	{
+		ElevatorSnapshot s = new ElevatorSnapshot(ElevatorSnapshot.pack(Short.MAX_VALUE,(short)15,true,65535,(short)(Short.MAX_VALUE-1)));
+		assertEquals(s.getCurrentFloor(),Short.MAX_VALUE);
+		assertEquals(s.getState(),15);
+		assertTrue(s.isCurrentDirectionUp());
+		assertEquals(s.getLoad(),65535);
+		assertEquals(s.getNextDestination(),Short.MAX_VALUE-1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testLoadOutOfRange()
+	{
+		ElevatorSnapshot.pack((short)0,(short)0,true,65536,(short)-1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testStateOutOfRange()
+	{
+		ElevatorSnapshot.pack((short)0,(short)16,true,0,(short)-1);
+	}
+}
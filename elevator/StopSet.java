@@ -0,0 +1,155 @@
+package elevator;
+
+import java.util.BitSet;
+
+/**
+ * This class holds the floors an elevator has to stop at as one bit per floor, so adding, removing and checking a stop
+ * and finding the next stop in a direction take constant time (one word per 64 floors) and never box or allocate.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class StopSet
+{
+	/**
+	 * The floors to stop at (bit n is set if floor n is a stop)
+	 */
+	private BitSet stops;
+	
+	/**
+	 * Creates an empty stop set
+	 * @param numOfFloors: the number of floors in the building
+	 * @throws IllegalArgumentException if the number of floors is negative
+	 */
+	public StopSet( int numOfFloors ) throws IllegalArgumentException
+	{
+		if ( numOfFloors < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative number of floors, got " + numOfFloors );
+		}
+		
+		stops = new BitSet( numOfFloors );
+	}
+	
+	/**
+	 * Adds a stop
+	 * @param floor: the floor to stop at
+	 * @return true if the floor wasn't a stop yet, otherwise false
+	 * @throws IllegalArgumentException if the floor is negative
+	 */
+	public boolean add( short floor ) throws IllegalArgumentException
+	{
+		if ( floor < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative floor, got " + floor );
+		}
+		if ( stops.get( floor ) )
+		{
+			return false;
+		}
+		
+		stops.set( floor );
+		return true;
+	}
+	
+	/**
+	 * Removes a stop
+	 * @param floor: the floor not to stop at anymore
+	 * @return true if the floor was a stop, otherwise false
+	 */
+	public boolean remove( short floor )
+	{
+		if ( !contains( floor ) )
+		{
+			return false;
+		}
+		
+		stops.clear( floor );
+		return true;
+	}
+	
+	/**
+	 * Checks whether a floor is a stop
+	 * @param floor: the floor to check
+	 * @return true if the floor is a stop, otherwise false
+	 */
+	public boolean contains( short floor )
+	{
+		return floor >= 0 && stops.get( floor );
+	}
+	
+	/**
+	 * Checks whether there are any stops
+	 * @return true if there are no stops, otherwise false
+	 */
+	public boolean isEmpty() { return stops.isEmpty(); }
+	
+	/**
+	 * Returns the number of stops
+	 * @return the number of stops
+	 */
+	public int size() { return stops.cardinality(); }
+	
+	/**
+	 * Removes every stop
+	 */
+	public void clear() { stops.clear(); }
+	
+	/**
+	 * Returns the first stop of a run in a direction: the lowest stop going up, the highest going down
+	 * @param directionIsUp: the direction of travel
+	 * @return the first stop, or -1 if there are no stops
+	 */
+	public short first( boolean directionIsUp )
+	{
+		if ( directionIsUp )
+		{
+			return ( short ) stops.nextSetBit( 0 );
+		}
+		
+		return ( short ) stops.previousSetBit( stops.length() - 1 );
+	}
+	
+	/**
+	 * Returns the nearest stop at or beyond a floor in a direction
+	 * @param fromFloor: the floor to start looking from (it is included)
+	 * @param directionIsUp: the direction to look in
+	 * @return the nearest stop, or -1 if there is no stop in that direction
+	 */
+	public short next( short fromFloor, boolean directionIsUp )
+	{
+		if ( fromFloor < 0 )
+		{
+			return directionIsUp ? first( true ) : -1;
+		}
+		
+		if ( directionIsUp )
+		{
+			return ( short ) stops.nextSetBit( fromFloor );
+		}
+		
+		return ( short ) stops.previousSetBit( fromFloor );
+	}
+	
+	/**
+	 * Lists the stops in the order of a run (ex. "3, 5, 9" going up), one based like the rest of the output
+	 * @param directionIsUp: the direction of travel
+	 * @return the stops, separated by commas
+	 */
+	public String toString( boolean directionIsUp )
+	{
+		StringBuilder string = new StringBuilder();
+		
+		for ( short floor = first( directionIsUp ); floor != -1; floor = next( ( short ) ( directionIsUp ? floor + 1 : floor - 1 ), directionIsUp ) )
+		{
+			if ( string.length() != 0 )
+			{
+				string.append( ", " );
+			}
+			string.append( floor + 1 );
+		}
+		
+		return string.toString();
+	}
+}
@@ -0,0 +1,55 @@
+package elevator;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class StopSetTest {
+
+	@Test
+	public void testAddRemove()
+	{
+		StopSet s = new StopSet(300);
+		assertTrue(s.isEmpty());
+		assertTrue(s.add((short)5));
+		assertFalse(s.add((short)5));
+		assertTrue(s.add((short)299));
+		assertTrue(s.contains((short)5));
+		assertFalse(s.contains((short)6));
+		assertFalse(s.contains((short)-1));
+		assertEquals(s.size(),2);
+		assertTrue(s.remove((short)5));
+		assertFalse(s.remove((short)5));
+		assertFalse(s.remove((short)-3));
+		assertEquals(s.size(),1);
+		s.clear();
+		assertTrue(s.isEmpty());
+	}
+	
+	@Test
+	public void testOrder()
+	{
+		StopSet s = new StopSet(16);
+		assertEquals(s.first(true),-1);
+		assertEquals(s.first(false),-1);
+		s.add((short)7);
+		s.add((short)2);
+		s.add((short)12);
+		assertEquals(s.first(true),2);
+		assertEquals(s.first(false),12);
+		assertEquals(s.next((short)3,true),7);
+		assertEquals(s.next((short)7,true),7);
+		assertEquals(s.next((short)13,true),-1);
+		assertEquals(s.next((short)6,false),2);
+		assertEquals(s.next((short)1,false),-1);
+		assertEquals(s.next((short)-1,false),-1);
+		assertEquals(s.toString(true),"3, 8, 13");
+		assertEquals(s.toString(false),"13, 8, 3");
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeFloor()
+	{
+		new StopSet(4).add((short)-1);
+	}
+}
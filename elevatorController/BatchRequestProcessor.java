@@ -0,0 +1,19 @@
+package elevatorController;
+
+/**
+ * This interface is for a callbox request processor algorithm that assigns the calls collected over a window together,
+ * instead of one at a time as they come in
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public interface BatchRequestProcessor extends CallBoxRequestProcessor
+{
+	/**
+	 * Attempts to process a batch of callbox requests together. The requests that can't be served at this time are added to the pending requests list.
+	 * @param requests: the requests to be served (only the first count of them)
+	 * @param count: the number of requests in the batch
+	 * @throws IllegalArgumentException
+	 */
+	public void processCallBoxRequests( ERequest[] requests, int count ) throws IllegalArgumentException;
+}
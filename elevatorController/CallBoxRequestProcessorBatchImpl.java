@@ -0,0 +1,240 @@
+/**
+ * This class is the implementation of the batch algorithm for processing ECallBox requests.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+
+package elevatorController;
+
+import java.util.ArrayList;
+
+import elevator.Elevator;
+
+import simulationEngine.EventQueue;
+import simulationEngine.SimEvent;
+import simulationEngine.SimEventHandler;
+import simulationEngine.SimEventType;
+
+public class CallBoxRequestProcessorBatchImpl implements BatchRequestProcessor, SimEventHandler
+{
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * The calls collected since the window started, while the elevators run on an event queue
+	 */
+	private ArrayList<ERequest> window;
+	
+	/**
+	 * The event that assigns the collected calls at the end of the window, or null if no window is open
+	 */
+	private SimEvent windowEnd;
+	
+	/**
+	 * Marks the call boxes (floor * 2, + 1 for up) already in the batch being assigned
+	 */
+	private boolean[] pressed;
+	
+	/**
+	 * The number of batches assigned
+	 */
+	private long batches;
+	
+	/**
+	 * The number of batches that used up their time budget (the calls left were matched greedily)
+	 */
+	private long overBudget;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public CallBoxRequestProcessorBatchImpl( EController inController )
+	{
+		controller = 	inController;
+		window = 		new ArrayList<ERequest>();
+		windowEnd = 	null;
+		pressed = 		new boolean[ 2 * ( inController.getNumberOfFloors() + 1 ) ];
+		batches = 		0;
+		overBudget = 	0;
+	}
+	
+	/**
+	 * Collects a request until the end of the controller's batch window, when it's assigned together with the others (see processCallBoxRequests).
+	 * While the elevators run on their own threads, the call dispatcher collects the window instead; if they don't run on an event queue,
+	 * or the window is 0, the request is assigned right away.
+	 * @throws IllegalArgumentException if EController is given bad parameters
+	 */
+	public void processCallBoxRequest( ERequest request ) throws IllegalArgumentException
+	{
+		EventQueue queue = 	controller.getEventQueue();
+		long windowLength = controller.getBatchWindow();
+		
+		if ( queue == null || windowLength <= 0 )
+		{
+			processCallBoxRequests( new ERequest[] { request }, 1 );
+			return;
+		}
+		
+		window.add( request );
+		if ( windowEnd == null )
+		{
+			windowEnd = queue.schedule( windowLength, SimEventType.BATCH_DISPATCH, this );
+		}
+	}
+	
+	/**
+	 * Assigns the calls collected over the window when it ends
+	 */
+	@Override
+	public void handleEvent( SimEvent event )
+	{
+		ERequest[] requests = window.toArray( new ERequest[ window.size() ] );
+		window.clear();
+		windowEnd = null;
+		
+		processCallBoxRequests( requests, requests.length );
+	}
+	
+	/**
+	 * Given a batch of elevator requests, this algorithm assigns them all at once so the total cost is the lowest, instead of greedily one by one
+	 * (an early call can't take the elevator a later call needed more). Every call is weighed for every elevator with the ETA algorithm's costs
+	 * (see CallBoxRequestProcessorETAImpl), and the calls are matched to different elevators with the Hungarian algorithm (see HungarianAssignment).
+	 * With more calls than elevators, the calls left over are matched again in another round, with the costs of the stops given out so far.
+	 * The controller's batch budget bounds the time spent on the optimal matching; after that, the calls left are matched greedily.
+	 * Calls an elevator is already headed to are dropped, and calls no elevator can take get added to the pending requests list.
+	 * @throws IllegalArgumentException if EController is given bad parameters
+	 */
+	public void processCallBoxRequests( ERequest[] requests, int count ) throws IllegalArgumentException
+	{
+		long deadline = 		System.nanoTime() + controller.getBatchBudget();
+		DispatchCosts costs = 	controller.getDispatchCosts();
+		int numOfElevators = 	controller.myElevators.size();
+		
+		// presses of the same call box are served once, and calls an elevator is on its way to are already served
+		ArrayList<ERequest> calls = new ArrayList<ERequest>( count );
+		for ( int i = 0; i < count; i++ )
+		{
+			ERequest request = 	requests[i];
+			int callBox = 		2 * request.getFloorNum() + ( request.getDirection() ? 1 : 0 );
+			
+			if ( !pressed[ callBox ] )
+			{
+				pressed[ callBox ] = true;
+				
+				if ( !CallBoxRequestProcessorETAImpl.isHeadedTo( controller, request.getFloorNum(), request.getDirection() ) )
+				{
+					calls.add( request );
+				}
+			}
+		}
+		for ( int i = 0; i < count; i++ )
+		{
+			pressed[ 2 * requests[i].getFloorNum() + ( requests[i].getDirection() ? 1 : 0 ) ] = false;
+		}
+		
+		// each round gives every elevator at most one call
+		while ( !calls.isEmpty() )
+		{
+			double[][] matrix = new double[ calls.size() ][ numOfElevators ];
+			
+			for ( short j = 0; j < numOfElevators; j++ )
+			{
+				Elevator elevator = controller.myElevators.get( j );
+				
+				for ( int i = 0; i < calls.size(); i++ )
+				{
+					double cost = CallBoxRequestProcessorETAImpl.estimateCost( costs, elevator, elevator.getSnapshot(),
+																			   calls.get( i ).getFloorNum(), calls.get( i ).getDirection() );
+					matrix[i][j] = cost < 0 ? HungarianAssignment.INFEASIBLE : cost;
+				}
+			}
+			
+			int[] assignment = HungarianAssignment.solve( matrix, deadline );
+			
+			ArrayList<ERequest> left = new ArrayList<ERequest>();
+			boolean assigned = false;
+			
+			for ( int i = 0; i < calls.size(); i++ )
+			{
+				ERequest request = calls.get( i );
+				
+				if ( assignment[i] != -1 )
+				{
+					Elevator elevator = controller.myElevators.get( assignment[i] );
+					
+					if ( elevator.takeRequest( request.getFloorNum(), request.getDirection() ) )
+					{
+						elevator.addDestination( request.getFloorNum() );
+						assigned = true;
+					}
+					else
+					{
+						controller.pendingRequests.add( request );
+					}
+				}
+				else if ( isFeasible( matrix[i] ) )
+				{
+					// every elevator that could take it got another call this round
+					left.add( request );
+				}
+				else
+				{
+					// if none of the elevators could accept the request, add it to the pending list
+					controller.pendingRequests.add( request );
+				}
+			}
+			
+			if ( !assigned )
+			{
+				for ( ERequest request : left )
+				{
+					controller.pendingRequests.add( request );
+				}
+				break;
+			}
+			
+			calls = left;
+		}
+		
+		batches++;
+		if ( System.nanoTime() - deadline > 0 )
+		{
+			overBudget++;
+		}
+	}
+	
+	/**
+	 * Returns the number of batches assigned
+	 * @return the number of batches
+	 */
+	public long getBatches() { return batches; }
+	
+	/**
+	 * Returns the number of batches that used up their time budget
+	 * @return the number of batches partly matched greedily
+	 */
+	public long getOverBudget() { return overBudget; }
+	
+	/**
+	 * Checks whether any elevator can take a call
+	 * @param costs: the costs of the call for every elevator
+	 * @return true if one of them isn't INFEASIBLE
+	 */
+	private static boolean isFeasible( double[] costs )
+	{
+		for ( double cost : costs )
+		{
+			if ( cost < HungarianAssignment.INFEASIBLE )
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+}
@@ -0,0 +1,74 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import simulationEngine.EventQueue;
+
+public class CallBoxRequestProcessorBatchImplTest {
+	
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)4);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 4);
+		// a cold start may take longer than the default budget
+		context.getEController().setBatchBudget(1000000000L);
+		return context;
+	}
+	
+	@Test
+	public void testJointAssignment()
+	{
+		// one at a time, the elevator on floor 4 takes floor 3 and the one on floor 0 has to go to floor 8
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		CallBoxRequestProcessorBatchImpl c = new CallBoxRequestProcessorBatchImpl(controller);
+		ERequest[] batch = {new ERequest((short)3,true,context), new ERequest((short)8,true,context), new ERequest((short)3,true,context)};
+		c.processCallBoxRequests(batch, 3);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)3));
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+		assertFalse(controller.getElevator((short)1).isInDestinations((short)3));
+		assertEquals(c.getBatches(),1);
+		
+		// more calls than elevators are assigned over more rounds
+		context = newContext();
+		controller = context.getEController();
+		c = new CallBoxRequestProcessorBatchImpl(controller);
+		batch = new ERequest[] {new ERequest((short)6,true,context), new ERequest((short)7,true,context), new ERequest((short)9,false,context)};
+		c.processCallBoxRequests(batch, 3);
+		int stops = 0;
+		for (short floor = 6; floor <= 9; floor++)
+		{
+			for (short e = 0; e < 2; e++)
+			{
+				stops += controller.getElevator(e).isInDestinations(floor) ? 1 : 0;
+			}
+		}
+		assertEquals(stops + controller.getPendingRequests().size(),3);
+	}
+	
+	@Test
+	public void testWindow()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		EventQueue queue = new EventQueue();
+		controller.startElevators(queue);
+		
+		// the calls wait for the end of the window
+		controller.processCallBoxRequest(new ERequest((short)3,true,context));
+		controller.processCallBoxRequest(new ERequest((short)8,true,context));
+		queue.runUntil(EController.DEFAULT_BATCH_WINDOW - 1);
+		assertFalse(controller.getElevator((short)0).isInDestinations((short)3));
+		assertFalse(controller.getElevator((short)1).isInDestinations((short)3));
+		queue.runUntil(EController.DEFAULT_BATCH_WINDOW);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)3));
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+	}
+}
@@ -0,0 +1,125 @@
+/**
+ * This class is the implementation of the destination dispatch algorithm for processing ECallBox requests.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+
+package elevatorController;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+public class CallBoxRequestProcessorDestinationImpl implements CallBoxRequestProcessor
+{
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Assigns the requests that don't carry a destination (ex. an up/down call box button)
+	 */
+	private CallBoxRequestProcessorETAImpl hallCalls;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public CallBoxRequestProcessorDestinationImpl( EController inController )
+	{
+		controller = 	inController;
+		hallCalls = 	new CallBoxRequestProcessorETAImpl( inController );
+	}
+	
+	/**
+	 * Given a destination keypad request, this algorithm assigns the passengers going from that floor to that destination
+	 * to one elevator right away, and everyone who enters the same destination on the same floor joins them until the elevator picks them up.
+	 * The elevator is the one with the lowest estimated time to arrival (see CallBoxRequestProcessorETAImpl),
+	 * plus one door cycle for everyone on board if it doesn't stop at the destination yet, so passengers with common destinations are grouped.
+	 * If no elevator can take the request, it gets added to the pending requests list (and whichever elevator serves it picks the passengers up).
+	 * Requests without a destination are assigned by the ETA algorithm.
+	 * @throws IllegalArgumentException if EController is given bad parameters
+	 */
+	public void processCallBoxRequest( ERequest request ) throws IllegalArgumentException
+	{
+		if ( !request.hasDestination() )
+		{
+			hallCalls.processCallBoxRequest( request );
+			return;
+		}
+		
+		short floorNum = 						request.getFloorNum();
+		short destFloor = 						request.getDestinationFloor();
+		boolean direction = 					request.getDirection();
+		DestinationAssignments assignments = 	controller.getDestinationAssignments();
+		
+		// joins the passengers who already entered the same destination on this floor
+		if ( assignments.getElevator( floorNum, destFloor ) != -1 )
+		{
+			assignments.group();
+			return;
+		}
+		
+		// weighs every elevator that can pick the passengers up and has room for them (ties go to the first elevator)
+		Elevator best = 	null;
+		short bestNum = 	-1;
+		double bestCost = 	Double.MAX_VALUE;
+		
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
+		{
+			Elevator elevator = 		controller.myElevators.get( i );
+			ElevatorSnapshot snapshot = elevator.getSnapshot();
+			
+			if ( snapshot.getLoad() >= elevator.getCapacity() )
+			{
+				continue;
+			}
+			
+			long waitTime = CallBoxRequestProcessorETAImpl.estimateTimeToArrival( elevator, snapshot, floorNum, direction );
+			if ( waitTime < 0 )
+			{
+				continue;
+			}
+			
+			double cost = waitTime + estimateGroupingCost( elevator, snapshot, i, destFloor );
+			if ( cost < bestCost )
+			{
+				best = 		elevator;
+				bestNum = 	i;
+				bestCost = 	cost;
+			}
+		}
+		
+		if ( best != null && best.takeRequest( floorNum, direction ) )
+		{
+			// assigned before the stop is sent, so a stop that comes too late releases the assignment (see EController.returnStop)
+			assignments.assign( floorNum, destFloor, bestNum );
+			best.addDestination( floorNum );
+			return;
+		}
+		
+		// if none of the elevators could accept the request, add it to the pending list
+		controller.pendingRequests.add( request );
+	}
+	
+	/**
+	 * Estimates the cost of an elevator making one more stop for a destination: nothing if it already stops there
+	 * (or picks up other passengers going there), otherwise one more door cycle for everyone on board and for the new passengers
+	 * @param elevator: the elevator
+	 * @param snapshot: the elevator's status the estimate is based on
+	 * @param elevatorNum: the elevator's number
+	 * @param destFloor: the destination
+	 * @return the cost in milliseconds
+	 */
+	long estimateGroupingCost( Elevator elevator, ElevatorSnapshot snapshot, short elevatorNum, short destFloor )
+	{
+		if ( elevator.isInDestinations( destFloor ) || controller.getDestinationAssignments().getPickups( elevatorNum, destFloor ) > 0 )
+		{
+			return 0;
+		}
+		
+		return ( long ) ( snapshot.getLoad() + 1 ) * elevator.getDoorOperationTime();
+	}
+}
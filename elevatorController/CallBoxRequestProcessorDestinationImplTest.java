@@ -0,0 +1,111 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import elevator.Elevator;
+
+public class CallBoxRequestProcessorDestinationImplTest {
+	
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		return new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 3);
+	}
+	
+	@Test
+	public void testGrouping()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		DestinationAssignments d = controller.getDestinationAssignments();
+		CallBoxRequestProcessorDestinationImpl c = new CallBoxRequestProcessorDestinationImpl(controller);
+		assertTrue(controller.isDestinationDispatch());
+		
+		c.processCallBoxRequest(new ERequest((short)3,(short)8,context));
+		assertEquals(d.getElevator((short)3,(short)8),0);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)3));
+		
+		// the same destination from the same floor joins the first passenger
+		c.processCallBoxRequest(new ERequest((short)3,(short)8,context));
+		assertEquals(d.getGroupedCalls(),1);
+		
+		// a passenger going to the same destination from another floor is grouped into the same elevator
+		c.processCallBoxRequest(new ERequest((short)5,(short)8,context));
+		assertEquals(d.getElevator((short)5,(short)8),0);
+		
+		// a passenger going somewhere else gets the idle elevator, which doesn't add a stop to the first one
+		c.processCallBoxRequest(new ERequest((short)4,(short)6,context));
+		assertEquals(d.getElevator((short)4,(short)6),1);
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)4));
+	}
+	
+	@Test
+	public void testHallCall()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		CallBoxRequestProcessorDestinationImpl c = new CallBoxRequestProcessorDestinationImpl(controller);
+		c.processCallBoxRequest(new ERequest((short)6,true,context));
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)6));
+		assertEquals(controller.getDestinationAssignments().getAssignments(),0);
+	}
+	
+	@Test
+	public void testBouncedStop() throws InterruptedException
+	{
+		// elevator 0 idles on floor 5 on its own thread, nearer to the passengers on floor 3 than elevator 1 on floor 8
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)5);
+		defaultFloors.add((short)8);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 3);
+		EController controller = context.getEController();
+		DestinationAssignments d = controller.getDestinationAssignments();
+		CallBoxRequestProcessorDestinationImpl c = new CallBoxRequestProcessorDestinationImpl(controller);
+		controller.setPredictiveParking(true);
+		controller.setParkingDelay(1);
+		Elevator e = controller.getElevator((short)0);
+		Thread t = new Thread((Runnable)e);
+		
+		try
+		{
+			// the elevator is held inside the parking policy until both its commands are sent, so it still looks idle when it's assigned
+			synchronized (controller.getParkingPolicy())
+			{
+				t.start();
+				long deadline = System.currentTimeMillis() + 5000;
+				while (t.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline)
+				{
+					Thread.sleep(1);
+				}
+				assertEquals(t.getState(), Thread.State.BLOCKED);
+				
+				e.addDestination((short)8);
+				c.processCallBoxRequest(new ERequest((short)3,(short)0,context));
+				assertEquals(d.getElevator((short)3,(short)0),0);
+			}
+			
+			// going up to floor 8, the elevator can't stop on floor 3 anymore, so the passengers may board whichever elevator answers the call
+			long deadline = System.currentTimeMillis() + 2000;
+			while ((d.getElevator((short)3,(short)0) != -1 || controller.getPendingRequests().isEmpty()) && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(1);
+			}
+			assertEquals(d.getElevator((short)3,(short)0),-1);
+			assertTrue(d.mayBoard((short)3,(short)0,(short)1));
+			assertEquals(d.getPickups((short)0,(short)0),0);
+			assertEquals(controller.getPendingRequests().size(),1);
+			assertFalse(e.isInDestinations((short)3));
+		}
+		finally
+		{
+			e.shutdown();
+		}
+	}
+}
@@ -0,0 +1,206 @@
+/**
+ * This class is the implementation of the ETA algorithm for processing ECallBox requests.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+
+package elevatorController;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+public class CallBoxRequestProcessorETAImpl implements CallBoxRequestProcessor
+{
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public CallBoxRequestProcessorETAImpl( EController inController )
+	{
+		controller = inController;
+	}
+	
+	/**
+	 * Given an elevator request, this algorithm assigns the request to the elevator with the lowest cost instead of the first one that can take it.
+	 * Every IDLE elevator, and every ACTIVE elevator heading towards the floor in the requested direction, is weighed by
+	 * its estimated time to arrival, the delay the stop adds to the people on board, and the extra floors it travels (see DispatchCosts).
+	 * If no elevator can take the request, it gets added to the pending requests list.
+	 * @throws IllegalArgumentException if EController is given bad parameters
+	 */
+	public void processCallBoxRequest( ERequest request ) throws IllegalArgumentException
+	{
+		short dest = 			request.getFloorNum();
+		boolean direction = 	request.getDirection();
+		DispatchCosts costs = 	controller.getDispatchCosts();
+		
+		// checks if there's already an elevator headed to that floor
+		if ( isHeadedTo( controller, dest, direction ) )
+		{
+			// return since there's already an elevator on its way
+			return;
+		}
+		
+		// weighs every elevator that can take the request (ties go to the first elevator)
+		Elevator best = 	null;
+		double bestCost = 	Double.MAX_VALUE;
+		
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
+		{
+			Elevator elevator = controller.myElevators.get( i );
+			
+			double cost = estimateCost( costs, elevator, elevator.getSnapshot(), dest, direction );
+			if ( cost >= 0 && cost < bestCost )
+			{
+				best = 		elevator;
+				bestCost = 	cost;
+			}
+		}
+		
+		if ( best != null && best.takeRequest( dest, direction ) )
+		{
+			best.addDestination( dest );
+			return;
+		}
+		
+		// if none of the elevators could accept the request, add it to the pending list
+		controller.pendingRequests.add( request );
+	}
+	
+	/**
+	 * Checks whether an elevator is already on its way to a floor in a direction
+	 * @param controller: the elevator controller whose elevators are checked
+	 * @param floorNum: the floor of the call
+	 * @param directionIsUp: the direction of the call
+	 * @return true if an elevator going that way already stops at the floor
+	 */
+	static boolean isHeadedTo( EController controller, short floorNum, boolean directionIsUp )
+	{
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
+		{
+			Elevator elevator = controller.myElevators.get( i );
+			
+			if ( elevator.getSnapshot().isCurrentDirectionUp() == directionIsUp && elevator.isInDestinations( floorNum ) )
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Weighs giving a call to an elevator: its estimated time to arrival, the delay the stop adds to the people on board,
+	 * and the extra floors it travels (see DispatchCosts)
+	 * @param costs: the weights of the three costs
+	 * @param elevator: the elevator
+	 * @param snapshot: the elevator's status the estimate is based on
+	 * @param floorNum: the floor of the call
+	 * @param directionIsUp: the direction of the call
+	 * @return the weighted cost, or -1 if the elevator can't take the call
+	 */
+	static double estimateCost( DispatchCosts costs, Elevator elevator, ElevatorSnapshot snapshot, short floorNum, boolean directionIsUp )
+	{
+		long waitTime = estimateTimeToArrival( elevator, snapshot, floorNum, directionIsUp );
+		if ( waitTime < 0 )
+		{
+			return -1;
+		}
+		
+		return costs.cost( waitTime, estimateRideDelay( elevator, snapshot ), estimateTravelTime( elevator, snapshot, floorNum ) );
+	}
+	
+	/**
+	 * Estimates the time until an elevator can open its doors at a floor for a call: the floors it passes and the stops it makes on the way.
+	 * Only an IDLE elevator, or an ACTIVE one heading towards the floor in the call's direction, can take the call
+	 * (an elevator doesn't take calls behind it, and doesn't take calls while its doors are open).
+	 * @param elevator: the elevator
+	 * @param snapshot: the elevator's status the estimate is based on
+	 * @param floorNum: the floor of the call
+	 * @param directionIsUp: the direction of the call
+	 * @return the estimated time in milliseconds, or -1 if the elevator can't take the call
+	 */
+	static long estimateTimeToArrival( Elevator elevator, ElevatorSnapshot snapshot, short floorNum, boolean directionIsUp )
+	{
+		short currFloor = snapshot.getCurrentFloor();
+		boolean goingUp = snapshot.isCurrentDirectionUp();
+		
+		if ( snapshot.isIdle() )
+		{
+			return ( long ) Math.abs( floorNum - currFloor ) * elevator.getTimePerFloor();
+		}
+		
+		if ( !snapshot.isActive() || goingUp != directionIsUp || ( goingUp ? floorNum <= currFloor : floorNum >= currFloor ) )
+		{
+			return -1;
+		}
+		
+		// every stop before the call's floor keeps the doors open once
+		int stops = 0;
+		for ( short stop = elevator.getNextDestination( step( currFloor, goingUp ), goingUp );
+			  stop != -1 && ( goingUp ? stop < floorNum : stop > floorNum );
+			  stop = elevator.getNextDestination( step( stop, goingUp ), goingUp ) )
+		{
+			stops++;
+		}
+		
+		return ( long ) Math.abs( floorNum - currFloor ) * elevator.getTimePerFloor() + ( long ) stops * elevator.getDoorOperationTime();
+	}
+	
+	/**
+	 * Estimates the total delay a new stop adds to the people on board of an elevator (each of them waits for one more door cycle)
+	 * @param elevator: the elevator
+	 * @param snapshot: the elevator's status the estimate is based on
+	 * @return the delay in milliseconds, summed over the people on board
+	 */
+	static long estimateRideDelay( Elevator elevator, ElevatorSnapshot snapshot )
+	{
+		return ( long ) snapshot.getLoad() * elevator.getDoorOperationTime();
+	}
+	
+	/**
+	 * Estimates the time an elevator travels for a call that it wouldn't travel otherwise:
+	 * the whole way for an IDLE elevator, and the floors past its last stop for an ACTIVE one
+	 * @param elevator: the elevator
+	 * @param snapshot: the elevator's status the estimate is based on
+	 * @param floorNum: the floor of the call
+	 * @return the extra travel time in milliseconds
+	 */
+	static long estimateTravelTime( Elevator elevator, ElevatorSnapshot snapshot, short floorNum )
+	{
+		short currFloor = snapshot.getCurrentFloor();
+		boolean goingUp = snapshot.isCurrentDirectionUp();
+		
+		if ( snapshot.isIdle() )
+		{
+			return ( long ) Math.abs( floorNum - currFloor ) * elevator.getTimePerFloor();
+		}
+		
+		// the last stop of the run (looking back from the far end of the building)
+		short lastStop = elevator.getNextDestination( goingUp ? Short.MAX_VALUE : 0, !goingUp );
+		if ( lastStop == -1 )
+		{
+			lastStop = currFloor;
+		}
+		
+		int extraFloors = goingUp ? floorNum - lastStop : lastStop - floorNum;
+		return ( long ) Math.max( 0, extraFloors ) * elevator.getTimePerFloor();
+	}
+	
+	/**
+	 * Returns the floor next to a floor in a direction
+	 * @param floorNum: the floor
+	 * @param directionIsUp: the direction
+	 * @return the floor above it going up, the floor below it going down
+	 */
+	private static short step( short floorNum, boolean directionIsUp )
+	{
+		return ( short ) ( directionIsUp ? floorNum + 1 : floorNum - 1 );
+	}
+}
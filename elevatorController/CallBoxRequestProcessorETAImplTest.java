@@ -0,0 +1,62 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import elevator.Elevator;
+
+public class CallBoxRequestProcessorETAImplTest {
+	
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		return new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 2);
+	}
+	
+	@Test
+	public void testEstimates()
+	{
+		SimulationContext context = newContext();
+		Elevator moving = context.getEController().getElevator((short)0);
+		Elevator idle = context.getEController().getElevator((short)1);
+		moving.addDestination((short)5);
+		
+		// 7 floors, plus one stop at floor 5 on the way
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTimeToArrival(moving,moving.getSnapshot(),(short)7,true),9500);
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTimeToArrival(idle,idle.getSnapshot(),(short)7,true),7000);
+		// a moving elevator doesn't take calls in the other direction
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTimeToArrival(moving,moving.getSnapshot(),(short)7,false),-1);
+		// only the floors past the last stop are extra
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTravelTime(moving,moving.getSnapshot(),(short)7),2000);
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTravelTime(moving,moving.getSnapshot(),(short)3),0);
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateTravelTime(idle,idle.getSnapshot(),(short)7),7000);
+		assertEquals(CallBoxRequestProcessorETAImpl.estimateRideDelay(moving,moving.getSnapshot()),0);
+	}
+	
+	@Test
+	public void testLowestCost()
+	{
+		// the idle elevator gets there first
+		SimulationContext context = newContext();
+		context.getEController().getElevator((short)0).addDestination((short)5);
+		CallBoxRequestProcessorETAImpl c = new CallBoxRequestProcessorETAImpl(context.getEController());
+		c.processCallBoxRequest(new ERequest((short)7,true,context));
+		assertFalse(context.getEController().getElevator((short)0).isInDestinations((short)7));
+		assertTrue(context.getEController().getElevator((short)1).isInDestinations((short)7));
+		
+		// the moving elevator travels less
+		context = newContext();
+		context.getEController().getElevator((short)0).addDestination((short)5);
+		context.getEController().setDispatchCosts(new DispatchCosts(0,0,1));
+		c = new CallBoxRequestProcessorETAImpl(context.getEController());
+		c.processCallBoxRequest(new ERequest((short)7,true,context));
+		assertTrue(context.getEController().getElevator((short)0).isInDestinations((short)7));
+		assertFalse(context.getEController().getElevator((short)1).isInDestinations((short)7));
+	}
+}
@@ -15,18 +15,58 @@ public class CallBoxRequestProcessorFactory
 	private static int algorithmImplementation = 0;
 	/**
 	 * Returns the appropriate call-box request algorithm implementation
+	 * @param controller: the elevator controller the algorithm works for
 	 * @return the appropriate algorithm object
 	 */
-	public static CallBoxRequestProcessor build()
+	public static CallBoxRequestProcessor build( EController controller )
 	{
 		if ( algorithmImplementation == 0 )
 		{
 			algorithmImplementation++;
-			return new CallBoxRequestProcessorImpl();
+			return new CallBoxRequestProcessorImpl( controller );
 		}
 		else
 		{
-			return new CallBoxRequestProcessorSecondImpl();
+			return new CallBoxRequestProcessorSecondImpl( controller );
+		}
+	}
+	
+	/**
+	 * Makes build( EController controller ) start over with the initial algorithm implementation
+	 * (the tests share one JVM, so an earlier test's simulation may have switched it already)
+	 */
+	static void reset()
+	{
+		algorithmImplementation = 0;
+	}
+	
+	/**
+	 * Returns the requested algorithm implementation without switching the implementation used by build( EController controller )
+	 * @param implementation: 0 for the initial algorithm implementation, 1 for the second one, 2 for the ETA one, 3 for destination dispatch, 4 for batch assignment
+	 * @param controller: the elevator controller the algorithm works for
+	 * @return the requested algorithm object
+	 */
+	public static CallBoxRequestProcessor build( int implementation, EController controller )
+	{
+		if ( implementation == 0 )
+		{
+			return new CallBoxRequestProcessorImpl( controller );
+		}
+		else if ( implementation == 2 )
+		{
+			return new CallBoxRequestProcessorETAImpl( controller );
+		}
+		else if ( implementation == 3 )
+		{
+			return new CallBoxRequestProcessorDestinationImpl( controller );
+		}
+		else if ( implementation == 4 )
+		{
+			return new CallBoxRequestProcessorBatchImpl( controller );
+		}
+		else
+		{
+			return new CallBoxRequestProcessorSecondImpl( controller );
 		}
 	}
 }
@@ -2,17 +2,40 @@ package elevatorController;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.Test;
 
+import building.SimulationContext;
+
 public class CallBoxRequestProcessorFactoryTest {
 
 	@Test
 	public void test()
 	{
-		CallBoxRequestProcessor c = CallBoxRequestProcessorFactory.build();
+		// the first simulation uses the initial algorithm implementation, the ones after it the second
+		EController controller = new SimulationContext((short)10, (short)0, (short)10, (short)1000, (short)2500, new ArrayList<Short>(), 0).getEController();
+		CallBoxRequestProcessorFactory.reset();
+		CallBoxRequestProcessor c = CallBoxRequestProcessorFactory.build(controller);
 		assertEquals(c.getClass(),CallBoxRequestProcessorImpl.class);
-		c = CallBoxRequestProcessorFactory.build();
+		c = CallBoxRequestProcessorFactory.build(controller);
 		assertEquals(c.getClass(),CallBoxRequestProcessorSecondImpl.class);
 	}
+	
+	@Test
+	public void testFixedImplementation()
+	{
+		// a controller with a fixed algorithm implementation doesn't switch the factory's implementation
+		EController controller = new SimulationContext((short)10, (short)0, (short)10, (short)1000, (short)2500, new ArrayList<Short>(), 0).getEController();
+		CallBoxRequestProcessorFactory.reset();
+		CallBoxRequestProcessor c = CallBoxRequestProcessorFactory.build(1, controller);
+		assertEquals(c.getClass(),CallBoxRequestProcessorSecondImpl.class);
+		c = CallBoxRequestProcessorFactory.build(0, controller);
+		assertEquals(c.getClass(),CallBoxRequestProcessorImpl.class);
+		c = CallBoxRequestProcessorFactory.build(1, controller);
+		assertEquals(c.getClass(),CallBoxRequestProcessorSecondImpl.class);
+		c = CallBoxRequestProcessorFactory.build(controller);
+		assertEquals(c.getClass(),CallBoxRequestProcessorImpl.class);
+	}
 
 }
@@ -1,6 +1,7 @@
 package elevatorController;
 
-import building.Building;
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
 
 /**
  * This class is the initial implementation of the call box processor algorithm
@@ -10,6 +11,20 @@ import building.Building;
  */
 public class CallBoxRequestProcessorImpl implements CallBoxRequestProcessor
 {
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public CallBoxRequestProcessorImpl( EController inController )
+	{
+		controller = inController;
+	}
+	
 	/**
 	 * Given an elevator request, this algorithm attempts to assign the request to a specific elevator.
 	 * It first checks if there is an elevator already headed to that floor, and if there isn't, it finds the first elevator that can serve the request.
@@ -22,26 +37,26 @@ public class CallBoxRequestProcessorImpl implements CallBoxRequestProcessor
 		boolean direction = 	request.getDirection();
 		
 		// checks if there's already an elevator headed to that floor
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).isInDestinations( dest ) )
+			Elevator elevator = 		controller.myElevators.get( i );
+			ElevatorSnapshot snapshot = elevator.getSnapshot();
+			
+			if ( snapshot.isCurrentDirectionUp() == direction && elevator.isInDestinations( dest ) )
 			{
-				if ( EController.getInstance().myElevators.get( i ).isCurrentDirectionUp() == direction )
-				{
-					// return since there's already an elevator on its way
-					return;
-				}
+				// return since there's already an elevator on its way
+				return;
 			}
 		}
 		
 		// checks if there's an elevator heading in that direction that can take the request
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).takeRequest( dest, direction )
-				 && ( EController.getInstance().myElevators.get( i ).getState() == 2
-					  || EController.getInstance().myElevators.get( i ).getState() == 3 ) )
+			Elevator elevator = controller.myElevators.get( i );
+			
+			if ( elevator.takeRequest( dest, direction ) && elevator.getSnapshot().isActive() )
 			{
-				EController.getInstance().myElevators.get( i ).addDestination( dest );
+				elevator.addDestination( dest );
 				return;
 			}	
 		}
@@ -50,17 +65,18 @@ public class CallBoxRequestProcessorImpl implements CallBoxRequestProcessor
 		 * and no active elevator can take the request,
 		 * then find and send an IDLE elevator to this floor if possible
 		 */
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).takeRequest( dest, direction ) 
-				 && EController.getInstance().myElevators.get( i ).getState() == 0 )
+			Elevator elevator = controller.myElevators.get( i );
+			
+			if ( elevator.takeRequest( dest, direction ) && elevator.getSnapshot().isIdle() )
 			{
-				EController.getInstance().myElevators.get( i ).addDestination( dest );
+				elevator.addDestination( dest );
 				return;
 			}
 		}
 		
 		// if none of the elevators could accept the request, add it to the pending list
-		EController.getInstance().pendingRequests.add( request );
+		controller.pendingRequests.add( request );
 	}
 }
@@ -2,11 +2,14 @@ package elevatorController;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import building.Building;
+import building.SimulationContext;
 import elevator.*;
 
 public class CallBoxRequestProcessorImplTest {
@@ -18,7 +21,7 @@ public class CallBoxRequestProcessorImplTest {
 	public static void setUpBeforeClass()
 	{
 		theBuilding = Building.getInstance( ( short ) 10, ( short ) 1, ( short ) 10, ( short ) 1000, ( short ) 2500, ( short ) 0);
-		c = new CallBoxRequestProcessorImpl();
+		c = new CallBoxRequestProcessorImpl( EController.getInstance() );
 	}
 
 	@AfterClass
@@ -40,5 +43,42 @@ public class CallBoxRequestProcessorImplTest {
 		e = theBuilding.getElevatorFromEController((short)0);
 		assertTrue(e.isInDestinations((short)8));
 	}
+	
+	@Test
+	public void testThreadedIdleElevators() throws InterruptedException
+	{
+		// three idle elevators on their own threads: the first one is sent, and the other two stay idle
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		for (int i = 0; i < 3; i++)
+		{
+			defaultFloors.add((short)0);
+		}
+		SimulationContext context = new SimulationContext((short)10, (short)3, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		EController controller = context.getEController();
+		controller.startElevators();
+		try
+		{
+			Thread.sleep(100);
+			context.getBuilding().pressCallBox((short)5, true);
+			
+			long deadline = System.currentTimeMillis() + 5000;
+			while (!controller.getElevator((short)0).isInDestinations((short)5) && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(10);
+			}
+			Thread.sleep(200);
+			
+			assertTrue(controller.getElevator((short)0).isInDestinations((short)5));
+			for (short i = 1; i < 3; i++)
+			{
+				assertTrue(controller.getElevator(i).getSnapshot().isIdle());
+				assertEquals(controller.getElevator(i).getSnapshot().getNextDestination(),-1);
+			}
+		}
+		finally
+		{
+			controller.shutdownAllElevators();
+		}
+	}
 
 }
\ No newline at end of file
@@ -8,8 +8,25 @@
 
 package elevatorController;
 
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
 public class CallBoxRequestProcessorSecondImpl implements CallBoxRequestProcessor
 {
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public CallBoxRequestProcessorSecondImpl( EController inController )
+	{
+		controller = inController;
+	}
+	
 	/**
 	 * Given an elevator request, this algorithm attempts to assign the request to a specific elevator.
 	 * This algorithm differs in that it will try to assign the request to an IDLE elevator first.
@@ -25,25 +42,26 @@ public class CallBoxRequestProcessorSecondImpl implements CallBoxRequestProcesso
 		boolean direction = 	request.getDirection();
 		
 		// checks if there's already an elevator headed to that floor
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).isInDestinations( dest ) )
+			Elevator elevator = 		controller.myElevators.get( i );
+			ElevatorSnapshot snapshot = elevator.getSnapshot();
+			
+			if ( snapshot.isCurrentDirectionUp() == direction && elevator.isInDestinations( dest ) )
 			{
-				if ( EController.getInstance().myElevators.get( i ).isCurrentDirectionUp() == direction )
-				{
-					// return since there's already an elevator on its way
-					return;
-				}
+				// return since there's already an elevator on its way
+				return;
 			}
 		}
 		
 		// checks if there's an IDLE elevator that can take the request
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).getState() == 0
-				 && EController.getInstance().myElevators.get( i ).takeRequest( dest, direction ) )
+			Elevator elevator = controller.myElevators.get( i );
+			
+			if ( elevator.getSnapshot().isIdle() && elevator.takeRequest( dest, direction ) )
 			{
-				EController.getInstance().myElevators.get( i ).addDestination( dest );
+				elevator.addDestination( dest );
 				return;
 			}
 		}
@@ -52,18 +70,18 @@ public class CallBoxRequestProcessorSecondImpl implements CallBoxRequestProcesso
 		 * and there's no IDLE elevator available, then check if there's an available
 		 * ACTIVE elevator that can take the request.
 		 */
-		for ( short i = 0; i < EController.getInstance().myElevators.size(); i++ )
+		for ( short i = 0; i < controller.myElevators.size(); i++ )
 		{
-			if ( EController.getInstance().myElevators.get( i ).takeRequest( dest, direction )
-				 && ( EController.getInstance().myElevators.get( i ).getState() == 2
-					  || EController.getInstance().myElevators.get( i ).getState() == 3 ) )
+			Elevator elevator = controller.myElevators.get( i );
+			
+			if ( elevator.takeRequest( dest, direction ) && elevator.getSnapshot().isActive() )
 			{
-				EController.getInstance().myElevators.get( i ).addDestination( dest );
+				elevator.addDestination( dest );
 				return;
 			}	
 		}
 		
 		// if none of the elevators could accept the request, add it to the pending list
-		EController.getInstance().pendingRequests.add( request );
+		controller.pendingRequests.add( request );
 	}
 }
@@ -18,7 +18,7 @@ public class CallBoxRequestProcessorSecondImplTest {
 	public static void setUpBeforeClass()
 	{
 		theBuilding = Building.getInstance( ( short ) 10, ( short ) 1, ( short ) 10, ( short ) 1000, ( short ) 2500, ( short ) 0);
-		c = new CallBoxRequestProcessorSecondImpl();
+		c = new CallBoxRequestProcessorSecondImpl( EController.getInstance() );
 	}
 
 	@AfterClass
@@ -0,0 +1,219 @@
+package elevatorController;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class assigns the hall calls of a real-time simulation on its own thread, so pressing a call box never runs the dispatch logic
+ * on the caller's thread (the person generator, or an elevator re-pressing a call box when it's full).
+ * The call boxes publish their calls into a HallCallRing, and the dispatcher drains the ring in batches:
+ * presses of the same call box in one batch are served once, in the order the first of them was made.
+ * A batch algorithm (see BatchRequestProcessor) gets each batch as a whole, once the controller's batch window has passed since it started.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class CallDispatcher implements Runnable
+{
+	/**
+	 * The number of calls the ring holds before a call box has to wait for the dispatcher
+	 */
+	public static final int RING_SIZE = 1024;
+	
+	/**
+	 * The largest number of calls dispatched together
+	 */
+	private static final int BATCH_SIZE = 256;
+	
+	/**
+	 * How long, in milliseconds, the dispatcher waits for a call before checking whether it's been shut down
+	 */
+	private static final long IDLE_WAIT = 100;
+	
+	/**
+	 * The controller whose call box algorithm assigns the calls
+	 */
+	private EController controller;
+	
+	/**
+	 * The calls published by the call boxes
+	 */
+	private HallCallRing ring;
+	
+	/**
+	 * The calls of the batch being dispatched
+	 */
+	private ERequest[] batch;
+	
+	/**
+	 * Marks the call boxes (floor * 2, + 1 for up) already served in the batch being dispatched
+	 */
+	private boolean[] pressed;
+	
+	/**
+	 * False once the dispatcher has been shut down
+	 */
+	private volatile boolean running;
+	
+	/**
+	 * The thread the dispatcher runs on, or null if it hasn't started yet
+	 */
+	private volatile Thread dispatcherThread;
+	
+	/**
+	 * Creates a new dispatcher (it doesn't dispatch anything until it runs)
+	 * @param inController: the controller whose call box algorithm assigns the calls
+	 * @param numberOfFloors: the number of floors in the building
+	 */
+	public CallDispatcher( EController inController, short numberOfFloors )
+	{
+		controller = 		inController;
+		ring = 				new HallCallRing( RING_SIZE );
+		batch = 			new ERequest[ BATCH_SIZE ];
+		pressed = 			new boolean[ 2 * ( numberOfFloors + 1 ) ];
+		running = 			true;
+		dispatcherThread = 	null;
+	}
+	
+	/**
+	 * Hands a call over to the dispatcher and returns right away (can be called from any thread)
+	 * @param request: the call to assign
+	 */
+	public void call( ERequest request )
+	{
+		ring.publish( request );
+		
+		Thread thread = dispatcherThread;
+		if ( thread != null )
+		{
+			LockSupport.unpark( thread );
+		}
+	}
+	
+	/**
+	 * Dispatches calls as they come in until the dispatcher is shut down
+	 */
+	@Override
+	public void run()
+	{
+		dispatcherThread = Thread.currentThread();
+		
+		while ( running || !ring.isEmpty() )
+		{
+			// a batch algorithm lets the calls of one window pile up, so it can assign them together
+			long window = controller.getBatchWindow();
+			if ( running && window > 0 && !ring.isEmpty() && controller.requestProcessor instanceof BatchRequestProcessor )
+			{
+				awaitWindow( window );
+			}
+			
+			if ( dispatch() == 0 )
+			{
+				if ( !running )
+				{
+					return;
+				}
+				
+				LockSupport.parkNanos( this, TimeUnit.MILLISECONDS.toNanos( IDLE_WAIT ) );
+			}
+		}
+	}
+	
+	/**
+	 * Takes one batch of calls from the ring and assigns them with the controller's call box algorithm
+	 * (only called from the dispatcher's thread, or from a test while the dispatcher isn't running)
+	 * @return the number of calls taken from the ring
+	 */
+	public int dispatch()
+	{
+		int taken = ring.drainTo( batch );
+		int count = 0;
+		
+		for ( int i = 0; i < taken; i++ )
+		{
+			ERequest request = batch[ i ];
+			
+			// later presses of the same call box in this batch are already covered by the first one
+			// (destination keypad calls are grouped by the dispatch algorithm instead)
+			int callBox = 2 * request.getFloorNum() + ( request.getDirection() ? 1 : 0 );
+			if ( !request.hasDestination() )
+			{
+				if ( pressed[ callBox ] )
+				{
+					continue;
+				}
+				pressed[ callBox ] = true;
+			}
+			
+			batch[ count++ ] = request;
+		}
+		
+		if ( controller.requestProcessor instanceof BatchRequestProcessor )
+		{
+			// a batch algorithm assigns the whole batch together
+			try
+			{
+				( ( BatchRequestProcessor ) controller.requestProcessor ).processCallBoxRequests( batch, count );
+			}
+			catch ( IllegalArgumentException e )
+			{
+				e.printStackTrace();
+			}
+		}
+		else
+		{
+			for ( int i = 0; i < count; i++ )
+			{
+				try
+				{
+					controller.requestProcessor.processCallBoxRequest( batch[ i ] );
+				}
+				catch ( IllegalArgumentException e )
+				{
+					e.printStackTrace();
+				}
+			}
+		}
+		
+		// clears the marks of this batch (and lets go of its calls)
+		for ( int i = 0; i < count; i++ )
+		{
+			pressed[ 2 * batch[ i ].getFloorNum() + ( batch[ i ].getDirection() ? 1 : 0 ) ] = false;
+		}
+		for ( int i = 0; i < taken; i++ )
+		{
+			batch[ i ] = null;
+		}
+		
+		return taken;
+	}
+	
+	/**
+	 * Waits out a batch window (calls published meanwhile don't cut it short, but shutting the dispatcher down does)
+	 * @param window: the length of the window in milliseconds
+	 */
+	private void awaitWindow( long window )
+	{
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( window );
+		
+		for ( long left = deadline - System.nanoTime(); running && left > 0; left = deadline - System.nanoTime() )
+		{
+			LockSupport.parkNanos( this, left );
+		}
+	}
+	
+	/**
+	 * Stops the dispatcher once the calls already published have been dispatched
+	 */
+	public void shutdown()
+	{
+		running = false;
+		
+		Thread thread = dispatcherThread;
+		if ( thread != null )
+		{
+			LockSupport.unpark( thread );
+		}
+	}
+}
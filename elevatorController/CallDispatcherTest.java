@@ -0,0 +1,75 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+
+public class CallDispatcherTest {
+	
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		return new SimulationContext((short)20, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+	}
+	
+	@Test
+	public void testBatch()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		CallDispatcher d = new CallDispatcher(controller, context.getNumberOfFloors());
+		
+		// nothing is assigned until the dispatcher drains the ring
+		d.call(new ERequest((short)5,true,context));
+		d.call(new ERequest((short)5,true,context));
+		d.call(new ERequest((short)9,true,context));
+		assertFalse(controller.getElevator((short)0).isInDestinations((short)5));
+		
+		assertEquals(d.dispatch(),3);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)5));
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)9));
+		assertEquals(controller.getElevator((short)1).getSnapshot().getNextDestination(),-1);
+		assertEquals(d.dispatch(),0);
+	}
+	
+	@Test
+	public void testRunAndShutdown() throws InterruptedException
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		CallDispatcher d = new CallDispatcher(controller, context.getNumberOfFloors());
+		Thread t = new Thread(d);
+		t.start();
+		d.call(new ERequest((short)12,false,context));
+		d.shutdown();
+		t.join(5000);
+		assertFalse(t.isAlive());
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)12));
+	}
+	
+	@Test
+	public void testBatchAlgorithm()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)4);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 4);
+		EController controller = context.getEController();
+		controller.setBatchBudget(1000000000L);
+		CallDispatcher d = new CallDispatcher(controller, context.getNumberOfFloors());
+		
+		// the whole batch is assigned together
+		d.call(new ERequest((short)3,true,context));
+		d.call(new ERequest((short)8,true,context));
+		d.call(new ERequest((short)3,true,context));
+		assertEquals(d.dispatch(),3);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)3));
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+	}
+}
@@ -0,0 +1,110 @@
+package elevatorController;
+
+import building.Building;
+import building.SimulationContext;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+/**
+ * This class moves hall calls between elevators as the elevators change, instead of leaving every call with the elevator it was first given to.
+ * Whenever an elevator closes its doors or goes idle, the calls it holds are weighed against every other elevator,
+ * and the calls the other elevators hold are weighed against it (see HeldCalls).
+ * A call is moved when the other elevator's estimated time to arrival (see CallBoxRequestProcessorETAImpl.estimateTimeToArrival)
+ * beats the holder's by more than the controller's reassignment margin, and the holder cancels its stop.
+ * Elevators running on their own threads take turns, so a call is only ever weighed by one of them at a time.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class CallReassigner
+{
+	/**
+	 * The controller whose elevators' calls are moved
+	 */
+	private EController controller;
+	
+	/**
+	 * The simulation the controller belongs to (its building has the call box lamps)
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * The number of hall calls moved to another elevator
+	 */
+	private volatile long reassignments;
+	
+	/**
+	 * Creates the reassigner for the given elevator controller
+	 * @param inController: the controller whose elevators' calls are moved
+	 * @param inContext: the simulation the controller belongs to
+	 */
+	public CallReassigner( EController inController, SimulationContext inContext )
+	{
+		controller = 	inController;
+		context = 		inContext;
+		reassignments = 0;
+	}
+	
+	/**
+	 * Weighs the calls again after an elevator changed (its doors closed, or it went idle), and moves the ones another elevator reaches sooner
+	 * @param elevatorNum: the elevator that changed
+	 * @param margin: how much sooner, in milliseconds, the other elevator has to arrive
+	 * @return the number of calls moved
+	 */
+	public synchronized int reassign( short elevatorNum, long margin )
+	{
+		Building building = context.getBuilding();
+		HeldCalls calls = 	new HeldCalls( controller, building );
+		int moved = 		0;
+		
+		for ( int i = 0; i < calls.size(); i++ )
+		{
+			short floorNum = 		calls.floors[i];
+			boolean directionIsUp = calls.up[i];
+			short holder = 			( short ) calls.holders[i];
+			
+			// a call the changed elevator holds may go to any elevator, any other call only to the changed elevator
+			short first = 	holder == elevatorNum ? 0 : elevatorNum;
+			short last = 	holder == elevatorNum ? ( short ) ( controller.myElevators.size() - 1 ) : elevatorNum;
+			
+			long holderTime = CallBoxRequestProcessorETAImpl.estimateTimeToArrival( controller.myElevators.get( holder ), calls.snapshots[ holder ],
+																					 floorNum, directionIsUp );
+			short best = 		-1;
+			long bestTime = 	holderTime - margin;
+			
+			for ( short j = first; j <= last; j++ )
+			{
+				Elevator elevator = 		controller.myElevators.get( j );
+				ElevatorSnapshot snapshot = elevator.getSnapshot();
+				
+				if ( j == holder || snapshot.getLoad() >= elevator.getCapacity() )
+				{
+					continue;
+				}
+				
+				long time = CallBoxRequestProcessorETAImpl.estimateTimeToArrival( elevator, snapshot, floorNum, directionIsUp );
+				if ( time >= 0 && time < bestTime )
+				{
+					best = 		j;
+					bestTime = 	time;
+				}
+			}
+			
+			if ( best != -1 && controller.moveCall( floorNum, directionIsUp, holder, best, true ) )
+			{
+				moved++;
+			}
+		}
+		
+		reassignments += moved;
+		return moved;
+	}
+	
+	/**
+	 * Returns the number of hall calls moved to another elevator
+	 * @return the number of moved calls
+	 */
+	public long getReassignments() { return reassignments; }
+}
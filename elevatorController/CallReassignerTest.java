@@ -0,0 +1,123 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import elevator.Elevator;
+
+public class CallReassignerTest {
+	
+	// elevator 0 stops at floors 2, 4, 6 and 7 on its way up, and the first-fit algorithm gives it the call on floor 8 as well
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		Elevator e = context.getEController().getElevator((short)0);
+		e.addDestination((short)2);
+		e.addDestination((short)4);
+		e.addDestination((short)6);
+		e.addDestination((short)7);
+		context.getBuilding().pressCallBox((short)8, true);
+		return context;
+	}
+	
+	@Test
+	public void testMargin()
+	{
+		// elevator 0 arrives after 8 floors and 4 stops (18 s), the idle elevator after 8 floors (8 s)
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		CallReassigner reassigner = controller.getCallReassigner();
+		assertEquals(reassigner.reassign((short)0,12000),0);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)8));
+		
+		assertEquals(reassigner.reassign((short)0,5000),1);
+		assertFalse(controller.getElevator((short)0).isInDestinations((short)8));
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+		assertEquals(reassigner.getReassignments(),1);
+		
+		// elevator 1 is the better one now
+		assertEquals(reassigner.reassign((short)1,5000),0);
+	}
+	
+	@Test
+	public void testIdleElevator()
+	{
+		// the idle elevator takes over the call, and the claim on its pending request
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		controller.getPendingRequests().add(new ERequest((short)8,true,context));
+		controller.getPendingRequests().claim((short)8,true,(short)0);
+		
+		controller.reassignCalls((short)1);
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)8));
+		
+		controller.setReassignMargin(5000);
+		controller.reassignCalls((short)1);
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+		assertEquals(controller.getPendingRequests().getOwner((short)8,true),1);
+	}
+	
+	@Test
+	public void testBouncedStop() throws InterruptedException
+	{
+		// elevator 0 idles on floor 5 on its own thread, and the call on floor 2 is moved to it from elevator 1
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)5);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		EController controller = context.getEController();
+		controller.setPredictiveParking(true);
+		controller.setParkingDelay(1);
+		Elevator e = controller.getElevator((short)0);
+		Thread t = new Thread((Runnable)e);
+		
+		try
+		{
+			// the elevator is held inside the parking policy until both its commands are sent, so it still looks idle when the call is moved
+			synchronized (controller.getParkingPolicy())
+			{
+				t.start();
+				long deadline = System.currentTimeMillis() + 5000;
+				while (t.getState() != Thread.State.BLOCKED && System.currentTimeMillis() < deadline)
+				{
+					Thread.sleep(1);
+				}
+				assertEquals(t.getState(), Thread.State.BLOCKED);
+				
+				controller.getPendingRequests().add(new ERequest((short)2,true,context));
+				controller.getPendingRequests().claim((short)2,true,(short)1);
+				e.addDestination((short)8);
+				assertTrue(controller.moveCall((short)2,true,(short)1,(short)0,true));
+				assertEquals(controller.getPendingRequests().getOwner((short)2,true),0);
+			}
+			
+			// going up to floor 8, the elevator can't stop on floor 2 anymore, so it gives the claim back instead of keeping it
+			long deadline = System.currentTimeMillis() + 2000;
+			while (!controller.getPendingRequests().contains((short)2,true) && System.currentTimeMillis() < deadline)
+			{
+				Thread.sleep(1);
+			}
+			assertTrue(controller.getPendingRequests().contains((short)2,true));
+			assertEquals(controller.getPendingRequests().getOwner((short)2,true),-1);
+			assertTrue(e.isInDestinations((short)8));
+			assertFalse(e.isInDestinations((short)2));
+		}
+		finally
+		{
+			e.shutdown();
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadMargin()
+	{
+		newContext().getEController().setReassignMargin(-1);
+	}
+}
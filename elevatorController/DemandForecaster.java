@@ -0,0 +1,261 @@
+package elevatorController;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This class forecasts how many people arrive on every floor per minute, for each direction, as the hall calls come in.
+ * Two estimates are kept for every call box:
+ * 		- an exponentially weighted moving average of the arrivals, with the horizon as its time constant
+ * 		- a profile of the arrivals over the day, in bins of PROFILE_BIN, learned from one day to the next
+ * The forecast blends the two once a profile has been learned for the time of day, and is the moving average until then.
+ *
+ * Recording an arrival is O(1) and doesn't take a lock, since every hall call goes through it: the moving average is one double,
+ * stored as the time at which the decayed count of arrivals would be 1 (so adding an arrival needs no separate timestamp), and the
+ * arrivals of a profile bin are one long holding the day and the count, both updated by compare-and-set.
+ * A bin's count is folded into its profile by the arrival that starts the bin's next day, and the queries fold it in the same way
+ * without writing anything, so a query never changes the forecast.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class DemandForecaster
+{
+	/**
+	 * The length of a day, in milliseconds (the time of day is the clock's time modulo a day)
+	 */
+	public static final long DAY = 86400000;
+	
+	/**
+	 * The length of a time of day bin of the profiles, in milliseconds
+	 */
+	public static final long PROFILE_BIN = 900000;
+	
+	/**
+	 * How much one day's arrivals move the profile of a bin (the rest is the days before)
+	 */
+	public static final double DAY_WEIGHT = 0.25;
+	
+	/**
+	 * How much the profile counts in the forecast once it has been learned (the rest is the moving average)
+	 */
+	public static final double PROFILE_WEIGHT = 0.5;
+	
+	/**
+	 * The number of profile bins in a day
+	 */
+	private static final int BINS = ( int ) ( DAY / PROFILE_BIN );
+	
+	/**
+	 * The bits of a profile bin's word that hold the count (the day, plus one so an empty bin is 0, is above them)
+	 */
+	private static final int COUNT_BITS = 40;
+	
+	/**
+	 * Masks the count out of a profile bin's word
+	 */
+	private static final long COUNT_MASK = ( 1L << COUNT_BITS ) - 1;
+	
+	/**
+	 * The time constant of the moving averages, in milliseconds
+	 */
+	private long horizon;
+	
+	/**
+	 * The number of call boxes (two per floor, and a request can be made on floor numberOfFloors too, see ERequest)
+	 */
+	private int callBoxes;
+	
+	/**
+	 * The moving average of every call box (floor * 2, + 1 going up), as the double bits of the time at which its decayed count is 1
+	 */
+	private AtomicLongArray averages;
+	
+	/**
+	 * The day and count of the latest day with arrivals, for every call box and profile bin (call box * BINS + bin)
+	 */
+	private AtomicLongArray dayCounts;
+	
+	/**
+	 * The learned arrivals of every call box and profile bin, as the double bits of the count (NaN until a whole day with arrivals in the bin has been seen)
+	 */
+	private AtomicLongArray profiles;
+	
+	/**
+	 * Creates the forecaster with no arrivals yet
+	 * @param numberOfFloors: the number of floors in the building
+	 * @param inHorizon: the time constant of the moving averages, in milliseconds
+	 * @throws IllegalArgumentException if the horizon isn't positive
+	 */
+	public DemandForecaster( short numberOfFloors, long inHorizon ) throws IllegalArgumentException
+	{
+		if ( inHorizon <= 0 )
+		{
+			throw new IllegalArgumentException( "Expected a positive forecast horizon, got " + inHorizon );
+		}
+		
+		horizon = 	inHorizon;
+		callBoxes = 2 * ( numberOfFloors + 1 );
+		averages = 	new AtomicLongArray( callBoxes );
+		dayCounts = new AtomicLongArray( callBoxes * BINS );
+		profiles = 	new AtomicLongArray( callBoxes * BINS );
+		
+		for ( int i = 0; i < callBoxes; i++ )
+		{
+			averages.set( i, Double.doubleToLongBits( Double.NEGATIVE_INFINITY ) );
+		}
+		
+		for ( int i = 0; i < callBoxes * BINS; i++ )
+		{
+			profiles.set( i, Double.doubleToLongBits( Double.NaN ) );
+		}
+	}
+	
+	/**
+	 * Counts one person arriving on a floor
+	 * @param floorNum: the floor
+	 * @param goingUp: the direction the person is going in
+	 * @param now: the time of the arrival in milliseconds
+	 */
+	public void record( short floorNum, boolean goingUp, long now )
+	{
+		int callBox = getCallBox( floorNum, goingUp );
+		
+		// the decayed count at the time of the arrival is exp( ( time - now ) / horizon ), plus one for the arrival
+		long bits;
+		long next;
+		do
+		{
+			bits = 			averages.get( callBox );
+			double time = 	Double.longBitsToDouble( bits );
+			double x = 		( time - now ) / horizon;
+			next = Double.doubleToLongBits( x > 0 ? time + horizon * Math.log1p( Math.exp( -x ) ) : now + horizon * Math.log1p( Math.exp( x ) ) );
+		}
+		while ( !averages.compareAndSet( callBox, bits, next ) );
+		
+		// count the arrival in its bin, and fold the bin's previous day into the profile if this arrival starts a new day
+		int slot = 	callBox * BINS + getBin( now );
+		long day = 	Math.floorDiv( now, DAY ) + 1;
+		long word;
+		do
+		{
+			word = dayCounts.get( slot );
+			next = word >>> COUNT_BITS == day ? word + 1 : ( day << COUNT_BITS ) + 1;
+		}
+		while ( !dayCounts.compareAndSet( slot, word, next ) );
+		
+		if ( word >>> COUNT_BITS != day )
+		{
+			// only the arrival that started the day gets here, so the profile has one writer
+			profiles.set( slot, Double.doubleToLongBits( fold( Double.longBitsToDouble( profiles.get( slot ) ), word, day ) ) );
+		}
+	}
+	
+	/**
+	 * Returns the moving average of the arrivals on a floor
+	 * @param floorNum: the floor
+	 * @param goingUp: the direction
+	 * @param now: the current time in milliseconds
+	 * @return the arrivals per minute
+	 */
+	public double getAverageRate( short floorNum, boolean goingUp, long now )
+	{
+		double time = Double.longBitsToDouble( averages.get( getCallBox( floorNum, goingUp ) ) );
+		return Math.exp( ( time - now ) / horizon ) * 60000 / horizon;
+	}
+	
+	/**
+	 * Returns the arrivals on a floor that the profile expects at this time of day
+	 * @param floorNum: the floor
+	 * @param goingUp: the direction
+	 * @param now: the current time in milliseconds
+	 * @return the arrivals per minute, or NaN if no whole day has been seen for this time of day yet
+	 */
+	public double getProfileRate( short floorNum, boolean goingUp, long now )
+	{
+		int slot = 	getCallBox( floorNum, goingUp ) * BINS + getBin( now );
+		long day = 	Math.floorDiv( now, DAY ) + 1;
+		
+		return fold( Double.longBitsToDouble( profiles.get( slot ) ), dayCounts.get( slot ), day ) * 60000 / PROFILE_BIN;
+	}
+	
+	/**
+	 * Forecasts the arrivals on a floor: the moving average, blended with the profile once it has been learned for this time of day
+	 * @param floorNum: the floor
+	 * @param goingUp: the direction
+	 * @param now: the current time in milliseconds
+	 * @return the arrivals per minute
+	 */
+	public double getForecast( short floorNum, boolean goingUp, long now )
+	{
+		double average = getAverageRate( floorNum, goingUp, now );
+		double profile = getProfileRate( floorNum, goingUp, now );
+		
+		return Double.isNaN( profile ) ? average : PROFILE_WEIGHT * profile + ( 1 - PROFILE_WEIGHT ) * average;
+	}
+	
+	/**
+	 * Forecasts the arrivals on every floor, in both directions (see getForecast)
+	 * @param now: the current time in milliseconds
+	 * @return the arrivals per minute, indexed by floor
+	 */
+	public double[] getFloorForecasts( long now )
+	{
+		double[] forecasts = new double[ callBoxes / 2 ];
+		for ( short f = 0; f < forecasts.length; f++ )
+		{
+			forecasts[f] = getForecast( f, true, now ) + getForecast( f, false, now );
+		}
+		
+		return forecasts;
+	}
+	
+	/**
+	 * Returns the time constant of the moving averages
+	 * @return the horizon in milliseconds
+	 */
+	public long getHorizon() { return horizon; }
+	
+	/**
+	 * Returns the index of a call box
+	 * @param floorNum: the floor
+	 * @param goingUp: the direction
+	 * @return the index into the moving averages
+	 */
+	private static int getCallBox( short floorNum, boolean goingUp )
+	{
+		return 2 * floorNum + ( goingUp ? 1 : 0 );
+	}
+	
+	/**
+	 * Returns the profile bin of a time of day
+	 * @param now: the time in milliseconds
+	 * @return the bin
+	 */
+	private static int getBin( long now )
+	{
+		return ( int ) ( Math.floorMod( now, DAY ) / PROFILE_BIN );
+	}
+	
+	/**
+	 * Brings a bin's profile up to a day: the count of the bin's latest day with arrivals is folded in if that day is over,
+	 * and the profile is moved towards 0 for every day in between that had no arrivals
+	 * @param profile: the learned count of the bin (NaN if none)
+	 * @param word: the day and count of the bin's latest day with arrivals (0 if it never had any)
+	 * @param day: the current day, plus one
+	 * @return the learned count as of the current day
+	 */
+	private static double fold( double profile, long word, long day )
+	{
+		long countDay = word >>> COUNT_BITS;
+		if ( countDay == 0 || countDay >= day )
+		{
+			return profile;
+		}
+		
+		double count = word & COUNT_MASK;
+		profile = Double.isNaN( profile ) ? count : profile + DAY_WEIGHT * ( count - profile );
+		
+		return profile * Math.pow( 1 - DAY_WEIGHT, day - countDay - 1 );
+	}
+}
@@ -0,0 +1,82 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DemandForecasterTest {
+	
+	private static final long DAY = DemandForecaster.DAY;
+	
+	@Test
+	public void testAverage()
+	{
+		DemandForecaster forecaster = new DemandForecaster((short)10, 60000);
+		forecaster.record((short)2, true, 0);
+		forecaster.record((short)2, true, 0);
+		forecaster.record((short)2, true, 0);
+		assertEquals(forecaster.getAverageRate((short)2, true, 0), 3, 1e-9);
+		assertEquals(forecaster.getAverageRate((short)2, true, 60000), 3 * Math.exp(-1), 1e-9);
+		assertEquals(forecaster.getAverageRate((short)2, false, 0), 0, 1e-9);
+		assertEquals(forecaster.getAverageRate((short)3, true, 0), 0, 1e-9);
+	}
+	
+	@Test
+	public void testOutOfOrder()
+	{
+		// arrivals recorded late by another thread count the same as arrivals recorded in order
+		DemandForecaster inOrder = new DemandForecaster((short)10, 60000);
+		DemandForecaster late = new DemandForecaster((short)10, 60000);
+		inOrder.record((short)4, false, 10000);
+		inOrder.record((short)4, false, 50000);
+		late.record((short)4, false, 50000);
+		late.record((short)4, false, 10000);
+		assertEquals(late.getAverageRate((short)4, false, 70000), inOrder.getAverageRate((short)4, false, 70000), 1e-9);
+		assertEquals(inOrder.getAverageRate((short)4, false, 70000), Math.exp(-1) + Math.exp(-1.0 / 3), 1e-9);
+	}
+	
+	@Test
+	public void testProfile()
+	{
+		// 4 arrivals in the first 15 minutes of day 0, then 8 on day 1
+		DemandForecaster forecaster = new DemandForecaster((short)10, 60000);
+		for (int i = 0; i < 4; i++)
+		{
+			forecaster.record((short)1, true, 1000);
+		}
+		assertTrue(Double.isNaN(forecaster.getProfileRate((short)1, true, 1000)));
+		assertEquals(forecaster.getProfileRate((short)1, true, DAY + 1000), 4.0 / 15, 1e-9);
+		assertTrue(Double.isNaN(forecaster.getProfileRate((short)1, true, DAY + DemandForecaster.PROFILE_BIN)));
+		
+		for (int i = 0; i < 8; i++)
+		{
+			forecaster.record((short)1, true, DAY + 2000);
+		}
+		assertEquals(forecaster.getProfileRate((short)1, true, DAY + 2000), 4.0 / 15, 1e-9);
+		assertEquals(forecaster.getProfileRate((short)1, true, 2 * DAY), 5.0 / 15, 1e-9);
+		
+		// days without arrivals move the profile towards 0
+		assertEquals(forecaster.getProfileRate((short)1, true, 4 * DAY), 5.0 / 15 * 0.75 * 0.75, 1e-9);
+		forecaster.record((short)1, true, 4 * DAY);
+		assertEquals(forecaster.getProfileRate((short)1, true, 5 * DAY), (5 * 0.75 * 0.75 + 0.25 * (1 - 5 * 0.75 * 0.75)) / 15, 1e-9);
+	}
+	
+	@Test
+	public void testForecast()
+	{
+		DemandForecaster forecaster = new DemandForecaster((short)10, 60000);
+		forecaster.record((short)6, true, 0);
+		assertEquals(forecaster.getForecast((short)6, true, 0), 1, 1e-9);
+		
+		// a day later the moving average has forgotten the arrival, but the profile hasn't
+		assertEquals(forecaster.getForecast((short)6, true, DAY), DemandForecaster.PROFILE_WEIGHT / 15, 1e-9);
+		assertEquals(forecaster.getFloorForecasts(DAY)[6], DemandForecaster.PROFILE_WEIGHT / 15, 1e-9);
+		assertEquals(forecaster.getFloorForecasts(DAY)[5], 0, 1e-9);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadHorizon()
+	{
+		new DemandForecaster((short)10, 0);
+	}
+}
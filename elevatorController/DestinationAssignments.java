@@ -0,0 +1,192 @@
+package elevatorController;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds which elevator picks up the passengers going from each floor to each destination in destination dispatch mode,
+ * without any locks. Everyone who enters the same destination on the same floor is grouped into the same elevator,
+ * until that elevator has picked them up (release); an elevator only takes the passengers assigned to it, or not assigned to anyone.
+ * It also counts how many assigned pickups each elevator has for each destination, so the dispatcher can group
+ * passengers with common destinations into the same elevator even when they start on different floors.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class DestinationAssignments
+{
+	/**
+	 * The number of floors a request can be made on (see ERequest)
+	 */
+	private int floors;
+	
+	/**
+	 * The elevator number + 1 assigned to every floor and destination (floor * floors + destination), or 0 if there is none
+	 */
+	private AtomicIntegerArray elevators;
+	
+	/**
+	 * The number of assigned pickups of every elevator going to every destination (elevator * floors + destination)
+	 */
+	private AtomicIntegerArray pickups;
+	
+	/**
+	 * The number of floor and destination pairs assigned to an elevator
+	 */
+	private AtomicLong assignments;
+	
+	/**
+	 * The number of destination calls grouped into an assignment that was already made
+	 */
+	private AtomicLong groupedCalls;
+	
+	/**
+	 * Creates an empty table
+	 * @param numberOfFloors: the number of floors in the building
+	 * @param numberOfElevators: the number of elevators that can be assigned
+	 * @throws IllegalArgumentException if the number of floors or elevators is negative
+	 */
+	public DestinationAssignments( short numberOfFloors, short numberOfElevators ) throws IllegalArgumentException
+	{
+		if ( numberOfFloors < 0 || numberOfElevators < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative number of floors and elevators, got " + numberOfFloors + " and " + numberOfElevators );
+		}
+		
+		floors = 		numberOfFloors + 1;
+		elevators = 	new AtomicIntegerArray( floors * floors );
+		pickups = 		new AtomicIntegerArray( numberOfElevators * floors );
+		assignments = 	new AtomicLong();
+		groupedCalls = 	new AtomicLong();
+	}
+	
+	/**
+	 * Assigns the passengers going from a floor to a destination to an elevator, unless they are already assigned to one
+	 * @param floorNum: the floor the passengers wait on
+	 * @param destFloor: the floor they are going to
+	 * @param elevatorNum: the elevator to assign them to
+	 * @return the elevator they are assigned to (another one if they already were)
+	 */
+	public short assign( short floorNum, short destFloor, short elevatorNum )
+	{
+		int pair = getPair( floorNum, destFloor );
+		
+		if ( !elevators.compareAndSet( pair, 0, elevatorNum + 1 ) )
+		{
+			groupedCalls.incrementAndGet();
+			return getElevator( floorNum, destFloor );
+		}
+		
+		pickups.incrementAndGet( elevatorNum * floors + destFloor );
+		assignments.incrementAndGet();
+		return elevatorNum;
+	}
+	
+	/**
+	 * Counts a destination call that joins the passengers already assigned to an elevator
+	 */
+	public void group()
+	{
+		groupedCalls.incrementAndGet();
+	}
+	
+	/**
+	 * Returns the elevator the passengers going from a floor to a destination are assigned to
+	 * @param floorNum: the floor the passengers wait on
+	 * @param destFloor: the floor they are going to
+	 * @return the elevator number, or -1 if they aren't assigned to any
+	 */
+	public short getElevator( short floorNum, short destFloor )
+	{
+		return ( short ) ( elevators.get( getPair( floorNum, destFloor ) ) - 1 );
+	}
+	
+	/**
+	 * Checks whether an elevator may pick up the passengers going from a floor to a destination
+	 * @param floorNum: the floor the passengers wait on
+	 * @param destFloor: the floor they are going to
+	 * @param elevatorNum: the elevator
+	 * @return true if they are assigned to that elevator or to no elevator at all
+	 */
+	public boolean mayBoard( short floorNum, short destFloor, short elevatorNum )
+	{
+		short elevator = getElevator( floorNum, destFloor );
+		return elevator == -1 || elevator == elevatorNum;
+	}
+	
+	/**
+	 * Returns the number of pickups assigned to an elevator whose passengers go to a destination
+	 * @param elevatorNum: the elevator
+	 * @param destFloor: the destination
+	 * @return the number of floors the elevator picks up passengers for that destination on
+	 */
+	public int getPickups( short elevatorNum, short destFloor )
+	{
+		return pickups.get( elevatorNum * floors + destFloor );
+	}
+	
+	/**
+	 * Releases every pickup assigned to an elevator on a floor, once it has let the passengers on
+	 * @param floorNum: the floor the elevator is at
+	 * @param elevatorNum: the elevator
+	 */
+	public void release( short floorNum, short elevatorNum )
+	{
+		for ( short destFloor = 0; destFloor < floors; destFloor++ )
+		{
+			if ( elevators.compareAndSet( getPair( floorNum, destFloor ), elevatorNum + 1, 0 ) )
+			{
+				pickups.decrementAndGet( elevatorNum * floors + destFloor );
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of floor and destination pairs assigned to an elevator
+	 * @return the number of assignments
+	 */
+	public long getAssignments() { return assignments.get(); }
+	
+	/**
+	 * Returns the number of destination calls grouped into an assignment that was already made
+	 * @return the number of grouped calls
+	 */
+	public long getGroupedCalls() { return groupedCalls.get(); }
+	
+	/**
+	 * Removes every assignment and resets the counts (ex. when the simulation is reset)
+	 */
+	public void clear()
+	{
+		for ( int i = 0; i < elevators.length(); i++ )
+		{
+			elevators.set( i, 0 );
+		}
+		
+		for ( int i = 0; i < pickups.length(); i++ )
+		{
+			pickups.set( i, 0 );
+		}
+		
+		assignments.set( 0 );
+		groupedCalls.set( 0 );
+	}
+	
+	/**
+	 * Returns the index of a floor and destination pair
+	 * @param floorNum: the floor
+	 * @param destFloor: the destination
+	 * @return the index into elevators
+	 * @throws IllegalArgumentException if a floor is out of bounds
+	 */
+	private int getPair( short floorNum, short destFloor ) throws IllegalArgumentException
+	{
+		if ( floorNum < 0 || floorNum >= floors || destFloor < 0 || destFloor >= floors )
+		{
+			throw new IllegalArgumentException( "Expected floors between 0 and " + ( floors - 1 ) + ", got " + floorNum + " and " + destFloor );
+		}
+		
+		return floorNum * floors + destFloor;
+	}
+}
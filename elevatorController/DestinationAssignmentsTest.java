@@ -0,0 +1,44 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DestinationAssignmentsTest {
+	
+	@Test
+	public void testAssignAndRelease()
+	{
+		DestinationAssignments d = new DestinationAssignments((short)10,(short)2);
+		assertEquals(d.getElevator((short)0,(short)5),-1);
+		assertTrue(d.mayBoard((short)0,(short)5,(short)1));
+		assertEquals(d.assign((short)0,(short)5,(short)1),1);
+		assertEquals(d.assign((short)3,(short)5,(short)1),1);
+		// the passengers are already assigned to elevator 1
+		assertEquals(d.assign((short)0,(short)5,(short)0),1);
+		assertEquals(d.getAssignments(),2);
+		assertEquals(d.getGroupedCalls(),1);
+		assertTrue(d.mayBoard((short)0,(short)5,(short)1));
+		assertFalse(d.mayBoard((short)0,(short)5,(short)0));
+		assertEquals(d.getPickups((short)1,(short)5),2);
+		assertEquals(d.getPickups((short)0,(short)5),0);
+		
+		// only the elevator's own pickups on the floor are released
+		d.release((short)0,(short)0);
+		assertEquals(d.getElevator((short)0,(short)5),1);
+		d.release((short)0,(short)1);
+		assertEquals(d.getElevator((short)0,(short)5),-1);
+		assertEquals(d.getPickups((short)1,(short)5),1);
+		
+		d.clear();
+		assertEquals(d.getElevator((short)3,(short)5),-1);
+		assertEquals(d.getPickups((short)1,(short)5),0);
+		assertEquals(d.getAssignments(),0);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testOutOfBounds()
+	{
+		new DestinationAssignments((short)10,(short)2).getElevator((short)0,(short)11);
+	}
+}
@@ -0,0 +1,109 @@
+package elevatorController;
+
+/**
+ * This class holds the weights the ETA dispatcher puts on the three costs of giving a hall call to an elevator:
+ * the caller's wait until the elevator arrives, the delay the extra stop adds to the people already on board,
+ * and the extra floors the elevator travels (a proxy for the energy it uses). All three costs are measured in milliseconds.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class DispatchCosts
+{
+	/**
+	 * The weights used unless the simulation is given others: only the caller's wait counts
+	 */
+	public static final DispatchCosts DEFAULT = new DispatchCosts( 1.0, 0.0, 0.0 );
+	
+	/**
+	 * The weight of the caller's wait
+	 */
+	private double waitWeight;
+	
+	/**
+	 * The weight of the delay added to each person on board
+	 */
+	private double rideWeight;
+	
+	/**
+	 * The weight of the extra travel time
+	 */
+	private double energyWeight;
+	
+	/**
+	 * Creates the weights
+	 * @param inWaitWeight: the weight of the caller's wait
+	 * @param inRideWeight: the weight of the delay added to each person on board
+	 * @param inEnergyWeight: the weight of the extra travel time
+	 * @throws IllegalArgumentException if a weight is negative or not a number
+	 */
+	public DispatchCosts( double inWaitWeight, double inRideWeight, double inEnergyWeight ) throws IllegalArgumentException
+	{
+		if ( !( inWaitWeight >= 0 ) || !( inRideWeight >= 0 ) || !( inEnergyWeight >= 0 ) )
+		{
+			throw new IllegalArgumentException( "Expected non-negative cost weights, got " + inWaitWeight + ", " + inRideWeight + ", " + inEnergyWeight );
+		}
+		
+		waitWeight = 	inWaitWeight;
+		rideWeight = 	inRideWeight;
+		energyWeight = 	inEnergyWeight;
+	}
+	
+	/**
+	 * Parses weights given as wait,ride,energy (ex. "1,0.5,0.1")
+	 * @param weights: the three weights, separated by commas
+	 * @return the weights
+	 * @throws IllegalArgumentException if there aren't three weights or one of them is invalid
+	 */
+	public static DispatchCosts parse( String weights ) throws IllegalArgumentException
+	{
+		String[] values = weights.split( "," );
+		if ( values.length != 3 )
+		{
+			throw new IllegalArgumentException( "Expected wait,ride,energy weights, got " + weights );
+		}
+		
+		return new DispatchCosts( Double.parseDouble( values[0].trim() ), Double.parseDouble( values[1].trim() ), Double.parseDouble( values[2].trim() ) );
+	}
+	
+	/**
+	 * Weighs the costs of giving a call to an elevator
+	 * @param waitTime: the time until the elevator arrives at the caller's floor
+	 * @param rideDelay: the total delay the stop adds to the people on board
+	 * @param travelTime: the time the elevator travels that it wouldn't travel otherwise
+	 * @return the weighted cost (lower is better)
+	 */
+	public double cost( long waitTime, long rideDelay, long travelTime )
+	{
+		return waitWeight * waitTime + rideWeight * rideDelay + energyWeight * travelTime;
+	}
+	
+	/**
+	 * Returns the weight of the caller's wait
+	 * @return the wait weight
+	 */
+	public double getWaitWeight() { return waitWeight; }
+	
+	/**
+	 * Returns the weight of the delay added to each person on board
+	 * @return the ride weight
+	 */
+	public double getRideWeight() { return rideWeight; }
+	
+	/**
+	 * Returns the weight of the extra travel time
+	 * @return the energy weight
+	 */
+	public double getEnergyWeight() { return energyWeight; }
+	
+	/**
+	 * Returns the weights as wait,ride,energy
+	 * @return the weights, in the form parse() reads
+	 */
+	@Override
+	public String toString()
+	{
+		return waitWeight + "," + rideWeight + "," + energyWeight;
+	}
+}
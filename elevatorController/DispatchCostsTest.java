@@ -0,0 +1,38 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class DispatchCostsTest {
+	
+	@Test
+	public void testCost()
+	{
+		DispatchCosts c = new DispatchCosts(1,0.5,2);
+		assertEquals(c.cost(1000,400,100),1400.0,0.0);
+		assertEquals(DispatchCosts.DEFAULT.cost(1000,400,100),1000.0,0.0);
+	}
+	
+	@Test
+	public void testParse()
+	{
+		DispatchCosts c = DispatchCosts.parse("1, 0.25,0");
+		assertEquals(c.getWaitWeight(),1.0,0.0);
+		assertEquals(c.getRideWeight(),0.25,0.0);
+		assertEquals(c.getEnergyWeight(),0.0,0.0);
+		assertEquals(DispatchCosts.parse(c.toString()).getRideWeight(),0.25,0.0);
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testTooFewWeights()
+	{
+		DispatchCosts.parse("1,2");
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testNegativeWeight()
+	{
+		new DispatchCosts(1,-1,0);
+	}
+}
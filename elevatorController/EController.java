@@ -5,6 +5,11 @@ import java.util.ArrayList;
 import elevator.Elevator;
 import elevator.ElevatorFactory;
 
+import building.SimulationContext;
+
+import simulationEngine.EventQueue;
+import simulationEngine.VirtualThreads;
+
 /**
  * This is the elevator control class which processes elevator requests and directs the buildings elevators accordingly.
  * It acts as a facade for the elevators.
@@ -20,9 +25,13 @@ public class EController implements CallBoxRequestProcessor, PendingRequestProce
 	 */
 	ArrayList<ERequest> requests;
 	/**
-	 * Holds all pending requests so they may be served later
+	 * Holds all pending requests so they may be served later (at most one per call box)
+	 */
+	PendingRequests pendingRequests;
+	/**
+	 * Holds which elevator picks up the passengers going from each floor to each destination (destination dispatch only)
 	 */
-	ArrayList<ERequest> pendingRequests;
+	private DestinationAssignments destinationAssignments;
 	/**
 	 * Holds all elevators in the building that the EController maintains
 	 */
@@ -37,23 +46,166 @@ public class EController implements CallBoxRequestProcessor, PendingRequestProce
 	 */
 	PendingRequestProcessor pendingProcessor;
 	
-	private volatile static EController instance;
+	/**
+	 * Assigns the hall calls on its own thread while the elevators run in real time, or null if calls are assigned on the caller's thread
+	 */
+	private volatile CallDispatcher dispatcher;
+	
+	/**
+	 * The number of floors in the building (the dispatcher keeps track of the call boxes per floor)
+	 */
+	private short numOfFloors;
+	
+	/**
+	 * The algorithm implementations this controller uses (or ALTERNATING_ALGORITHMS)
+	 */
+	private int algorithmImplementation;
+	
+	/**
+	 * The weights the ETA algorithm puts on the wait, ride and energy costs of a hall call
+	 */
+	private volatile DispatchCosts dispatchCosts;
+	
+	/**
+	 * How long, in milliseconds, the batch algorithm collects hall calls before assigning them together
+	 */
+	private volatile long batchWindow;
+	
+	/**
+	 * How long, in nanoseconds, the batch algorithm may spend matching the calls of one batch optimally
+	 */
+	private volatile long batchBudget;
+	
+	/**
+	 * The event queue driving the elevators, or null if they run on their own threads
+	 */
+	private EventQueue eventQueue;
+	
+	/**
+	 * How often, in milliseconds, the group optimizer searches for a better assignment of the hall calls (0 if it doesn't run)
+	 */
+	private volatile long optimizerPeriod;
+	
+	/**
+	 * The group optimizer of the latest run, or null if it didn't run
+	 */
+	private volatile GroupOptimizer optimizer;
+	
+	/**
+	 * How much sooner, in milliseconds, another elevator has to reach a hall call before the call is moved to it (0 if calls aren't moved)
+	 */
+	private volatile long reassignMargin;
+	
+	/**
+	 * Moves the hall calls between elevators as the elevators change
+	 */
+	private CallReassigner reassigner;
+	
+	/**
+	 * How long, in milliseconds, an elevator waits without destinations before it's parked
+	 */
+	private volatile long parkingDelay;
+	
+	/**
+	 * Whether an idle elevator parks where the forecaster expects the next calls instead of on its default floor
+	 */
+	private volatile boolean predictiveParking;
+	
+	/**
+	 * The time constant, in milliseconds, of the forecaster's moving averages
+	 */
+	private volatile long forecastHorizon;
+	
+	/**
+	 * Forecasts the arrivals on every floor from the hall calls of the current run
+	 */
+	private volatile DemandForecaster forecaster;
+	
+	/**
+	 * Detects the traffic mode from the forecast
+	 */
+	private volatile TrafficModeDetector trafficDetector;
 	
 	/**
-	 * Creates a new EController with the specified arguments. It also initializes internal data members that don't
-	 * accept parameters (requests, myElevators) and starts running the elevator threads.
+	 * Zones the elevators while the traffic is up-peak
+	 */
+	private volatile ZoningDispatcher zoning;
+	
+	/**
+	 * Whether the elevators are zoned while the traffic is up-peak
+	 */
+	private volatile boolean zoningEnabled;
+	
+	/**
+	 * This holds the policy choosing where an idle elevator parks
+	 */
+	private volatile ParkingPolicy parkingPolicy;
+	
+	/**
+	 * The simulation this controller belongs to
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * The batch window used unless the simulation is given another one (in milliseconds)
+	 */
+	public static final long DEFAULT_BATCH_WINDOW = 500;
+	
+	/**
+	 * The time budget of a batch used unless the simulation is given another one (in nanoseconds)
+	 */
+	public static final long DEFAULT_BATCH_BUDGET = 2000000;
+	
+	/**
+	 * The parking delay used unless the simulation is given another one (in milliseconds)
+	 */
+	public static final long DEFAULT_PARKING_DELAY = 10000;
+	
+	/**
+	 * The forecast horizon used unless the simulation is given another one (in milliseconds)
+	 */
+	public static final long DEFAULT_FORECAST_HORIZON = 60000;
+	
+	/**
+	 * Passed as the algorithm implementation to use the initial algorithms for the first simulation and the second algorithms
+	 * after a reset (the way the factories switch them for the Simulator's default context)
+	 */
+	public static final int ALTERNATING_ALGORITHMS = -1;
+	
+	/**
+	 * Creates a new EController for a SimulationContext. It also initializes internal data members that don't
+	 * accept parameters (requests, myElevators). The elevators are not running until startElevators() is called.
+	 * Since a fixed algorithm implementation can be given, simulations running at the same time can't change each other's algorithms.
+	 * @param inContext:	the simulation this controller belongs to
 	 * @param numberOfElevators:	number of elevators that EController will maintain
+	 * @param inDefaultFloors:	the default floor of each elevator
+	 * @param inAlgorithmImplementation:	0 for the initial algorithm implementations, 1 for the second ones, 2 for the ETA ones, 3 for destination dispatch, 4 for batch assignment, or ALTERNATING_ALGORITHMS
 	 */
-	private EController( short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor )
+	public EController( SimulationContext inContext, short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors, int inAlgorithmImplementation )
 	{
+		context = 			inContext;
+		
 		// array lists
 		requests = 			new ArrayList<ERequest>();
-		pendingRequests = 	new ArrayList<ERequest>();
+		pendingRequests = 	new PendingRequests( inContext.getNumberOfFloors(), numberOfElevators );
+		destinationAssignments = new DestinationAssignments( inContext.getNumberOfFloors(), numberOfElevators );
 		myElevators = 		new ArrayList<Elevator>();
 		
 		// delegates
-		requestProcessor = 	CallBoxRequestProcessorFactory.build();
-		pendingProcessor = 	PendingRequestProcessorFactory.build();
+		algorithmImplementation = inAlgorithmImplementation;
+		numOfFloors = 		inContext.getNumberOfFloors();
+		forecastHorizon = 	DEFAULT_FORECAST_HORIZON;
+		predictiveParking = false;
+		zoningEnabled = 	false;
+		dispatcher = 		null;
+		eventQueue = 		null;
+		dispatchCosts = 	DispatchCosts.DEFAULT;
+		batchWindow = 		DEFAULT_BATCH_WINDOW;
+		batchBudget = 		DEFAULT_BATCH_BUDGET;
+		optimizerPeriod = 	0;
+		optimizer = 		null;
+		reassignMargin = 	0;
+		parkingDelay = 		DEFAULT_PARKING_DELAY;
 		
 		// instantiates elevators and stores them
 		for(short i = 0; i < numberOfElevators; i++)
@@ -62,109 +214,92 @@ public class EController implements CallBoxRequestProcessor, PendingRequestProce
 													( short ) inCapacity,
 													( short ) inSpeed, 
 													( short ) inDoorSpeed,
-													( short ) inDefaultFloor ) );
+													( short ) inDefaultFloors.get(i),
+													inContext ) );
 		}
 		
-		// gets the elevators running
-		for (Elevator e: myElevators)
-		{
-			new Thread( ( Runnable ) e).start();
-		}
+		// the delegates, the zones and the traffic mode are sized from the elevators
+		buildProcessors();
 	}
 	
 	/**
-	 * Creates a new EController with the specified arguments. It also initializes internal data members that don't
-	 * accept parameters (requests, myElevators) and starts running the elevator threads. Alternative constructor that accepts an array list
-	 * of default floors instead of a single short.
-	 * @param numberOfElevators:	number of elevators that EController will maintain
+	 * Builds the algorithm delegates for the controller's algorithm implementation
 	 */
-	private EController( short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors )
+	private void buildProcessors()
 	{
-		// array lists
-		requests = 			new ArrayList<ERequest>();
-		pendingRequests = 	new ArrayList<ERequest>();
-		myElevators = 		new ArrayList<Elevator>();
-		
-		new CallBoxRequestProcessorFactory();
-		// delegates
-		requestProcessor = 	CallBoxRequestProcessorFactory.build();
-		pendingProcessor = 	PendingRequestProcessorFactory.build();
-		
-		// instantiates elevators and stores them
-		for(short i = 0; i < numberOfElevators; i++)
+		if ( algorithmImplementation == ALTERNATING_ALGORITHMS )
 		{
-			myElevators.add( ElevatorFactory.build(	( short ) i, 
-													( short ) inCapacity,
-													( short ) inSpeed, 
-													( short ) inDoorSpeed,
-													( short ) inDefaultFloors.get(i) ) );
+			requestProcessor = 	CallBoxRequestProcessorFactory.build( this );
+			pendingProcessor = 	PendingRequestProcessorFactory.build( this );
 		}
-		
-		// gets the elevators running
-		for (Elevator e: myElevators)
+		else
 		{
-			new Thread((Runnable) e).start();
+			requestProcessor = 	CallBoxRequestProcessorFactory.build( algorithmImplementation, this );
+			pendingProcessor = 	PendingRequestProcessorFactory.build( algorithmImplementation, this );
 		}
+		
+		reassigner = new CallReassigner( this, context );
+		buildForecaster();
 	}
 	
 	/**
-	* Returns the singleton instance of EController.
-	* This version of getInstance doesn't need a parameter,
-	* so it automatically forwards the call to getInstance(short numOfElevators) with a parameter of 0.
-	* @return EController
-	* @see EController getInstance(short numOfElevators)
-	*/
-	public static EController getInstance()
+	 * Builds the forecaster, with no arrivals counted yet, and everything that works from it (the parking policy, the traffic mode and the zones)
+	 */
+	private void buildForecaster()
 	{
-		return EController.getInstance( ( short ) 0, ( short ) 0, ( short ) 0, ( short ) 0, ( short ) 0 );
+		forecaster = 		new DemandForecaster( numOfFloors, forecastHorizon );
+		trafficDetector = 	new TrafficModeDetector( forecaster, numOfFloors, myElevators.size() );
+		zoning = 			new ZoningDispatcher( this, context, numOfFloors );
+		buildParkingPolicy();
 	}
 	
 	/**
-	* Returns the singleton instance of EController.
-	* If the singleton EController hasn't been initialized yet, it initializes it with the parameter value.
-	* Otherwise, it returns the pre-existing instance.
-	* @param short numOfElevators
-	* @return EController
-	* @see private EController(numberOfElevators)
-	*/
-	public static EController getInstance( short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, short inDefaultFloor )
+	 * Builds the parking policy, on the current forecaster
+	 */
+	private void buildParkingPolicy()
 	{
-		if(instance == null)
+		if ( predictiveParking )
 		{
-			synchronized(EController.class)
-			{
-				if(instance == null)
-				{
-					instance = new EController( numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloor );
-				}
-			}
+			parkingPolicy = new ParkingPolicyPredictiveImpl( this, forecaster );
+		}
+		else
+		{
+			parkingPolicy = new ParkingPolicyDefaultFloorImpl();
 		}
-		return instance;
 	}
 	
-	public static EController getInstance( short numberOfElevators, short inCapacity, short inSpeed, short inDoorSpeed, ArrayList<Short> inDefaultFloors )
+	/**
+	* Returns the EController of the default simulation context.
+	* @return EController
+	* @see SimulationContext getDefault()
+	*/
+	public static EController getInstance()
 	{
-		if(instance == null)
-		{
-			synchronized(EController.class)
-			{
-				if(instance == null)
-				{
-					instance = new EController( numberOfElevators, inCapacity, inSpeed, inDoorSpeed, inDefaultFloors );
-				}
-			}
-		}
-		return instance;
+		return SimulationContext.getDefault().getEController();
 	}
 	
 	/**
 	* Receives an elevator request and adds the requested destination to a designated elevator (decided via an algorithm).
+	* While the elevators are zoned, a lobby call going up is answered by the zones instead (see ZoningDispatcher).
+	* While the elevators run on their own threads, the request is handed to the call dispatcher's thread instead, and this returns right away.
 	* @param ERequest request:	the request to be processed
 	*/
 	// TODO: improve this method
 	@Override
 	public void processCallBoxRequest( ERequest request )
 	{
+		if ( updateZoning() && zoning.processCallBoxRequest( request ) )
+		{
+			return;
+		}
+		
+		CallDispatcher callDispatcher = dispatcher;
+		if ( callDispatcher != null )
+		{
+			callDispatcher.call( request );
+			return;
+		}
+		
 		// sends it to the algorithm delegate
 		requestProcessor.processCallBoxRequest( request );
 	}
@@ -179,11 +314,545 @@ public class EController implements CallBoxRequestProcessor, PendingRequestProce
 		return pendingProcessor.processPendingRequests( elevatorNum, floorNum );
 	}
 	
+	/**
+	 * Adds a request that no elevator could take to the pending list (ex. a command that reached its elevator too late)
+	 * @param request: the request to add
+	 */
+	public void addPendingRequest( ERequest request )
+	{
+		pendingRequests.add( request );
+	}
+	
+	/**
+	 * Takes back a stop an elevator couldn't add, because it had moved past the floor by the time it received the command.
+	 * The elevator's claims on the floor's pending requests go back to PENDING, so another elevator can take them.
+	 * If the elevator had no claim there, the call is made pending again.
+	 * Its destination dispatch pickups on the floor are released too, so those passengers may board the elevator that answers the call.
+	 * @param floorNum: the floor of the stop
+	 * @param directionIsUp: the direction the elevator was going in when the stop was sent
+	 * @param elevatorNum: the elevator
+	 */
+	public void returnStop( short floorNum, boolean directionIsUp, short elevatorNum )
+	{
+		// the elevator doesn't stop on the floor, so it would never release its claims there (and a new request would be merged into them)
+		boolean unclaimedUp = 	pendingRequests.unclaim( floorNum, true, elevatorNum );
+		boolean unclaimedDown = pendingRequests.unclaim( floorNum, false, elevatorNum );
+		destinationAssignments.release( floorNum, elevatorNum );
+		
+		if ( !unclaimedUp && !unclaimedDown )
+		{
+			addPendingRequest( new ERequest( floorNum, directionIsUp, context ) );
+		}
+	}
+	
+	/**
+	 * Lets the controller weigh the hall calls again after an elevator's doors closed or it went idle, if calls are reassigned
+	 * (see CallReassigner; passengers who entered their destination wait for the elevator they were assigned, so never with destination dispatch,
+	 * and neither do the people at the lobby while the elevators are zoned)
+	 * @param elevatorNum: the elevator that changed
+	 */
+	public void reassignCalls( short elevatorNum )
+	{
+		long margin = reassignMargin;
+		if ( margin > 0 && !isDestinationDispatch() && !zoning.isActive() )
+		{
+			reassigner.reassign( elevatorNum, margin );
+		}
+	}
+	
+	/**
+	 * Moves a hall call from one elevator to another: the new elevator takes the call and stops on its floor,
+	 * the old elevator's claim on the call's pending request (if it had one) is handed over, and the old elevator cancels its stop.
+	 * The claim is handed over before the new elevator is sent its stop, so if the stop comes too late the new elevator gives the claim back (see returnStop).
+	 * @param floorNum: the floor of the call
+	 * @param directionIsUp: the direction of the call
+	 * @param from: the elevator the call is taken from
+	 * @param to: the elevator the call is given to
+	 * @param cancelStop: false if the old elevator keeps its stop on that floor (ex. for another call)
+	 * @return true if the call was moved, false if the new elevator can't take it anymore (it moved on)
+	 */
+	boolean moveCall( short floorNum, boolean directionIsUp, short from, short to, boolean cancelStop )
+	{
+		Elevator elevator = myElevators.get( to );
+		boolean transferred = false;
+		
+		try
+		{
+			if ( !elevator.takeRequest( floorNum, directionIsUp ) )
+			{
+				return false;
+			}
+			transferred = pendingRequests.transfer( floorNum, directionIsUp, from, to );
+			elevator.addDestination( floorNum );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			if ( transferred )
+			{
+				pendingRequests.transfer( floorNum, directionIsUp, to, from );
+			}
+			return false;
+		}
+		
+		if ( cancelStop )
+		{
+			myElevators.get( from ).cancelStop( floorNum );
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Releases the pending requests an elevator claimed on a floor, once it has arrived there
+	 * @param floorNum: the floor the elevator arrived at
+	 * @param elevatorNum: the elevator
+	 */
+	public void releasePendingRequests( short floorNum, short elevatorNum )
+	{
+		pendingRequests.release( floorNum, elevatorNum );
+	}
+	
+	/**
+	 * Releases the destination dispatch pickups assigned to an elevator on a floor, once it has let the passengers on
+	 * @param floorNum: the floor the elevator is at
+	 * @param elevatorNum: the elevator
+	 */
+	public void releaseDestinations( short floorNum, short elevatorNum )
+	{
+		destinationAssignments.release( floorNum, elevatorNum );
+	}
+	
+	/**
+	 * Returns which elevator picks up the passengers going from each floor to each destination
+	 * @return the destination dispatch assignments
+	 */
+	public DestinationAssignments getDestinationAssignments() { return destinationAssignments; }
+	
+	/**
+	 * Checks whether an elevator may pick up a person: in destination dispatch only the elevator they were assigned,
+	 * and while the elevators are zoned only an elevator of their destination's band at the lobby
+	 * @param floorNum: the floor the person waits on
+	 * @param destFloor: the floor they are going to
+	 * @param elevatorNum: the elevator
+	 * @return true if the person may board the elevator
+	 */
+	public boolean mayBoard( short floorNum, short destFloor, short elevatorNum )
+	{
+		ZoningDispatcher zones = zoning;
+		return destinationAssignments.mayBoard( floorNum, destFloor, elevatorNum ) && ( !zones.isActive() || zones.mayBoard( floorNum, destFloor, elevatorNum ) );
+	}
+	
+	/**
+	 * Checks whether the passengers enter their destinations on keypads instead of pressing up/down buttons
+	 * @return true if the controller uses the destination dispatch algorithm
+	 */
+	public boolean isDestinationDispatch() { return algorithmImplementation == 3; }
+	
+	/**
+	 * Returns the pending requests, with the counts of their claims (for the simulation's report)
+	 * @return the pending requests
+	 */
+	public PendingRequests getPendingRequests() { return pendingRequests; }
+	
+	/**
+	 * Returns the weights the ETA algorithm puts on the costs of a hall call
+	 * @return the cost weights
+	 */
+	public DispatchCosts getDispatchCosts() { return dispatchCosts; }
+	
+	/**
+	 * Sets the weights the ETA algorithm puts on the costs of a hall call
+	 * @param inCosts: the cost weights
+	 */
+	public void setDispatchCosts( DispatchCosts inCosts )
+	{
+		dispatchCosts = inCosts;
+	}
+	
+	/**
+	 * Returns how long the batch algorithm collects hall calls before assigning them together
+	 * @return the batch window in milliseconds
+	 */
+	public long getBatchWindow() { return batchWindow; }
+	
+	/**
+	 * Sets how long the batch algorithm collects hall calls before assigning them together
+	 * @param inWindow: the batch window in milliseconds (0 assigns every call right away)
+	 * @throws IllegalArgumentException if the window is negative
+	 */
+	public void setBatchWindow( long inWindow ) throws IllegalArgumentException
+	{
+		if ( inWindow < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative batch window, got " + inWindow );
+		}
+		
+		batchWindow = inWindow;
+	}
+	
+	/**
+	 * Returns how long the batch algorithm may spend matching the calls of one batch optimally
+	 * @return the time budget in nanoseconds
+	 */
+	public long getBatchBudget() { return batchBudget; }
+	
+	/**
+	 * Sets how long the batch algorithm may spend matching the calls of one batch optimally (the calls left are matched greedily)
+	 * @param inBudget: the time budget in nanoseconds
+	 * @throws IllegalArgumentException if the budget is negative
+	 */
+	public void setBatchBudget( long inBudget ) throws IllegalArgumentException
+	{
+		if ( inBudget < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative batch budget, got " + inBudget );
+		}
+		
+		batchBudget = inBudget;
+	}
+	
+	/**
+	 * Returns how often the group optimizer searches for a better assignment of the hall calls
+	 * @return the period in milliseconds, or 0 if the optimizer doesn't run
+	 */
+	public long getOptimizerPeriod() { return optimizerPeriod; }
+	
+	/**
+	 * Sets how often the group optimizer searches for a better assignment of the hall calls, from the next time the elevators are started
+	 * (it never runs with destination dispatch, whose passengers wait for the elevator they were assigned)
+	 * @param inPeriod: the period in milliseconds, or 0 to turn the optimizer off
+	 * @throws IllegalArgumentException if the period is negative
+	 */
+	public void setOptimizerPeriod( long inPeriod ) throws IllegalArgumentException
+	{
+		if ( inPeriod < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative optimizer period, got " + inPeriod );
+		}
+		
+		optimizerPeriod = inPeriod;
+	}
+	
+	/**
+	 * Returns the group optimizer of the latest run (for the simulation's report)
+	 * @return the optimizer, or null if it didn't run
+	 */
+	public GroupOptimizer getGroupOptimizer() { return optimizer; }
+	
+	/**
+	 * Creates the group optimizer for a run, if it's turned on
+	 * @return the optimizer, or null if it doesn't run
+	 */
+	private GroupOptimizer buildOptimizer()
+	{
+		if ( optimizerPeriod <= 0 || isDestinationDispatch() )
+		{
+			return null;
+		}
+		
+		return new GroupOptimizer( this, context, optimizerPeriod, 1 );
+	}
+	
+	/**
+	 * Returns how much sooner another elevator has to reach a hall call before the call is moved to it
+	 * @return the margin in milliseconds, or 0 if calls aren't moved
+	 */
+	public long getReassignMargin() { return reassignMargin; }
+	
+	/**
+	 * Sets how much sooner another elevator has to reach a hall call before the call is moved to it
+	 * @param inMargin: the margin in milliseconds, or 0 to keep every call with the elevator it was given to
+	 * @throws IllegalArgumentException if the margin is negative
+	 */
+	public void setReassignMargin( long inMargin ) throws IllegalArgumentException
+	{
+		if ( inMargin < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative reassignment margin, got " + inMargin );
+		}
+		
+		reassignMargin = inMargin;
+	}
+	
+	/**
+	 * Returns the reassigner of the current run (for the simulation's report)
+	 * @return the call reassigner
+	 */
+	public CallReassigner getCallReassigner() { return reassigner; }
+	
+	/**
+	 * Counts a person arriving on a floor in the demand forecast
+	 * @param floorNum: the floor the person arrived on
+	 * @param goingUp: the direction the person is going in
+	 */
+	public void recordArrival( short floorNum, boolean goingUp )
+	{
+		forecaster.record( floorNum, goingUp, currentTimeMillis() );
+	}
+	
+	/**
+	 * Returns the demand forecast of the current run, for the dispatch and parking policies to query
+	 * @return the forecaster
+	 */
+	public DemandForecaster getDemandForecaster() { return forecaster; }
+	
+	/**
+	 * Returns the time constant of the forecaster's moving averages
+	 * @return the horizon in milliseconds
+	 */
+	public long getForecastHorizon() { return forecastHorizon; }
+	
+	/**
+	 * Sets the time constant of the forecaster's moving averages, and starts forecasting again with no arrivals counted
+	 * @param inHorizon: the horizon in milliseconds
+	 * @throws IllegalArgumentException if the horizon isn't positive
+	 */
+	public void setForecastHorizon( long inHorizon ) throws IllegalArgumentException
+	{
+		if ( inHorizon <= 0 )
+		{
+			throw new IllegalArgumentException( "Expected a positive forecast horizon, got " + inHorizon );
+		}
+		
+		forecastHorizon = inHorizon;
+		buildForecaster();
+	}
+	
+	/**
+	 * Chooses the floor an elevator that has been idle for the parking delay waits on (see ParkingPolicy)
+	 * @param elevatorNum: the idle elevator
+	 * @param defaultFloor: the elevator's default floor
+	 * @return the floor to park on
+	 */
+	public short chooseParkingFloor( short elevatorNum, short defaultFloor )
+	{
+		if ( zoning.isActive() )
+		{
+			return TrafficModeDetector.LOBBY;
+		}
+		
+		return parkingPolicy.chooseParkingFloor( elevatorNum, defaultFloor );
+	}
+	
+	/**
+	 * Returns how long an elevator waits without destinations before it's parked (while the elevators are zoned,
+	 * they return to the lobby PARKING_DELAY_DIVISOR times sooner, see ZoningDispatcher)
+	 * @return the delay in milliseconds
+	 */
+	public long getParkingDelay()
+	{
+		long delay = parkingDelay;
+		return zoning.isActive() ? Math.max( 1, delay / ZoningDispatcher.PARKING_DELAY_DIVISOR ) : delay;
+	}
+	
+	/**
+	 * Sets how long an elevator waits without destinations before it's parked (an elevator that's already waiting keeps its delay)
+	 * @param inDelay: the delay in milliseconds
+	 * @throws IllegalArgumentException if the delay isn't positive
+	 */
+	public void setParkingDelay( long inDelay ) throws IllegalArgumentException
+	{
+		if ( inDelay <= 0 )
+		{
+			throw new IllegalArgumentException( "Expected a positive parking delay, got " + inDelay );
+		}
+		
+		parkingDelay = inDelay;
+	}
+	
+	/**
+	 * Returns whether an idle elevator parks where the forecaster expects the next calls
+	 * @return true for predictive parking, false if the elevators park on their default floor
+	 */
+	public boolean isPredictiveParking() { return predictiveParking; }
+	
+	/**
+	 * Sets whether an idle elevator parks where the forecaster expects the next calls instead of on its default floor
+	 * @param inPredictive: true for predictive parking
+	 */
+	public void setPredictiveParking( boolean inPredictive )
+	{
+		predictiveParking = inPredictive;
+		buildParkingPolicy();
+	}
+	
+	/**
+	 * Returns the traffic mode detector of the current run
+	 * @return the detector
+	 */
+	public TrafficModeDetector getTrafficModeDetector() { return trafficDetector; }
+	
+	/**
+	 * Returns the zones of the current run
+	 * @return the zoning dispatcher
+	 */
+	public ZoningDispatcher getZoningDispatcher() { return zoning; }
+	
+	/**
+	 * Returns whether the elevators are zoned while the traffic is up-peak
+	 * @return true if zoning is turned on
+	 */
+	public boolean isZoningEnabled() { return zoningEnabled; }
+	
+	/**
+	 * Sets whether the elevators are zoned while the traffic is up-peak (never with destination dispatch, which already groups
+	 * the passengers by destination)
+	 * @param inEnabled: true to turn zoning on
+	 */
+	public void setZoningEnabled( boolean inEnabled )
+	{
+		zoningEnabled = inEnabled;
+	}
+	
+	/**
+	 * Checks whether a call box's calls are answered by the zones
+	 * @param floorNum: the floor of the call box
+	 * @param goingUp: the direction of the button
+	 * @return true if it's the lobby's up button while the elevators are zoned
+	 */
+	public boolean isZonedCall( short floorNum, boolean goingUp )
+	{
+		return goingUp && floorNum == TrafficModeDetector.LOBBY && zoning.isActive();
+	}
+	
+	/**
+	 * Detects the traffic mode if it's due, and turns zoning on or off to match it: on during up-peak traffic heavy enough for it.
+	 * When zoning is turned off, the lobby calls it left to the zones are made again for the controller's algorithm.
+	 * @return true if the elevators are zoned
+	 */
+	private boolean updateZoning()
+	{
+		long now = 				currentTimeMillis();
+		TrafficMode mode = 		trafficDetector.update( now );
+		ZoningDispatcher zones = zoning;
+		boolean zoned = 		zoningEnabled && !isDestinationDispatch() && mode == TrafficMode.UP_PEAK
+								&& zones.isSaturated( forecaster.getForecast( TrafficModeDetector.LOBBY, true, now ) );
+		
+		if ( zones.setActive( zoned ) && !zoned )
+		{
+			context.getBuilding().refreshCallBox( TrafficModeDetector.LOBBY );
+		}
+		
+		return zoned;
+	}
+	
+	/**
+	 * Returns the parking policy of the current run (for the simulation's report)
+	 * @return the parking policy
+	 */
+	public ParkingPolicy getParkingPolicy() { return parkingPolicy; }
+	
+	/**
+	 * Reads the simulation's clock (the same one the people's wait timers use)
+	 * @return the current time in milliseconds
+	 */
+	long currentTimeMillis()
+	{
+		return context.getPersonFacade().getClock().currentTimeMillis();
+	}
+	
+	/**
+	 * Returns the event queue driving the elevators
+	 * @return the event queue, or null if the elevators run on their own threads
+	 */
+	public EventQueue getEventQueue() { return eventQueue; }
+	
+	/**
+	 * Returns the number of floors in the building
+	 * @return the number of floors
+	 */
+	short getNumberOfFloors() { return numOfFloors; }
+	
+	/**
+	 * Gets the elevators running, each on its own platform thread (they sleep through their floor and door times in real time).
+	 */
+	public void startElevators()
+	{
+		startElevators( false );
+	}
+	
+	/**
+	 * Gets the elevators running, each on its own thread (they sleep through their floor and door times in real time).
+	 * Virtual threads let thousands of elevators run without an operating system thread each;
+	 * on runtimes without virtual threads the elevators run on platform threads instead.
+	 * The hall calls are assigned by a call dispatcher on another thread of the same kind until the elevators are shut down
+	 * (and improved by the group optimizer on one more, if it's turned on).
+	 * @param virtualThreads: true to run the elevators on virtual threads, false for platform threads
+	 */
+	public void startElevators( boolean virtualThreads )
+	{
+		for (Elevator e: myElevators)
+		{
+			VirtualThreads.start( ( Runnable ) e, virtualThreads );
+		}
+		
+		// the hall calls are assigned on a thread of their own from now on
+		eventQueue = null;
+		CallDispatcher callDispatcher = new CallDispatcher( this, numOfFloors );
+		VirtualThreads.start( callDispatcher, virtualThreads );
+		dispatcher = callDispatcher;
+		
+		// so does the group optimizer
+		GroupOptimizer groupOptimizer = buildOptimizer();
+		if ( groupOptimizer != null )
+		{
+			VirtualThreads.start( groupOptimizer, virtualThreads );
+		}
+		optimizer = groupOptimizer;
+	}
+	
+	/**
+	 * Gets the elevators running on a discrete-event queue instead of their own threads.
+	 * @param queue: the event queue that will drive every elevator
+	 */
+	public void startElevators( EventQueue queue )
+	{
+		eventQueue = queue;
+		
+		for (Elevator e: myElevators)
+		{
+			e.attachEventQueue( queue );
+		}
+		
+		GroupOptimizer groupOptimizer = buildOptimizer();
+		if ( groupOptimizer != null )
+		{
+			groupOptimizer.attachEventQueue( queue );
+		}
+		optimizer = groupOptimizer;
+	}
+	
+	/**
+	 * Turns the narrative printed by the elevators on or off (replications run quietly)
+	 * @param debug: true to print the elevators' activity, false otherwise
+	 */
+	public void setDebug( boolean debug )
+	{
+		for (Elevator e: myElevators)
+		{
+			e.setDebug( debug );
+		}
+	}
+	
 	/**
 	* Individually shuts down all running elevators.
 	*/
 	public void shutdownAllElevators()
 	{
+		// calls pressed from now on are assigned on the caller's thread again
+		CallDispatcher callDispatcher = dispatcher;
+		if ( callDispatcher != null )
+		{
+			dispatcher = null;
+			callDispatcher.shutdown();
+		}
+		
+		GroupOptimizer groupOptimizer = optimizer;
+		if ( groupOptimizer != null )
+		{
+			groupOptimizer.shutdown();
+		}
+		
 		for ( Elevator e: myElevators )
 		{
 			e.shutdown();
@@ -201,28 +870,24 @@ public class EController implements CallBoxRequestProcessor, PendingRequestProce
 	}
 	
 	/**
-	 * Needed to reset the EController for an additional simulation (because singletons cannot be recreated)
+	 * Needed to reset the EController for an additional simulation (because the default context cannot be recreated)
+	 * The elevators have to be started again with startElevators().
 	 */
 	public void reset()
 	{
 		// array lists
 		requests = 			new ArrayList<ERequest>();
-		pendingRequests = 	new ArrayList<ERequest>();
+		pendingRequests.clear();
+		destinationAssignments.clear();
 		
 		// delegates
-		requestProcessor = 	CallBoxRequestProcessorFactory.build();
-		pendingProcessor = 	PendingRequestProcessorFactory.build();
+		buildProcessors();
 		
 		// reset the elevators
 		for ( Elevator e : myElevators)
 		{
 			e.reset();
 		}
-		
-		// gets the elevators running
-		for (Elevator e: myElevators)
-		{
-			new Thread( ( Runnable ) e ).start();
-		}
+
 	}
 }
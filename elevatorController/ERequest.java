@@ -1,6 +1,6 @@
 package elevatorController;
 
-import building.Building;
+import building.SimulationContext;
 
 /**
  * This class represents an elevator request, containing information such as the floor the request originated from, and the desired direction.
@@ -22,20 +22,59 @@ public class ERequest {
 	 */
 	private short floorNum;
 	
+	/**
+	 * the floor the passenger entered on a destination keypad, or -1 if the request came from an up/down call box button
+	 */
+	private short destinationFloor;
+	
 	/**
 	 * Creates an ERequest given the specified parameters. These ERequests created by the ECallBox and sent
-	 * to the EController for processing
+	 * to the EController for processing. The floor is checked against the building of the default simulation context.
 	 * @param inFloorNum the floor the request was made on
 	 * @param inDirectionIsUp what direction is desired
 	 */
 	public ERequest(short inFloorNum, boolean inDirectionIsUp) throws IllegalArgumentException
 	{
-		if(inFloorNum < 0 || inFloorNum > Building.getNumberOfFloors())
+		this( inFloorNum, inDirectionIsUp, SimulationContext.getDefault() );
+	}
+	
+	/**
+	 * Creates an ERequest given the specified parameters. These ERequests created by the ECallBox and sent
+	 * to the EController for processing
+	 * @param inFloorNum the floor the request was made on
+	 * @param inDirectionIsUp what direction is desired
+	 * @param inContext the simulation whose building the request was made in
+	 */
+	public ERequest(short inFloorNum, boolean inDirectionIsUp, SimulationContext inContext) throws IllegalArgumentException
+	{
+		short numOfFloors = inContext.getNumberOfFloors();
+		if(inFloorNum < 0 || inFloorNum > numOfFloors)
 		{
-			throw new IllegalArgumentException("Floor request out of bounds, expected 0-"+Short.toString(Building.getNumberOfFloors())+", got "+Short.toString(inFloorNum));
+			throw new IllegalArgumentException("Floor request out of bounds, expected 0-"+Short.toString(numOfFloors)+", got "+Short.toString(inFloorNum));
 		}
 		floorNum = 		inFloorNum;
 		directionIsUp =	inDirectionIsUp;
+		destinationFloor = -1;
+	}
+	
+	/**
+	 * Creates an ERequest for a passenger who entered their destination on a keypad instead of pressing an up/down button
+	 * (so the controller knows where they are going before they board). The direction is the one towards the destination.
+	 * @param inFloorNum the floor the request was made on
+	 * @param inDestinationFloor the floor the passenger wants to go to
+	 * @param inContext the simulation whose building the request was made in
+	 * @throws IllegalArgumentException if a floor is out of bounds or the destination is the floor the request was made on
+	 */
+	public ERequest(short inFloorNum, short inDestinationFloor, SimulationContext inContext) throws IllegalArgumentException
+	{
+		this( inFloorNum, inDestinationFloor > inFloorNum, inContext );
+		
+		short numOfFloors = inContext.getNumberOfFloors();
+		if(inDestinationFloor < 0 || inDestinationFloor >= numOfFloors || inDestinationFloor == inFloorNum)
+		{
+			throw new IllegalArgumentException("Destination out of bounds, expected 0-"+Short.toString((short)(numOfFloors-1))+" other than "+Short.toString(inFloorNum)+", got "+Short.toString(inDestinationFloor));
+		}
+		destinationFloor = inDestinationFloor;
 	}
 	
 	/**
@@ -48,12 +87,7 @@ public class ERequest {
 	 */
 	public ERequest(short inFloorNum, boolean inDirectionIsUp, short elevatorRequest)
 	{
-		if(inFloorNum < 0 || inFloorNum > Building.getNumberOfFloors())
-		{
-			throw new IllegalArgumentException("Floor request out of bounds, expected 0-"+Short.toString(Building.getNumberOfFloors())+", got "+Short.toString(inFloorNum));
-		}
-		floorNum = 		inFloorNum;
-		directionIsUp = inDirectionIsUp;
+		this( inFloorNum, inDirectionIsUp );
 	}
 	
 	// accessors
@@ -67,4 +101,14 @@ public class ERequest {
 	 * @return the request's floor number
 	 */
 	public short getFloorNum() { return floorNum; }
+	/**
+	 * Gives the floor the passenger entered on a destination keypad
+	 * @return the destination floor, or -1 if the request doesn't carry one
+	 */
+	public short getDestinationFloor() { return destinationFloor; }
+	/**
+	 * Checks whether the request came from a destination keypad
+	 * @return true if the request carries a destination floor
+	 */
+	public boolean hasDestination() { return destinationFloor != -1; }
 }
@@ -8,6 +8,7 @@ import org.junit.Test;
 
 import building.Building;
 import building.PersonFacade;
+import building.SimulationContext;
 
 public class ERequestTest {
 
@@ -45,4 +46,23 @@ public class ERequestTest {
 		assertEquals(e.getFloorNum(),(short)5);
 	}
 
+	
+	@Test
+	public void testDestination()
+	{
+		ERequest e = new ERequest((short)5, true);
+		assertFalse(e.hasDestination());
+		assertEquals(e.getDestinationFloor(),-1);
+		e = new ERequest((short)5, (short)2, SimulationContext.getDefault());
+		assertTrue(e.hasDestination());
+		assertEquals(e.getDestinationFloor(),2);
+		assertFalse(e.getDirection());
+		assertTrue(new ERequest((short)0, (short)9, SimulationContext.getDefault()).getDirection());
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testDestinationIsStartFloor()
+	{
+		new ERequest((short)5, (short)5, SimulationContext.getDefault());
+	}
 }
@@ -0,0 +1,764 @@
+package elevatorController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import building.Building;
+import building.SimulationContext;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+import simulationEngine.EventQueue;
+import simulationEngine.SimEvent;
+import simulationEngine.SimEventHandler;
+import simulationEngine.SimEventType;
+
+/**
+ * This class is the group-control optimizer: every period it looks at all the hall calls the elevators are on their way to,
+ * and searches for a better way to share them out than the one the call box algorithm made one call at a time.
+ * The search is a genetic algorithm over assignment vectors (the elevator of every call), run as independent islands in parallel
+ * on the common fork-join pool, and every vector is weighed against one snapshot of the elevators (see Problem).
+ * If the best vector cuts the total estimated wait by more than MARGIN, the calls that changed hands are given to their new elevators,
+ * and the old elevators cancel the stops they no longer need.
+ * The call box algorithms don't change at all, so the hall call path stays as cheap as before: the optimizer only improves
+ * their assignments afterwards, on its own thread (or on a periodic event when the elevators run on an event queue).
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class GroupOptimizer implements Runnable, SimEventHandler
+{
+	/**
+	 * The number of islands searched in parallel
+	 */
+	private static final int ISLANDS = 4;
+	
+	/**
+	 * The number of assignment vectors in each island
+	 */
+	private static final int POPULATION = 24;
+	
+	/**
+	 * The number of generations each island evolves
+	 */
+	private static final int GENERATIONS = 30;
+	
+	/**
+	 * The number of best vectors each generation keeps unchanged
+	 */
+	private static final int ELITES = 2;
+	
+	/**
+	 * The fraction of the total estimated wait a new assignment has to save before any call is moved (so calls don't bounce between elevators)
+	 */
+	static final double MARGIN = 0.05;
+	
+	/**
+	 * The controller whose elevators' calls are optimized
+	 */
+	private EController controller;
+	
+	/**
+	 * The simulation the controller belongs to (its building has the call box lamps)
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * How long, in milliseconds, the optimizer waits between two searches
+	 */
+	private long period;
+	
+	/**
+	 * Draws the seed of every island, so a simulation on an event queue is repeated exactly
+	 */
+	private Random seeds;
+	
+	/**
+	 * Marks the call boxes (floor * 2, + 1 for up) whose calls were moved once, so they stay with their new elevator until they're answered
+	 */
+	private boolean[] pinned;
+	
+	/**
+	 * False once the optimizer has been shut down
+	 */
+	private volatile boolean running;
+	
+	/**
+	 * The event queue the searches are scheduled on, or null if the optimizer runs on its own thread
+	 */
+	private EventQueue eventQueue;
+	
+	/**
+	 * The thread the optimizer runs on, or null if it hasn't started yet (or runs on an event queue)
+	 */
+	private volatile Thread optimizerThread;
+	
+	/**
+	 * The number of searches run
+	 */
+	private volatile long searches;
+	
+	/**
+	 * The number of hall calls moved to another elevator
+	 */
+	private volatile long movedCalls;
+	
+	/**
+	 * Creates a new optimizer (it doesn't search until it runs, or is attached to an event queue)
+	 * @param inController: the controller whose elevators' calls are optimized
+	 * @param inContext: the simulation the controller belongs to
+	 * @param inPeriod: how long, in milliseconds, to wait between two searches
+	 * @param seed: the seed the islands' seeds are drawn from
+	 * @throws IllegalArgumentException if the period isn't positive
+	 */
+	public GroupOptimizer( EController inController, SimulationContext inContext, long inPeriod, long seed ) throws IllegalArgumentException
+	{
+		if ( inPeriod <= 0 )
+		{
+			throw new IllegalArgumentException( "Expected a positive optimizer period, got " + inPeriod );
+		}
+		
+		controller = 		inController;
+		context = 			inContext;
+		period = 			inPeriod;
+		seeds = 			new Random( seed );
+		pinned = 			new boolean[ 2 * inContext.getNumberOfFloors() ];
+		running = 			true;
+		eventQueue = 		null;
+		optimizerThread = 	null;
+		searches = 			0;
+		movedCalls = 		0;
+	}
+	
+	/**
+	 * Searches once every period until the optimizer is shut down
+	 */
+	@Override
+	public void run()
+	{
+		optimizerThread = Thread.currentThread();
+		
+		while ( running )
+		{
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos( period );
+			for ( long left = deadline - System.nanoTime(); running && left > 0; left = deadline - System.nanoTime() )
+			{
+				LockSupport.parkNanos( this, left );
+			}
+			
+			if ( running )
+			{
+				// the elevators move while the snapshot is taken, so a failed search is skipped like an elevator's failed trip
+				try
+				{
+					optimize();
+				}
+				catch ( RuntimeException e ) {}
+			}
+		}
+	}
+	
+	/**
+	 * Schedules the searches on an event queue instead of a thread of their own
+	 * @param queue: the event queue driving the elevators
+	 */
+	public void attachEventQueue( EventQueue queue )
+	{
+		eventQueue = queue;
+		eventQueue.schedule( period, SimEventType.GROUP_OPTIMIZE, this );
+	}
+	
+	/**
+	 * Searches, and schedules the next search until the optimizer is shut down
+	 */
+	@Override
+	public void handleEvent( SimEvent event )
+	{
+		if ( !running )
+		{
+			return;
+		}
+		
+		optimize();
+		eventQueue.schedule( period, SimEventType.GROUP_OPTIMIZE, this );
+	}
+	
+	/**
+	 * Stops the optimizer (a search already running still finishes)
+	 */
+	public void shutdown()
+	{
+		running = false;
+		
+		Thread thread = optimizerThread;
+		if ( thread != null )
+		{
+			LockSupport.unpark( thread );
+		}
+	}
+	
+	/**
+	 * Returns the number of searches run
+	 * @return the number of searches
+	 */
+	public long getSearches() { return searches; }
+	
+	/**
+	 * Returns the number of hall calls moved to another elevator
+	 * @return the number of moved calls
+	 */
+	public long getMovedCalls() { return movedCalls; }
+	
+	/**
+	 * Takes a snapshot of the elevators and the calls they're on their way to, searches for a better assignment,
+	 * and moves the calls that change hands if it's better by more than MARGIN
+	 * @return the number of calls moved
+	 */
+	public int optimize()
+	{
+		searches++;
+		
+		Building building = context.getBuilding();
+		
+		// a call box that was answered may be moved again the next time it's pressed
+		for ( int i = 0; i < pinned.length; i++ )
+		{
+			if ( pinned[i] && !building.isCallBoxLit( ( short ) ( i / 2 ), i % 2 == 1 ) )
+			{
+				pinned[i] = false;
+			}
+		}
+		
+		Problem problem = new Problem( controller, building, pinned );
+		if ( !problem.hasChoices() )
+		{
+			return 0;
+		}
+		
+		int[] best = search( problem );
+		if ( problem.evaluate( best ) >= problem.evaluate( problem.current ) * ( 1 - MARGIN ) )
+		{
+			return 0;
+		}
+		
+		int moved = apply( problem, best );
+		movedCalls += moved;
+		return moved;
+	}
+	
+	/**
+	 * Runs the islands in parallel and returns the best vector any of them found
+	 * @param problem: the calls and elevators to search over
+	 * @return the best assignment vector (the current one if nothing is better)
+	 * @throws RuntimeException if an island fails, or the search is interrupted
+	 */
+	private int[] search( final Problem problem ) throws RuntimeException
+	{
+		List<Callable<int[]>> islands = new ArrayList<Callable<int[]>>();
+		
+		for ( int i = 0; i < ISLANDS; i++ )
+		{
+			final long seed = seeds.nextLong();
+			islands.add( new Callable<int[]>()
+			{
+				@Override
+				public int[] call()
+				{
+					return evolve( problem, new Random( seed ) );
+				}
+			} );
+		}
+		
+		int[] best = 		problem.current;
+		double bestCost = 	problem.evaluate( best );
+		
+		// ties go to the earlier island, so the result doesn't depend on which island finishes first
+		for ( Future<int[]> future : ForkJoinPool.commonPool().invokeAll( islands ) )
+		{
+			try
+			{
+				int[] vector = future.get();
+				double cost = problem.evaluate( vector );
+				if ( cost < bestCost )
+				{
+					best = 		vector;
+					bestCost = 	cost;
+				}
+			}
+			catch ( InterruptedException e )
+			{
+				Thread.currentThread().interrupt();
+				throw new RuntimeException( "Interrupted while waiting for the search.", e );
+			}
+			catch ( ExecutionException e )
+			{
+				throw new RuntimeException( "An island of the search failed.", e.getCause() );
+			}
+		}
+		
+		return best;
+	}
+	
+	/**
+	 * Evolves one island: the current assignment and random ones, bred by tournament selection, uniform crossover and mutation
+	 * @param problem: the calls and elevators to search over
+	 * @param random: the island's random number generator
+	 * @return the best vector of the last generation
+	 */
+	static int[] evolve( Problem problem, Random random )
+	{
+		int n = 						problem.current.length;
+		int[][] population = 			new int[ POPULATION ][];
+		double[] costs = 				new double[ POPULATION ];
+		
+		population[0] = problem.current.clone();
+		for ( int p = 1; p < POPULATION; p++ )
+		{
+			population[p] = new int[ n ];
+			for ( int i = 0; i < n; i++ )
+			{
+				population[p][i] = problem.domains[i][ random.nextInt( problem.domains[i].length ) ];
+			}
+		}
+		for ( int p = 0; p < POPULATION; p++ )
+		{
+			costs[p] = problem.evaluate( population[p] );
+		}
+		
+		for ( int g = 0; g < GENERATIONS; g++ )
+		{
+			int[][] next = 			new int[ POPULATION ][];
+			double[] nextCosts = 	new double[ POPULATION ];
+			
+			// the best vectors survive unchanged
+			boolean[] kept = new boolean[ POPULATION ];
+			for ( int e = 0; e < ELITES; e++ )
+			{
+				int best = -1;
+				for ( int p = 0; p < POPULATION; p++ )
+				{
+					if ( !kept[p] && ( best == -1 || costs[p] < costs[ best ] ) )
+					{
+						best = p;
+					}
+				}
+				
+				kept[ best ] = 	true;
+				next[e] = 		population[ best ];
+				nextCosts[e] = 	costs[ best ];
+			}
+			
+			for ( int p = ELITES; p < POPULATION; p++ )
+			{
+				int[] mother = population[ tournament( costs, random ) ];
+				int[] father = population[ tournament( costs, random ) ];
+				int[] child = new int[ n ];
+				
+				for ( int i = 0; i < n; i++ )
+				{
+					child[i] = random.nextBoolean() ? mother[i] : father[i];
+					
+					// about one gene of every child mutates
+					if ( random.nextInt( n ) == 0 )
+					{
+						child[i] = problem.domains[i][ random.nextInt( problem.domains[i].length ) ];
+					}
+				}
+				
+				next[p] = 		child;
+				nextCosts[p] = 	problem.evaluate( child );
+			}
+			
+			population = 	next;
+			costs = 		nextCosts;
+		}
+		
+		int best = 0;
+		for ( int p = 1; p < POPULATION; p++ )
+		{
+			if ( costs[p] < costs[ best ] )
+			{
+				best = p;
+			}
+		}
+		
+		return population[ best ];
+	}
+	
+	/**
+	 * Picks the better of two random vectors
+	 * @param costs: the cost of every vector of the population
+	 * @param random: the island's random number generator
+	 * @return the index of the picked vector
+	 */
+	private static int tournament( double[] costs, Random random )
+	{
+		int a = random.nextInt( costs.length );
+		int b = random.nextInt( costs.length );
+		return costs[a] <= costs[b] ? a : b;
+	}
+	
+	/**
+	 * Gives every call that changed hands to its new elevator, and cancels the old elevator's stop if none of its calls are left on that floor.
+	 * A call the new elevator can't take anymore (it moved on since the snapshot) stays with the old one; a moved call is pinned until it's answered.
+	 * @param problem: the calls and elevators the search ran on
+	 * @param assignment: the new elevator of every call
+	 * @return the number of calls moved
+	 */
+	private int apply( Problem problem, int[] assignment )
+	{
+		int moved = 0;
+		
+		for ( int i = 0; i < assignment.length; i++ )
+		{
+			if ( assignment[i] == problem.current[i] )
+			{
+				continue;
+			}
+			
+			short floorNum = 		problem.callFloors[i];
+			boolean directionIsUp = problem.callUp[i];
+			boolean cancelStop = 	!problem.stopsAt( assignment, problem.current[i], floorNum );
+			
+			if ( controller.moveCall( floorNum, directionIsUp, ( short ) problem.current[i], ( short ) assignment[i], cancelStop ) )
+			{
+				moved++;
+				pinned[ 2 * floorNum + ( directionIsUp ? 1 : 0 ) ] = true;
+			}
+		}
+		
+		return moved;
+	}
+	
+	/**
+	 * This class is one snapshot of the elevators and the hall calls they're on their way to, which every vector of a search is weighed against.
+	 * The hall calls are the ones the elevators hold (see HeldCalls), each with its holder as its current elevator;
+	 * a call may go to any elevator the ETA algorithm would give it to (see CallBoxRequestProcessorETAImpl.estimateTimeToArrival) that isn't full,
+	 * unless it was moved once already (a pinned call).
+	 * Nothing in it changes once it's made, so the islands share it.
+	 */
+	static class Problem
+	{
+		/**
+		 * The floor of every call
+		 */
+		short[] callFloors;
+		
+		/**
+		 * The direction of every call
+		 */
+		boolean[] callUp;
+		
+		/**
+		 * The elevator every call is assigned to now
+		 */
+		int[] current;
+		
+		/**
+		 * The elevators every call may be assigned to
+		 */
+		int[][] domains;
+		
+		/**
+		 * The floor of every elevator
+		 */
+		short[] carFloors;
+		
+		/**
+		 * The direction of every elevator
+		 */
+		boolean[] carUp;
+		
+		/**
+		 * Whether every elevator is IDLE
+		 */
+		boolean[] carIdle;
+		
+		/**
+		 * The stops of every elevator that aren't for one of the calls (its passengers' floors, mostly)
+		 */
+		short[][] fixedStops;
+		
+		/**
+		 * The number of people on board getting off at every fixed stop
+		 */
+		int[][] fixedRiders;
+		
+		/**
+		 * The number of people on board every elevator
+		 */
+		int[] loads;
+		
+		/**
+		 * The capacity of every elevator
+		 */
+		int[] capacities;
+		
+		/**
+		 * The time per floor of every elevator
+		 */
+		long[] timePerFloor;
+		
+		/**
+		 * The door operation time of every elevator
+		 */
+		long[] doorTime;
+		
+		/**
+		 * Takes the snapshot
+		 * @param controller: the controller whose elevators are looked at
+		 * @param building: the building whose call box lamps are looked at
+		 * @param pinned: the call boxes (floor * 2, + 1 for up) whose calls stay with their elevator, or null
+		 */
+		Problem( EController controller, Building building, boolean[] pinned )
+		{
+			int cars = controller.myElevators.size();
+			
+			carFloors = 	new short[ cars ];
+			carUp = 		new boolean[ cars ];
+			carIdle = 		new boolean[ cars ];
+			fixedStops = 	new short[ cars ][];
+			fixedRiders = 	new int[ cars ][];
+			loads = 		new int[ cars ];
+			capacities = 	new int[ cars ];
+			timePerFloor = 	new long[ cars ];
+			doorTime = 		new long[ cars ];
+			
+			HeldCalls held = 				new HeldCalls( controller, building );
+			ElevatorSnapshot[] snapshots = 	held.snapshots;
+			
+			for ( int c = 0; c < cars; c++ )
+			{
+				Elevator elevator = controller.myElevators.get( c );
+				carFloors[c] = 		snapshots[c].getCurrentFloor();
+				carUp[c] = 			snapshots[c].isCurrentDirectionUp();
+				carIdle[c] = 		snapshots[c].isIdle();
+				loads[c] = 			snapshots[c].getLoad();
+				capacities[c] = 	elevator.getCapacity();
+				timePerFloor[c] = 	elevator.getTimePerFloor();
+				doorTime[c] = 		elevator.getDoorOperationTime();
+				fixedStops[c] = 	held.otherStops[c];
+				fixedRiders[c] = 	new int[ fixedStops[c].length ];
+				
+				for ( int i = 0; i < fixedStops[c].length; i++ )
+				{
+					fixedRiders[c][i] = elevator.getRidersFor( fixedStops[c][i] );
+				}
+			}
+			
+			int calls = 	held.size();
+			callFloors = 	held.floors;
+			callUp = 		held.up;
+			current = 		held.holders;
+			domains = 		new int[ calls ][];
+			
+			for ( int i = 0; i < calls; i++ )
+			{
+				boolean isPinned = pinned != null && pinned[ 2 * callFloors[i] + ( callUp[i] ? 1 : 0 ) ];
+				ArrayList<Integer> domain = new ArrayList<Integer>();
+				for ( int c = 0; c < cars; c++ )
+				{
+					Elevator elevator = controller.myElevators.get( c );
+					
+					if ( c == current[i] || ( !isPinned && snapshots[c].getLoad() < elevator.getCapacity()
+						 && CallBoxRequestProcessorETAImpl.estimateTimeToArrival( elevator, snapshots[c], callFloors[i], callUp[i] ) >= 0 ) )
+					{
+						domain.add( c );
+					}
+				}
+				
+				domains[i] = new int[ domain.size() ];
+				for ( int j = 0; j < domain.size(); j++ )
+				{
+					domains[i][j] = domain.get( j );
+				}
+			}
+		}
+		
+		/**
+		 * Checks whether any call could go to another elevator
+		 * @return true if there's something to search for
+		 */
+		boolean hasChoices()
+		{
+			for ( int[] domain : domains )
+			{
+				if ( domain.length > 1 )
+				{
+					return true;
+				}
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * Checks whether an elevator still stops at a floor for one of its calls in an assignment
+		 * @param assignment: the elevator of every call
+		 * @param car: the elevator
+		 * @param floorNum: the floor
+		 * @return true if one of the calls on that floor is assigned to the elevator
+		 */
+		boolean stopsAt( int[] assignment, int car, short floorNum )
+		{
+			for ( int i = 0; i < assignment.length; i++ )
+			{
+				if ( assignment[i] == car && callFloors[i] == floorNum )
+				{
+					return true;
+				}
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * Weighs an assignment: the total estimated wait of every call
+		 * @param assignment: the elevator of every call
+		 * @return the total wait in milliseconds (lower is better)
+		 */
+		double evaluate( int[] assignment )
+		{
+			double total = 0;
+			for ( int c = 0; c < carFloors.length; c++ )
+			{
+				total += evaluateCar( c, assignment );
+			}
+			
+			return total;
+		}
+		
+		/**
+		 * Estimates the wait of every call assigned to an elevator. The elevator sweeps in its direction to its farthest stop,
+		 * turns around and sweeps to its farthest stop the other way, then turns around again; a call is reached the first time
+		 * the elevator passes its floor going its way, after the floors travelled and one door cycle for every stop before it.
+		 * If the elevator would be full by then (one person per call, less the riders getting off on the way), the call waits for the next sweep.
+		 * An IDLE elevator sets off towards its nearest stop.
+		 * @param car: the elevator
+		 * @param assignment: the elevator of every call
+		 * @return the total wait of the elevator's calls in milliseconds
+		 */
+		private double evaluateCar( int car, int[] assignment )
+		{
+			int floor = carFloors[ car ];
+			int hi = 	floor;
+			int lo = 	floor;
+			int assigned = 0;
+			int nearest = -1;
+			
+			for ( short stop : fixedStops[ car ] )
+			{
+				hi = Math.max( hi, stop );
+				lo = Math.min( lo, stop );
+				if ( nearest == -1 || Math.abs( stop - floor ) < Math.abs( nearest - floor ) )
+				{
+					nearest = stop;
+				}
+			}
+			for ( int i = 0; i < assignment.length; i++ )
+			{
+				if ( assignment[i] == car )
+				{
+					assigned++;
+					hi = Math.max( hi, callFloors[i] );
+					lo = Math.min( lo, callFloors[i] );
+					if ( nearest == -1 || Math.abs( callFloors[i] - floor ) < Math.abs( nearest - floor ) )
+					{
+						nearest = callFloors[i];
+					}
+				}
+			}
+			
+			if ( assigned == 0 )
+			{
+				return 0;
+			}
+			
+			// looks at the floors the way the elevator moves, so the sweep always goes towards higher numbers first
+			boolean up = 	carIdle[ car ] ? nearest >= floor : carUp[ car ];
+			int sign = 		up ? 1 : -1;
+			int from = 		sign * floor;
+			int far = 		up ? hi : -lo;
+			int near = 		up ? lo : -hi;
+			
+			// how far along the sweep every stop and call is
+			int[] stopPositions = new int[ fixedStops[ car ].length + assigned ];
+			int[] callPositions = new int[ assigned ];
+			int stops = 0;
+			
+			for ( short stop : fixedStops[ car ] )
+			{
+				int at = sign * stop;
+				stopPositions[ stops++ ] = at >= from ? at - from : ( far - from ) + ( far - at );
+			}
+			int calls = 0;
+			for ( int i = 0; i < assignment.length; i++ )
+			{
+				if ( assignment[i] == car )
+				{
+					int at = sign * callFloors[i];
+					int position;
+					
+					if ( callUp[i] != up )
+					{
+						position = ( far - from ) + ( far - at );
+					}
+					else if ( at >= from )
+					{
+						position = at - from;
+					}
+					else
+					{
+						position = ( far - from ) + ( far - near ) + ( at - near );
+					}
+					
+					callPositions[ calls++ ] = 	position;
+					stopPositions[ stops++ ] = 	position;
+				}
+			}
+			
+			double total = 0;
+			for ( int k = 0; k < calls; k++ )
+			{
+				int before = 	0;
+				int load = 		loads[ car ];
+				
+				for ( int s = 0; s < stops; s++ )
+				{
+					if ( stopPositions[s] < callPositions[k] )
+					{
+						before++;
+						
+						// every call before this one picks up one person, and the riders getting off up to this floor make room
+						load += s < fixedStops[ car ].length ? 0 : 1;
+					}
+					if ( s < fixedStops[ car ].length && stopPositions[s] <= callPositions[k] )
+					{
+						load -= fixedRiders[ car ][s];
+					}
+				}
+				
+				int position = callPositions[k];
+				
+				// a full elevator passes the call by, and it waits for the next sweep
+				if ( load >= capacities[ car ] )
+				{
+					position += 2 * ( far - near );
+				}
+				
+				total += ( double ) position * timePerFloor[ car ] + ( double ) before * doorTime[ car ];
+			}
+			
+			return total;
+		}
+	}
+}
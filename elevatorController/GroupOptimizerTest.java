@@ -0,0 +1,93 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import elevator.Elevator;
+import simulationEngine.EventQueue;
+
+public class GroupOptimizerTest {
+	
+	// elevator 0 stops at floors 2, 4, 6 and 7 on its way up, and the first-fit algorithm gives it the call on floor 8 as well
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		Elevator e = context.getEController().getElevator((short)0);
+		e.addDestination((short)2);
+		e.addDestination((short)4);
+		e.addDestination((short)6);
+		e.addDestination((short)7);
+		context.getBuilding().pressCallBox((short)8, true);
+		return context;
+	}
+	
+	@Test
+	public void testProblem()
+	{
+		SimulationContext context = newContext();
+		GroupOptimizer.Problem problem = new GroupOptimizer.Problem(context.getEController(), context.getBuilding(), null);
+		assertEquals(problem.current.length,1);
+		assertEquals(problem.callFloors[0],8);
+		assertEquals(problem.current[0],0);
+		assertEquals(problem.domains[0].length,2);
+		assertTrue(problem.hasChoices());
+		
+		// 8 floors and 4 stops, or 8 floors for the idle elevator
+		assertEquals(problem.evaluate(new int[] {0}),18000,0);
+		assertEquals(problem.evaluate(new int[] {1}),8000,0);
+		assertArrayEquals(GroupOptimizer.evolve(problem, new Random(1)),new int[] {1});
+	}
+	
+	@Test
+	public void testOptimize()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)8));
+		
+		GroupOptimizer optimizer = new GroupOptimizer(controller, context, 1000, 1);
+		assertEquals(optimizer.optimize(),1);
+		assertFalse(controller.getElevator((short)0).isInDestinations((short)8));
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+		assertEquals(optimizer.getMovedCalls(),1);
+		
+		// nothing is left to improve
+		assertEquals(optimizer.optimize(),0);
+		assertEquals(optimizer.getSearches(),2);
+	}
+	
+	@Test
+	public void testEventQueue()
+	{
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		controller.setOptimizerPeriod(1000);
+		EventQueue queue = new EventQueue();
+		controller.startElevators(queue);
+		
+		// the first search runs after one period
+		queue.runUntil(999);
+		assertEquals(controller.getGroupOptimizer().getSearches(),0);
+		queue.runUntil(1000);
+		assertEquals(controller.getGroupOptimizer().getSearches(),1);
+		assertTrue(controller.getElevator((short)1).isInDestinations((short)8));
+		
+		controller.shutdownAllElevators();
+		queue.runUntil(5000);
+		assertEquals(controller.getGroupOptimizer().getSearches(),1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadPeriod()
+	{
+		new GroupOptimizer(newContext().getEController(), newContext(), 0, 1);
+	}
+}
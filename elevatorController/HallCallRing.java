@@ -0,0 +1,131 @@
+package elevatorController;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class is a fixed-size ring buffer of hall calls between the call boxes (any number of threads) and the call dispatcher (one thread).
+ * A call box claims the next slot with a single atomic increment, fills it in and publishes it, so it never waits for the dispatch logic;
+ * it only has to wait in the rare case that it laps the dispatcher and the ring is full.
+ * The slots are allocated once, and the dispatcher drains everything published so far in one batch.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class HallCallRing
+{
+	/**
+	 * The calls, indexed by sequence number modulo the ring size
+	 */
+	private ERequest[] slots;
+	
+	/**
+	 * The sequence number + 1 that each slot was last published with (0 if it was never published)
+	 */
+	private AtomicLongArray published;
+	
+	/**
+	 * The size of the ring minus one (the ring size is a power of two, so this masks a sequence number into a slot)
+	 */
+	private int mask;
+	
+	/**
+	 * The sequence number the next call will be published with
+	 */
+	private AtomicLong nextSequence;
+	
+	/**
+	 * The sequence number of the next call the dispatcher will take (only written by the dispatcher)
+	 */
+	private volatile long takeSequence;
+	
+	/**
+	 * Creates a new, empty ring
+	 * @param capacity: the number of calls the ring holds (rounded up to a power of two)
+	 * @throws IllegalArgumentException if the capacity isn't between 1 and 2^30
+	 */
+	public HallCallRing( int capacity ) throws IllegalArgumentException
+	{
+		if ( capacity < 1 || capacity > ( 1 << 30 ) )
+		{
+			throw new IllegalArgumentException( "Expected a ring capacity between 1 and " + ( 1 << 30 ) + ", got " + capacity );
+		}
+		
+		int size = Integer.highestOneBit( capacity );
+		if ( size < capacity )
+		{
+			size <<= 1;
+		}
+		
+		slots = 		new ERequest[ size ];
+		published = 	new AtomicLongArray( size );
+		mask = 			size - 1;
+		nextSequence = 	new AtomicLong();
+		takeSequence = 	0;
+	}
+	
+	/**
+	 * Returns the number of calls the ring holds
+	 * @return the ring size
+	 */
+	public int getCapacity() { return slots.length; }
+	
+	/**
+	 * Publishes a call (can be called from any thread)
+	 * @param request: the call to publish
+	 */
+	public void publish( ERequest request )
+	{
+		long sequence = nextSequence.getAndIncrement();
+		
+		// wait for the dispatcher to free the slot if this call laps it
+		while ( sequence - takeSequence >= slots.length )
+		{
+			LockSupport.parkNanos( 1000 );
+		}
+		
+		int slot = ( int ) ( sequence & mask );
+		slots[ slot ] = request;
+		published.set( slot, sequence + 1 );
+	}
+	
+	/**
+	 * Takes every call published so far, in the order their slots were claimed (only called from the dispatcher's thread).
+	 * Stops early at a slot that was claimed but isn't published yet, so no call is ever skipped.
+	 * @param batch: receives the calls
+	 * @return the number of calls taken (at most batch.length)
+	 */
+	public int drainTo( ERequest[] batch )
+	{
+		long sequence = takeSequence;
+		int taken = 0;
+		
+		while ( taken < batch.length )
+		{
+			int slot = ( int ) ( sequence & mask );
+			if ( published.get( slot ) != sequence + 1 )
+			{
+				break;
+			}
+			
+			batch[ taken++ ] = slots[ slot ];
+			slots[ slot ] = null;
+			sequence++;
+		}
+		
+		// frees the slots for the call boxes
+		takeSequence = sequence;
+		return taken;
+	}
+	
+	/**
+	 * Checks whether there are calls that haven't been taken yet (including claimed ones that aren't published yet)
+	 * @return true if the ring is empty
+	 */
+	public boolean isEmpty()
+	{
+		return nextSequence.get() == takeSequence;
+	}
+}
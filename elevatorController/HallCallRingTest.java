@@ -0,0 +1,115 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import building.SimulationContext;
+
+public class HallCallRingTest {
+	
+	private static SimulationContext context = null;
+	
+	@BeforeClass
+	public static void setUpBeforeClass()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+	}
+	
+	@Test
+	public void testOrderAndWrap()
+	{
+		HallCallRing r = new HallCallRing(3);
+		assertEquals(r.getCapacity(),4);
+		assertTrue(r.isEmpty());
+		ERequest[] batch = new ERequest[4];
+		assertEquals(r.drainTo(batch),0);
+		for (int round = 0; round < 3; round++)
+		{
+			ERequest a = new ERequest((short)1,true,context);
+			ERequest b = new ERequest((short)2,false,context);
+			ERequest c = new ERequest((short)3,true,context);
+			r.publish(a);
+			r.publish(b);
+			r.publish(c);
+			assertFalse(r.isEmpty());
+			assertEquals(r.drainTo(batch),3);
+			assertSame(batch[0],a);
+			assertSame(batch[1],b);
+			assertSame(batch[2],c);
+			assertTrue(r.isEmpty());
+		}
+	}
+	
+	@Test
+	public void testSmallBatch()
+	{
+		HallCallRing r = new HallCallRing(8);
+		for (short i = 0; i < 5; i++)
+		{
+			r.publish(new ERequest(i,true,context));
+		}
+		ERequest[] batch = new ERequest[2];
+		assertEquals(r.drainTo(batch),2);
+		assertEquals(batch[1].getFloorNum(),1);
+		assertEquals(r.drainTo(batch),2);
+		assertEquals(batch[0].getFloorNum(),2);
+		assertEquals(r.drainTo(batch),1);
+		assertEquals(batch[0].getFloorNum(),4);
+		assertTrue(r.isEmpty());
+	}
+	
+	@Test
+	public void testManyPublishers() throws InterruptedException
+	{
+		final HallCallRing r = new HallCallRing(16);
+		final int publishers = 4;
+		final int perPublisher = 5000;
+		Thread[] threads = new Thread[publishers];
+		for (int i = 0; i < publishers; i++)
+		{
+			final short floor = (short)i;
+			threads[i] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					for (int j = 0; j < perPublisher; j++)
+					{
+						r.publish(new ERequest(floor,true,context));
+					}
+				}
+			});
+			threads[i].start();
+		}
+		
+		int[] received = new int[publishers];
+		int total = 0;
+		ERequest[] batch = new ERequest[8];
+		while (total < publishers * perPublisher)
+		{
+			int n = r.drainTo(batch);
+			for (int i = 0; i < n; i++)
+			{
+				received[batch[i].getFloorNum()]++;
+			}
+			total += n;
+		}
+		for (int i = 0; i < publishers; i++)
+		{
+			threads[i].join();
+			assertEquals(received[i],perPublisher);
+		}
+		assertTrue(r.isEmpty());
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNoCapacity()
+	{
+		new HallCallRing(0);
+	}
+}
@@ -0,0 +1,137 @@
+package elevatorController;
+
+import java.util.ArrayList;
+
+import building.Building;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+/**
+ * This class is one snapshot of the hall calls the elevators are on their way to, for the algorithms that move calls between elevators.
+ * A call is held by an ACTIVE elevator that has a stop ahead of it on the call's floor, going the call's way, while the call box is lit
+ * (the first such elevator, if more than one is headed there).
+ * A call an elevator stops at for its own riders anyway is served by that elevator whoever else is sent, so it isn't held by anyone.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+class HeldCalls
+{
+	/**
+	 * The status of every elevator when the snapshot was taken
+	 */
+	ElevatorSnapshot[] snapshots;
+	
+	/**
+	 * The floor of every call
+	 */
+	short[] floors;
+	
+	/**
+	 * The direction of every call
+	 */
+	boolean[] up;
+	
+	/**
+	 * The elevator holding every call
+	 */
+	int[] holders;
+	
+	/**
+	 * The stops of every elevator that aren't for one of the calls (its riders' floors, mostly)
+	 */
+	short[][] otherStops;
+	
+	/**
+	 * Takes the snapshot
+	 * @param controller: the controller whose elevators are looked at
+	 * @param building: the building whose call box lamps are looked at
+	 */
+	HeldCalls( EController controller, Building building )
+	{
+		int cars = controller.myElevators.size();
+		
+		snapshots = 	new ElevatorSnapshot[ cars ];
+		otherStops = 	new short[ cars ][];
+		
+		boolean[] claimed = 			new boolean[ 2 * ( building.getNumberOfFloors() + 1 ) ];
+		ArrayList<Short> callFloors = 	new ArrayList<Short>();
+		ArrayList<Boolean> directions = new ArrayList<Boolean>();
+		ArrayList<Integer> callHolders = new ArrayList<Integer>();
+		
+		for ( int c = 0; c < cars; c++ )
+		{
+			Elevator elevator = controller.myElevators.get( c );
+			snapshots[c] = 		elevator.getSnapshot();
+			
+			for ( short stop = elevator.getNextDestination( ( short ) 0, true ); stop != -1; stop = elevator.getNextDestination( ( short ) ( stop + 1 ), true ) )
+			{
+				if ( isAhead( snapshots[c], stop ) && elevator.getRidersFor( stop ) > 0 )
+				{
+					claimed[ 2 * stop + ( snapshots[c].isCurrentDirectionUp() ? 1 : 0 ) ] = true;
+				}
+			}
+		}
+		
+		for ( int c = 0; c < cars; c++ )
+		{
+			Elevator elevator = 	controller.myElevators.get( c );
+			boolean goingUp = 		snapshots[c].isCurrentDirectionUp();
+			ArrayList<Short> other = new ArrayList<Short>();
+			
+			for ( short stop = elevator.getNextDestination( ( short ) 0, true ); stop != -1; stop = elevator.getNextDestination( ( short ) ( stop + 1 ), true ) )
+			{
+				int callBox = 2 * stop + ( goingUp ? 1 : 0 );
+				
+				if ( isAhead( snapshots[c], stop ) && !claimed[ callBox ] && building.isCallBoxLit( stop, goingUp ) )
+				{
+					claimed[ callBox ] = true;
+					callFloors.add( stop );
+					directions.add( goingUp );
+					callHolders.add( c );
+				}
+				else
+				{
+					other.add( stop );
+				}
+			}
+			
+			otherStops[c] = new short[ other.size() ];
+			for ( int i = 0; i < other.size(); i++ )
+			{
+				otherStops[c][i] = other.get( i );
+			}
+		}
+		
+		floors = 	new short[ callFloors.size() ];
+		up = 		new boolean[ callFloors.size() ];
+		holders = 	new int[ callFloors.size() ];
+		
+		for ( int i = 0; i < floors.length; i++ )
+		{
+			floors[i] = 	callFloors.get( i );
+			up[i] = 		directions.get( i );
+			holders[i] = 	callHolders.get( i );
+		}
+	}
+	
+	/**
+	 * Returns the number of calls
+	 * @return the number of held calls
+	 */
+	int size() { return floors.length; }
+	
+	/**
+	 * Checks whether an elevator is ACTIVE and headed to a floor ahead of it
+	 * @param snapshot: the elevator's status
+	 * @param floorNum: the floor of the stop
+	 * @return true if the elevator reaches the floor before it turns around
+	 */
+	private static boolean isAhead( ElevatorSnapshot snapshot, short floorNum )
+	{
+		short currFloor = snapshot.getCurrentFloor();
+		return snapshot.isActive() && ( snapshot.isCurrentDirectionUp() ? floorNum > currFloor : floorNum < currFloor );
+	}
+}
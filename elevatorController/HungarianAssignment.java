@@ -0,0 +1,213 @@
+package elevatorController;
+
+/**
+ * This class solves the assignment problem: given the cost of giving each call to each elevator, it gives every call
+ * to a different elevator (or every elevator a different call, if there are more calls than elevators) so the total cost is the lowest.
+ * It uses the Hungarian algorithm with row potentials, which adds one row at a time along a shortest augmenting path,
+ * so a batch of n calls and m elevators takes O(n * n * m) steps (n being the smaller of the two).
+ * Since a batch has to be assigned before the calls get stale, the rows left when the time budget runs out are assigned greedily
+ * (each to its cheapest elevator that's still free) instead.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class HungarianAssignment
+{
+	/**
+	 * The cost of a pair that can't be assigned (ex. an elevator that can't take the call); it's never part of a solution
+	 */
+	public static final double INFEASIBLE = 1e15;
+	
+	/**
+	 * This class only has static methods
+	 */
+	private HungarianAssignment()
+	{
+	}
+	
+	/**
+	 * Assigns every row of a cost matrix to a different column with the lowest total cost
+	 * @param costs: the cost of every row (call) and column (elevator), INFEASIBLE if the pair can't be assigned
+	 * @param deadline: the System.nanoTime() after which the rows left are assigned greedily
+	 * @return the column of every row, or -1 if the row isn't assigned (there are fewer columns, or all of its pairs are INFEASIBLE)
+	 * @throws IllegalArgumentException if the rows don't all have the same number of columns
+	 */
+	public static int[] solve( double[][] costs, long deadline ) throws IllegalArgumentException
+	{
+		int rows = costs.length;
+		int cols = rows == 0 ? 0 : costs[0].length;
+		
+		for ( int i = 0; i < rows; i++ )
+		{
+			if ( costs[i].length != cols )
+			{
+				throw new IllegalArgumentException( "Expected " + cols + " columns in every row, got " + costs[i].length + " in row " + i );
+			}
+		}
+		
+		int[] assignment = new int[ rows ];
+		
+		// the algorithm needs at most as many rows as columns, so a batch with more calls than elevators is solved the other way around
+		if ( rows <= cols )
+		{
+			int[] rowOf = solveRows( costs, rows, cols, false, deadline );
+			
+			for ( int i = 0; i < rows; i++ )
+			{
+				assignment[i] = -1;
+			}
+			for ( int j = 0; j < cols; j++ )
+			{
+				if ( rowOf[j] != -1 )
+				{
+					assignment[ rowOf[j] ] = j;
+				}
+			}
+		}
+		else
+		{
+			int[] colOf = solveRows( costs, cols, rows, true, deadline );
+			
+			for ( int i = 0; i < rows; i++ )
+			{
+				assignment[i] = colOf[i];
+			}
+		}
+		
+		// drops the pairs that were only assigned because nothing else was left
+		for ( int i = 0; i < rows; i++ )
+		{
+			if ( assignment[i] != -1 && costs[i][ assignment[i] ] >= INFEASIBLE )
+			{
+				assignment[i] = -1;
+			}
+		}
+		
+		return assignment;
+	}
+	
+	/**
+	 * Assigns n rows to different columns out of m (n <= m) with the lowest total cost
+	 * @param costs: the cost matrix
+	 * @param n: the number of rows to assign
+	 * @param m: the number of columns
+	 * @param transposed: true if the rows are the matrix's columns and the columns are its rows
+	 * @param deadline: the System.nanoTime() after which the rows left are assigned greedily
+	 * @return the row assigned to every column, or -1 if the column is free
+	 */
+	private static int[] solveRows( double[][] costs, int n, int m, boolean transposed, long deadline )
+	{
+		// 1-based, column 0 being the start of every augmenting path
+		double[] u = 		new double[ n + 1 ];
+		double[] v = 		new double[ m + 1 ];
+		int[] p = 			new int[ m + 1 ];
+		int[] way = 		new int[ m + 1 ];
+		double[] minv = 	new double[ m + 1 ];
+		boolean[] used = 	new boolean[ m + 1 ];
+		int row = 			1;
+		
+		for ( ; row <= n && System.nanoTime() - deadline < 0; row++ )
+		{
+			p[0] = 		row;
+			int j0 = 	0;
+			
+			for ( int j = 0; j <= m; j++ )
+			{
+				minv[j] = Double.MAX_VALUE;
+				used[j] = false;
+			}
+			
+			// grows the tree of tight edges until it reaches a free column
+			do
+			{
+				used[ j0 ] = true;
+				int i0 = 		p[ j0 ];
+				double delta = 	Double.MAX_VALUE;
+				int j1 = 		0;
+				
+				for ( int j = 1; j <= m; j++ )
+				{
+					if ( !used[j] )
+					{
+						double cur = cost( costs, i0 - 1, j - 1, transposed ) - u[ i0 ] - v[j];
+						if ( cur < minv[j] )
+						{
+							minv[j] = 	cur;
+							way[j] = 	j0;
+						}
+						if ( minv[j] < delta )
+						{
+							delta = minv[j];
+							j1 = 	j;
+						}
+					}
+				}
+				
+				for ( int j = 0; j <= m; j++ )
+				{
+					if ( used[j] )
+					{
+						u[ p[j] ] += delta;
+						v[j] -= delta;
+					}
+					else
+					{
+						minv[j] -= delta;
+					}
+				}
+				
+				j0 = j1;
+			}
+			while ( p[ j0 ] != 0 );
+			
+			// flips the augmenting path
+			do
+			{
+				int j1 = way[ j0 ];
+				p[ j0 ] = p[ j1 ];
+				j0 = j1;
+			}
+			while ( j0 != 0 );
+		}
+		
+		// the budget ran out: the rows left take their cheapest free column
+		for ( ; row <= n; row++ )
+		{
+			int best = 			0;
+			double bestCost = 	Double.MAX_VALUE;
+			
+			for ( int j = 1; j <= m; j++ )
+			{
+				if ( p[j] == 0 && cost( costs, row - 1, j - 1, transposed ) < bestCost )
+				{
+					best = 		j;
+					bestCost = 	cost( costs, row - 1, j - 1, transposed );
+				}
+			}
+			
+			p[ best ] = row;
+		}
+		
+		int[] rowOf = new int[ m ];
+		for ( int j = 1; j <= m; j++ )
+		{
+			rowOf[ j - 1 ] = p[j] - 1;
+		}
+		
+		return rowOf;
+	}
+	
+	/**
+	 * Returns the cost of a pair, looking it up the other way around if the matrix is solved transposed
+	 * @param costs: the cost matrix
+	 * @param row: the row being assigned
+	 * @param col: the column it's assigned to
+	 * @param transposed: true if the rows are the matrix's columns
+	 * @return the cost of the pair
+	 */
+	private static double cost( double[][] costs, int row, int col, boolean transposed )
+	{
+		return transposed ? costs[ col ][ row ] : costs[ row ][ col ];
+	}
+}
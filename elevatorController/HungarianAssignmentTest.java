@@ -0,0 +1,128 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HungarianAssignmentTest {
+	
+	private static final double X = HungarianAssignment.INFEASIBLE;
+	
+	private double total(double[][] costs, int[] assignment)
+	{
+		double sum = 0;
+		for (int i = 0; i < assignment.length; i++)
+		{
+			if (assignment[i] != -1)
+			{
+				sum += costs[i][assignment[i]];
+			}
+		}
+		return sum;
+	}
+	
+	// the lowest total of assigning rows from row on to the columns not used yet
+	private double bruteForce(double[][] costs, int row, boolean[] used)
+	{
+		if (row == costs.length)
+		{
+			return 0;
+		}
+		double best = Double.MAX_VALUE;
+		for (int j = 0; j < used.length; j++)
+		{
+			if (!used[j])
+			{
+				used[j] = true;
+				best = Math.min(best, costs[row][j] + bruteForce(costs, row + 1, used));
+				used[j] = false;
+			}
+		}
+		return best;
+	}
+	
+	@Test
+	public void testOptimal()
+	{
+		// greedily, row 0 takes column 0 and row 1 has to take column 1 (total 10)
+		double[][] costs = {{1,2},{3,9}};
+		int[] assignment = HungarianAssignment.solve(costs, Long.MAX_VALUE);
+		assertEquals(assignment[0],1);
+		assertEquals(assignment[1],0);
+		
+		Random random = new Random(1);
+		for (int k = 0; k < 50; k++)
+		{
+			double[][] m = new double[5][6];
+			for (int i = 0; i < 5; i++)
+			{
+				for (int j = 0; j < 6; j++)
+				{
+					m[i][j] = random.nextInt(100);
+				}
+			}
+			assertEquals(total(m, HungarianAssignment.solve(m, System.nanoTime() + 1000000000L)),bruteForce(m, 0, new boolean[6]),0);
+		}
+	}
+	
+	@Test
+	public void testMoreRowsThanColumns()
+	{
+		double[][] costs = {{5,X},{1,X},{4,2}};
+		int[] assignment = HungarianAssignment.solve(costs, System.nanoTime() + 1000000000L);
+		assertEquals(assignment[0],-1);
+		assertEquals(assignment[1],0);
+		assertEquals(assignment[2],1);
+	}
+	
+	@Test
+	public void testInfeasible()
+	{
+		double[][] costs = {{X,X},{1,X}};
+		int[] assignment = HungarianAssignment.solve(costs, System.nanoTime() + 1000000000L);
+		assertEquals(assignment[0],-1);
+		assertEquals(assignment[1],0);
+		assertEquals(HungarianAssignment.solve(new double[0][0], 0).length,0);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testRagged()
+	{
+		HungarianAssignment.solve(new double[][] {{1,2},{3}}, 0);
+	}
+	
+	@Test
+	public void testBudget()
+	{
+		// 200 call boxes of a 100-floor building and 32 elevators
+		Random random = new Random(2);
+		double[][] costs = new double[200][32];
+		for (int i = 0; i < 200; i++)
+		{
+			for (int j = 0; j < 32; j++)
+			{
+				costs[i][j] = random.nextInt(100000);
+			}
+		}
+		
+		// with no budget left, every column still gets a different row (greedily)
+		int[] assignment = HungarianAssignment.solve(costs, System.nanoTime());
+		boolean[] used = new boolean[32];
+		int assigned = 0;
+		for (int i = 0; i < 200; i++)
+		{
+			if (assignment[i] != -1)
+			{
+				assertFalse(used[assignment[i]]);
+				used[assignment[i]] = true;
+				assigned++;
+			}
+		}
+		assertEquals(assigned,32);
+		
+		// the optimal assignment is at least as good
+		assertTrue(total(costs, HungarianAssignment.solve(costs, System.nanoTime() + 1000000000L)) <= total(costs, assignment));
+	}
+}
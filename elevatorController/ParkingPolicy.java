@@ -0,0 +1,18 @@
+package elevatorController;
+
+/**
+ * This class functions as the interface for the parking policies, which choose where an elevator waits after it has been idle for a while
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public interface ParkingPolicy
+{
+	/**
+	 * Chooses the floor an elevator that has been idle for the controller's parking delay waits on
+	 * @param elevatorNum the number of the idle elevator
+	 * @param defaultFloor the elevator's default floor
+	 * @return the floor to park on (the elevator's current floor if it should stay)
+	 */
+	public short chooseParkingFloor( short elevatorNum, short defaultFloor );
+}
@@ -0,0 +1,19 @@
+package elevatorController;
+
+/**
+ * This class serves as the initial parking policy: every idle elevator returns to its default floor
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class ParkingPolicyDefaultFloorImpl implements ParkingPolicy
+{
+	/**
+	 * Returns the elevator's default floor
+	 * @see elevatorController.ParkingPolicy#chooseParkingFloor(short, short)
+	 */
+	public short chooseParkingFloor( short elevatorNum, short defaultFloor )
+	{
+		return defaultFloor;
+	}
+}
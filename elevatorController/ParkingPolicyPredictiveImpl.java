@@ -0,0 +1,175 @@
+package elevatorController;
+
+import java.util.ArrayList;
+
+import elevator.Elevator;
+import elevator.ElevatorSnapshot;
+
+/**
+ * This class serves as the predictive parking policy: an idle elevator waits on the floor where it's closest to the next calls,
+ * judging by the forecast arrivals on every floor (see DemandForecaster) and where the other elevators are waiting.
+ * The floor chosen keeps the expected distance from a new call to the nearest waiting elevator smallest,
+ * so the first idle elevator waits near the busiest floors and the next ones spread out over the rest of the demand.
+ * An elevator waits on its default floor until arrivals are forecast.
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class ParkingPolicyPredictiveImpl implements ParkingPolicy
+{
+	/**
+	 * The elevator controller whose elevators are parked
+	 */
+	private EController controller;
+	
+	/**
+	 * Forecasts the arrivals on the floors
+	 */
+	private DemandForecaster forecaster;
+	
+	/**
+	 * The floor every elevator was last sent to park on (-1 if it wasn't sent anywhere)
+	 */
+	private short[] targets;
+	
+	/**
+	 * The number of times an elevator was sent to park on another floor
+	 */
+	private volatile long parkingMoves;
+	
+	/**
+	 * Creates the policy for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this policy
+	 * @param inForecaster: the forecast the elevators are parked by
+	 */
+	public ParkingPolicyPredictiveImpl( EController inController, DemandForecaster inForecaster )
+	{
+		controller = 	inController;
+		forecaster = 	inForecaster;
+		targets = 		new short[ inController.myElevators.size() ];
+		parkingMoves = 	0;
+		
+		for ( int i = 0; i < targets.length; i++ )
+		{
+			targets[i] = -1;
+		}
+	}
+	
+	/**
+	 * Chooses the floor with the smallest expected distance to the next call, given where the other elevators wait
+	 * (the idle ones on their floor, the ones on their way to park on the floor they were sent to).
+	 * The elevator stays where it is unless another floor is strictly better.
+	 * @see elevatorController.ParkingPolicy#chooseParkingFloor(short, short)
+	 */
+	public synchronized short chooseParkingFloor( short elevatorNum, short defaultFloor )
+	{
+		int floors = 		controller.getNumberOfFloors();
+		double[] demand = 	forecaster.getFloorForecasts( controller.currentTimeMillis() );
+		double total = 		0;
+		
+		for ( int f = 0; f < floors; f++ )
+		{
+			total += demand[f];
+		}
+		
+		if ( total == 0 )
+		{
+			targets[ elevatorNum ] = -1;
+			return defaultFloor;
+		}
+		
+		// the distance from every floor to the nearest other elevator that waits for a call
+		int[] nearest = new int[ floors ];
+		for ( int f = 0; f < floors; f++ )
+		{
+			nearest[f] = Integer.MAX_VALUE;
+		}
+		
+		for ( short waiting : getWaitingFloors( elevatorNum ) )
+		{
+			for ( int f = 0; f < floors; f++ )
+			{
+				nearest[f] = Math.min( nearest[f], Math.abs( f - waiting ) );
+			}
+		}
+		
+		short currFloor = 	controller.getElevator( elevatorNum ).getSnapshot().getCurrentFloor();
+		short best = 		currFloor;
+		double bestCost = 	expectedDistance( demand, nearest, currFloor );
+		
+		for ( short f = 0; f < floors; f++ )
+		{
+			double cost = expectedDistance( demand, nearest, f );
+			if ( cost < bestCost )
+			{
+				best = 		f;
+				bestCost = 	cost;
+			}
+		}
+		
+		if ( best != currFloor )
+		{
+			parkingMoves++;
+		}
+		
+		targets[ elevatorNum ] = best;
+		return best;
+	}
+	
+	/**
+	 * Returns the number of times an elevator was sent to park on another floor (for the simulation's report)
+	 * @return the number of parking moves
+	 */
+	public long getParkingMoves() { return parkingMoves; }
+	
+	/**
+	 * Finds the floors the other elevators wait for a call on: the floor of an elevator without destinations,
+	 * or the floor an elevator was sent to park on while it's still headed there
+	 * @param elevatorNum: the elevator that's parking
+	 * @return the floors of the waiting elevators
+	 */
+	private ArrayList<Short> getWaitingFloors( short elevatorNum )
+	{
+		ArrayList<Short> waiting = new ArrayList<Short>();
+		
+		for ( short j = 0; j < targets.length; j++ )
+		{
+			if ( j == elevatorNum )
+			{
+				continue;
+			}
+			
+			Elevator elevator = 		controller.getElevator( j );
+			ElevatorSnapshot snapshot = elevator.getSnapshot();
+			
+			if ( snapshot.getNextDestination() == -1 )
+			{
+				waiting.add( snapshot.getCurrentFloor() );
+			}
+			else if ( targets[j] != -1 && elevator.isInDestinations( targets[j] ) )
+			{
+				waiting.add( targets[j] );
+			}
+		}
+		
+		return waiting;
+	}
+	
+	/**
+	 * Weighs the distance from every floor to its nearest waiting elevator by the floor's arrival rate
+	 * @param demand: the arrival rate of every floor
+	 * @param nearest: the distance from every floor to the nearest other waiting elevator
+	 * @param floorNum: the floor the parking elevator would wait on
+	 * @return the expected distance (in floors, times arrivals per minute)
+	 */
+	private static double expectedDistance( double[] demand, int[] nearest, short floorNum )
+	{
+		double cost = 0;
+		for ( int f = 0; f < nearest.length; f++ )
+		{
+			cost += demand[f] * Math.min( nearest[f], Math.abs( f - floorNum ) );
+		}
+		
+		return cost;
+	}
+}
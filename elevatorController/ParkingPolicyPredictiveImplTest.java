@@ -0,0 +1,77 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.SimulationContext;
+import simulationEngine.VirtualClock;
+
+public class ParkingPolicyPredictiveImplTest {
+	
+	// both elevators wait on floor 0, and the people arrive on floor 8 (five of them) and floor 0 (one of them)
+	private SimulationContext newContext(boolean arrivals)
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)2, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo(1000);
+		context.getPersonFacade().setClock(clock);
+		context.getEController().setPredictiveParking(true);
+		
+		if (arrivals)
+		{
+			for (int i = 0; i < 5; i++)
+			{
+				context.getEController().recordArrival((short)8, false);
+			}
+			context.getEController().recordArrival((short)0, true);
+		}
+		return context;
+	}
+	
+	@Test
+	public void testSpreadsElevators()
+	{
+		SimulationContext context = newContext(true);
+		EController controller = context.getEController();
+		ParkingPolicyPredictiveImpl policy = (ParkingPolicyPredictiveImpl)controller.getParkingPolicy();
+		
+		// the first elevator goes to the busiest floor, since the other one still waits on floor 0
+		assertEquals(controller.chooseParkingFloor((short)0, (short)0), 8);
+		controller.getElevator((short)0).addDestination((short)8);
+		assertEquals(policy.getParkingMoves(), 1);
+		
+		// the second one stays where the rest of the arrivals are
+		assertEquals(controller.chooseParkingFloor((short)1, (short)0), 0);
+		assertEquals(policy.getParkingMoves(), 1);
+	}
+	
+	@Test
+	public void testNoArrivals()
+	{
+		SimulationContext context = newContext(false);
+		assertEquals(context.getEController().chooseParkingFloor((short)0, (short)3), 3);
+		
+		context.getEController().setPredictiveParking(false);
+		assertTrue(context.getEController().getParkingPolicy() instanceof ParkingPolicyDefaultFloorImpl);
+		context.getEController().recordArrival((short)8, false);
+		assertEquals(context.getEController().chooseParkingFloor((short)0, (short)3), 3);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadHorizon()
+	{
+		newContext(false).getEController().setForecastHorizon(0);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadDelay()
+	{
+		newContext(false).getEController().setParkingDelay(0);
+	}
+}
@@ -15,18 +15,47 @@ public class PendingRequestProcessorFactory
 	
 	/**
 	 * Returns an algorithm implementation for the pending request processor
+	 * @param controller: the elevator controller the algorithm works for
 	 * @return the algorithm implementation
 	 */
-	public static PendingRequestProcessor build()
+	public static PendingRequestProcessor build( EController controller )
 	{
 		if ( algorithmImplementation == 0 )
 		{
 			algorithmImplementation++;
-			return new PendingRequestProcessorImpl();
+			return new PendingRequestProcessorImpl( controller );
 		}
 		else
 		{
-			return new PendingRequestProcessorSecondImpl();
+			return new PendingRequestProcessorSecondImpl( controller );
+		}
+	}
+	
+	/**
+	 * Makes build( EController controller ) start over with the initial algorithm implementation
+	 * (the tests share one JVM, so an earlier test's simulation may have switched it already)
+	 */
+	static void reset()
+	{
+		algorithmImplementation = 0;
+	}
+	
+	/**
+	 * Returns the requested algorithm implementation without switching the implementation used by build( EController controller )
+	 * @param implementation: 0 for the initial algorithm implementation, 1 for the second one,
+	 * 2 for the ETA one, 3 for destination dispatch or 4 for batch assignment (which serve pending requests like the initial one)
+	 * @param controller: the elevator controller the algorithm works for
+	 * @return the requested algorithm object
+	 */
+	public static PendingRequestProcessor build( int implementation, EController controller )
+	{
+		if ( implementation == 0 || implementation == 2 || implementation == 3 || implementation == 4 )
+		{
+			return new PendingRequestProcessorImpl( controller );
+		}
+		else
+		{
+			return new PendingRequestProcessorSecondImpl( controller );
 		}
 	}
 }
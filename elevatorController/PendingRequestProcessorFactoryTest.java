@@ -2,17 +2,40 @@ package elevatorController;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.Test;
 
+import building.SimulationContext;
+
 public class PendingRequestProcessorFactoryTest {
 
 	@Test
 	public void test()
 	{
-		PendingRequestProcessor p = PendingRequestProcessorFactory.build();
+		// the first simulation uses the initial algorithm implementation, the ones after it the second
+		EController controller = new SimulationContext((short)10, (short)0, (short)10, (short)1000, (short)2500, new ArrayList<Short>(), 0).getEController();
+		PendingRequestProcessorFactory.reset();
+		PendingRequestProcessor p = PendingRequestProcessorFactory.build(controller);
 		assertEquals(p.getClass(),PendingRequestProcessorImpl.class);
-		p = PendingRequestProcessorFactory.build();
+		p = PendingRequestProcessorFactory.build(controller);
 		assertEquals(p.getClass(),PendingRequestProcessorSecondImpl.class);
 	}
+	
+	@Test
+	public void testFixedImplementation()
+	{
+		// a controller with a fixed algorithm implementation doesn't switch the factory's implementation
+		EController controller = new SimulationContext((short)10, (short)0, (short)10, (short)1000, (short)2500, new ArrayList<Short>(), 0).getEController();
+		PendingRequestProcessorFactory.reset();
+		PendingRequestProcessor p = PendingRequestProcessorFactory.build(1, controller);
+		assertEquals(p.getClass(),PendingRequestProcessorSecondImpl.class);
+		p = PendingRequestProcessorFactory.build(0, controller);
+		assertEquals(p.getClass(),PendingRequestProcessorImpl.class);
+		p = PendingRequestProcessorFactory.build(1, controller);
+		assertEquals(p.getClass(),PendingRequestProcessorSecondImpl.class);
+		p = PendingRequestProcessorFactory.build(controller);
+		assertEquals(p.getClass(),PendingRequestProcessorImpl.class);
+	}
 
 }
@@ -1,5 +1,4 @@
 package elevatorController;
-import java.lang.Math;
 
 import elevator.Elevator;
 
@@ -11,42 +10,53 @@ import elevator.Elevator;
  */
 public class PendingRequestProcessorImpl implements PendingRequestProcessor
 {
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public PendingRequestProcessorImpl( EController inController )
+	{
+		controller = inController;
+	}
+	
 	/** If there's pending requests, process the viable ones (by adding them to their destination list) and return true
 	 * otherwise, return false
 	 * @see elevatorController.PendingRequestsProcessor#processPendingRequests()
 	 */
 	public boolean processPendingRequests( short elevatorNum, short floorNum ) throws IllegalArgumentException
 	{
-		if ( false == EController.getInstance().pendingRequests.isEmpty() )
+		// first, claim the farthest requested floor from the current elevator (so no other elevator takes it)
+		ERequest farthestRequest = controller.pendingRequests.claimFarthest( floorNum, elevatorNum );
+		
+		if ( farthestRequest != null )
 		{
-			// first, find the farthest requested floor from the current elevator
-			ERequest farthestRequest = EController.getInstance().pendingRequests.get( 0 );
-			int farthest = 0;
-			for ( ERequest request : EController.getInstance().pendingRequests )
+			short farthest = farthestRequest.getFloorNum();
+			
+			// correctly sets the elevator's state and direction, then adds the destination (if it can't, there's nothing it can take now)
+			Elevator elevator = controller.getElevator( elevatorNum );
+			if ( !takeClaimedRequest( elevator, elevatorNum, farthest, farthestRequest.getDirection() ) )
 			{
-				int difference = Math.abs( ( int ) request.getFloorNum() - ( int ) floorNum );
-				if ( difference > farthest )
-				{
-					farthest = difference;
-					farthestRequest = request;
-				}
+				return false;
 			}
 			
-			// remove the processed request from the pending list
-			EController.getInstance().pendingRequests.remove( farthestRequest );
-			
-			// correctly sets the elevator's state and direction, then adds the destination
-			Elevator elevator = EController.getInstance().getElevator( elevatorNum );
-			elevator.takeRequest( ( short ) farthest, true );
-			elevator.addDestination( ( short ) farthest );
-			
-			// cycles through the requests to process any other viable ones
-			for ( ERequest request : EController.getInstance().pendingRequests )
+			/* claims any other viable requests: the ones on the floors ahead of the elevator
+			 * that want to go the same way (nearest first), giving back the ones it can't take after all
+			 */
+			boolean goingUp = elevator.isCurrentDirectionUp();
+			short floor = controller.pendingRequests.nearestFloor( ( short ) ( floorNum + ( goingUp ? 1 : -1 ) ), goingUp, goingUp );
+			while ( floor != -1 )
 			{
-				if ( elevator.takeRequest( request.getFloorNum(), request.getDirection() ) )
+				if ( controller.pendingRequests.claim( floor, goingUp, elevatorNum ) != null )
 				{
-					elevator.addDestination( request.getFloorNum() );
+					takeClaimedRequest( elevator, elevatorNum, floor, goingUp );
 				}
+				
+				floor = controller.pendingRequests.nearestFloor( ( short ) ( floor + ( goingUp ? 1 : -1 ) ), goingUp, goingUp );
 			}
 			
 			return true;
@@ -58,4 +68,32 @@ public class PendingRequestProcessorImpl implements PendingRequestProcessor
 		 */
 		return false;
 	}
+	
+	/**
+	 * Adds a claimed request's floor to an elevator's destinations if the elevator can take it; otherwise (or if adding the destination fails)
+	 * the claim is given back, since a call box left claimed would swallow every later press on its floor
+	 * @param elevator: the elevator that claimed the request
+	 * @param elevatorNum: the elevator's number
+	 * @param floor: the floor of the request
+	 * @param directionIsUp: the direction of the request
+	 * @return true if the elevator took the request
+	 */
+	private boolean takeClaimedRequest( Elevator elevator, short elevatorNum, short floor, boolean directionIsUp )
+	{
+		try
+		{
+			if ( elevator.takeRequest( floor, directionIsUp ) )
+			{
+				elevator.addDestination( floor );
+				return true;
+			}
+		}
+		catch ( IllegalArgumentException e )
+		{
+			// given back below
+		}
+		
+		controller.pendingRequests.unclaim( floor, directionIsUp, elevatorNum );
+		return false;
+	}
 }
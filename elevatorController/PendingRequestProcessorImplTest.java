@@ -2,11 +2,14 @@ package elevatorController;
 
 import static org.junit.Assert.*;
 
+import java.util.ArrayList;
+
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
 import building.Building;
+import building.SimulationContext;
 
 public class PendingRequestProcessorImplTest {
 
@@ -17,7 +20,10 @@ public class PendingRequestProcessorImplTest {
 	public static void setUpBeforeClass()
 	{
 		theBuilding = Building.getInstance( ( short ) 10, ( short ) 1, ( short ) 10, ( short ) 1000, ( short ) 2500, ( short ) 0);
-		p = new PendingRequestProcessorImpl();
+		p = new PendingRequestProcessorImpl( EController.getInstance() );
+		
+		// the default controller is shared with the other tests, whose claims on pending requests would absorb this one
+		EController.getInstance().pendingRequests.clear();
 		EController.getInstance().pendingRequests.add(new ERequest((short)5, true));
 	}
 
@@ -33,4 +39,38 @@ public class PendingRequestProcessorImplTest {
 	{
 		assertTrue(p.processPendingRequests((short)0,(short)0));
 	}
+	
+	@Test
+	public void testUntakenRequest()
+	{
+		// elevator 0 is on its way up, so the DOWN call on floor 2 is given back instead of staying claimed
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		EController controller = context.getEController();
+		controller.getElevator((short)0).addDestination((short)5);
+		controller.pendingRequests.add(new ERequest((short)2,false,context));
+		
+		PendingRequestProcessorImpl processor = new PendingRequestProcessorImpl(controller);
+		assertFalse(processor.processPendingRequests((short)0,(short)0));
+		assertTrue(controller.pendingRequests.contains((short)2,false));
+		assertEquals(controller.pendingRequests.getOwner((short)2,false),-1);
+		assertFalse(controller.getElevator((short)0).isInDestinations((short)2));
+	}
+	
+	@Test
+	public void testFailedDestination()
+	{
+		// a request can be made on floor 10, but no elevator can stop there: the claim is given back when adding the stop fails
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		SimulationContext context = new SimulationContext((short)10, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+		EController controller = context.getEController();
+		controller.pendingRequests.add(new ERequest((short)10,false,context));
+		
+		PendingRequestProcessorImpl processor = new PendingRequestProcessorImpl(controller);
+		assertFalse(processor.processPendingRequests((short)0,(short)0));
+		assertTrue(controller.pendingRequests.contains((short)10,false));
+		assertEquals(controller.pendingRequests.getOwner((short)10,false),-1);
+	}
 }
\ No newline at end of file
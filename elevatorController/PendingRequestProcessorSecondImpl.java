@@ -8,10 +8,24 @@
 
 package elevatorController;
 
-import java.util.ArrayList;
+import elevator.Elevator;
 
 public class PendingRequestProcessorSecondImpl implements PendingRequestProcessor
 {
+	/**
+	 * The elevator controller whose elevators and pending requests this algorithm works on
+	 */
+	private EController controller;
+	
+	/**
+	 * Creates the algorithm for the given elevator controller
+	 * @param inController: the elevator controller that delegates to this algorithm
+	 */
+	public PendingRequestProcessorSecondImpl( EController inController )
+	{
+		controller = inController;
+	}
+	
 	/** If there's pending requests, process the viable ones (by adding them to their destination list) and return true
 	 * otherwise, return false
 	 * This algorithm implementation differs in that it tests which category of requests has the higher
@@ -25,61 +39,28 @@ public class PendingRequestProcessorSecondImpl implements PendingRequestProcesso
 	 */
 	public boolean processPendingRequests( short elevatorNum, short floorNum ) throws IllegalArgumentException
 	{		
-		if ( false == EController.getInstance().pendingRequests.isEmpty() )
+		if ( false == controller.pendingRequests.isEmpty() )
 		{
 			// first, calculate which direction has a higher density of requests
-			int UPcount = 0;
-			int DOWNcount = 0;
-			for ( ERequest request : EController.getInstance().pendingRequests )
-			{
-				if ( floorNum < request.getFloorNum() )
-				{
-					UPcount++;
-				}
-				else if ( floorNum > request.getFloorNum() )
-				{
-					DOWNcount++;
-				}
-				// requests that are on the same floor as the elevator won't count towards either density
-			}
+			// (requests that are on the same floor as the elevator won't count towards either density)
+			int UPcount = controller.pendingRequests.countAbove( floorNum );
+			int DOWNcount = controller.pendingRequests.countBelow( floorNum );
 			
-			// if there's a higher density of UP requests, then add them
-			if ( UPcount > DOWNcount)
-			{
-				for ( int i = 0; i<EController.getInstance().pendingRequests.size(); i++)
-				{
-					ERequest request = EController.getInstance().pendingRequests.get(i);
-					if ( floorNum <= request.getFloorNum()
-						 && EController.getInstance().getElevator( elevatorNum ).takeRequest( request.getFloorNum(), request.getDirection() ) )
-					{
-						EController.getInstance().getElevator( elevatorNum ).addDestination( request.getFloorNum() );
-						synchronized(EController.getInstance().pendingRequests)
-						{
-							EController.getInstance().pendingRequests.remove( request );
-						}
-					}
-				}
-				return true;
-			}
-		
-			// if there's a higher density of DOWN requests, then add them
-			else
+			/* if there's a higher density of UP requests, then add the ones above (and on) the elevator's floor,
+			 * otherwise add the ones below (and on) it, from the nearest floor outwards
+			 */
+			boolean searchUp = UPcount > DOWNcount;
+			Elevator elevator = controller.getElevator( elevatorNum );
+			
+			short floor = controller.pendingRequests.nearestFloor( floorNum, searchUp );
+			while ( floor != -1 )
 			{
-				for ( int i = 0; i<EController.getInstance().pendingRequests.size(); i++)
-				{
-					ERequest request = EController.getInstance().pendingRequests.get(i);
-					if ( floorNum >= request.getFloorNum()
-						 && EController.getInstance().getElevator( elevatorNum ).takeRequest( request.getFloorNum(), request.getDirection() ) )
-					{
-						EController.getInstance().getElevator( elevatorNum ).addDestination( request.getFloorNum() );
-						synchronized(EController.getInstance().pendingRequests)
-						{
-							EController.getInstance().pendingRequests.remove( request );
-						}
-					}
-				}
-				return true;
+				takePendingRequest( elevator, elevatorNum, floor, true );
+				takePendingRequest( elevator, elevatorNum, floor, false );
+				
+				floor = controller.pendingRequests.nearestFloor( ( short ) ( floor + ( searchUp ? 1 : -1 ) ), searchUp );
 			}
+			return true;
 		}
 		
 		/* we only return false if there's no pending requests to process
@@ -88,4 +69,35 @@ public class PendingRequestProcessorSecondImpl implements PendingRequestProcesso
 		 */
 		return false;
 	}
+	
+	/**
+	 * Claims a pending request so no other elevator takes it too, and adds it to an elevator's destinations
+	 * if the elevator can take it (otherwise, or if adding the destination fails, the request is given back)
+	 * @param elevator: the elevator asking for pending requests
+	 * @param elevatorNum: the elevator's number
+	 * @param floor: the floor of the request
+	 * @param directionIsUp: the direction of the request
+	 */
+	private void takePendingRequest( Elevator elevator, short elevatorNum, short floor, boolean directionIsUp )
+	{
+		if ( controller.pendingRequests.claim( floor, directionIsUp, elevatorNum ) == null )
+		{
+			return;
+		}
+		
+		try
+		{
+			if ( elevator.takeRequest( floor, directionIsUp ) )
+			{
+				elevator.addDestination( floor );
+				return;
+			}
+		}
+		catch ( IllegalArgumentException e )
+		{
+			// given back below
+		}
+		
+		controller.pendingRequests.unclaim( floor, directionIsUp, elevatorNum );
+	}
 }
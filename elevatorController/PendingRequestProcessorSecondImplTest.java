@@ -17,7 +17,10 @@ public class PendingRequestProcessorSecondImplTest {
 	public static void setUpBeforeClass()
 	{
 		theBuilding = Building.getInstance( ( short ) 10, ( short ) 1, ( short ) 10, ( short ) 1000, ( short ) 2500, ( short ) 0);
-		p = new PendingRequestProcessorSecondImpl();
+		p = new PendingRequestProcessorSecondImpl( EController.getInstance() );
+		
+		// the default controller is shared with the other tests, whose claims on pending requests would absorb this one
+		EController.getInstance().pendingRequests.clear();
 		EController.getInstance().pendingRequests.add(new ERequest((short)5, true));
 	}
 
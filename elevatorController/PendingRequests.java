@@ -0,0 +1,649 @@
+package elevatorController;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class holds the requests that no elevator could take yet, indexed by floor and direction, without any locks.
+ * Every call box has a state that only changes by compare-and-set:
+ * 	- FREE: nothing pending
+ * 	- ADDING: a request is being added, given back or released (only the thread that set it writes the request)
+ * 	- PENDING: waiting for an elevator
+ * 	- OWNED + elevator number: claimed by that elevator, until it arrives at the floor (release) or gives the call back (unclaim)
+ * Since only one claim can win the compare-and-set from PENDING, two elevators never take the same call,
+ * and pressing a call box that is pending or claimed doesn't add it again.
+ * One bit per floor for the UP calls and one for the DOWN calls marks the PENDING call boxes, so finding the nearest or farthest call
+ * only looks at one word per 64 floors; the bits are set and cleared by compare-and-set too. A bit is set before its call box is
+ * published as PENDING, so a PENDING call box always has its bit, but a claim can clear it a little late: the searches skip
+ * the bits of call boxes that aren't PENDING (and clear them, unless a request is being added there).
+ * The claims, the lost claim races, the merged presses and the claims of every elevator are counted for the simulation's report.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class PendingRequests
+{
+	/**
+	 * The state of a call box without a pending request
+	 */
+	private static final int FREE = 0;
+	
+	/**
+	 * The state of a call box while its request is being added
+	 */
+	private static final int ADDING = 1;
+	
+	/**
+	 * The state of a call box whose request waits for an elevator
+	 */
+	private static final int PENDING = 2;
+	
+	/**
+	 * The state of a call box claimed by elevator 0 (elevator n is OWNED + n)
+	 */
+	private static final int OWNED = 3;
+	
+	/**
+	 * The state of every call box (floor * 2, + 1 for up)
+	 */
+	private AtomicIntegerArray states;
+	
+	/**
+	 * The request of every call box that isn't FREE
+	 */
+	private AtomicReferenceArray<ERequest> requests;
+	
+	/**
+	 * The order every call box's request was made in (compared with nextSequence)
+	 */
+	private AtomicLongArray sequences;
+	
+	/**
+	 * The floors with a PENDING UP call, 64 per word
+	 */
+	private AtomicLongArray up;
+	
+	/**
+	 * The floors with a PENDING DOWN call, 64 per word
+	 */
+	private AtomicLongArray down;
+	
+	/**
+	 * The order the next new request will be made in
+	 */
+	private AtomicLong nextSequence;
+	
+	/**
+	 * The number of PENDING requests
+	 */
+	private AtomicInteger size;
+	
+	/**
+	 * The number of requests claimed by an elevator
+	 */
+	private AtomicLong claims;
+	
+	/**
+	 * The number of claims that lost the compare-and-set to another elevator's claim
+	 */
+	private AtomicLong lostClaims;
+	
+	/**
+	 * The number of presses merged into a request that was already pending or claimed
+	 */
+	private AtomicLong mergedPresses;
+	
+	/**
+	 * The number of requests claimed by each elevator
+	 */
+	private AtomicLongArray claimsByElevator;
+	
+	/**
+	 * Creates an empty registry
+	 * @param numberOfFloors: the number of floors in the building
+	 * @param numberOfElevators: the number of elevators that can claim requests
+	 * @throws IllegalArgumentException if the number of floors or elevators is negative
+	 */
+	public PendingRequests( short numberOfFloors, short numberOfElevators ) throws IllegalArgumentException
+	{
+		if ( numberOfFloors < 0 || numberOfElevators < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative number of floors and elevators, got " + numberOfFloors + " and " + numberOfElevators );
+		}
+		
+		// a request can be made on floor numberOfFloors too (see ERequest)
+		int floors = numberOfFloors + 1;
+		
+		states = 			new AtomicIntegerArray( 2 * floors );
+		requests = 			new AtomicReferenceArray<ERequest>( 2 * floors );
+		sequences = 		new AtomicLongArray( 2 * floors );
+		up = 				new AtomicLongArray( ( floors + 63 ) / 64 );
+		down = 				new AtomicLongArray( ( floors + 63 ) / 64 );
+		nextSequence = 		new AtomicLong();
+		size = 				new AtomicInteger();
+		claims = 			new AtomicLong();
+		lostClaims = 		new AtomicLong();
+		mergedPresses = 	new AtomicLong();
+		claimsByElevator = 	new AtomicLongArray( numberOfElevators );
+	}
+	
+	/**
+	 * Adds a request, unless the same call box's request is already pending or claimed
+	 * @param request: the request to add
+	 * @return true if the request was added, false if it was merged into the earlier one
+	 */
+	public boolean add( ERequest request )
+	{
+		short floor = request.getFloorNum();
+		int callBox = getCallBox( floor, request.getDirection() );
+		
+		if ( !states.compareAndSet( callBox, FREE, ADDING ) )
+		{
+			mergedPresses.incrementAndGet();
+			return false;
+		}
+		
+		requests.set( callBox, request );
+		sequences.set( callBox, nextSequence.getAndIncrement() );
+		setBit( request.getDirection() ? up : down, floor );
+		size.incrementAndGet();
+		states.set( callBox, PENDING );
+		
+		return true;
+	}
+	
+	/**
+	 * Checks whether a call box has a request waiting for an elevator
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @return true if the request is pending (not claimed)
+	 */
+	public boolean contains( short floor, boolean directionIsUp )
+	{
+		int callBox = getCallBox( floor, directionIsUp );
+		return floor >= 0 && callBox < states.length() && states.get( callBox ) == PENDING;
+	}
+	
+	/**
+	 * Claims a call box's pending request for an elevator, so no other elevator can take it
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @param elevatorNum: the elevator claiming the request
+	 * @return the request, or null if it wasn't pending (ex. another elevator claimed it first)
+	 */
+	public ERequest claim( short floor, boolean directionIsUp, short elevatorNum )
+	{
+		if ( floor < 0 )
+		{
+			return null;
+		}
+		
+		int callBox = getCallBox( floor, directionIsUp );
+		if ( !states.compareAndSet( callBox, PENDING, OWNED + elevatorNum ) )
+		{
+			// only a request that another elevator owns counts as a lost race
+			if ( states.get( callBox ) >= OWNED )
+			{
+				lostClaims.incrementAndGet();
+			}
+			return null;
+		}
+		
+		clearBit( directionIsUp ? up : down, floor, callBox );
+		size.decrementAndGet();
+		claims.incrementAndGet();
+		claimsByElevator.incrementAndGet( elevatorNum );
+		
+		return requests.get( callBox );
+	}
+	
+	/**
+	 * Claims the pending request farthest from a floor (in either direction) for an elevator;
+	 * of two requests just as far, the one made first is claimed
+	 * @param floor: the floor to measure from
+	 * @param elevatorNum: the elevator claiming the request
+	 * @return the request, or null if there are no pending requests
+	 */
+	public ERequest claimFarthest( short floor, short elevatorNum )
+	{
+		// retries if another elevator claims the chosen request in between
+		while ( true )
+		{
+			// the farthest floors are the lowest and the highest pending ones
+			int lowest = nearestFloor( ( short ) 0, true );
+			int highest = nearestFloor( Short.MAX_VALUE, false );
+			
+			if ( lowest == -1 )
+			{
+				return null;
+			}
+			
+			int lowestDistance = Math.abs( floor - lowest );
+			int highestDistance = Math.abs( highest - floor );
+			int farthest;
+			
+			if ( lowestDistance != highestDistance )
+			{
+				farthest = lowestDistance > highestDistance ? lowest : highest;
+			}
+			// if both ends are just as far, the earliest of their requests goes first
+			else
+			{
+				farthest = getOldest( lowest ) <= getOldest( highest ) ? lowest : highest;
+			}
+			
+			boolean directionIsUp = contains( ( short ) farthest, true )
+									&& ( !contains( ( short ) farthest, false )
+										 || getSequence( ( short ) farthest, true ) < getSequence( ( short ) farthest, false ) );
+			
+			ERequest request = claim( ( short ) farthest, directionIsUp, elevatorNum );
+			if ( request != null )
+			{
+				return request;
+			}
+		}
+	}
+	
+	/**
+	 * Gives a claimed request back, so another elevator can take it (it keeps its place among the pending requests)
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @param elevatorNum: the elevator that claimed the request
+	 * @return true if the elevator owned the request, otherwise false
+	 */
+	public boolean unclaim( short floor, boolean directionIsUp, short elevatorNum )
+	{
+		// the call box is held in ADDING until its bit is set, like a new request
+		int callBox = getCallBox( floor, directionIsUp );
+		if ( !states.compareAndSet( callBox, OWNED + elevatorNum, ADDING ) )
+		{
+			return false;
+		}
+		
+		setBit( directionIsUp ? up : down, floor );
+		size.incrementAndGet();
+		states.set( callBox, PENDING );
+		return true;
+	}
+	
+	/**
+	 * Hands a claimed request over to another elevator, once the call has been moved to it (the new elevator releases it when it arrives)
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @param fromElevator: the elevator that claimed the request
+	 * @param toElevator: the elevator taking it over
+	 * @return true if the request was handed over, false if the first elevator didn't own it
+	 */
+	public boolean transfer( short floor, boolean directionIsUp, short fromElevator, short toElevator )
+	{
+		return states.compareAndSet( getCallBox( floor, directionIsUp ), OWNED + fromElevator, OWNED + toElevator );
+	}
+	
+	/**
+	 * Releases the requests an elevator claimed on a floor once it has arrived there, so the call boxes can be pressed again
+	 * (the request is dropped while the call box is held in ADDING, so no transfer or new request can come in between;
+	 * a press in that moment is merged, like one made just before the elevator arrived)
+	 * @param floor: the floor the elevator arrived at
+	 * @param elevatorNum: the elevator
+	 */
+	public void release( short floor, short elevatorNum )
+	{
+		for ( int direction = 0; direction < 2; direction++ )
+		{
+			int callBox = getCallBox( floor, direction == 1 );
+			if ( states.compareAndSet( callBox, OWNED + elevatorNum, ADDING ) )
+			{
+				requests.set( callBox, null );
+				states.set( callBox, FREE );
+			}
+		}
+	}
+	
+	/**
+	 * Returns the elevator that claimed a call box's request
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @return the elevator number, or -1 if the request isn't claimed
+	 */
+	public short getOwner( short floor, boolean directionIsUp )
+	{
+		int state = states.get( getCallBox( floor, directionIsUp ) );
+		return ( short ) ( state >= OWNED ? state - OWNED : -1 );
+	}
+	
+	/**
+	 * Finds the nearest floor with a pending request (in either direction), searching from a floor up or down
+	 * @param floor: the floor to start from (included in the search)
+	 * @param searchUp: true to search the floors above, false to search the floors below
+	 * @return the floor, or -1 if there is no pending request that way
+	 */
+	public short nearestFloor( short floor, boolean searchUp )
+	{
+		int upFloor = 	nextPendingFloor( floor, searchUp, true );
+		int downFloor = nextPendingFloor( floor, searchUp, false );
+		
+		if ( upFloor == -1 )
+		{
+			return ( short ) downFloor;
+		}
+		if ( downFloor == -1 )
+		{
+			return ( short ) upFloor;
+		}
+		
+		return ( short ) ( searchUp ? Math.min( upFloor, downFloor ) : Math.max( upFloor, downFloor ) );
+	}
+	
+	/**
+	 * Finds the nearest floor with a pending request in one direction, searching from a floor up or down
+	 * @param floor: the floor to start from (included in the search)
+	 * @param searchUp: true to search the floors above, false to search the floors below
+	 * @param directionIsUp: true to look for UP calls, false for DOWN calls
+	 * @return the floor, or -1 if there is no such pending request
+	 */
+	public short nearestFloor( short floor, boolean searchUp, boolean directionIsUp )
+	{
+		return ( short ) nextPendingFloor( floor, searchUp, directionIsUp );
+	}
+	
+	/**
+	 * Counts the pending requests made above a floor
+	 * @param floor: the floor to count from (not included)
+	 * @return the number of requests
+	 */
+	public int countAbove( short floor )
+	{
+		return countFrom( up, floor + 1 ) + countFrom( down, floor + 1 );
+	}
+	
+	/**
+	 * Counts the pending requests made below a floor
+	 * @param floor: the floor to count from (not included)
+	 * @return the number of requests
+	 */
+	public int countBelow( short floor )
+	{
+		return countFrom( up, 0 ) - countFrom( up, floor ) + countFrom( down, 0 ) - countFrom( down, floor );
+	}
+	
+	/**
+	 * Checks whether there are any pending requests
+	 * @return true if there are none
+	 */
+	public boolean isEmpty() { return size.get() == 0; }
+	
+	/**
+	 * Returns the number of pending requests
+	 * @return the number of requests
+	 */
+	public int size() { return size.get(); }
+	
+	/**
+	 * Returns the number of requests claimed by an elevator
+	 * @return the number of claims
+	 */
+	public long getClaims() { return claims.get(); }
+	
+	/**
+	 * Returns the number of claims that lost the race for a request to another elevator
+	 * @return the number of lost claims
+	 */
+	public long getLostClaims() { return lostClaims.get(); }
+	
+	/**
+	 * Returns the number of presses merged into a request that was already pending or claimed
+	 * @return the number of merged presses
+	 */
+	public long getMergedPresses() { return mergedPresses.get(); }
+	
+	/**
+	 * Returns the number of requests claimed by one elevator
+	 * @param elevatorNum: the elevator
+	 * @return the number of claims
+	 */
+	public long getClaims( short elevatorNum ) { return claimsByElevator.get( elevatorNum ); }
+	
+	/**
+	 * Removes every request and resets the counts (only while no elevator is running)
+	 */
+	public void clear()
+	{
+		for ( int i = 0; i < states.length(); i++ )
+		{
+			states.set( i, FREE );
+			requests.set( i, null );
+		}
+		for ( int i = 0; i < up.length(); i++ )
+		{
+			up.set( i, 0 );
+			down.set( i, 0 );
+		}
+		for ( int i = 0; i < claimsByElevator.length(); i++ )
+		{
+			claimsByElevator.set( i, 0 );
+		}
+		
+		size.set( 0 );
+		claims.set( 0 );
+		lostClaims.set( 0 );
+		mergedPresses.set( 0 );
+	}
+	
+	/**
+	 * Returns the index of a call box
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @return floor * 2, + 1 for up
+	 */
+	private static int getCallBox( short floor, boolean directionIsUp )
+	{
+		return 2 * floor + ( directionIsUp ? 1 : 0 );
+	}
+	
+	/**
+	 * Returns the order a call box's request was made in
+	 * @param floor: the floor of the call box
+	 * @param directionIsUp: true for the UP call, false for the DOWN call
+	 * @return the order
+	 */
+	private long getSequence( short floor, boolean directionIsUp )
+	{
+		return sequences.get( getCallBox( floor, directionIsUp ) );
+	}
+	
+	/**
+	 * Returns the order of the earliest pending request on a floor
+	 * @param floor: the floor
+	 * @return the order it was made in (Long.MAX_VALUE if there is none)
+	 */
+	private long getOldest( int floor )
+	{
+		long oldest = Long.MAX_VALUE;
+		if ( contains( ( short ) floor, true ) )
+		{
+			oldest = getSequence( ( short ) floor, true );
+		}
+		if ( contains( ( short ) floor, false ) )
+		{
+			oldest = Math.min( oldest, getSequence( ( short ) floor, false ) );
+		}
+		return oldest;
+	}
+	
+	/**
+	 * Finds the nearest floor with a PENDING call box in one direction, searching the bits from a floor up or down;
+	 * a bit left behind by a call box that isn't PENDING is skipped, and cleared unless a request is being added there
+	 * @param floor: the floor to start from (included in the search)
+	 * @param searchUp: true to search the floors above, false to search the floors below
+	 * @param directionIsUp: true to look for UP calls, false for DOWN calls
+	 * @return the floor, or -1 if there is no such pending request
+	 */
+	private int nextPendingFloor( int floor, boolean searchUp, boolean directionIsUp )
+	{
+		AtomicLongArray bits = directionIsUp ? up : down;
+		int next = searchUp ? nextSetBit( bits, floor ) : previousSetBit( bits, floor );
+		
+		while ( next != -1 )
+		{
+			int callBox = getCallBox( ( short ) next, directionIsUp );
+			int state = states.get( callBox );
+			if ( state == PENDING )
+			{
+				return next;
+			}
+			if ( state != ADDING )
+			{
+				clearBit( bits, next, callBox );
+			}
+			
+			next = searchUp ? nextSetBit( bits, next + 1 ) : previousSetBit( bits, next - 1 );
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Clears the bit of a call box that stopped being PENDING; if a request was added or given back there in between,
+	 * the bit is set again, since a PENDING call box must keep its bit
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor
+	 * @param callBox: the call box
+	 */
+	private void clearBit( AtomicLongArray bits, int floor, int callBox )
+	{
+		clearBit( bits, floor );
+		
+		int state = states.get( callBox );
+		if ( state == ADDING || state == PENDING )
+		{
+			setBit( bits, floor );
+		}
+	}
+	
+	/**
+	 * Sets a floor's bit
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor
+	 */
+	private static void setBit( AtomicLongArray bits, int floor )
+	{
+		int word = floor >>> 6;
+		long old;
+		do
+		{
+			old = bits.get( word );
+		}
+		while ( !bits.compareAndSet( word, old, old | ( 1L << floor ) ) );
+	}
+	
+	/**
+	 * Clears a floor's bit
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor
+	 */
+	private static void clearBit( AtomicLongArray bits, int floor )
+	{
+		int word = floor >>> 6;
+		long old;
+		do
+		{
+			old = bits.get( word );
+		}
+		while ( !bits.compareAndSet( word, old, old & ~( 1L << floor ) ) );
+	}
+	
+	/**
+	 * Finds the first set bit at or above a floor
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor to start from
+	 * @return the floor, or -1 if there is none
+	 */
+	private static int nextSetBit( AtomicLongArray bits, int floor )
+	{
+		if ( floor < 0 )
+		{
+			floor = 0;
+		}
+		
+		int word = floor >>> 6;
+		if ( word >= bits.length() )
+		{
+			return -1;
+		}
+		
+		long value = bits.get( word ) & ( -1L << floor );
+		while ( value == 0 )
+		{
+			if ( ++word == bits.length() )
+			{
+				return -1;
+			}
+			value = bits.get( word );
+		}
+		
+		return word * 64 + Long.numberOfTrailingZeros( value );
+	}
+	
+	/**
+	 * Finds the last set bit at or below a floor
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor to start from
+	 * @return the floor, or -1 if there is none
+	 */
+	private static int previousSetBit( AtomicLongArray bits, int floor )
+	{
+		if ( floor < 0 )
+		{
+			return -1;
+		}
+		
+		int word = floor >>> 6;
+		long value;
+		if ( word >= bits.length() )
+		{
+			word = bits.length() - 1;
+			value = word < 0 ? 0 : bits.get( word );
+		}
+		else
+		{
+			value = bits.get( word ) & ( -1L >>> ( 63 - ( floor & 63 ) ) );
+		}
+		
+		while ( value == 0 )
+		{
+			if ( --word < 0 )
+			{
+				return -1;
+			}
+			value = bits.get( word );
+		}
+		
+		return word * 64 + 63 - Long.numberOfLeadingZeros( value );
+	}
+	
+	/**
+	 * Counts the set bits at or above a floor
+	 * @param bits: the UP or DOWN calls
+	 * @param floor: the floor to count from
+	 * @return the number of set bits
+	 */
+	private static int countFrom( AtomicLongArray bits, int floor )
+	{
+		int word = floor >>> 6;
+		if ( word >= bits.length() )
+		{
+			return 0;
+		}
+		
+		int count = Long.bitCount( bits.get( word ) & ( -1L << floor ) );
+		for ( word++; word < bits.length(); word++ )
+		{
+			count += Long.bitCount( bits.get( word ) );
+		}
+		return count;
+	}
+}
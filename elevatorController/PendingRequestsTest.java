@@ -0,0 +1,356 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import building.SimulationContext;
+
+public class PendingRequestsTest {
+	
+	private static SimulationContext context = null;
+	
+	@BeforeClass
+	public static void setUpBeforeClass()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		context = new SimulationContext((short)20, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+	}
+	
+	private static SimulationContext context300()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		defaultFloors.add((short)0);
+		return new SimulationContext((short)300, (short)1, (short)10, (short)1000, (short)2500, defaultFloors, 0);
+	}
+	
+	@Test
+	public void testAddAndClaim()
+	{
+		PendingRequests p = new PendingRequests((short)20,(short)2);
+		assertTrue(p.isEmpty());
+		ERequest first = new ERequest((short)5,true,context);
+		assertTrue(p.add(first));
+		assertFalse(p.add(new ERequest((short)5,true,context)));
+		assertTrue(p.add(new ERequest((short)5,false,context)));
+		assertEquals(p.size(),2);
+		assertTrue(p.contains((short)5,true));
+		assertFalse(p.contains((short)6,true));
+		assertSame(p.claim((short)5,true,(short)0),first);
+		assertNull(p.claim((short)5,true,(short)1));
+		assertNull(p.claim((short)-1,true,(short)1));
+		assertEquals(p.size(),1);
+		assertEquals(p.getOwner((short)5,true),0);
+		assertEquals(p.getOwner((short)5,false),-1);
+		assertEquals(p.getLostClaims(),1);
+		assertEquals(p.getMergedPresses(),1);
+		
+		// a claimed call box isn't added again until its elevator arrives
+		assertFalse(p.add(new ERequest((short)5,true,context)));
+		p.release((short)5,(short)1);
+		assertEquals(p.getOwner((short)5,true),0);
+		p.release((short)5,(short)0);
+		assertEquals(p.getOwner((short)5,true),-1);
+		assertTrue(p.add(new ERequest((short)5,true,context)));
+		p.clear();
+		assertTrue(p.isEmpty());
+		assertFalse(p.contains((short)5,false));
+		assertEquals(p.getClaims(),0);
+	}
+	
+	@Test
+	public void testUnclaim()
+	{
+		PendingRequests p = new PendingRequests((short)20,(short)2);
+		p.add(new ERequest((short)3,true,context));
+		p.add(new ERequest((short)9,false,context));
+		assertNotNull(p.claim((short)9,false,(short)1));
+		assertFalse(p.unclaim((short)9,false,(short)0));
+		assertTrue(p.unclaim((short)9,false,(short)1));
+		assertTrue(p.contains((short)9,false));
+		assertEquals(p.size(),2);
+		
+		// the request keeps its place: 3 and 9 are just as far from 6, and 3 was made first
+		assertEquals(p.claimFarthest((short)6,(short)0).getFloorNum(),3);
+		assertEquals(p.getClaims((short)0),1);
+		assertEquals(p.getClaims((short)1),1);
+		assertEquals(p.getClaims(),2);
+	}
+	
+	@Test
+	public void testTransfer()
+	{
+		PendingRequests p = new PendingRequests((short)20,(short)2);
+		p.add(new ERequest((short)4,false,context));
+		assertNotNull(p.claim((short)4,false,(short)0));
+		assertFalse(p.transfer((short)4,false,(short)1,(short)0));
+		assertTrue(p.transfer((short)4,false,(short)0,(short)1));
+		assertEquals(p.getOwner((short)4,false),1);
+		
+		// only the new elevator's arrival releases it
+		p.release((short)4,(short)0);
+		assertEquals(p.getOwner((short)4,false),1);
+		p.release((short)4,(short)1);
+		assertEquals(p.getOwner((short)4,false),-1);
+	}
+	
+	@Test
+	public void testManyFloors()
+	{
+		PendingRequests p = new PendingRequests((short)300,(short)1);
+		p.add(new ERequest((short)1,true,context300()));
+		p.add(new ERequest((short)130,false,context300()));
+		p.add(new ERequest((short)299,true,context300()));
+		assertEquals(p.nearestFloor((short)2,true),130);
+		assertEquals(p.nearestFloor((short)298,false),130);
+		assertEquals(p.nearestFloor((short)128,false),1);
+		assertEquals(p.nearestFloor((short)300,true),-1);
+		assertEquals(p.countAbove((short)64),2);
+		assertEquals(p.countBelow((short)130),1);
+		assertEquals(p.claimFarthest((short)140,(short)0).getFloorNum(),299);
+	}
+	
+	@Test
+	public void testConcurrentClaims() throws InterruptedException
+	{
+		final PendingRequests p = new PendingRequests((short)20,(short)4);
+		for (short floor = 0; floor < 20; floor++)
+		{
+			p.add(new ERequest(floor,true,context));
+			p.add(new ERequest(floor,false,context));
+		}
+		
+		final int[] claimed = new int[4];
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < 4; i++)
+		{
+			final short elevator = (short)i;
+			threads[i] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					while (p.claimFarthest((short)(elevator * 5),elevator) != null)
+					{
+						claimed[elevator]++;
+					}
+				}
+			});
+			threads[i].start();
+		}
+		int total = 0;
+		for (int i = 0; i < 4; i++)
+		{
+			threads[i].join();
+			total += claimed[i];
+			assertEquals(p.getClaims((short)i),claimed[i]);
+		}
+		
+		// every request was claimed by exactly one elevator
+		assertEquals(total,40);
+		assertTrue(p.isEmpty());
+		assertEquals(p.getClaims(),40);
+	}
+	
+	@Test
+	public void testConcurrentAddsAndClaims() throws InterruptedException
+	{
+		// presses race claims, unclaims, transfers and releases; every added request must be released once, and no claimer may spin
+		// (a claimer hands its calls to an elevator of its own, 4 higher, since a release frees both of an elevator's calls on the floor)
+		final PendingRequests p = new PendingRequests((short)20,(short)8);
+		final ERequest[] buttons = new ERequest[40];
+		for (short floor = 0; floor < 20; floor++)
+		{
+			buttons[2 * floor] = new ERequest(floor,false,context);
+			buttons[2 * floor + 1] = new ERequest(floor,true,context);
+		}
+		
+		final AtomicInteger added = new AtomicInteger();
+		final AtomicInteger released = new AtomicInteger();
+		final AtomicBoolean pressing = new AtomicBoolean(true);
+		Thread[] adders = new Thread[2];
+		for (int i = 0; i < 2; i++)
+		{
+			final int first = i;
+			adders[i] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					for (int n = first; n < 400000; n += 2)
+					{
+						if (p.add(buttons[n % 40]))
+						{
+							added.incrementAndGet();
+						}
+					}
+				}
+			});
+			adders[i].setDaemon(true);
+		}
+		Thread[] claimers = new Thread[4];
+		for (int i = 0; i < 4; i++)
+		{
+			final short elevator = (short)i;
+			claimers[i] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					int n = 0;
+					while (true)
+					{
+						// only stops once nothing is left after the last press
+						boolean more = pressing.get();
+						ERequest r = p.claimFarthest((short)(elevator * 5),elevator);
+						if (r == null)
+						{
+							if (!more)
+							{
+								break;
+							}
+							Thread.yield();
+							continue;
+						}
+						short floor = r.getFloorNum();
+						short next = (short)(elevator + 4);
+						switch (n++ % 3)
+						{
+						case 0:
+							assertTrue(p.unclaim(floor,r.getDirection(),elevator));
+							break;
+						case 1:
+							assertTrue(p.transfer(floor,r.getDirection(),elevator,next));
+							p.release(floor,next);
+							released.incrementAndGet();
+							break;
+						default:
+							p.release(floor,elevator);
+							released.incrementAndGet();
+						}
+					}
+				}
+			});
+			claimers[i].setDaemon(true);
+		}
+		for (Thread t : adders)
+		{
+			t.start();
+		}
+		for (Thread t : claimers)
+		{
+			t.start();
+		}
+		for (Thread t : adders)
+		{
+			t.join();
+		}
+		pressing.set(false);
+		for (Thread t : claimers)
+		{
+			t.join(30000);
+			assertFalse(t.isAlive());
+		}
+		
+		assertEquals(released.get(),added.get());
+		assertTrue(p.isEmpty());
+		assertEquals(p.nearestFloor((short)0,true),-1);
+		assertEquals(p.countAbove((short)-1),0);
+	}
+	
+	@Test
+	public void testClaimRacingAdd() throws InterruptedException
+	{
+		// a claim that takes a request the moment it's added must not leave the floor's bit behind (claimFarthest would spin on it)
+		final PendingRequests p = new PendingRequests((short)20,(short)1);
+		final ERequest button = new ERequest((short)7,true,context);
+		final AtomicInteger rounds = new AtomicInteger();
+		Thread claimer = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				int misses = 0;
+				while (rounds.get() < 200000)
+				{
+					if (p.claim((short)7,true,(short)0) != null)
+					{
+						p.release((short)7,(short)0);
+						rounds.incrementAndGet();
+					}
+					// spins to catch the add in the act, but lets the adder run on a single core
+					else if (++misses % 1000 == 0)
+					{
+						Thread.yield();
+					}
+				}
+			}
+		});
+		claimer.setDaemon(true);
+		claimer.start();
+		
+		int staleBits = 0;
+		for (int i = 0; i < 200000; i++)
+		{
+			assertTrue(p.add(button));
+			while (rounds.get() == i)
+			{
+				Thread.yield();
+			}
+			if (p.nearestFloor((short)0,true) != -1)
+			{
+				staleBits++;
+			}
+		}
+		claimer.join(30000);
+		assertFalse(claimer.isAlive());
+		assertEquals(staleBits,0);
+		assertNull(p.claimFarthest((short)0,(short)0));
+	}
+	
+	@Test
+	public void testClaimFarthest()
+	{
+		PendingRequests p = new PendingRequests((short)20,(short)2);
+		assertNull(p.claimFarthest((short)0,(short)0));
+		p.add(new ERequest((short)6,true,context));
+		p.add(new ERequest((short)14,false,context));
+		p.add(new ERequest((short)2,true,context));
+		p.add(new ERequest((short)14,true,context));
+		
+		// floor 14 is farthest, and its DOWN call was made first
+		ERequest r = p.claimFarthest((short)5,(short)0);
+		assertEquals(r.getFloorNum(),14);
+		assertFalse(r.getDirection());
+		
+		// 2 and 14 are just as far from 8, and 2 was made first
+		assertEquals(p.claimFarthest((short)8,(short)1).getFloorNum(),2);
+		assertEquals(p.claimFarthest((short)8,(short)1).getFloorNum(),14);
+		assertEquals(p.claimFarthest((short)8,(short)1).getFloorNum(),6);
+		assertTrue(p.isEmpty());
+	}
+	
+	@Test
+	public void testNearestAndCounts()
+	{
+		PendingRequests p = new PendingRequests((short)20,(short)2);
+		p.add(new ERequest((short)3,false,context));
+		p.add(new ERequest((short)7,true,context));
+		p.add(new ERequest((short)7,false,context));
+		p.add(new ERequest((short)12,true,context));
+		assertEquals(p.nearestFloor((short)4,true),7);
+		assertEquals(p.nearestFloor((short)7,true),7);
+		assertEquals(p.nearestFloor((short)6,false),3);
+		assertEquals(p.nearestFloor((short)2,false),-1);
+		assertEquals(p.nearestFloor((short)-1,false),-1);
+		assertEquals(p.nearestFloor((short)8,true,true),12);
+		assertEquals(p.nearestFloor((short)8,true,false),-1);
+		assertEquals(p.nearestFloor((short)8,false,false),7);
+		assertEquals(p.countAbove((short)7),1);
+		assertEquals(p.countBelow((short)7),1);
+		assertEquals(p.countAbove((short)0),4);
+		assertEquals(p.countBelow((short)20),4);
+	}
+}
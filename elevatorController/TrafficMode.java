@@ -0,0 +1,28 @@
+package elevatorController;
+
+/**
+ * This enumerates the traffic patterns the controller tells apart from the live mix of hall calls (see TrafficModeDetector).
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public enum TrafficMode
+{
+	/**
+	 * Calls come from every floor in both directions, or there are too few of them to tell
+	 */
+	BALANCED,
+	/**
+	 * Most calls are people at the lobby going up (ex. the morning arrivals)
+	 */
+	UP_PEAK,
+	/**
+	 * Most calls are people above the lobby going down (ex. the evening departures)
+	 */
+	DOWN_PEAK,
+	/**
+	 * Many people go up from the lobby and many come down to it at the same time
+	 */
+	LUNCH
+}
@@ -0,0 +1,190 @@
+package elevatorController;
+
+/**
+ * This class detects the traffic mode from the demand forecast: the share of the calls made by people at the lobby going up,
+ * and the share made by people above the lobby going down.
+ * A mode is entered when its share reaches its threshold, and left only once the share falls HYSTERESIS below it,
+ * so the mode doesn't flip back and forth around a threshold.
+ * The mode is detected again at most once every DETECTION_PERIOD, on the thread of the call that finds it due.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class TrafficModeDetector
+{
+	/**
+	 * The lobby (up-peak traffic goes up from it, down-peak traffic goes down to it)
+	 */
+	public static final short LOBBY = 0;
+	
+	/**
+	 * The share of the calls made at the lobby going up from which the traffic is up-peak
+	 */
+	public static final double UP_PEAK_SHARE = 0.6;
+	
+	/**
+	 * The share of the calls made above the lobby going down from which the traffic is down-peak
+	 */
+	public static final double DOWN_PEAK_SHARE = 0.7;
+	
+	/**
+	 * The share of the calls both up from the lobby and down to it from which the traffic is lunch traffic
+	 */
+	public static final double LUNCH_SHARE = 0.3;
+	
+	/**
+	 * How far below its threshold a share has to fall to leave the mode
+	 */
+	public static final double HYSTERESIS = 0.1;
+	
+	/**
+	 * The arrivals per minute per elevator below which the traffic is balanced, whatever the mix
+	 */
+	public static final double MIN_RATE = 1;
+	
+	/**
+	 * How often, in milliseconds, the mode is detected again
+	 */
+	public static final long DETECTION_PERIOD = 1000;
+	
+	/**
+	 * The forecast the mode is detected from
+	 */
+	private DemandForecaster forecaster;
+	
+	/**
+	 * The number of floors in the building
+	 */
+	private short floors;
+	
+	/**
+	 * The number of elevators in the building
+	 */
+	private int elevators;
+	
+	/**
+	 * The traffic mode detected last
+	 */
+	private volatile TrafficMode mode;
+	
+	/**
+	 * The time, in milliseconds, from which the mode is due to be detected again
+	 */
+	private volatile long nextDetection;
+	
+	/**
+	 * The number of times the mode changed
+	 */
+	private volatile long modeChanges;
+	
+	/**
+	 * Creates the detector, starting with balanced traffic
+	 * @param inForecaster: the forecast the mode is detected from
+	 * @param numberOfFloors: the number of floors in the building
+	 * @param numberOfElevators: the number of elevators in the building
+	 */
+	public TrafficModeDetector( DemandForecaster inForecaster, short numberOfFloors, int numberOfElevators )
+	{
+		forecaster = 	inForecaster;
+		floors = 		numberOfFloors;
+		elevators = 	numberOfElevators;
+		mode = 			TrafficMode.BALANCED;
+		nextDetection = Long.MIN_VALUE;
+		modeChanges = 	0;
+	}
+	
+	/**
+	 * Detects the mode again if it's due
+	 * @param now: the current time in milliseconds
+	 * @return the traffic mode
+	 */
+	public TrafficMode update( long now )
+	{
+		if ( now < nextDetection )
+		{
+			return mode;
+		}
+		
+		synchronized ( this )
+		{
+			if ( now >= nextDetection )
+			{
+				nextDetection = now + DETECTION_PERIOD;
+				
+				TrafficMode detected = detect( now );
+				if ( detected != mode )
+				{
+					mode = detected;
+					modeChanges++;
+				}
+			}
+			
+			return mode;
+		}
+	}
+	
+	/**
+	 * Returns the traffic mode detected last
+	 * @return the traffic mode
+	 */
+	public TrafficMode getMode() { return mode; }
+	
+	/**
+	 * Returns the number of times the mode changed (for the simulation's report)
+	 * @return the number of mode changes
+	 */
+	public long getModeChanges() { return modeChanges; }
+	
+	/**
+	 * Classifies the forecast call mix, keeping the current mode while its share is within HYSTERESIS of its threshold
+	 * @param now: the current time in milliseconds
+	 * @return the traffic mode
+	 */
+	private TrafficMode detect( long now )
+	{
+		double lobbyUp = 	forecaster.getForecast( LOBBY, true, now );
+		double down = 		0;
+		double total = 		lobbyUp + forecaster.getForecast( LOBBY, false, now );
+		
+		for ( short f = LOBBY + 1; f < floors; f++ )
+		{
+			double floorDown = forecaster.getForecast( f, false, now );
+			down += 	floorDown;
+			total += 	floorDown + forecaster.getForecast( f, true, now );
+		}
+		
+		if ( total < MIN_RATE * elevators )
+		{
+			return TrafficMode.BALANCED;
+		}
+		
+		double upShare = 	lobbyUp / total;
+		double downShare = 	down / total;
+		
+		if ( upShare >= UP_PEAK_SHARE - getSlack( TrafficMode.UP_PEAK ) )
+		{
+			return TrafficMode.UP_PEAK;
+		}
+		if ( downShare >= DOWN_PEAK_SHARE - getSlack( TrafficMode.DOWN_PEAK ) )
+		{
+			return TrafficMode.DOWN_PEAK;
+		}
+		if ( Math.min( upShare, downShare ) >= LUNCH_SHARE - getSlack( TrafficMode.LUNCH ) )
+		{
+			return TrafficMode.LUNCH;
+		}
+		
+		return TrafficMode.BALANCED;
+	}
+	
+	/**
+	 * Returns how far a share may fall below the threshold of a mode without leaving it
+	 * @param candidate: the mode
+	 * @return HYSTERESIS if the traffic is in that mode, 0 otherwise
+	 */
+	private double getSlack( TrafficMode candidate )
+	{
+		return mode == candidate ? HYSTERESIS : 0;
+	}
+}
@@ -0,0 +1,75 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TrafficModeDetectorTest {
+	
+	// a forecast of the given arrivals per minute (recorded at time 0, with a one-minute horizon)
+	private DemandForecaster newForecaster(int lobbyUp, int floorUp, int floorDown)
+	{
+		DemandForecaster forecaster = new DemandForecaster((short)10, 60000);
+		record(forecaster, (short)0, true, lobbyUp, 0);
+		record(forecaster, (short)3, true, floorUp, 0);
+		record(forecaster, (short)5, false, floorDown, 0);
+		return forecaster;
+	}
+	
+	private void record(DemandForecaster forecaster, short floorNum, boolean goingUp, int count, long now)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			forecaster.record(floorNum, goingUp, now);
+		}
+	}
+	
+	@Test
+	public void testModes()
+	{
+		assertEquals(new TrafficModeDetector(newForecaster(7, 3, 0), (short)10, 2).update(0), TrafficMode.UP_PEAK);
+		assertEquals(new TrafficModeDetector(newForecaster(2, 0, 8), (short)10, 2).update(0), TrafficMode.DOWN_PEAK);
+		assertEquals(new TrafficModeDetector(newForecaster(4, 2, 4), (short)10, 2).update(0), TrafficMode.LUNCH);
+		assertEquals(new TrafficModeDetector(newForecaster(2, 4, 4), (short)10, 2).update(0), TrafficMode.BALANCED);
+	}
+	
+	@Test
+	public void testMinRate()
+	{
+		// one arrival per minute for two elevators is too little to call it up-peak
+		TrafficModeDetector detector = new TrafficModeDetector(newForecaster(1, 0, 0), (short)10, 2);
+		assertEquals(detector.update(0), TrafficMode.BALANCED);
+		assertEquals(detector.getModeChanges(), 0);
+	}
+	
+	@Test
+	public void testHysteresis()
+	{
+		DemandForecaster forecaster = newForecaster(6, 4, 0);
+		TrafficModeDetector detector = new TrafficModeDetector(forecaster, (short)10, 2);
+		assertEquals(detector.update(0), TrafficMode.UP_PEAK);
+		assertEquals(detector.getModeChanges(), 1);
+		
+		// the share drops to 0.54: a new detector doesn't call it up-peak, but the old one stays in it
+		record(forecaster, (short)3, true, 1, 2000);
+		assertEquals(new TrafficModeDetector(forecaster, (short)10, 2).update(2000), TrafficMode.BALANCED);
+		assertEquals(detector.update(2000), TrafficMode.UP_PEAK);
+		
+		// and leaves it once the share falls below 0.5
+		record(forecaster, (short)3, true, 2, 4000);
+		assertEquals(detector.update(DemandForecaster.DAY / 2), TrafficMode.BALANCED);
+		assertEquals(detector.getModeChanges(), 2);
+	}
+	
+	@Test
+	public void testDetectionPeriod()
+	{
+		// the mode isn't detected again until DETECTION_PERIOD has passed
+		DemandForecaster forecaster = newForecaster(0, 4, 0);
+		TrafficModeDetector detector = new TrafficModeDetector(forecaster, (short)10, 2);
+		assertEquals(detector.update(0), TrafficMode.BALANCED);
+		record(forecaster, (short)0, true, 20, 10);
+		assertEquals(detector.update(TrafficModeDetector.DETECTION_PERIOD - 1), TrafficMode.BALANCED);
+		assertEquals(detector.update(TrafficModeDetector.DETECTION_PERIOD), TrafficMode.UP_PEAK);
+	}
+}
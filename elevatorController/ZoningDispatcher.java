@@ -0,0 +1,310 @@
+package elevatorController;
+
+import building.Building;
+import building.SimulationContext;
+
+import elevator.Elevator;
+
+/**
+ * This class zones the elevators for up-peak traffic: the floors above the lobby are split into contiguous bands,
+ * and the elevators into as many subsets, each serving one band.
+ * While zoning is active, people at the lobby only board an elevator of their destination's band, so each trip up makes fewer stops,
+ * and the lobby call is answered by sending the nearest elevator of every band that has people waiting for it.
+ * Zoning only pays once the lobby demand nears what the elevators can carry up unzoned (below that, the longer waits for an elevator
+ * of the right band cost more than the stops saved), so it's only turned on from ZONING_LOAD of the group's up-peak handling capacity.
+ * The elevators return to the lobby as soon as they run out of work (see EController.chooseParkingFloor), so a lobby call
+ * that no elevator of a band can take yet is left to them instead of going to the pending requests (where any elevator would claim it).
+ * Calls above the lobby are assigned by the controller's algorithm as usual.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class ZoningDispatcher
+{
+	/**
+	 * The number of elevators that share a band, unless there are too few elevators for two bands
+	 */
+	public static final int ELEVATORS_PER_ZONE = 2;
+	
+	/**
+	 * How much shorter an elevator waits before returning to the lobby while zoning is active than the controller's parking delay
+	 */
+	public static final int PARKING_DELAY_DIVISOR = 10;
+	
+	/**
+	 * The share of the group's up-peak handling capacity the lobby demand has to reach for the elevators to be zoned
+	 */
+	public static final double ZONING_LOAD = 0.8;
+	
+	/**
+	 * The share of a car's capacity it's taken to leave the lobby with during up-peak
+	 */
+	public static final double LOBBY_LOAD = 0.8;
+	
+	/**
+	 * The controller whose elevators are zoned
+	 */
+	private EController controller;
+	
+	/**
+	 * The simulation the controller belongs to (its building has the people waiting at the lobby)
+	 */
+	private SimulationContext context;
+	
+	/**
+	 * The band of every elevator
+	 */
+	private int[] zoneOf;
+	
+	/**
+	 * The highest floor of every band (a band starts above the previous band's highest floor, the first one above the lobby)
+	 */
+	private short[] zoneTops;
+	
+	/**
+	 * The people per minute the elevators can carry up from the lobby unzoned
+	 */
+	private double handlingCapacity;
+	
+	/**
+	 * Whether the traffic is up-peak, so the elevators are zoned
+	 */
+	private volatile boolean active;
+	
+	/**
+	 * The number of times an elevator was sent to the lobby for the people of its band
+	 */
+	private volatile long zonedCalls;
+	
+	/**
+	 * Creates the zones for the given elevator controller, inactive
+	 * @param inController: the controller whose elevators are zoned
+	 * @param inContext: the simulation the controller belongs to
+	 * @param numberOfFloors: the number of floors in the building
+	 */
+	public ZoningDispatcher( EController inController, SimulationContext inContext, short numberOfFloors )
+	{
+		controller = 	inController;
+		context = 		inContext;
+		active = 		false;
+		zonedCalls = 	0;
+		
+		int elevators = inController.myElevators.size();
+		int bands = 	numberOfFloors - 1 - TrafficModeDetector.LOBBY;
+		int zones = 	Math.max( 1, Math.min( bands, elevators >= 2 * ELEVATORS_PER_ZONE ? elevators / ELEVATORS_PER_ZONE : elevators ) );
+		
+		zoneOf = 	new int[ elevators ];
+		zoneTops = 	new short[ zones ];
+		
+		for ( int e = 0; e < elevators; e++ )
+		{
+			zoneOf[e] = e * zones / elevators;
+		}
+		
+		for ( int z = 0; z < zones; z++ )
+		{
+			zoneTops[z] = ( short ) ( TrafficModeDetector.LOBBY + ( z + 1 ) * bands / zones );
+		}
+		
+		Elevator elevator = elevators > 0 ? inController.getElevator( ( short ) 0 ) : null;
+		handlingCapacity = 	elevator == null ? 0 : estimateHandlingCapacity( elevators, bands, elevator.getCapacity(),
+																			  elevator.getTimePerFloor(), elevator.getDoorOperationTime() );
+	}
+	
+	/**
+	 * Estimates the people per minute a group of elevators can carry up from the lobby, from the classical up-peak round trip:
+	 * a car leaves with P = LOBBY_LOAD of its capacity, makes S = N(1 - (1 - 1/N)^P) stops on the N floors above the lobby,
+	 * reaches H = N - sum of (i/N)^P for i below N, and opens its doors at every stop and at the lobby
+	 * @param elevators: the number of elevators
+	 * @param floorsAbove: the number of floors above the lobby
+	 * @param capacity: the capacity of a car
+	 * @param timePerFloor: the time, in milliseconds, to travel one floor
+	 * @param doorTime: the time, in milliseconds, the doors take at a stop
+	 * @return the people per minute
+	 */
+	public static double estimateHandlingCapacity( int elevators, int floorsAbove, short capacity, long timePerFloor, long doorTime )
+	{
+		if ( floorsAbove < 1 )
+		{
+			return 0;
+		}
+		
+		double load = 	LOBBY_LOAD * capacity;
+		double stops = 	floorsAbove * ( 1 - Math.pow( 1 - 1.0 / floorsAbove, load ) );
+		double reach = 	floorsAbove;
+		
+		for ( int i = 1; i < floorsAbove; i++ )
+		{
+			reach -= Math.pow( ( double ) i / floorsAbove, load );
+		}
+		
+		double roundTrip = 2 * reach * timePerFloor + ( stops + 1 ) * doorTime;
+		return roundTrip <= 0 ? 0 : elevators * load * 60000 / roundTrip;
+	}
+	
+	/**
+	 * Answers a lobby call going up by sending the nearest elevator of every band that has people waiting for it and no elevator on its way
+	 * @param request: the request
+	 * @return true if the request was a lobby call going up (so it's been dealt with), false if the controller's algorithm should assign it
+	 */
+	public synchronized boolean processCallBoxRequest( ERequest request )
+	{
+		if ( request.getFloorNum() != TrafficModeDetector.LOBBY || !request.getDirection() )
+		{
+			return false;
+		}
+		
+		Building building = context.getBuilding();
+		
+		for ( int z = 0; z < zoneTops.length; z++ )
+		{
+			short lowest = ( short ) ( z == 0 ? TrafficModeDetector.LOBBY + 1 : zoneTops[ z - 1 ] + 1 );
+			
+			if ( building.isAnyoneWaitingFor( TrafficModeDetector.LOBBY, true, lowest, zoneTops[z] ) && !isHeadedToLobby( z ) )
+			{
+				sendToLobby( z );
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Checks whether the lobby demand is high enough to zone the elevators, keeping them zoned until it falls HYSTERESIS further
+	 * (see TrafficModeDetector)
+	 * @param lobbyRate: the forecast people per minute going up from the lobby
+	 * @return true if the demand reaches ZONING_LOAD of the handling capacity
+	 */
+	public boolean isSaturated( double lobbyRate )
+	{
+		return lobbyRate >= ( ZONING_LOAD - ( active ? TrafficModeDetector.HYSTERESIS : 0 ) ) * handlingCapacity;
+	}
+	
+	/**
+	 * Returns the people per minute the elevators can carry up from the lobby unzoned
+	 * @return the handling capacity
+	 */
+	public double getHandlingCapacity() { return handlingCapacity; }
+	
+	/**
+	 * Checks whether a person at the lobby may board an elevator: only an elevator of their destination's band
+	 * @param floorNum: the floor the person waits on
+	 * @param destFloor: the floor the person is going to
+	 * @param elevatorNum: the elevator
+	 * @return true if the person isn't at the lobby, or the elevator serves their destination
+	 */
+	public boolean mayBoard( short floorNum, short destFloor, short elevatorNum )
+	{
+		return floorNum != TrafficModeDetector.LOBBY || destFloor <= TrafficModeDetector.LOBBY || getZone( destFloor ) == zoneOf[ elevatorNum ];
+	}
+	
+	/**
+	 * Returns the band of a floor above the lobby
+	 * @param floorNum: the floor
+	 * @return the band
+	 */
+	public int getZone( short floorNum )
+	{
+		int z = 0;
+		while ( z < zoneTops.length - 1 && floorNum > zoneTops[z] )
+		{
+			z++;
+		}
+		
+		return z;
+	}
+	
+	/**
+	 * Returns the band an elevator serves
+	 * @param elevatorNum: the elevator
+	 * @return the band
+	 */
+	public int getZoneOf( short elevatorNum ) { return zoneOf[ elevatorNum ]; }
+	
+	/**
+	 * Returns the number of bands
+	 * @return the number of bands
+	 */
+	public int getZones() { return zoneTops.length; }
+	
+	/**
+	 * Returns whether the elevators are zoned
+	 * @return true while the traffic is up-peak
+	 */
+	public boolean isActive() { return active; }
+	
+	/**
+	 * Turns zoning on or off
+	 * @param inActive: true to zone the elevators
+	 * @return true if zoning was turned on or off by this call, false if it already was
+	 */
+	public synchronized boolean setActive( boolean inActive )
+	{
+		if ( active == inActive )
+		{
+			return false;
+		}
+		
+		active = inActive;
+		return true;
+	}
+	
+	/**
+	 * Returns the number of times an elevator was sent to the lobby for the people of its band (for the simulation's report)
+	 * @return the number of zoned calls
+	 */
+	public long getZonedCalls() { return zonedCalls; }
+	
+	/**
+	 * Checks whether an elevator of a band is already on its way to the lobby
+	 * @param zone: the band
+	 * @return true if one of its elevators stops at the lobby
+	 */
+	private boolean isHeadedToLobby( int zone )
+	{
+		for ( short e = 0; e < zoneOf.length; e++ )
+		{
+			if ( zoneOf[e] == zone && controller.getElevator( e ).isInDestinations( TrafficModeDetector.LOBBY ) )
+			{
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Sends the elevator of a band that reaches the lobby soonest, if any of them can take the call
+	 * (see CallBoxRequestProcessorETAImpl.estimateTimeToArrival)
+	 * @param zone: the band
+	 */
+	private void sendToLobby( int zone )
+	{
+		Elevator best = 	null;
+		long bestTime = 	Long.MAX_VALUE;
+		
+		for ( short e = 0; e < zoneOf.length; e++ )
+		{
+			if ( zoneOf[e] != zone )
+			{
+				continue;
+			}
+			
+			Elevator elevator = controller.getElevator( e );
+			long time = 		CallBoxRequestProcessorETAImpl.estimateTimeToArrival( elevator, elevator.getSnapshot(), TrafficModeDetector.LOBBY, true );
+			
+			if ( time >= 0 && time < bestTime )
+			{
+				best = 		elevator;
+				bestTime = 	time;
+			}
+		}
+		
+		if ( best != null && best.takeRequest( TrafficModeDetector.LOBBY, true ) )
+		{
+			best.addDestination( TrafficModeDetector.LOBBY );
+			zonedCalls++;
+		}
+	}
+}
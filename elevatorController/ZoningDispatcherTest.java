@@ -0,0 +1,130 @@
+package elevatorController;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+
+import building.Building;
+import building.PersonFacade;
+import building.SimulationContext;
+import simulationEngine.VirtualClock;
+
+public class ZoningDispatcherTest {
+	
+	// four elevators waiting on floor 5 of 10, so floors 1-4 are the first band (elevators 0 and 1) and floors 5-9 the second (elevators 2 and 3)
+	private SimulationContext newContext()
+	{
+		ArrayList<Short> defaultFloors = new ArrayList<Short>();
+		for (int i = 0; i < 4; i++)
+		{
+			defaultFloors.add((short)5);
+		}
+		SimulationContext context = new SimulationContext((short)10, (short)4, (short)10, (short)1000, (short)2500, defaultFloors, 2);
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo(1000);
+		context.getPersonFacade().setClock(clock);
+		context.getEController().setZoningEnabled(true);
+		return context;
+	}
+	
+	// people arriving at the lobby at the given rate, two of whom (for floors 2 and 7) are still waiting when the call box is pressed
+	private void pressLobby(SimulationContext context, int peoplePerMin)
+	{
+		for (int i = 0; i < peoplePerMin; i++)
+		{
+			context.getEController().recordArrival((short)0, true);
+		}
+		PersonFacade people = context.getPersonFacade();
+		Building building = context.getBuilding();
+		building.addPersonToFloor((short)0, people.createPerson((short)0, (short)2));
+		building.addPersonToFloor((short)0, people.createPerson((short)0, (short)7));
+		building.pressCallBox((short)0, true);
+	}
+	
+	@Test
+	public void testZones()
+	{
+		ZoningDispatcher zoning = newContext().getEController().getZoningDispatcher();
+		assertEquals(zoning.getZones(), 2);
+		assertEquals(zoning.getZone((short)1), 0);
+		assertEquals(zoning.getZone((short)4), 0);
+		assertEquals(zoning.getZone((short)5), 1);
+		assertEquals(zoning.getZone((short)9), 1);
+		assertEquals(zoning.getZoneOf((short)1), 0);
+		assertEquals(zoning.getZoneOf((short)2), 1);
+		
+		// only people at the lobby are held to their band
+		assertTrue(zoning.mayBoard((short)0, (short)3, (short)0));
+		assertFalse(zoning.mayBoard((short)0, (short)7, (short)0));
+		assertTrue(zoning.mayBoard((short)0, (short)7, (short)3));
+		assertTrue(zoning.mayBoard((short)6, (short)8, (short)0));
+	}
+	
+	@Test
+	public void testHandlingCapacity()
+	{
+		// one floor above the lobby: a round trip is 2 floors and 2 stops, 6 s, for 8 people
+		assertEquals(ZoningDispatcher.estimateHandlingCapacity(1, 1, (short)10, 1000, 2000), 80, 1e-9);
+		assertEquals(ZoningDispatcher.estimateHandlingCapacity(2, 1, (short)10, 1000, 2000), 160, 1e-9);
+		assertEquals(ZoningDispatcher.estimateHandlingCapacity(2, 0, (short)10, 1000, 2000), 0, 1e-9);
+		
+		ZoningDispatcher zoning = newContext().getEController().getZoningDispatcher();
+		double capacity = zoning.getHandlingCapacity();
+		assertEquals(capacity, ZoningDispatcher.estimateHandlingCapacity(4, 9, (short)10, 1000, 2500), 1e-9);
+		assertTrue(zoning.isSaturated(0.8 * capacity));
+		assertFalse(zoning.isSaturated(0.75 * capacity));
+		
+		// once zoned, the elevators stay zoned until the demand falls further
+		assertTrue(zoning.setActive(true));
+		assertFalse(zoning.setActive(true));
+		assertTrue(zoning.isSaturated(0.75 * capacity));
+		assertFalse(zoning.isSaturated(0.65 * capacity));
+	}
+	
+	@Test
+	public void testLobbyDispatch()
+	{
+		// heavy up-peak traffic: the nearest elevator of each band is sent for its people
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		ZoningDispatcher zoning = controller.getZoningDispatcher();
+		pressLobby(context, 60);
+		assertTrue(zoning.isActive());
+		assertTrue(controller.isZonedCall((short)0, true));
+		assertTrue(controller.getElevator((short)0).isInDestinations((short)0));
+		assertFalse(controller.getElevator((short)1).isInDestinations((short)0));
+		assertTrue(controller.getElevator((short)2).isInDestinations((short)0));
+		assertFalse(controller.getElevator((short)3).isInDestinations((short)0));
+		assertEquals(zoning.getZonedCalls(), 2);
+		
+		// both bands already have an elevator on its way
+		context.getBuilding().pressCallBox((short)0, true);
+		assertEquals(zoning.getZonedCalls(), 2);
+		assertEquals(controller.getParkingDelay(), EController.DEFAULT_PARKING_DELAY / ZoningDispatcher.PARKING_DELAY_DIVISOR);
+	}
+	
+	@Test
+	public void testLightTraffic()
+	{
+		// up-peak traffic the elevators carry easily unzoned: the lobby call goes to the controller's algorithm
+		SimulationContext context = newContext();
+		EController controller = context.getEController();
+		pressLobby(context, 20);
+		assertEquals(controller.getTrafficModeDetector().getMode(), TrafficMode.UP_PEAK);
+		assertFalse(controller.getZoningDispatcher().isActive());
+		assertFalse(controller.isZonedCall((short)0, true));
+		assertEquals(controller.getZoningDispatcher().getZonedCalls(), 0);
+	}
+	
+	@Test
+	public void testDisabled()
+	{
+		SimulationContext context = newContext();
+		context.getEController().setZoningEnabled(false);
+		pressLobby(context, 60);
+		assertFalse(context.getEController().getZoningDispatcher().isActive());
+		assertTrue(context.getEController().mayBoard((short)0, (short)7, (short)0));
+	}
+}
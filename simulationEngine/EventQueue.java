@@ -0,0 +1,115 @@
+package simulationEngine;
+
+import java.util.PriorityQueue;
+
+/**
+ * This class is the heart of the discrete-event simulation. It holds every scheduled event in time order
+ * and fires them one at a time, moving the virtual clock forward to each event's time.
+ * Nothing sleeps, so a simulated day only takes as long as it takes to process its events.
+ * 
+ * The queue is not thread-safe: a discrete-event simulation runs entirely on the thread that calls runUntil().
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class EventQueue
+{
+	/**
+	 * Holds all scheduled events, ordered by time
+	 */
+	private PriorityQueue<SimEvent> events;
+	
+	/**
+	 * The virtual clock that is advanced as events fire
+	 */
+	private VirtualClock clock;
+	
+	/**
+	 * Counts how many events have been scheduled (used to order events scheduled for the same time)
+	 */
+	private long scheduledCount;
+	
+	/**
+	 * Counts how many events have been fired
+	 */
+	private long firedCount;
+	
+	/**
+	 * Creates a new, empty EventQueue whose clock starts at time zero
+	 */
+	public EventQueue()
+	{
+		events = 	new PriorityQueue<SimEvent>();
+		clock = 	new VirtualClock();
+		scheduledCount = 0;
+		firedCount = 0;
+	}
+	
+	/**
+	 * Returns the virtual clock of this queue
+	 * @return the virtual clock
+	 */
+	public VirtualClock getClock() { return clock; }
+	
+	/**
+	 * Returns the number of events that have fired so far
+	 * @return the number of fired events
+	 */
+	public long getFiredCount() { return firedCount; }
+	
+	/**
+	 * Indicates whether there are any events left to fire
+	 * @return true if no events are scheduled, otherwise false
+	 */
+	public boolean isEmpty() { return events.isEmpty(); }
+	
+	/**
+	 * Schedules an event to fire after the given delay (relative to the current simulated time)
+	 * @param delay: how many milliseconds from now the event fires
+	 * @param type: the kind of event
+	 * @param handler: the object that will handle the event
+	 * @return the scheduled event (so it may be cancelled)
+	 * @throws IllegalArgumentException if the delay is negative
+	 */
+	public SimEvent schedule( long delay, SimEventType type, SimEventHandler handler ) throws IllegalArgumentException
+	{
+		if ( delay < 0 )
+		{
+			throw new IllegalArgumentException( "Cannot schedule an event in the past, got a delay of " + delay );
+		}
+		
+		SimEvent event = new SimEvent( clock.currentTimeMillis() + delay, scheduledCount++, type, handler );
+		events.add( event );
+		
+		return event;
+	}
+	
+	/**
+	 * Fires every event scheduled up to and including the given end time, in time order.
+	 * Events scheduled while running are fired as well if they fall before the end time.
+	 * Afterwards, the clock is left at the end time.
+	 * @param endTime: the simulated time (in milliseconds) to run until
+	 */
+	public void runUntil( long endTime )
+	{
+		while ( !events.isEmpty() && events.peek().getTime() <= endTime )
+		{
+			SimEvent event = events.poll();
+			
+			if ( event.isCancelled() )
+			{
+				continue;
+			}
+			
+			clock.advanceTo( event.getTime() );
+			firedCount++;
+			event.getHandler().handleEvent( event );
+		}
+		
+		if ( clock.currentTimeMillis() < endTime )
+		{
+			clock.advanceTo( endTime );
+		}
+	}
+}
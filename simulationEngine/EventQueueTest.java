@@ -0,0 +1,102 @@
+package simulationEngine;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EventQueueTest {
+
+	private EventQueue queue = null;
+	private ArrayList<Long> firedTimes = null;
+	private SimEventHandler recorder = null;
+	
+	@Before
+	public void setUp()
+	{
+		queue = new EventQueue();
+		firedTimes = new ArrayList<Long>();
+		recorder = new SimEventHandler()
+		{
+			public void handleEvent( SimEvent event )
+			{
+				firedTimes.add( queue.getClock().currentTimeMillis() );
+			}
+		};
+	}
+	
+	@After
+	public void tearDown()
+	{
+		queue = null;
+		firedTimes = null;
+		recorder = null;
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void noNegativeDelay()
+	{
+		queue.schedule( -1, SimEventType.FLOOR_PASS, recorder );
+	}
+	
+	@Test
+	public void testFiresInTimeOrder()
+	{
+		queue.schedule( 3000, SimEventType.DOOR_CYCLE, recorder );
+		queue.schedule( 1000, SimEventType.FLOOR_PASS, recorder );
+		queue.schedule( 2000, SimEventType.PERSON_ARRIVAL, recorder );
+		queue.runUntil( 10000 );
+		
+		assertEquals( firedTimes.size(), 3 );
+		assertEquals( ( long ) firedTimes.get( 0 ), 1000 );
+		assertEquals( ( long ) firedTimes.get( 1 ), 2000 );
+		assertEquals( ( long ) firedTimes.get( 2 ), 3000 );
+		assertEquals( queue.getClock().currentTimeMillis(), 10000 );
+	}
+	
+	@Test
+	public void testStopsAtEndTime()
+	{
+		queue.schedule( 1000, SimEventType.FLOOR_PASS, recorder );
+		queue.schedule( 5000, SimEventType.FLOOR_PASS, recorder );
+		queue.runUntil( 1000 );
+		
+		assertEquals( firedTimes.size(), 1 );
+		assertFalse( queue.isEmpty() );
+		assertEquals( queue.getClock().currentTimeMillis(), 1000 );
+	}
+	
+	@Test
+	public void testCancel()
+	{
+		SimEvent event = queue.schedule( 1000, SimEventType.IDLE_TIMEOUT, recorder );
+		event.cancel();
+		queue.runUntil( 2000 );
+		
+		assertTrue( firedTimes.isEmpty() );
+		assertEquals( queue.getFiredCount(), 0 );
+	}
+	
+	@Test
+	public void testEventsScheduledWhileRunning()
+	{
+		queue.schedule( 1000, SimEventType.FLOOR_PASS, new SimEventHandler()
+		{
+			public void handleEvent( SimEvent event )
+			{
+				firedTimes.add( event.getTime() );
+				if ( firedTimes.size() < 3 )
+				{
+					queue.schedule( 1000, SimEventType.FLOOR_PASS, this );
+				}
+			}
+		} );
+		queue.runUntil( 10000 );
+		
+		assertEquals( firedTimes.size(), 3 );
+		assertEquals( ( long ) firedTimes.get( 2 ), 3000 );
+	}
+}
@@ -0,0 +1,191 @@
+package simulationEngine;
+
+/**
+ * This class counts latencies (in milliseconds) in fixed-size, log-linear buckets, so percentiles can be read from any number of values
+ * in constant memory. Values below 64 get a bucket each, and every power of two above that is split into 32 buckets,
+ * so a percentile is never off by more than about 3% (1/32) of its value. Recording a value only increments a counter,
+ * and two histograms merge by adding their counters, which loses nothing since both use the same buckets.
+ *
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ *
+ */
+public class LatencyHistogram
+{
+	/**
+	 * The number of buckets that each power of two is split into
+	 */
+	private static final int SUB_BUCKETS = 32;
+	
+	/**
+	 * The number of low bits dropped per power of two (values below 2 * SUB_BUCKETS are counted exactly)
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+	
+	/**
+	 * The largest value with its own bucket (about 795 days in milliseconds); larger values are counted in the last bucket
+	 */
+	public static final long HIGHEST_TRACKABLE_VALUE = ( 1L << 36 ) - 1;
+	
+	/**
+	 * The number of buckets needed to count every value up to HIGHEST_TRACKABLE_VALUE
+	 */
+	private static final int BUCKETS = getBucket( HIGHEST_TRACKABLE_VALUE ) + 1;
+	
+	/**
+	 * The number of values counted in each bucket
+	 */
+	private long[] counts;
+	
+	/**
+	 * The total number of values recorded
+	 */
+	private long totalCount;
+	
+	/**
+	 * The smallest value recorded (exact)
+	 */
+	private long min;
+	
+	/**
+	 * The largest value recorded (exact)
+	 */
+	private long max;
+	
+	/**
+	 * Creates a new, empty histogram
+	 */
+	public LatencyHistogram()
+	{
+		counts = 		new long[ BUCKETS ];
+		totalCount = 	0;
+		min = 			Long.MAX_VALUE;
+		max = 			0;
+	}
+	
+	/**
+	 * Records one value
+	 * @param value: the latency in milliseconds
+	 * @throws IllegalArgumentException if the value is negative
+	 */
+	public void record( long value ) throws IllegalArgumentException
+	{
+		if ( value < 0 )
+		{
+			throw new IllegalArgumentException( "Expected a non-negative latency, got " + value );
+		}
+		
+		counts[ getBucket( Math.min( value, HIGHEST_TRACKABLE_VALUE ) ) ]++;
+		totalCount++;
+		
+		if ( value < min )
+		{
+			min = value;
+		}
+		if ( value > max )
+		{
+			max = value;
+		}
+	}
+	
+	/**
+	 * Adds all the values of another histogram to this one
+	 * @param other: the histogram to merge into this one (it isn't changed)
+	 */
+	public void merge( LatencyHistogram other )
+	{
+		for ( int bucket = 0; bucket < BUCKETS; bucket++ )
+		{
+			counts[ bucket ] += other.counts[ bucket ];
+		}
+		
+		totalCount += other.totalCount;
+		min = Math.min( min, other.min );
+		max = Math.max( max, other.max );
+	}
+	
+	/**
+	 * Returns the number of values recorded
+	 * @return the number of values
+	 */
+	public long getCount() { return totalCount; }
+	
+	/**
+	 * Returns the smallest value recorded
+	 * @return the minimum in milliseconds, or 0 if nothing was recorded
+	 */
+	public long getMin() { return totalCount == 0 ? 0 : min; }
+	
+	/**
+	 * Returns the largest value recorded
+	 * @return the maximum in milliseconds, or 0 if nothing was recorded
+	 */
+	public long getMax() { return max; }
+	
+	/**
+	 * Returns the value at a percentile (nearest rank): at least that percentage of the recorded values are less than or equal to it.
+	 * The value is the top of the bucket the percentile falls in, but never beyond the exact minimum and maximum.
+	 * @param percent: the percentile (between 0 and 100)
+	 * @return the value in milliseconds, or 0 if nothing was recorded
+	 * @throws IllegalArgumentException if the percentile is out of bounds
+	 */
+	public long getValueAtPercentile( double percent ) throws IllegalArgumentException
+	{
+		if ( percent < 0 || percent > 100 )
+		{
+			throw new IllegalArgumentException( "Percentile out of bounds, expected 0-100, got " + percent );
+		}
+		if ( totalCount == 0 )
+		{
+			return 0;
+		}
+		
+		long rank = Math.max( 1, ( long ) Math.ceil( percent / 100 * totalCount ) );
+		long seen = 0;
+		
+		for ( int bucket = 0; bucket < BUCKETS; bucket++ )
+		{
+			seen += counts[ bucket ];
+			if ( seen >= rank )
+			{
+				return Math.max( min, Math.min( max, getHighestValue( bucket ) ) );
+			}
+		}
+		
+		return max;
+	}
+	
+	/**
+	 * Finds the bucket that a value is counted in
+	 * @param value: the value (between 0 and HIGHEST_TRACKABLE_VALUE)
+	 * @return the bucket index
+	 */
+	private static int getBucket( long value )
+	{
+		if ( value < 2 * SUB_BUCKETS )
+		{
+			return ( int ) value;
+		}
+		
+		// drop enough low bits to leave the value between SUB_BUCKETS and 2 * SUB_BUCKETS
+		int shift = ( 63 - Long.numberOfLeadingZeros( value ) ) - SUB_BUCKET_BITS;
+		return SUB_BUCKETS * shift + ( int ) ( value >>> shift );
+	}
+	
+	/**
+	 * Finds the largest value that is counted in a bucket
+	 * @param bucket: the bucket index
+	 * @return the largest value of the bucket
+	 */
+	private static long getHighestValue( int bucket )
+	{
+		if ( bucket < 2 * SUB_BUCKETS )
+		{
+			return bucket;
+		}
+		
+		int shift = bucket / SUB_BUCKETS - 1;
+		long subBucket = bucket - SUB_BUCKETS * shift;
+		return ( ( subBucket + 1 ) << shift ) - 1;
+	}
+}
@@ -0,0 +1,104 @@
+package simulationEngine;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testEmpty()
+	{
+		LatencyHistogram h = new LatencyHistogram();
+		assertEquals(h.getCount(),0);
+		assertEquals(h.getMin(),0);
+		assertEquals(h.getMax(),0);
+		assertEquals(h.getValueAtPercentile(50),0);
+	}
+	
+	@Test
+	public void testSmallValuesExact()
+	{
+		LatencyHistogram h = new LatencyHistogram();
+		for (int i = 1; i <= 50; i++)
+		{
+			h.record(i);
+		}
+		assertEquals(h.getCount(),50);
+		assertEquals(h.getValueAtPercentile(50),25);
+		assertEquals(h.getValueAtPercentile(0),1);
+		assertEquals(h.getValueAtPercentile(100),50);
+		assertEquals(h.getValueAtPercentile(99),50);
+	}
+	
+	@Test
+	public void testRelativeError()
+	{
+		Random random = new Random(42);
+		long[] values = new long[10000];
+		LatencyHistogram h = new LatencyHistogram();
+		for (int i = 0; i < values.length; i++)
+		{
+			values[i] = (long)(Math.exp(random.nextDouble() * 16));
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+		double[] percents = {1, 25, 50, 90, 95, 99, 99.9, 100};
+		for (double percent : percents)
+		{
+			long exact = values[(int)Math.max(1, Math.ceil(percent / 100 * values.length)) - 1];
+			long estimate = h.getValueAtPercentile(percent);
+			assertTrue(estimate >= exact);
+			assertTrue(estimate - exact <= exact / 32.0);
+		}
+		assertEquals(h.getMin(),values[0]);
+		assertEquals(h.getMax(),values[values.length - 1]);
+	}
+	
+	@Test
+	public void testMerge()
+	{
+		Random random = new Random(7);
+		LatencyHistogram a = new LatencyHistogram();
+		LatencyHistogram b = new LatencyHistogram();
+		LatencyHistogram all = new LatencyHistogram();
+		for (int i = 0; i < 1000; i++)
+		{
+			long value = random.nextInt(100000);
+			(i % 3 == 0 ? a : b).record(value);
+			all.record(value);
+		}
+		a.merge(b);
+		assertEquals(a.getCount(),all.getCount());
+		assertEquals(a.getMin(),all.getMin());
+		assertEquals(a.getMax(),all.getMax());
+		for (int percent = 0; percent <= 100; percent += 5)
+		{
+			assertEquals(a.getValueAtPercentile(percent),all.getValueAtPercentile(percent));
+		}
+	}
+	
+	@Test
+	public void testHugeValue()
+	{
+		LatencyHistogram h = new LatencyHistogram();
+		h.record(Long.MAX_VALUE);
+		assertEquals(h.getMax(),Long.MAX_VALUE);
+		assertEquals(h.getValueAtPercentile(100),Long.MAX_VALUE);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegative()
+	{
+		new LatencyHistogram().record(-1);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testBadPercentile()
+	{
+		new LatencyHistogram().getValueAtPercentile(-1);
+	}
+}
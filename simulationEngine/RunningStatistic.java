@@ -0,0 +1,147 @@
+package simulationEngine;
+
+/**
+ * This class accumulates a stream of values one at a time, keeping their count, mean, variance, minimum and maximum
+ * in constant memory (Welford's method, which doesn't lose precision like a running sum of squares).
+ * Two statistics can be merged, so statistics gathered separately (ex. by independent simulations) can be combined.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class RunningStatistic
+{
+	/**
+	 * The number of values added so far
+	 */
+	private long count;
+	
+	/**
+	 * The running mean of the added values
+	 */
+	private double mean;
+	
+	/**
+	 * The running sum of squared differences from the mean
+	 */
+	private double sumOfSquares;
+	
+	/**
+	 * The smallest value added so far
+	 */
+	private double min;
+	
+	/**
+	 * The largest value added so far
+	 */
+	private double max;
+	
+	/**
+	 * Creates a new, empty statistic
+	 */
+	public RunningStatistic()
+	{
+		count = 		0;
+		mean = 			0;
+		sumOfSquares = 	0;
+		min = 			Double.POSITIVE_INFINITY;
+		max = 			Double.NEGATIVE_INFINITY;
+	}
+	
+	/**
+	 * Adds one value to the statistic
+	 * @param value: the value to add
+	 */
+	public void add( double value )
+	{
+		count++;
+		
+		double difference = value - mean;
+		mean += difference / count;
+		sumOfSquares += difference * ( value - mean );
+		
+		if ( value < min )
+		{
+			min = value;
+		}
+		if ( value > max )
+		{
+			max = value;
+		}
+	}
+	
+	/**
+	 * Adds all the values of another statistic to this one (Chan's parallel update)
+	 * @param other: the statistic to merge into this one (it isn't changed)
+	 */
+	public void merge( RunningStatistic other )
+	{
+		if ( other.count == 0 )
+		{
+			return;
+		}
+		
+		long total = count + other.count;
+		double difference = other.mean - mean;
+		
+		mean += difference * other.count / total;
+		sumOfSquares += other.sumOfSquares + difference * difference * ( ( double ) count * other.count / total );
+		count = total;
+		
+		min = Math.min( min, other.min );
+		max = Math.max( max, other.max );
+	}
+	
+	/**
+	 * Returns the number of values added
+	 * @return the number of values
+	 */
+	public long getCount() { return count; }
+	
+	/**
+	 * Returns the mean of the added values
+	 * @return the mean, or 0 if no values were added
+	 */
+	public double getMean() { return mean; }
+	
+	/**
+	 * Returns the total of the added values
+	 * @return the total
+	 */
+	public double getTotal() { return mean * count; }
+	
+	/**
+	 * Returns the smallest added value
+	 * @return the minimum, or 0 if no values were added
+	 */
+	public double getMin() { return count == 0 ? 0 : min; }
+	
+	/**
+	 * Returns the largest added value
+	 * @return the maximum, or 0 if no values were added
+	 */
+	public double getMax() { return count == 0 ? 0 : max; }
+	
+	/**
+	 * Returns the sample variance of the added values
+	 * @return the variance, or 0 if there are less than two values
+	 */
+	public double getVariance()
+	{
+		if ( count < 2 )
+		{
+			return 0;
+		}
+		
+		return sumOfSquares / ( count - 1 );
+	}
+	
+	/**
+	 * Returns the sample standard deviation of the added values
+	 * @return the standard deviation, or 0 if there are less than two values
+	 */
+	public double getStandardDeviation()
+	{
+		return Math.sqrt( getVariance() );
+	}
+}
@@ -0,0 +1,60 @@
+package simulationEngine;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RunningStatisticTest {
+
+	@Test
+	public void testEmpty()
+	{
+		RunningStatistic s = new RunningStatistic();
+		assertEquals(s.getCount(),0);
+		assertEquals(s.getMean(),0,0);
+		assertEquals(s.getMin(),0,0);
+		assertEquals(s.getMax(),0,0);
+		assertEquals(s.getVariance(),0,0);
+	}
+	
+	@Test
+	public void testAdd()
+	{
+		RunningStatistic s = new RunningStatistic();
+		s.add(4);
+		s.add(9);
+		s.add(2);
+		s.add(5);
+		assertEquals(s.getCount(),4);
+		assertEquals(s.getMean(),5,1e-9);
+		assertEquals(s.getTotal(),20,1e-9);
+		assertEquals(s.getMin(),2,0);
+		assertEquals(s.getMax(),9,0);
+		assertEquals(s.getVariance(),26.0/3,1e-9);
+	}
+	
+	@Test
+	public void testMerge()
+	{
+		RunningStatistic a = new RunningStatistic();
+		RunningStatistic b = new RunningStatistic();
+		RunningStatistic all = new RunningStatistic();
+		for (int i = 0; i < 10; i++)
+		{
+			a.add(i * i);
+			all.add(i * i);
+		}
+		for (int i = 0; i < 7; i++)
+		{
+			b.add(100 - i);
+			all.add(100 - i);
+		}
+		a.merge(b);
+		a.merge(new RunningStatistic());
+		assertEquals(a.getCount(),all.getCount());
+		assertEquals(a.getMean(),all.getMean(),1e-9);
+		assertEquals(a.getVariance(),all.getVariance(),1e-9);
+		assertEquals(a.getMin(),0,0);
+		assertEquals(a.getMax(),100,0);
+	}
+}
@@ -0,0 +1,25 @@
+package simulationEngine;
+
+/**
+ * This is an interface for the clock that the simulation reads its time from.
+ * The threaded simulation reads the wall clock, while the discrete-event simulation reads a virtual clock
+ * that only moves forward when the next event is fired.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public interface SimClock
+{
+	/**
+	 * Returns the current time of the clock
+	 * @return the current time in milliseconds
+	 */
+	public long currentTimeMillis();
+	
+	/**
+	 * Returns the current time formatted for the simulation narrative (ex. " 3:14:15   ")
+	 * @return the formatted timestamp
+	 */
+	public String getTimestamp();
+}
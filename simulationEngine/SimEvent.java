@@ -0,0 +1,96 @@
+package simulationEngine;
+
+/**
+ * This class represents a single event scheduled on the EventQueue.
+ * Events are ordered by their time, and events scheduled for the same time fire in the order they were scheduled.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class SimEvent implements Comparable<SimEvent>
+{
+	/**
+	 * The simulated time (in milliseconds) that the event fires at
+	 */
+	private long time;
+	
+	/**
+	 * The order in which the event was scheduled (breaks ties between events at the same time)
+	 */
+	private long sequence;
+	
+	/**
+	 * The kind of event
+	 */
+	private SimEventType type;
+	
+	/**
+	 * The object that will handle the event when it fires
+	 */
+	private SimEventHandler handler;
+	
+	/**
+	 * Flags whether the event has been cancelled (cancelled events are skipped by the EventQueue)
+	 */
+	private boolean cancelled;
+	
+	/**
+	 * Creates a new SimEvent with the specified arguments. Events are created by the EventQueue when they are scheduled.
+	 * @param inTime: the simulated time the event fires at
+	 * @param inSequence: the order in which the event was scheduled
+	 * @param inType: the kind of event
+	 * @param inHandler: the object that will handle the event
+	 */
+	SimEvent( long inTime, long inSequence, SimEventType inType, SimEventHandler inHandler )
+	{
+		time = 		inTime;
+		sequence = 	inSequence;
+		type = 		inType;
+		handler = 	inHandler;
+		cancelled = false;
+	}
+	
+	/**
+	 * Returns the simulated time the event fires at
+	 * @return the event time in milliseconds
+	 */
+	public long getTime() { return time; }
+	
+	/**
+	 * Returns the kind of event
+	 * @return the event type
+	 */
+	public SimEventType getType() { return type; }
+	
+	/**
+	 * Returns the object that handles the event
+	 * @return the event handler
+	 */
+	public SimEventHandler getHandler() { return handler; }
+	
+	/**
+	 * Indicates whether the event has been cancelled
+	 * @return true if the event will be skipped, otherwise false
+	 */
+	public boolean isCancelled() { return cancelled; }
+	
+	/**
+	 * Cancels the event so that it is skipped when its time comes
+	 */
+	public void cancel() { cancelled = true; }
+	
+	/**
+	 * Orders events by time, then by the order they were scheduled in
+	 */
+	@Override
+	public int compareTo( SimEvent other )
+	{
+		if ( time != other.time )
+		{
+			return time < other.time ? -1 : 1;
+		}
+		
+		return sequence < other.sequence ? -1 : ( sequence == other.sequence ? 0 : 1 );
+	}
+}
@@ -0,0 +1,18 @@
+package simulationEngine;
+
+/**
+ * This is an interface for any object that reacts to events fired by the EventQueue.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public interface SimEventHandler
+{
+	/**
+	 * Called by the EventQueue when an event scheduled for this handler fires.
+	 * The queue's clock has already been advanced to the event's time.
+	 * @param event: the event that fired
+	 */
+	public void handleEvent( SimEvent event );
+}
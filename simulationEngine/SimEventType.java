@@ -0,0 +1,36 @@
+package simulationEngine;
+
+/**
+ * This enumerates the kinds of events that are scheduled on the EventQueue.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public enum SimEventType
+{
+	/**
+	 * A person is generated on a floor and presses the call box
+	 */
+	PERSON_ARRIVAL,
+	/**
+	 * An elevator has finished passing a floor
+	 */
+	FLOOR_PASS,
+	/**
+	 * An elevator has finished opening its doors, exchanging people, and closing its doors
+	 */
+	DOOR_CYCLE,
+	/**
+	 * An idle elevator's wait has timed out (or it has been woken up early by a new destination)
+	 */
+	IDLE_TIMEOUT,
+	/**
+	 * The controller's batch window has ended, and the hall calls collected over it are assigned together
+	 */
+	BATCH_DISPATCH,
+	/**
+	 * The group optimizer's period has passed, and it searches for a better assignment of the hall calls
+	 */
+	GROUP_OPTIMIZE
+}
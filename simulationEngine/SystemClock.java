@@ -0,0 +1,38 @@
+package simulationEngine;
+
+import java.util.Calendar;
+
+/**
+ * This class is the wall clock implementation of SimClock. It is used when the elevators run on their own threads
+ * and actually sleep through their floor and door times.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class SystemClock implements SimClock
+{
+	/**
+	 * Returns the current wall clock time
+	 * @return the current time in milliseconds
+	 */
+	@Override
+	public long currentTimeMillis()
+	{
+		return System.currentTimeMillis();
+	}
+	
+	/**
+	 * Returns the current wall clock time formatted as hours, minutes and seconds
+	 * @return the formatted timestamp
+	 */
+	@Override
+	public String getTimestamp()
+	{
+		Calendar calendar = Calendar.getInstance();
+		
+		return String.format( "%2d:%2d:%2d   ", 	calendar.get( Calendar.HOUR ), 
+													calendar.get( Calendar.MINUTE ),
+													calendar.get( Calendar.SECOND ) );
+	}
+}
@@ -0,0 +1,62 @@
+package simulationEngine;
+
+/**
+ * This class is the virtual clock implementation of SimClock. It starts at zero and is only moved forward by the EventQueue,
+ * so simulated time passes as fast as the events can be processed.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class VirtualClock implements SimClock
+{
+	/**
+	 * Stores the current simulated time in milliseconds
+	 */
+	private long now;
+	
+	/**
+	 * Creates a new VirtualClock starting at time zero
+	 */
+	public VirtualClock()
+	{
+		now = 0;
+	}
+	
+	/**
+	 * Returns the current simulated time
+	 * @return the simulated time in milliseconds
+	 */
+	@Override
+	public long currentTimeMillis()
+	{
+		return now;
+	}
+	
+	/**
+	 * Returns the elapsed simulated time formatted as hours, minutes and seconds
+	 * @return the formatted timestamp
+	 */
+	@Override
+	public String getTimestamp()
+	{
+		long seconds = now / 1000;
+		
+		return String.format( "%2d:%2d:%2d   ", seconds / 3600, ( seconds / 60 ) % 60, seconds % 60 );
+	}
+	
+	/**
+	 * Moves the clock forward to the given time (the clock never moves backwards)
+	 * @param time: the simulated time in milliseconds to advance to
+	 * @throws IllegalArgumentException if the given time is before the current time
+	 */
+	public void advanceTo( long time ) throws IllegalArgumentException
+	{
+		if ( time < now )
+		{
+			throw new IllegalArgumentException( "Cannot move the clock backwards, currently at " + now + ", got " + time );
+		}
+		
+		now = time;
+	}
+}
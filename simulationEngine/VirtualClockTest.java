@@ -0,0 +1,31 @@
+package simulationEngine;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class VirtualClockTest {
+
+	@Test
+	public void testStartsAtZero()
+	{
+		VirtualClock clock = new VirtualClock();
+		assertEquals( clock.currentTimeMillis(), 0 );
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void noMovingBackwards()
+	{
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo( 5000 );
+		clock.advanceTo( 4000 );
+	}
+	
+	@Test
+	public void testTimestamp()
+	{
+		VirtualClock clock = new VirtualClock();
+		clock.advanceTo( 3723000 );
+		assertEquals( clock.getTimestamp(), " 1: 2: 3   " );
+	}
+}
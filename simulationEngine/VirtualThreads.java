@@ -0,0 +1,76 @@
+package simulationEngine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * This class starts tasks on virtual threads when the Java runtime has them (Java 21 and up), so thousands of elevators
+ * don't need thousands of operating system threads. It is looked up by reflection so the simulator still builds and runs
+ * on older runtimes, where the tasks fall back to ordinary platform threads.
+ * 
+ * @author Jeremy Ma
+ * @author Hannah Spearman
+ * 
+ */
+public class VirtualThreads
+{
+	/**
+	 * Thread.startVirtualThread(Runnable), or null if the runtime doesn't have virtual threads
+	 */
+	private static final Method START_VIRTUAL_THREAD = findStartVirtualThread();
+	
+	/**
+	 * Checks whether the runtime can start virtual threads
+	 * @return true if tasks started with start( task, true ) run on virtual threads, otherwise false
+	 */
+	public static boolean isSupported()
+	{
+		return START_VIRTUAL_THREAD != null;
+	}
+	
+	/**
+	 * Starts a task on a new thread
+	 * @param task: the task to run
+	 * @param virtual: true to run it on a virtual thread (if the runtime has them), false to run it on a platform thread
+	 * @return the started thread
+	 */
+	public static Thread start( Runnable task, boolean virtual )
+	{
+		if ( virtual && START_VIRTUAL_THREAD != null )
+		{
+			try
+			{
+				return ( Thread ) START_VIRTUAL_THREAD.invoke( null, task );
+			}
+			catch ( IllegalAccessException e )
+			{
+				throw new RuntimeException( "Couldn't start a virtual thread.", e );
+			}
+			catch ( InvocationTargetException e )
+			{
+				throw new RuntimeException( "Couldn't start a virtual thread.", e.getCause() );
+			}
+		}
+		
+		Thread thread = new Thread( task );
+		thread.start();
+		
+		return thread;
+	}
+	
+	/**
+	 * Looks up Thread.startVirtualThread(Runnable)
+	 * @return the method, or null if the runtime doesn't have it
+	 */
+	private static Method findStartVirtualThread()
+	{
+		try
+		{
+			return Thread.class.getMethod( "startVirtualThread", Runnable.class );
+		}
+		catch ( NoSuchMethodException e )
+		{
+			return null;
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package simulationEngine;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+	private volatile boolean ran;
+	
+	@Test
+	public void testStart() throws InterruptedException
+	{
+		boolean[] modes = {false, true};
+		for (boolean virtual : modes)
+		{
+			ran = false;
+			Thread t = VirtualThreads.start(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					ran = true;
+				}
+			}, virtual);
+			t.join();
+			assertTrue(ran);
+		}
+	}
+	
+	@Test
+	public void testSupported()
+	{
+		boolean hasMethod;
+		try
+		{
+			Thread.class.getMethod("startVirtualThread", Runnable.class);
+			hasMethod = true;
+		}
+		catch (NoSuchMethodException e)
+		{
+			hasMethod = false;
+		}
+		assertEquals(VirtualThreads.isSupported(),hasMethod);
+	}
+}